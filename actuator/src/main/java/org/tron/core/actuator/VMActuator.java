@@ -224,6 +224,8 @@ public class VMActuator implements Actuator2 {
           if (result.getException() != null) {
             result.setRuntimeError(result.getException().getMessage());
             result.rejectInternalTransactions();
+          } else {
+            result.setEnergyRequired(program.getEnergyRequired());
           }
           context.setProgramResult(result);
           return;
@@ -471,6 +471,7 @@ public class EnergyCost {
     DataWord getEnergyLimitLeft = program.getEnergyLimitLeft().clone();
     getEnergyLimitLeft.sub(new DataWord(energyCost));
 
+    program.setRequestedCallEnergy(callEnergyWord.longValueSafe());
     DataWord adjustedCallEnergy = program.getCallEnergy(callEnergyWord, getEnergyLimitLeft);
     program.setAdjustedCallEnergy(adjustedCallEnergy);
     energyCost += adjustedCallEnergy.longValueSafe();
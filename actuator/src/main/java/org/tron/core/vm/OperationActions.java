@@ -1,6 +1,5 @@
 package org.tron.core.vm;
 
-import static org.tron.common.crypto.Hash.sha3;
 import static org.tron.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 
 import java.math.BigInteger;
@@ -23,93 +22,93 @@ public class OperationActions {
 
   public static void addAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.add(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void mulAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.mul(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void subAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.sub(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void divAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.div(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void sdivAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.sDiv(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void modAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.mod(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void sModAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.sMod(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void addModAction(Program program) {
     DataWord word1 = program.stackPop();
     DataWord word2 = program.stackPop();
-    DataWord word3 = program.stackPop();
+    DataWord word3 = program.stackPeek();
 
     word1.addmod(word2, word3);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void mulModAction(Program program) {
     DataWord word1 = program.stackPop();
     DataWord word2 = program.stackPop();
-    DataWord word3 = program.stackPop();
+    DataWord word3 = program.stackPeek();
 
     word1.mulmod(word2, word3);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void expAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.exp(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
@@ -118,16 +117,16 @@ public class OperationActions {
     BigInteger k = word1.value();
 
     if (k.compareTo(_32_) < 0) {
-      DataWord word2 = program.stackPop();
+      DataWord word2 = program.stackPeek();
       word2.signExtend(k.byteValue());
-      program.stackPush(word2);
+      program.stackReplaceTop(word2);
     }
     program.step();
   }
 
   public static void ltAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     if (word1.value().compareTo(word2.value()) < 0) {
       word1.and(DataWord.ZERO);
@@ -135,13 +134,13 @@ public class OperationActions {
     } else {
       word1.and(DataWord.ZERO);
     }
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void gtAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     if (word1.value().compareTo(word2.value()) > 0) {
       word1.and(DataWord.ZERO);
@@ -149,13 +148,13 @@ public class OperationActions {
     } else {
       word1.and(DataWord.ZERO);
     }
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void sltAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     if (word1.sValue().compareTo(word2.sValue()) < 0) {
       word1.and(DataWord.ZERO);
@@ -163,13 +162,13 @@ public class OperationActions {
     } else {
       word1.and(DataWord.ZERO);
     }
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void sgtAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     if (word1.sValue().compareTo(word2.sValue()) > 0) {
       word1.and(DataWord.ZERO);
@@ -177,13 +176,13 @@ public class OperationActions {
     } else {
       word1.and(DataWord.ZERO);
     }
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void eqAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     if (word1.xor(word2).isZero()) {
       word1.and(DataWord.ZERO);
@@ -191,60 +190,60 @@ public class OperationActions {
     } else {
       word1.and(DataWord.ZERO);
     }
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void isZeroAction(Program program) {
-    DataWord word1 = program.stackPop();
+    DataWord word1 = program.stackPeek();
     if (word1.isZero()) {
       word1.getData()[31] = 1;
     } else {
       word1.and(DataWord.ZERO);
     }
 
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void andAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.and(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void orAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.or(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void xorAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     word1.xor(word2);
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void notAction(Program program) {
-    DataWord word1 = program.stackPop();
+    DataWord word1 = program.stackPeek();
     word1.bnot();
 
-    program.stackPush(word1);
+    program.stackReplaceTop(word1);
     program.step();
   }
 
   public static void byteAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     final DataWord result;
     if (word1.value().compareTo(_32_) < 0) {
@@ -256,44 +255,42 @@ public class OperationActions {
       result = new DataWord();
     }
 
-    program.stackPush(result);
+    program.stackReplaceTop(result);
     program.step();
   }
 
   public static void shlAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     final DataWord result = word2.shiftLeft(word1);
-    program.stackPush(result);
+    program.stackReplaceTop(result);
     program.step();
   }
 
   public static void shrAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     final DataWord result = word2.shiftRight(word1);
-    program.stackPush(result);
+    program.stackReplaceTop(result);
     program.step();
   }
 
   public static void sarAction(Program program) {
     DataWord word1 = program.stackPop();
-    DataWord word2 = program.stackPop();
+    DataWord word2 = program.stackPeek();
 
     final DataWord result = word2.shiftRightSigned(word1);
-    program.stackPush(result);
+    program.stackReplaceTop(result);
     program.step();
   }
 
   public static void sha3Action(Program program) {
     DataWord memOffsetData = program.stackPop();
     DataWord lengthData = program.stackPop();
-    byte[] buffer = program
-        .memoryChunk(memOffsetData.intValueSafe(), lengthData.intValueSafe());
-
-    byte[] encoded = sha3(buffer);
+    byte[] encoded = program
+        .memorySha3(memOffsetData.intValueSafe(), lengthData.intValueSafe());
     DataWord word = new DataWord(encoded);
 
     program.stackPush(word);
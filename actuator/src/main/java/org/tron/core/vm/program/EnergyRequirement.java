@@ -0,0 +1,105 @@
+package org.tron.core.vm.program;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The least energy a frame of a constant call must start with to run as it did, worked out
+ * in one run from the energy it spent and the calls and creates it made, so that estimating
+ * does not search for it by running the call again and again.
+ *
+ * <p>Going backward from the end of the frame, each call must be left enough for its callee
+ * to need no more than it did, where all but one 64th of the energy left is forwarded, and
+ * enough for the caller to go on once it returns. A callee that failed used all it was given,
+ * so it must be given as little as the caller can afford to lose. Code reading the energy
+ * left, by GAS, may run otherwise with less, hence the estimate is to be verified.
+ */
+public class EnergyRequirement {
+
+  private final boolean allButOne64th;
+  private final List<Call> calls = new ArrayList<>();
+  private long usedAfterLastCall;
+
+  public EnergyRequirement(boolean allButOne64th) {
+    this.allButOne64th = allButOne64th;
+  }
+
+  /**
+   * @param before the energy used by the frame before the call, not counting what it forwards
+   * @param after the energy used by the frame once the call returned and refunded
+   * @param requested the energy the call asked to forward, Long.MAX_VALUE for a create
+   * @param stipend the energy given to the callee on top of what was forwarded
+   * @param required the energy the callee needed, with the code it saved for a create
+   * @param failed whether the callee failed and used all it was given
+   */
+  public void call(long before, long after, long requested, long stipend, long required,
+      boolean failed) {
+    calls.add(new Call(before - usedAfterLastCall, after - before, requested,
+        Math.max(0, required - stipend), failed));
+    usedAfterLastCall = after;
+  }
+
+  /**
+   * @param used the energy used by the frame at its end
+   * @return the energy the frame needed, Long.MAX_VALUE when no limit would do
+   */
+  public long required(long used) {
+    long left = Math.max(0, used - usedAfterLastCall);
+    for (int i = calls.size() - 1; i >= 0; i--) {
+      Call call = calls.get(i);
+      long available = call.failed ? availableToLose(call.requested, left)
+          : Math.max(availableToForward(call.required), add(left, call.used));
+      left = Math.max(0, add(call.own, available));
+    }
+    return left;
+  }
+
+  /**
+   * @return the least energy left from which the callee gets the one it needs
+   */
+  private long availableToForward(long needed) {
+    if (!allButOne64th || needed < 64) {
+      return needed;
+    }
+    // a - a / 64 >= n holds from a = n + (n - 64) / 63 + 1 on
+    return add(needed, (needed - 64) / 63 + 1);
+  }
+
+  /**
+   * @return the least energy left that keeps the caller going when the callee uses all it
+   *     gets of it
+   */
+  private long availableToLose(long requested, long needed) {
+    if (needed == 0) {
+      return 0;
+    }
+    if (!allButOne64th) {
+      return add(needed, requested);
+    }
+    // what is kept back is at least a 64th of the energy left
+    return needed > Long.MAX_VALUE / 64 ? add(needed, requested)
+        : Math.min(add(needed, requested), needed * 64);
+  }
+
+  private static long add(long a, long b) {
+    long sum = a + b;
+    return ((a ^ sum) & (b ^ sum)) < 0 ? (a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE) : sum;
+  }
+
+  private static final class Call {
+
+    private final long own;
+    private final long used;
+    private final long requested;
+    private final long required;
+    private final boolean failed;
+
+    private Call(long own, long used, long requested, long required, boolean failed) {
+      this.own = own;
+      this.used = used;
+      this.requested = requested;
+      this.required = required;
+      this.failed = failed;
+    }
+  }
+}
@@ -1,23 +1,35 @@
 package org.tron.core.vm.program;
 
 import static java.lang.Math.ceil;
-import static java.lang.Math.min;
 import static java.lang.String.format;
 import static org.tron.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 import static org.tron.common.utils.ByteUtil.oneByteToHexString;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.tron.common.crypto.Hash;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.core.vm.program.listener.ProgramListener;
 import org.tron.core.vm.program.listener.ProgramListenerAware;
 
+/**
+ * Memory of a program, kept in one contiguous buffer. The buffer grows by doubling
+ * so that a series of small extensions copies it only a logarithmic number of
+ * times, and every read or write is a single array copy at the given address.
+ * The allocated size still grows in chunks of 1 KiB and the size seen by the
+ * program in words of 32 bytes, as the energy of an extension is charged by the
+ * latter.
+ */
 public class Memory implements ProgramListenerAware {
 
   private static final int CHUNK_SIZE = 1024;
   private static final int WORD_SIZE = 32;
+  // the largest array most VMs are able to allocate
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
 
-  private List<byte[]> chunks = new LinkedList<>();
+  private byte[] buffer = EMPTY_BYTE_ARRAY;
+  private int allocated;
   private int softSize;
   private ProgramListener programListener;
 
@@ -33,26 +45,20 @@ public class Memory implements ProgramListenerAware {
 
     extend(address, size);
     byte[] data = new byte[size];
+    System.arraycopy(buffer, address, data, 0, size);
+    return data;
+  }
 
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    int toGrab = data.length;
-    int start = 0;
-
-    while (toGrab > 0) {
-      int copied = grabMax(chunkIndex, chunkOffset, toGrab, data, start);
-
-      // read next chunk from the start
-      ++chunkIndex;
-      chunkOffset = 0;
-
-      // mark remind
-      toGrab -= copied;
-      start += copied;
+  /**
+   * The keccak hash of the bytes read by {@link #read}, hashed in place.
+   */
+  public byte[] sha3(int address, int size) {
+    if (size <= 0) {
+      return Hash.sha3(EMPTY_BYTE_ARRAY);
     }
 
-    return data;
+    extend(address, size);
+    return Hash.sha3(buffer, address, size);
   }
 
   public void write(int address, byte[] data, int dataSize, boolean limited) {
@@ -65,27 +71,15 @@ public class Memory implements ProgramListenerAware {
       extend(address, dataSize);
     }
 
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    int toCapture = 0;
+    int toCapture;
     if (limited) {
       toCapture = (address + dataSize > softSize) ? softSize - address : dataSize;
     } else {
       toCapture = dataSize;
     }
 
-    int start = 0;
-    while (toCapture > 0) {
-      int captured = captureMax(chunkIndex, chunkOffset, toCapture, data, start);
-
-      // capture next chunk
-      ++chunkIndex;
-      chunkOffset = 0;
-
-      // mark remind
-      toCapture -= captured;
-      start += captured;
+    if (toCapture > 0) {
+      System.arraycopy(data, 0, buffer, address, toCapture);
     }
 
     if (programListener != null) {
@@ -105,9 +99,10 @@ public class Memory implements ProgramListenerAware {
     }
 
     final int newSize = Math.addExact(address, size);
-    int toAllocate = newSize - internalSize();
+    int toAllocate = newSize - allocated;
     if (toAllocate > 0) {
-      addChunks((int) ceil((double) toAllocate / CHUNK_SIZE));
+      allocate(Math.addExact(allocated,
+          (int) ceil((double) toAllocate / CHUNK_SIZE) * CHUNK_SIZE));
     }
 
     toAllocate = newSize - softSize;
@@ -121,19 +116,21 @@ public class Memory implements ProgramListenerAware {
     }
   }
 
+  /**
+   * Copies the word at the address straight into the array owned by the returned
+   * word. The word is not a view of the memory, the operations update the words
+   * they pop in place.
+   */
   public DataWord readWord(int address) {
-    return new DataWord(read(address, 32));
+    extend(address, WORD_SIZE);
+    byte[] data = new byte[WORD_SIZE];
+    System.arraycopy(buffer, address, data, 0, WORD_SIZE);
+    return new DataWord(data);
   }
 
   // just access expecting all data valid
   public byte readByte(int address) {
-
-    int chunkIndex = address / CHUNK_SIZE;
-    int chunkOffset = address % CHUNK_SIZE;
-
-    byte[] chunk = chunks.get(chunkIndex);
-
-    return chunk[chunkOffset];
+    return buffer[address];
   }
 
   @Override
@@ -174,35 +171,25 @@ public class Memory implements ProgramListenerAware {
   }
 
   public int internalSize() {
-    return chunks.size() * CHUNK_SIZE;
+    return allocated;
   }
 
+  /**
+   * The allocated memory in chunks of 1 KiB, copied out of the buffer.
+   */
   public List<byte[]> getChunks() {
-    return new LinkedList<>(chunks);
-  }
-
-  private int captureMax(int chunkIndex, int chunkOffset, int size, byte[] src, int srcPos) {
-
-    byte[] chunk = chunks.get(chunkIndex);
-    int toCapture = min(size, chunk.length - chunkOffset);
-
-    System.arraycopy(src, srcPos, chunk, chunkOffset, toCapture);
-    return toCapture;
-  }
-
-  private int grabMax(int chunkIndex, int chunkOffset, int size, byte[] dest, int destPos) {
-
-    byte[] chunk = chunks.get(chunkIndex);
-    int toGrab = min(size, chunk.length - chunkOffset);
-
-    System.arraycopy(chunk, chunkOffset, dest, destPos, toGrab);
-
-    return toGrab;
+    List<byte[]> chunks = new ArrayList<>(allocated / CHUNK_SIZE);
+    for (int offset = 0; offset < allocated; offset += CHUNK_SIZE) {
+      chunks.add(Arrays.copyOfRange(buffer, offset, offset + CHUNK_SIZE));
+    }
+    return chunks;
   }
 
-  private void addChunks(int num) {
-    for (int i = 0; i < num; ++i) {
-      chunks.add(new byte[CHUNK_SIZE]);
+  private void allocate(int newAllocated) {
+    if (newAllocated > buffer.length) {
+      int capacity = (int) Math.min(MAX_CAPACITY, (long) buffer.length << 1);
+      buffer = Arrays.copyOf(buffer, Math.max(newAllocated, capacity));
     }
+    allocated = newAllocated;
   }
 }
@@ -25,7 +25,6 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.bouncycastle.util.encoders.Hex;
@@ -88,7 +87,6 @@ import org.tron.core.vm.program.invoke.ProgramInvokeFactory;
 import org.tron.core.vm.program.listener.CompositeProgramListener;
 import org.tron.core.vm.program.listener.ProgramListenerAware;
 import org.tron.core.vm.program.listener.ProgramStorageChangeListener;
-import org.tron.core.vm.repository.Key;
 import org.tron.core.vm.repository.Repository;
 import org.tron.core.vm.trace.ProgramTrace;
 import org.tron.core.vm.trace.ProgramTraceListener;
@@ -111,9 +109,6 @@ public class Program {
   private static final String INVALID_TOKEN_ID_MSG = "not valid token id";
   private static final String REFUND_ENERGY_FROM_MESSAGE_CALL = "refund energy from message call";
   private static final String CALL_PRE_COMPILED = "call pre-compiled";
-  private static final int lruCacheSize = CommonParameter.getInstance().getSafeLruCacheSize();
-  private static final LRUMap<Key, ProgramPrecompile> programPrecompileLRUMap
-      = new LRUMap<>(lruCacheSize);
   private long nonce;
   private byte[] rootTransactionId;
   private InternalTransaction internalTransaction;
@@ -137,6 +132,10 @@ public class Program {
   private ProgramPrecompile programPrecompile;
   private int contractVersion;
   private DataWord adjustedCallEnergy;
+  @Setter
+  private long requestedCallEnergy;
+  // the calls of a constant call frame, for the energy it needed
+  private EnergyRequirement energyRequirement;
   @Getter
   @Setter
   private long contextContractFactor;
@@ -201,20 +200,8 @@ public class Program {
   }
 
   public ProgramPrecompile getProgramPrecompile() {
-    if (isConstantCall()) {
-      if (programPrecompile == null) {
-        programPrecompile = ProgramPrecompile.compile(ops);
-      }
-      return programPrecompile;
-    }
     if (programPrecompile == null) {
-      Key key = getJumpDestAnalysisCacheKey();
-      if (programPrecompileLRUMap.containsKey(key)) {
-        programPrecompile = programPrecompileLRUMap.get(key);
-      } else {
-        programPrecompile = ProgramPrecompile.compile(ops);
-        programPrecompileLRUMap.put(key, programPrecompile);
-      }
+      programPrecompile = ProgramPrecompile.getOrCompile(getCodeHash(), ops);
     }
     return programPrecompile;
   }
@@ -365,6 +352,18 @@ public class Program {
     return stack.pop();
   }
 
+  public DataWord stackPeek() {
+    return stack.peek();
+  }
+
+  /**
+   * Pushes the result of an operation over the top word it consumed, in place of a
+   * pop and a push.
+   */
+  public void stackReplaceTop(DataWord stackWord) {
+    stack.replaceTop(stackWord);
+  }
+
   /**
    * . Verifies that the stack is at least <code>stackSize</code>
    *
@@ -429,6 +428,10 @@ public class Program {
     return memory.read(offset, size);
   }
 
+  public byte[] memorySha3(int offset, int size) {
+    return memory.sha3(offset, size);
+  }
+
   /**
    * . Allocates extra memory in the program for a specified size, calculated from a given offset
    *
@@ -769,6 +772,7 @@ public class Program {
     }
 
     // actual energy subtract
+    long usedBefore = getResult().getEnergyUsed();
     DataWord energyLimit = this.getCreateEnergy(getEnergyLimitLeft());
     spendEnergy(energyLimit.longValue(), "internal call");
 
@@ -786,6 +790,7 @@ public class Program {
       programInvoke.setConstantCall();
     }
     ProgramResult createResult = ProgramResult.createEmpty();
+    long energyRequired = 0;
 
     if (contractAlreadyExists) {
       createResult.setException(new BytecodeExecutionException(
@@ -799,6 +804,7 @@ public class Program {
       }
       VM.play(program, OperationRegistry.getTable());
       createResult = program.getResult();
+      energyRequired = program.getEnergyRequired();
       getTrace().merge(program.getTrace());
       // always commit nonce
       this.nonce = program.nonce;
@@ -843,6 +849,7 @@ public class Program {
       stackPushZero();
 
       if (createResult.getException() != null) {
+        called(usedBefore, Long.MAX_VALUE, 0, 0, true);
         return;
       } else {
         returnDataBuffer = createResult.getHReturn();
@@ -858,6 +865,8 @@ public class Program {
 
     // 5. REFUND THE REMAIN Energy
     refundEnergyAfterVM(energyLimit, createResult);
+    called(usedBefore, Long.MAX_VALUE, 0,
+        createResult.isRevert() ? energyRequired : energyRequired + saveCodeEnergy, false);
   }
 
   public void refundEnergyAfterVM(DataWord energyLimit, ProgramResult result) {
@@ -882,6 +891,8 @@ public class Program {
    */
   public void callToAddress(MessageCall msg) {
     returnDataBuffer = null; // reset return buffer right before the call
+    long stipend = msg.getEndowment().isZero() ? 0 : EnergyCost.getStipendCallCost();
+    long usedBefore = getResult().getEnergyUsed() - msg.getEnergy().longValueSafe() + stipend;
 
     if (getCallDeep() == MAX_DEPTH) {
       stackPushZero();
@@ -1003,6 +1014,7 @@ public class Program {
         !isTokenTransfer ? endowment : 0, data, "call", nonce,
         !isTokenTransfer ? null : tokenInfo);
     ProgramResult callResult = null;
+    long energyRequired = 0;
     if (isNotEmpty(programCode)) {
       long vmStartInUs = System.nanoTime() / 1000;
       DataWord callValue;
@@ -1031,6 +1043,7 @@ public class Program {
       }
       VM.play(program, OperationRegistry.getTable());
       callResult = program.getResult();
+      energyRequired = program.getEnergyRequired();
 
       getTrace().merge(program.getTrace());
       getResult().merge(callResult);
@@ -1048,6 +1061,7 @@ public class Program {
         stackPushZero();
 
         if (callResult.getException() != null) {
+          called(usedBefore, requestedCallEnergy, stipend, 0, true);
           return;
         }
       } else {
@@ -1088,11 +1102,37 @@ public class Program {
               refundEnergy.toString());
         }
       }
+      called(usedBefore, requestedCallEnergy, stipend, energyRequired, false);
     } else {
       refundEnergy(msg.getEnergy().longValue(), "remaining energy from the internal call");
     }
   }
 
+  /**
+   * Records a call or create made by a constant call, which the energy it needed depends on.
+   */
+  private void called(long usedBefore, long requested, long stipend, long required,
+      boolean failed) {
+    if (!isConstantCall()) {
+      return;
+    }
+    if (energyRequirement == null) {
+      energyRequirement = new EnergyRequirement(
+          VMConfig.allowTvmCompatibleEvm() && getContractVersion() == 1);
+    }
+    energyRequirement.call(usedBefore, getResult().getEnergyUsed(), requested, stipend,
+        required, failed);
+  }
+
+  /**
+   * For a constant call, the least energy this frame must start with to run as it did, see
+   * {@link EnergyRequirement}.
+   */
+  public long getEnergyRequired() {
+    long used = getResult().getEnergyUsed();
+    return energyRequirement == null ? used : energyRequirement.required(used);
+  }
+
   public void increaseNonce() {
     nonce++;
   }
@@ -1213,10 +1253,6 @@ public class Program {
     return codeHash;
   }
 
-  private Key getJumpDestAnalysisCacheKey() {
-    return Key.create(ByteUtil.merge(codeAddress, getCodeHash()));
-  }
-
   public byte[] getContextAddress() {
     return invoke.getContractAddress().toTronAddress();
   }
@@ -1594,11 +1630,14 @@ public class Program {
       }
     }
 
+    long stipend = msg.getEndowment().isZero() ? 0 : EnergyCost.getStipendCallCost();
+    long usedBefore = getResult().getEnergyUsed() - msg.getEnergy().longValueSafe() + stipend;
     long requiredEnergy = contract.getEnergyForData(data);
     if (requiredEnergy > msg.getEnergy().longValue()) {
       // Not need to throw an exception, method caller needn't know that
       // regard as consumed the energy
       this.refundEnergy(0, CALL_PRE_COMPILED); //matches cpp logic
+      called(usedBefore, requestedCallEnergy, stipend, 0, true);
       this.stackPushZero();
     } else {
       // Delegate or not. if is delegated, we will use msg sender, otherwise use contract address
@@ -1616,12 +1655,14 @@ public class Program {
 
       if (out.getLeft()) { // success
         this.refundEnergy(msg.getEnergy().longValue() - requiredEnergy, CALL_PRE_COMPILED);
+        called(usedBefore, requestedCallEnergy, stipend, requiredEnergy, false);
         this.stackPushOne();
         returnDataBuffer = out.getRight();
         deposit.commit();
       } else {
         // spend all energy on failure, push zero and revert state changes
         this.refundEnergy(0, CALL_PRE_COMPILED);
+        called(usedBefore, requestedCallEnergy, stipend, 0, true);
         this.stackPushZero();
         if (Objects.nonNull(this.result.getException())) {
           throw result.getException();
@@ -1,24 +1,58 @@
 package org.tron.core.vm.program;
 
-import java.util.HashSet;
-import java.util.Set;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Arrays;
 import lombok.extern.slf4j.Slf4j;
+import org.tron.common.parameter.CommonParameter;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.core.vm.Op;
 import org.tron.core.vm.config.VMConfig;
+import org.tron.core.vm.repository.Key;
 
+/**
+ * The jump destinations of a piece of code, kept as a bitset indexed by pc.
+ * Analyses are shared by all programs running the same code through a cache
+ * keyed by the code hash. A cached analysis also keeps the code it was compiled
+ * from and is only used for that very code, so a stale or wrong hash, e.g. of a
+ * contract whose code is not saved yet or was destroyed and created again, can
+ * only cost a compilation and never a wrong jump.
+ */
 @Slf4j(topic = "VM")
 public class ProgramPrecompile {
 
-  private final Set<Integer> jumpDest = new HashSet<>();
+  private static final Cache<Key, ProgramPrecompile> CACHE = CacheBuilder.newBuilder()
+      .maximumSize(CommonParameter.getInstance().getSafeLruCacheSize())
+      .build();
+
+  private final byte[] code;
+  private final long[] jumpDest;
+
+  private ProgramPrecompile(byte[] code) {
+    this.code = code;
+    this.jumpDest = new long[(code.length + 63) >>> 6];
+  }
+
+  /**
+   * Returns the cached analysis of the code, compiling and caching it on a miss.
+   */
+  public static ProgramPrecompile getOrCompile(byte[] codeHash, byte[] ops) {
+    Key key = Key.create(codeHash);
+    ProgramPrecompile ret = CACHE.getIfPresent(key);
+    if (ret == null || !ret.isCompiledFrom(ops)) {
+      ret = compile(ops);
+      CACHE.put(key, ret);
+    }
+    return ret;
+  }
 
   public static ProgramPrecompile compile(byte[] ops) {
-    ProgramPrecompile ret = new ProgramPrecompile();
+    ProgramPrecompile ret = new ProgramPrecompile(ops);
     for (int i = 0; i < ops.length; ++i) {
       int op = ops[i] & 0xff;
 
       if (op == Op.JUMPDEST) {
-        ret.jumpDest.add(i);
+        ret.jumpDest[i >>> 6] |= 1L << i;
       }
 
       if (op >= Op.PUSH1 && op <= Op.PUSH32) {
@@ -54,6 +88,10 @@ public class ProgramPrecompile {
   }
 
   public boolean hasJumpDest(int pc) {
-    return jumpDest.contains(pc);
+    return pc >= 0 && (pc >>> 6) < jumpDest.length && (jumpDest[pc >>> 6] & (1L << pc)) != 0;
+  }
+
+  boolean isCompiledFrom(byte[] ops) {
+    return code == ops || Arrays.equals(code, ops);
   }
 }
@@ -1,35 +1,96 @@
 package org.tron.core.vm.program;
 
+import java.util.Arrays;
+import java.util.EmptyStackException;
 import java.util.Objects;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.core.vm.program.listener.ProgramListener;
 import org.tron.core.vm.program.listener.ProgramListenerAware;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+/**
+ * Operand stack of a program. Backed by a plain array without any locking, a program
+ * is only ever executed by one thread. The words are kept as {@link DataWord}
+ * objects, the operations update the popped words in place and push them back.
+ */
+public class Stack implements ProgramListenerAware {
 
-  private static final long serialVersionUID = 1;
+  // the limit of the TVM, checked by the program before every push
+  static final int CAPACITY = 1024;
+  private static final int INITIAL_CAPACITY = 32;
 
-  private transient ProgramListener programListener;
+  private DataWord[] words = new DataWord[INITIAL_CAPACITY];
+  private int size;
+
+  private ProgramListener programListener;
 
   @Override
   public void setProgramListener(ProgramListener listener) {
     this.programListener = listener;
   }
 
-  @Override
-  public synchronized DataWord pop() {
+  public DataWord pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
     if (programListener != null) {
       programListener.onStackPop();
     }
-    return super.pop();
+    DataWord word = words[--size];
+    words[size] = null;
+    return word;
   }
 
-  @Override
   public DataWord push(DataWord item) {
     if (programListener != null) {
       programListener.onStackPush(item);
     }
-    return super.push(item);
+    if (size == words.length) {
+      words = Arrays.copyOf(words, Math.max(size + 1, Math.min(size << 1, CAPACITY)));
+    }
+    words[size++] = item;
+    return item;
+  }
+
+  /**
+   * Replaces the top word with the result of an operation that consumed it, the
+   * listener sees the same pop and push as with {@link #pop} and {@link #push}.
+   */
+  public void replaceTop(DataWord item) {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    if (programListener != null) {
+      programListener.onStackPop();
+      programListener.onStackPush(item);
+    }
+    words[size - 1] = item;
+  }
+
+  public DataWord peek() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    return words[size - 1];
+  }
+
+  public DataWord get(int index) {
+    checkIndex(index);
+    return words[index];
+  }
+
+  public DataWord set(int index, DataWord item) {
+    checkIndex(index);
+    DataWord old = words[index];
+    words[index] = item;
+    return old;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
   }
 
   public void swap(int from, int to) {
@@ -37,8 +98,9 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
       if (programListener != null) {
         programListener.onStackSwap(from, to);
       }
-      DataWord tmp = get(from);
-      set(from, set(to, tmp));
+      DataWord tmp = words[from];
+      words[from] = words[to];
+      words[to] = tmp;
     }
   }
 
@@ -46,6 +108,12 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     return from >= 0 && from < size();
   }
 
+  private void checkIndex(int index) {
+    if (!isAccessible(index)) {
+      throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     if (o == null) {
@@ -57,16 +125,29 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
     if (o.getClass() != this.getClass()) {
       return false;
     }
-    if (!super.equals(o)) {
+    Stack dataWords = (Stack) o;
+    if (size != dataWords.size) {
       return false;
     }
-    Stack dataWords = (Stack) o;
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(words[i], dataWords.words[i])) {
+        return false;
+      }
+    }
     return Objects.equals(programListener, dataWords.programListener);
   }
 
-
   @Override
   public int hashCode() {
-    return Objects.hash(super.hashCode(), programListener);
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + Objects.hashCode(words[i]);
+    }
+    return Objects.hash(result, programListener);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(Arrays.copyOf(words, size));
   }
 }
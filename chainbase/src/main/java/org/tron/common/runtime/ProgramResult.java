@@ -27,6 +27,11 @@ public class ProgramResult {
   @Getter
   private long energyPenaltyTotal = 0;
 
+  // for a constant call, the least energy limit it runs as it did with
+  @Getter
+  @Setter
+  private long energyRequired = 0;
+
   private byte[] hReturn = EMPTY_BYTE_ARRAY;
   private byte[] contractAddress = EMPTY_BYTE_ARRAY;
   private RuntimeException exception;
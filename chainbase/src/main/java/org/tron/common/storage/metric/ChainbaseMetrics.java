@@ -0,0 +1,139 @@
+package org.tron.common.storage.metric;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.tron.common.cache.CacheType;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
+
+/**
+ * Latency, lookup depth and bytes of the reads and writes of each chainbase, on when both
+ * prometheus and node.metrics.prometheus.chainbase are, the latter may be switched by the
+ * dynamic config. When off, an operation only pays the check of two flags.
+ */
+public final class ChainbaseMetrics {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private static final Map<String, Db> DBS = new ConcurrentHashMap<>();
+
+  private ChainbaseMetrics() {
+    throw new IllegalStateException("ChainbaseMetrics");
+  }
+
+  public static boolean enabled() {
+    return CommonParameter.getInstance().isMetricsChainbaseEnable() && Metrics.enabled();
+  }
+
+  public static Db of(String dbName) {
+    return DBS.computeIfAbsent(dbName, Db::new);
+  }
+
+  /**
+   * Starts counting the bytes of a block, dropping those read since the last one.
+   */
+  public static void blockBegin() {
+    DBS.values().forEach(Db::reset);
+  }
+
+  public static void blockEnd() {
+    if (enabled()) {
+      DBS.values().forEach(Db::report);
+    }
+  }
+
+  public static final class Db {
+
+    private final String name;
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private Db(String name) {
+      this.name = name;
+    }
+
+    /**
+     * @return the start of an operation, 0 when the metrics are off
+     */
+    public long start() {
+      return enabled() ? System.nanoTime() : 0;
+    }
+
+    public void read(String op, long start, byte[] value) {
+      read(op, start, value == null ? 0 : value.length);
+    }
+
+    public void read(String op, long start, long bytes) {
+      if (start == 0) {
+        return;
+      }
+      observe(op, start);
+      bytesRead.add(bytes);
+    }
+
+    /**
+     * Observes the latency only, for an operation whose bytes are counted by its caller.
+     */
+    public void latency(String op, long start) {
+      if (start != 0) {
+        observe(op, start);
+      }
+    }
+
+    public void write(String op, long start, byte[] value) {
+      if (start == 0) {
+        return;
+      }
+      observe(op, start);
+      if (value != null) {
+        bytesWritten.add(value.length);
+      }
+    }
+
+    /**
+     * @param layers the snapshot layers walked before the key was found, all of them
+     *     when it was read from the root
+     */
+    public void depth(int layers) {
+      if (enabled()) {
+        Metrics.histogramObserve(MetricKeys.Histogram.DB_LOOKUP_DEPTH, layers, name);
+      }
+    }
+
+    /**
+     * @param type the cache of the root, the label rather than the db name
+     */
+    public void cache(CacheType type, boolean hit) {
+      if (enabled()) {
+        Metrics.counterInc(MetricKeys.Counter.DB_CACHE, 1, type.name(),
+            hit ? MetricLabels.Counter.DB_CACHE_HIT : MetricLabels.Counter.DB_CACHE_MISS);
+      }
+    }
+
+    private void observe(String op, long start) {
+      Metrics.histogramObserve(MetricKeys.Histogram.DB_OP_LATENCY,
+          (System.nanoTime() - start) / NANOS_PER_SECOND, name, op);
+    }
+
+    private void reset() {
+      bytesRead.reset();
+      bytesWritten.reset();
+    }
+
+    private void report() {
+      long read = bytesRead.sumThenReset();
+      long written = bytesWritten.sumThenReset();
+      if (read > 0) {
+        Metrics.histogramObserve(MetricKeys.Histogram.DB_BLOCK_BYTES, read, name,
+            MetricLabels.Histogram.DB_BYTES_READ);
+      }
+      if (written > 0) {
+        Metrics.histogramObserve(MetricKeys.Histogram.DB_BLOCK_BYTES, written, name,
+            MetricLabels.Histogram.DB_BYTES_WRITTEN);
+      }
+    }
+  }
+}
@@ -0,0 +1,268 @@
+package org.tron.common.storage.rocksdb;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Checkpoint;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.ComparatorOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.DirectComparator;
+import org.rocksdb.InfoLogLevel;
+import org.rocksdb.Logger;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.Status;
+import org.rocksdb.WriteBatch;
+import org.slf4j.LoggerFactory;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.setting.RocksDbSettings;
+import org.tron.common.storage.WriteOptionsWrapper;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.MarketOrderPriceComparatorForRockDB;
+import org.tron.common.utils.PropUtil;
+import org.tron.common.utils.StorageUtils;
+
+/**
+ * One rocksdb instance holding the stores as column families, opened by the first store and
+ * closed with the last one. The stores share its block cache, wal and write batches, so that
+ * the snapshots of all of them are flushed by one atomic write.
+ *
+ * <p>The stores that are dropped and created by name, the checkpoints and the tmp store, as
+ * well as the trans-cache, keep an instance of their own.
+ */
+@Slf4j(topic = "DB")
+public final class RocksDbColumnFamilies {
+
+  public static final String NAME = "chainbase";
+
+  private static final String KEY_ENGINE = "ENGINE";
+  private static final String ROCKSDB = "ROCKSDB";
+  private static final String MARKET_PAIR_PRICE_TO_ORDER = "market_pair_price_to_order";
+  private static final List<String> OWN_INSTANCE = Arrays.asList("trans-cache", "tmp");
+  private static final String CHECKPOINT_PREFIX = "checkpoint";
+  private static final org.slf4j.Logger rocksDbLogger = LoggerFactory.getLogger(ROCKSDB);
+
+  private static RocksDbColumnFamilies instance;
+
+  private final String path;
+  private final Map<String, ColumnFamilyHandle> handles = new HashMap<>();
+  private final List<ColumnFamilyOptions> columnFamilyOptions = new ArrayList<>();
+  private DBOptions options;
+  private RocksDB database;
+  private int sources;
+
+  private RocksDbColumnFamilies(String path) {
+    this.path = path;
+  }
+
+  public static boolean isEnabled() {
+    return CommonParameter.getInstance().getStorage().isDbColumnFamilies()
+        && ROCKSDB.equalsIgnoreCase(CommonParameter.getInstance().getStorage().getDbEngine());
+  }
+
+  /**
+   * @return whether the store is a column family of the shared instance
+   */
+  public static boolean isShared(String dbName) {
+    return isEnabled() && !OWN_INSTANCE.contains(dbName)
+        && !dbName.startsWith(CHECKPOINT_PREFIX);
+  }
+
+  public static synchronized RocksDbColumnFamilies getInstance() {
+    if (instance == null) {
+      instance = new RocksDbColumnFamilies(Paths.get(StorageUtils.getOutputDirectory(),
+          CommonParameter.getInstance().getStorage().getDbDirectory(), NAME).toString());
+    }
+    return instance;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  synchronized RocksDB getDatabase() {
+    return database;
+  }
+
+  /**
+   * Opens the column family of a store, created if missing, the instance with the first one.
+   */
+  synchronized ColumnFamilyHandle acquire(String name, DirectComparator comparator) {
+    if (database == null) {
+      open();
+    }
+    ColumnFamilyHandle handle = handles.get(name);
+    if (handle == null) {
+      try {
+        handle = database.createColumnFamily(new ColumnFamilyDescriptor(
+            name.getBytes(StandardCharsets.UTF_8), newColumnFamilyOptions(comparator)));
+      } catch (RocksDBException e) {
+        throw new RuntimeException(String.format("failed to create column family: %s", name), e);
+      }
+      handles.put(name, handle);
+    }
+    sources++;
+    return handle;
+  }
+
+  /**
+   * Releases the column family of a closed store, the instance with the last one.
+   */
+  synchronized void release() {
+    if (--sources > 0 || database == null) {
+      return;
+    }
+    handles.values().forEach(ColumnFamilyHandle::close);
+    handles.clear();
+    database.close();
+    database = null;
+    options.close();
+    columnFamilyOptions.forEach(ColumnFamilyOptions::close);
+    columnFamilyOptions.clear();
+    synchronized (RocksDbColumnFamilies.class) {
+      if (instance == this) {
+        instance = null;
+      }
+    }
+  }
+
+  synchronized void drop(String name) throws RocksDBException {
+    ColumnFamilyHandle handle = handles.remove(name);
+    if (handle != null) {
+      database.dropColumnFamily(handle);
+      handle.close();
+    }
+  }
+
+  /**
+   * Writes a batch across the column families, all of it or nothing.
+   */
+  public void write(WriteBatch batch, boolean sync) throws RocksDBException {
+    getDatabase().write(WriteOptionsWrapper.getInstance().sync(sync).rocks, batch);
+  }
+
+  /**
+   * Checkpoints the whole instance once, for the first of its stores backed up to the dir.
+   */
+  synchronized void backup(String dir) throws RocksDBException {
+    if (!new File(dir + NAME).exists()) {
+      Checkpoint.create(database).createCheckpoint(dir + NAME);
+    }
+  }
+
+  private void open() {
+    if (!checkOrInitEngine()) {
+      throw new RuntimeException(
+          String.format("failed to check database: %s, engine do not match", NAME));
+    }
+    RocksDbSettings settings = RocksDbSettings.getSettings();
+    options = new DBOptions();
+    if (settings.isEnableStatistics()) {
+      options.setStatistics(new Statistics());
+      options.setStatsDumpPeriodSec(60);
+    }
+    options.setCreateIfMissing(true);
+    options.setCreateMissingColumnFamilies(true);
+    options.setIncreaseParallelism(1);
+    options.setMaxOpenFiles(settings.getMaxOpenFiles());
+    options.setMaxBackgroundCompactions(settings.getCompactThreads());
+    options.setLogger(new Logger(options) {
+      @Override
+      protected void log(InfoLogLevel infoLogLevel, String logMsg) {
+        rocksDbLogger.info("{} {}", NAME, logMsg);
+      }
+    });
+
+    List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+    for (byte[] name : listColumnFamilies()) {
+      // an existing column family is opened with the comparator it was created with
+      DirectComparator comparator = MARKET_PAIR_PRICE_TO_ORDER.equals(
+          new String(name, StandardCharsets.UTF_8))
+          ? new MarketOrderPriceComparatorForRockDB(new ComparatorOptions()) : null;
+      descriptors.add(new ColumnFamilyDescriptor(name, newColumnFamilyOptions(comparator)));
+    }
+    List<ColumnFamilyHandle> opened = new ArrayList<>();
+    try {
+      logger.info("Opening database {} with {} column families.", NAME, descriptors.size());
+      database = RocksDB.open(options, path, descriptors, opened);
+    } catch (RocksDBException e) {
+      if (Objects.equals(e.getStatus().getCode(), Status.Code.Corruption)) {
+        logger.error("Database {} corrupted, please delete database directory({}) "
+            + "and restart.", NAME, path, e);
+      } else {
+        logger.error("Open Database {} failed", NAME, e);
+      }
+      System.exit(1);
+    }
+    for (int i = 0; i < descriptors.size(); i++) {
+      handles.put(new String(descriptors.get(i).columnFamilyName(), StandardCharsets.UTF_8),
+          opened.get(i));
+    }
+  }
+
+  private List<byte[]> listColumnFamilies() {
+    List<byte[]> names = new ArrayList<>();
+    names.add(RocksDB.DEFAULT_COLUMN_FAMILY);
+    if (!new File(path, "CURRENT").exists()) {
+      return names;
+    }
+    try (Options listOptions = new Options()) {
+      RocksDB.listColumnFamilies(listOptions, path).stream()
+          .filter(name -> !Arrays.equals(name, RocksDB.DEFAULT_COLUMN_FAMILY))
+          .forEach(names::add);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(String.format("failed to list column families: %s", path), e);
+    }
+    return names;
+  }
+
+  private ColumnFamilyOptions newColumnFamilyOptions(DirectComparator comparator) {
+    RocksDbSettings settings = RocksDbSettings.getSettings();
+    ColumnFamilyOptions cfOptions = new ColumnFamilyOptions();
+    cfOptions.setLevelCompactionDynamicLevelBytes(true);
+    cfOptions.setNumLevels(settings.getLevelNumber());
+    cfOptions.setMaxBytesForLevelMultiplier(settings.getMaxBytesForLevelMultiplier());
+    cfOptions.setMaxBytesForLevelBase(settings.getMaxBytesForLevelBase());
+    cfOptions.setLevel0FileNumCompactionTrigger(settings.getLevel0FileNumCompactionTrigger());
+    cfOptions.setTargetFileSizeMultiplier(settings.getTargetFileSizeMultiplier());
+    cfOptions.setTargetFileSizeBase(settings.getTargetFileSizeBase());
+    if (comparator != null) {
+      cfOptions.setComparator(comparator);
+    }
+    BlockBasedTableConfig tableCfg = new BlockBasedTableConfig();
+    tableCfg.setBlockSize(settings.getBlockSize());
+    tableCfg.setBlockCache(RocksDbSettings.getCache());
+    tableCfg.setCacheIndexAndFilterBlocks(true);
+    tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
+    tableCfg.setFilter(new BloomFilter(10, false));
+    cfOptions.setTableFormatConfig(tableCfg);
+    columnFamilyOptions.add(cfOptions);
+    return cfOptions;
+  }
+
+  private boolean checkOrInitEngine() {
+    String enginePath = path + File.separator + "engine.properties";
+    if (!FileUtil.createDirIfNotExists(path) || !FileUtil.createFileIfNotExists(enginePath)) {
+      return false;
+    }
+    String engine = PropUtil.readProperty(enginePath, KEY_ENGINE);
+    if (engine.isEmpty() && !PropUtil.writeProperty(enginePath, KEY_ENGINE, ROCKSDB)) {
+      return false;
+    }
+    return ROCKSDB.equals(PropUtil.readProperty(enginePath, KEY_ENGINE));
+  }
+}
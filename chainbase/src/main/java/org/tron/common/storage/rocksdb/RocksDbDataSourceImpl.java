@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
 import org.rocksdb.Checkpoint;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.DirectComparator;
 import org.rocksdb.InfoLogLevel;
 import org.rocksdb.Logger;
@@ -61,6 +62,9 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   private static final String KEY_ENGINE = "ENGINE";
   private static final String ROCKSDB = "ROCKSDB";
   private DirectComparator comparator;
+  // a column family of the shared instance, else the default one of an instance of its own
+  private boolean shared;
+  private ColumnFamilyHandle columnFamily;
   private static final org.slf4j.Logger rocksDbLogger = LoggerFactory.getLogger(ROCKSDB);
 
   public RocksDbDataSourceImpl(String parentPath, String name, RocksDbSettings settings,
@@ -72,6 +76,19 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     initDB();
   }
 
+  /**
+   * A store as a column family of the shared instance, see {@link RocksDbColumnFamilies}.
+   */
+  public RocksDbDataSourceImpl(String name, RocksDbSettings settings,
+      DirectComparator comparator) {
+    this.dataBaseName = name;
+    this.parentPath = RocksDbColumnFamilies.getInstance().getPath();
+    this.comparator = comparator;
+    this.shared = true;
+    RocksDbSettings.setRocksDbSettings(settings);
+    initDB();
+  }
+
   public RocksDbDataSourceImpl(String parentPath, String name, RocksDbSettings settings) {
     this.dataBaseName = name;
     this.parentPath = parentPath;
@@ -96,6 +113,10 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     return alive;
   }
 
+  public boolean isColumnFamily() {
+    return shared;
+  }
+
   @Override
   public void closeDB() {
     resetDbLock.writeLock().lock();
@@ -103,7 +124,11 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (!isAlive()) {
         return;
       }
-      database.close();
+      if (shared) {
+        RocksDbColumnFamilies.getInstance().release();
+      } else {
+        database.close();
+      }
       alive = false;
     } catch (Exception e) {
       logger.error("Failed to find the dbStore file on the closeDB: {}.", dataBaseName, e);
@@ -116,9 +141,16 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   public void resetDb() {
     resetDbLock.writeLock().lock();
     try {
+      if (shared) {
+        RocksDbColumnFamilies.getInstance().drop(dataBaseName);
+      }
       closeDB();
-      FileUtil.recursiveDelete(getDbPath().toString());
+      if (!shared) {
+        FileUtil.recursiveDelete(getDbPath().toString());
+      }
       initDB();
+    } catch (RocksDBException e) {
+      throw new RuntimeException(dataBaseName, e);
     } finally {
       resetDbLock.writeLock().unlock();
     }
@@ -192,6 +224,10 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   public void initDB() {
+    if (shared) {
+      initColumnFamily();
+      return;
+    }
     if (!checkOrInitEngine()) {
       throw new RuntimeException(
           String.format("failed to check database: %s, engine do not match", dataBaseName));
@@ -199,6 +235,23 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     initDB(RocksDbSettings.getSettings());
   }
 
+  private void initColumnFamily() {
+    resetDbLock.writeLock().lock();
+    try {
+      if (isAlive()) {
+        return;
+      }
+      RocksDbColumnFamilies columnFamilies = RocksDbColumnFamilies.getInstance();
+      columnFamily = columnFamilies.acquire(dataBaseName, comparator);
+      database = columnFamilies.getDatabase();
+      readOpts = new ReadOptions().setPrefixSameAsStart(true).setVerifyChecksums(false);
+      alive = true;
+      logger.debug("Init column family {} done.", dataBaseName);
+    } finally {
+      resetDbLock.writeLock().unlock();
+    }
+  }
+
   public void initDB(RocksDbSettings settings) {
     resetDbLock.writeLock().lock();
     try {
@@ -265,6 +318,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
 
           try {
             database = RocksDB.open(options, dbPath.toString());
+            columnFamily = database.getDefaultColumnFamily();
           } catch (RocksDBException e) {
             if (Objects.equals(e.getStatus().getCode(), Status.Code.Corruption)) {
               logger.error("Database {} corrupted, please delete database directory({}) " +
@@ -295,7 +349,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (quitIfNotAlive()) {
         return;
       }
-      database.put(key, value);
+      database.put(columnFamily, key, value);
     } catch (RocksDBException e) {
       throw new RuntimeException(dataBaseName, e);
     } finally {
@@ -310,7 +364,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (quitIfNotAlive()) {
         return null;
       }
-      return database.get(key);
+      return database.get(columnFamily, key);
     } catch (RocksDBException e) {
       throw new RuntimeException(dataBaseName, e);
     } finally {
@@ -325,7 +379,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (quitIfNotAlive()) {
         return;
       }
-      database.delete(key);
+      database.delete(columnFamily, key);
     } catch (RocksDBException e) {
       throw new RuntimeException(dataBaseName, e);
     } finally {
@@ -348,13 +402,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       return;
     }
     try (WriteBatch batch = new WriteBatch()) {
-      for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
-        if (entry.getValue() == null) {
-          batch.delete(entry.getKey());
-        } else {
-          batch.put(entry.getKey(), entry.getValue());
-        }
-      }
+      addToBatch(batch, rows);
       database.write(new WriteOptions(), batch);
     }
   }
@@ -365,17 +413,25 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       return;
     }
     try (WriteBatch batch = new WriteBatch()) {
-      for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
-        if (entry.getValue() == null) {
-          batch.delete(entry.getKey());
-        } else {
-          batch.put(entry.getKey(), entry.getValue());
-        }
-      }
+      addToBatch(batch, rows);
       database.write(options, batch);
     }
   }
 
+  /**
+   * Adds the rows to a batch, of this instance or, for a column family, of all the stores
+   * sharing it to be written by {@link RocksDbColumnFamilies#write}.
+   */
+  public void addToBatch(WriteBatch batch, Map<byte[], byte[]> rows) throws RocksDBException {
+    for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
+      if (entry.getValue() == null) {
+        batch.delete(columnFamily, entry.getKey());
+      } else {
+        batch.put(columnFamily, entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
   @Override
   public void updateByBatch(Map<byte[], byte[]> rows, WriteOptionsWrapper optionsWrapper) {
     resetDbLock.readLock().lock();
@@ -528,22 +584,32 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   public void backup(String dir) throws RocksDBException {
+    if (shared) {
+      RocksDbColumnFamilies.getInstance().backup(dir);
+      return;
+    }
     Checkpoint cp = Checkpoint.create(database);
     cp.createCheckpoint(dir + this.getDBName());
   }
 
   private RocksIterator getRocksIterator() {
     try ( ReadOptions readOptions = new ReadOptions().setFillCache(false)) {
-      return  database.newIterator(readOptions);
+      return  database.newIterator(columnFamily, readOptions);
     }
   }
 
   public boolean deleteDbBakPath(String dir) {
+    if (shared) {
+      return FileUtil.deleteDir(new File(dir + RocksDbColumnFamilies.NAME));
+    }
     return FileUtil.deleteDir(new File(dir + this.getDBName()));
   }
 
   @Override
   public RocksDbDataSourceImpl newInstance() {
+    if (shared) {
+      return new RocksDbDataSourceImpl(dataBaseName, RocksDbSettings.getSettings(), comparator);
+    }
     return new RocksDbDataSourceImpl(parentPath, dataBaseName, RocksDbSettings.getSettings());
   }
 
@@ -567,7 +633,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (!isAlive()) {
         return Collections.emptyList();
       }
-      String stat = database.getProperty("rocksdb.levelstats");
+      String stat = database.getProperty(columnFamily, "rocksdb.levelstats");
       String[] stats = stat.split("\n");
       return Arrays.stream(stats).skip(2).collect(Collectors.toList());
     } finally {
@@ -33,6 +33,7 @@ import org.tron.common.crypto.SignInterface;
 import org.tron.common.crypto.SignUtils;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Pair;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.common.utils.Time;
 import org.tron.core.capsule.utils.MerkleTree;
@@ -55,6 +56,9 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
 
   private Block block;
+  // results computed ahead of validation, valid while the block instance is unchanged
+  private volatile Pair<Block, byte[]> witnessSigner;
+  private volatile Pair<Block, Sha256Hash> merkleRoot;
   private List<TransactionCapsule> transactions = new ArrayList<>();
   private boolean isSwitch;
   @Getter
@@ -178,13 +182,30 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         this.block.getBlockHeader().getRawData().toByteArray());
   }
 
+  /**
+   * Recovers the address that signed the block header, it does not depend on the
+   * state and is kept for the later {@link #validateSignature}.
+   */
+  public byte[] recoverWitnessSigner() throws SignatureException {
+    Block current = this.block;
+    Pair<Block, byte[]> signer = witnessSigner;
+    if (signer != null && signer.getKey() == current) {
+      return signer.getValue();
+    }
+    byte[] address = SignUtils.signatureToAddress(Sha256Hash.of(
+        CommonParameter.getInstance().isECKeyCryptoEngine(),
+        current.getBlockHeader().getRawData().toByteArray()).getBytes(),
+        TransactionCapsule.getBase64FromByteString(
+            current.getBlockHeader().getWitnessSignature()),
+        CommonParameter.getInstance().isECKeyCryptoEngine());
+    witnessSigner = new Pair<>(current, address);
+    return address;
+  }
+
   public boolean validateSignature(DynamicPropertiesStore dynamicPropertiesStore,
       AccountStore accountStore) throws ValidateSignatureException {
     try {
-      byte[] sigAddress = SignUtils.signatureToAddress(getRawHash().getBytes(),
-          TransactionCapsule.getBase64FromByteString(
-              block.getBlockHeader().getWitnessSignature()),
-          CommonParameter.getInstance().isECKeyCryptoEngine());
+      byte[] sigAddress = recoverWitnessSigner();
       byte[] witnessAccountAddress = block.getBlockHeader().getRawData().getWitnessAddress()
           .toByteArray();
 
@@ -211,7 +232,12 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   }
 
   public Sha256Hash calcMerkleRoot() {
-    List<Transaction> transactionsList = this.block.getTransactionsList();
+    Block current = this.block;
+    Pair<Block, Sha256Hash> root = merkleRoot;
+    if (root != null && root.getKey() == current) {
+      return root.getValue();
+    }
+    List<Transaction> transactionsList = current.getTransactionsList();
 
     if (CollectionUtils.isEmpty(transactionsList)) {
       return Sha256Hash.ZERO_HASH;
@@ -222,7 +248,9 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         .map(TransactionCapsule::getMerkleHash)
         .collect(Collectors.toCollection(ArrayList::new));
 
-    return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    Sha256Hash hash = MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    merkleRoot = new Pair<>(current, hash);
+    return hash;
   }
 
   public void setMerkleRoot() {
@@ -20,6 +20,8 @@ import static org.tron.common.utils.WalletUtil.checkPermissionOperations;
 import static org.tron.core.Constant.MAX_CONTRACT_RESULT_SIZE;
 import static org.tron.core.exception.P2pException.TypeEnum.PROTOBUF_ERROR;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.primitives.Bytes;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
@@ -31,8 +33,11 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.IOException;
 import java.security.SignatureException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -43,9 +48,13 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.crypto.ECKey.ECDSASignature;
 import org.tron.common.crypto.SignInterface;
 import org.tron.common.crypto.SignUtils;
+import org.tron.common.crypto.SignatureInterface;
 import org.tron.common.es.ExecutorServiceManager;
 import org.tron.common.overlay.message.Message;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.ForkController;
 import org.tron.common.utils.ReflectUtils;
@@ -92,6 +101,11 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       .newFixedThreadPool(esName, CommonParameter.getInstance()
           .getValidContractProtoThreadNum());
   private static final String OWNER_ADDRESS = "ownerAddress_";
+  // the signers recovered for any capsule of a transaction by its id, so a transaction
+  // already checked when it was pushed is not recovered again when it comes in a block;
+  // only the addresses are kept, the permissions are checked against the state each time
+  private static final Cache<Sha256Hash, Signers> RECOVERED_SIGNERS = CacheBuilder.newBuilder()
+      .maximumSize(50_000).build();
 
   private Transaction transaction;
   @Setter
@@ -111,6 +125,8 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   private long order;
   private byte[] ownerAddress;
   private Sha256Hash id;
+  // signer addresses recovered ahead of validation, see recoverSigners
+  private volatile Signers signers;
 
   @Getter
   @Setter
@@ -227,6 +243,15 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public static long checkWeight(Permission permission, List<ByteString> sigs, byte[] hash,
       List<ByteString> approveList)
       throws SignatureException, PermissionException, SignatureFormatException {
+    return checkWeight(permission, sigs, hash, approveList, null);
+  }
+
+  /**
+   * @param signers the addresses already recovered from sigs, or null to recover them here.
+   */
+  private static long checkWeight(Permission permission, List<ByteString> sigs, byte[] hash,
+      List<ByteString> approveList, byte[][] signers)
+      throws SignatureException, PermissionException, SignatureFormatException {
     long currentWeight = 0;
     if (sigs.size() > permission.getKeysCount()) {
       throw new PermissionException(
@@ -234,13 +259,14 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
               + permission.getKeysCount());
     }
     HashMap addMap = new HashMap();
-    for (ByteString sig : sigs) {
+    for (int i = 0; i < sigs.size(); i++) {
+      ByteString sig = sigs.get(i);
       if (sig.size() < 65) {
         throw new SignatureFormatException(
             "Signature size is " + sig.size());
       }
       String base64 = TransactionCapsule.getBase64FromByteString(sig);
-      byte[] address = SignUtils
+      byte[] address = signers != null ? signers[i] : SignUtils
           .signatureToAddress(hash, base64, CommonParameter.getInstance().isECKeyCryptoEngine());
       long weight = getWeight(permission, address);
       if (weight == 0) {
@@ -468,6 +494,12 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public static boolean validateSignature(Transaction transaction,
       byte[] hash, AccountStore accountStore, DynamicPropertiesStore dynamicPropertiesStore)
       throws PermissionException, SignatureException, SignatureFormatException {
+    return validateSignature(transaction, hash, null, accountStore, dynamicPropertiesStore);
+  }
+
+  private static boolean validateSignature(Transaction transaction, byte[] hash,
+      byte[][] signers, AccountStore accountStore, DynamicPropertiesStore dynamicPropertiesStore)
+      throws PermissionException, SignatureException, SignatureFormatException {
     Transaction.Contract contract = transaction.getRawData().getContractList().get(0);
     int permissionId = contract.getPermissionId();
     byte[] owner = getOwner(contract);
@@ -488,7 +520,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       throw new PermissionException("permission isn't exit");
     }
     checkPermission(permissionId, permission, contract);
-    long weight = checkWeight(permission, transaction.getSignatureList(), hash, null);
+    long weight = checkWeight(permission, transaction.getSignatureList(), hash, null, signers);
     if (weight >= permission.getThreshold()) {
       return true;
     }
@@ -651,9 +683,20 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       }
 
       byte[] hash = getTransactionId().getBytes();
+      byte[][] signers = getSigners(hash);
+      if (signers != null) {
+        Metrics.counterInc(MetricKeys.Counter.SIGNER_CACHE, 1,
+            MetricLabels.Counter.SIGNER_CACHE_HIT);
+      } else {
+        Metrics.counterInc(MetricKeys.Counter.SIGNER_CACHE, 1,
+            MetricLabels.Counter.SIGNER_CACHE_MISS);
+        recoverSigners(Collections.singletonList(this));
+        signers = getSigners(hash);
+      }
 
       try {
-        if (!validateSignature(this.transaction, hash, accountStore, dynamicPropertiesStore)) {
+        if (!validateSignature(this.transaction, hash, signers, accountStore,
+            dynamicPropertiesStore)) {
           isVerified = false;
           throw new ValidateSignatureException("sig error");
         }
@@ -692,6 +735,75 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     return true;
   }
 
+  /**
+   * Recovers the signer addresses of the transactions, all at once, which does not depend
+   * on the state, so it can run on another thread ahead of {@link #validatePubSignature}.
+   * Signatures that can not be recovered are left to the validation to report.
+   */
+  public static void recoverSigners(List<TransactionCapsule> transactions) {
+    boolean isECKeyCryptoEngine = CommonParameter.getInstance().isECKeyCryptoEngine();
+    List<TransactionCapsule> pending = new ArrayList<>();
+    List<Signers> prepared = new ArrayList<>();
+    List<byte[]> hashes = new ArrayList<>();
+    List<SignatureInterface> sigs = new ArrayList<>();
+    for (TransactionCapsule tx : transactions) {
+      Transaction trx = tx.transaction;
+      byte[] hash = tx.getTransactionId().getBytes();
+      if (tx.getSigners(hash) != null || trx.getSignatureCount() == 0
+          || trx.getSignatureList().stream().anyMatch(sig -> sig.size() < 65)) {
+        continue;
+      }
+      pending.add(tx);
+      prepared.add(new Signers(trx.getSignatureList(), hash,
+          new byte[trx.getSignatureCount()][]));
+      for (ByteString sig : trx.getSignatureList()) {
+        hashes.add(hash);
+        sigs.add(toSignature(sig, isECKeyCryptoEngine));
+      }
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+    byte[][] addresses = SignUtils.signaturesToAddresses(hashes.toArray(new byte[0][]),
+        sigs.toArray(new SignatureInterface[0]), isECKeyCryptoEngine);
+    int offset = 0;
+    for (int i = 0; i < pending.size(); i++) {
+      Signers signers = prepared.get(i);
+      int count = signers.addresses.length;
+      System.arraycopy(addresses, offset, signers.addresses, 0, count);
+      offset += count;
+      if (Arrays.stream(signers.addresses).allMatch(Objects::nonNull)) {
+        pending.get(i).signers = signers;
+        RECOVERED_SIGNERS.put(Sha256Hash.wrap(signers.hash), signers);
+      }
+    }
+  }
+
+  /**
+   * The signature encoded by {@link #getBase64FromByteString}, without the encoding.
+   */
+  private static SignatureInterface toSignature(ByteString sign, boolean isECKeyCryptoEngine) {
+    byte v = sign.byteAt(64);
+    if (v < 27) {
+      v += 27; //revId -> v
+    }
+    return SignUtils.fromComponents(sign.substring(0, 32).toByteArray(),
+        sign.substring(32, 64).toByteArray(), v, isECKeyCryptoEngine);
+  }
+
+  private byte[][] getSigners(byte[] hash) {
+    List<ByteString> signatures = this.transaction.getSignatureList();
+    Signers s = signers;
+    if (s == null || !s.matches(signatures, hash)) {
+      s = RECOVERED_SIGNERS.getIfPresent(Sha256Hash.wrap(hash));
+      if (s == null || !s.matches(signatures, hash)) {
+        return null;
+      }
+      signers = s;
+    }
+    return s.addresses;
+  }
+
   public Sha256Hash getTransactionId() {
     if (this.id == null) {
       this.id = getRawHash();
@@ -869,4 +981,21 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       this.transaction = transactionBuilder.build();
     }
   }
+
+  private static final class Signers {
+
+    private final List<ByteString> signatures;
+    private final byte[] hash;
+    private final byte[][] addresses;
+
+    private Signers(List<ByteString> signatures, byte[] hash, byte[][] addresses) {
+      this.signatures = signatures;
+      this.hash = hash;
+      this.addresses = addresses;
+    }
+
+    private boolean matches(List<ByteString> signatures, byte[] hash) {
+      return Arrays.equals(this.hash, hash) && this.signatures.equals(signatures);
+    }
+  }
 }
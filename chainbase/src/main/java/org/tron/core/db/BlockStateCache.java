@@ -0,0 +1,77 @@
+package org.tron.core.db;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.stereotype.Component;
+import org.tron.core.db2.common.WrappedByteArray;
+
+/**
+ * Decoded values read while a block is processed, shared by all the transactions
+ * of the block. The transactions of a block are applied within one session without
+ * any revert, so a value read stays what the store holds until the store writes
+ * the key again, every write of a cached store drops the key.
+ * Values are only cached and served on the thread processing the block, and all
+ * of them are dropped when the block ends, applied or not, as the sessions may
+ * be reverted from then on.
+ */
+@Component
+public class BlockStateCache {
+
+  private final List<Section<?>> sections = new CopyOnWriteArrayList<>();
+  private volatile Thread owner;
+
+  public <T> Section<T> newSection() {
+    Section<T> section = new Section<>();
+    sections.add(section);
+    return section;
+  }
+
+  /**
+   * Starts caching the reads of the current thread.
+   */
+  public void begin() {
+    owner = Thread.currentThread();
+  }
+
+  public void end() {
+    owner = null;
+    sections.forEach(Section::clear);
+  }
+
+  public class Section<T> {
+
+    private final Map<WrappedByteArray, T> values = new ConcurrentHashMap<>();
+
+    private Section() {
+    }
+
+    public T getIfPresent(byte[] key) {
+      if (owner != Thread.currentThread() || values.isEmpty()) {
+        return null;
+      }
+      return values.get(WrappedByteArray.of(key));
+    }
+
+    /**
+     * Caches a value just read from the store, must not be called with a value
+     * about to be written.
+     */
+    public void put(byte[] key, T value) {
+      if (value != null && owner == Thread.currentThread()) {
+        values.put(WrappedByteArray.copyOf(key), value);
+      }
+    }
+
+    public void invalidate(byte[] key) {
+      if (!values.isEmpty()) {
+        values.remove(WrappedByteArray.of(key));
+      }
+    }
+
+    private void clear() {
+      values.clear();
+    }
+  }
+}
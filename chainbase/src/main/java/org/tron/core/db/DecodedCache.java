@@ -0,0 +1,81 @@
+package org.tron.core.db;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import io.prometheus.client.Histogram;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.cache.CacheManager;
+import org.tron.common.cache.CacheType;
+import org.tron.common.cache.TronCache;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
+import org.tron.core.db2.common.WrappedByteArray;
+
+/**
+ * The messages of a store as last decoded, so that reading a key again does not parse
+ * its value again. The snapshots keep no version per key, the value read is the version:
+ * a message is only served for the very bytes it was decoded from, which costs a compare
+ * instead of a parse and holds whatever session, revoke or fork produced them.
+ * Messages are immutable, each read wraps the one cached in a new capsule.
+ */
+@Slf4j(topic = "DB")
+public class DecodedCache<M extends Message> {
+
+  private final String dbName;
+
+  private final Parser<M> parser;
+
+  private final TronCache<WrappedByteArray, Decoded<M>> cache;
+
+  public DecodedCache(String dbName, CacheType type, Parser<M> parser) {
+    this.dbName = dbName;
+    this.parser = parser;
+    this.cache = CacheManager.allocate(type);
+  }
+
+  /**
+   * @return the message decoded from the value, null if the value is null or does not
+   *     parse, for the caller to build its capsule as it did without cache
+   */
+  public M decode(byte[] key, byte[] value) {
+    if (value == null) {
+      return null;
+    }
+    Decoded<M> decoded = cache.getIfPresent(WrappedByteArray.of(key));
+    if (decoded != null && Arrays.equals(decoded.value, value)) {
+      Metrics.counterInc(MetricKeys.Counter.DB_DECODE_CACHE, 1, dbName,
+          MetricLabels.Counter.DB_DECODE_CACHE_HIT);
+      return decoded.message;
+    }
+    Metrics.counterInc(MetricKeys.Counter.DB_DECODE_CACHE, 1, dbName,
+        MetricLabels.Counter.DB_DECODE_CACHE_MISS);
+    Histogram.Timer timer = Metrics.histogramStartTimer(
+        MetricKeys.Histogram.DB_DECODE_LATENCY, dbName);
+    M message;
+    try {
+      message = parser.parseFrom(value);
+    } catch (InvalidProtocolBufferException e) {
+      logger.debug("Decode {} failed, {}.", dbName, e.getMessage());
+      return null;
+    } finally {
+      Metrics.histogramObserve(timer);
+    }
+    // the value is a copy read from the store, the caller does not hand it out
+    cache.put(WrappedByteArray.copyOf(key), new Decoded<>(value, message));
+    return message;
+  }
+
+  private static final class Decoded<M> {
+
+    private final byte[] value;
+    private final M message;
+
+    private Decoded(byte[] value, M message) {
+      this.value = value;
+      this.message = message;
+    }
+  }
+}
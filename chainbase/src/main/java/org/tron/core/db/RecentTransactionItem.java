@@ -5,6 +5,10 @@ import lombok.Setter;
 
 import java.util.List;
 
+/**
+ * The JSON value of {@link RecentTransactionStore} written before
+ * {@link RecentTransactionRecord}, only read.
+ */
 public class RecentTransactionItem {
   @Getter
   @Setter
@@ -0,0 +1,82 @@
+package org.tron.core.db;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import org.bouncycastle.util.encoders.Hex;
+import org.tron.common.utils.JsonUtil;
+import org.tron.common.utils.Sha256Hash;
+
+/**
+ * A value of {@link RecentTransactionStore}, the number of a block and the ids of its
+ * transactions. It is written as a version byte, the block number and the packed 32-byte
+ * ids, read without any intermediate string. The JSON {@link RecentTransactionItem}
+ * values written before are still read, the store replaces them as it wraps around.
+ *
+ * <p>The change is one-way: a node of a version before these records parses every value
+ * as JSON, so it cannot start on a database this version has written to. Going back
+ * takes a database that was never run with this version, e.g. a backup or a snapshot.
+ */
+public class RecentTransactionRecord {
+
+  private static final byte VERSION = 1;
+  private static final int HEADER_LENGTH = 1 + Long.BYTES;
+  // a JSON value is an object
+  private static final byte JSON_START = '{';
+
+  @Getter
+  private final long num;
+  @Getter
+  private final List<byte[]> transactionIds;
+
+  public RecentTransactionRecord(long num, List<byte[]> transactionIds) {
+    this.num = num;
+    this.transactionIds = transactionIds;
+  }
+
+  public byte[] toBytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(
+        HEADER_LENGTH + transactionIds.size() * Sha256Hash.LENGTH);
+    buffer.put(VERSION).putLong(num);
+    transactionIds.forEach(buffer::put);
+    return buffer.array();
+  }
+
+  /**
+   * @return the record, null if data is empty
+   * @throws IllegalArgumentException if data is not a record of a known format
+   */
+  public static RecentTransactionRecord of(byte[] data) {
+    if (data == null || data.length == 0) {
+      return null;
+    }
+    if (data[0] == JSON_START) {
+      return ofJson(data);
+    }
+    if (data[0] != VERSION || data.length < HEADER_LENGTH
+        || (data.length - HEADER_LENGTH) % Sha256Hash.LENGTH != 0) {
+      throw new IllegalArgumentException("Unknown recent transaction record, version "
+          + data[0] + ", length " + data.length);
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    buffer.get();
+    long num = buffer.getLong();
+    List<byte[]> ids = new ArrayList<>(buffer.remaining() / Sha256Hash.LENGTH);
+    while (buffer.hasRemaining()) {
+      byte[] id = new byte[Sha256Hash.LENGTH];
+      buffer.get(id);
+      ids.add(id);
+    }
+    return new RecentTransactionRecord(num, ids);
+  }
+
+  private static RecentTransactionRecord ofJson(byte[] data) {
+    RecentTransactionItem item = JsonUtil.json2Obj(new String(data, StandardCharsets.UTF_8),
+        RecentTransactionItem.class);
+    List<byte[]> ids = new ArrayList<>(item.getTransactionIds().size());
+    item.getTransactionIds().forEach(id -> ids.add(Hex.decode(id)));
+    return new RecentTransactionRecord(item.getNum(), ids);
+  }
+}
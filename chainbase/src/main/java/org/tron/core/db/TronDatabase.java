@@ -15,6 +15,7 @@ import org.tron.common.parameter.CommonParameter;
 import org.tron.common.storage.WriteOptionsWrapper;
 import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.common.storage.metric.DbStatService;
+import org.tron.common.storage.rocksdb.RocksDbColumnFamilies;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
 import org.tron.common.utils.StorageUtils;
 import org.tron.core.db.common.DbSourceInter;
@@ -46,6 +47,9 @@ public abstract class TronDatabase<T> implements ITronChainBase<T> {
               getOptionsByDbNameForLevelDB(dbName),
               new WriteOptions().sync(CommonParameter.getInstance()
                   .getStorage().isDbSync()));
+    } else if (RocksDbColumnFamilies.isShared(dbName)) {
+      dbSource = new RocksDbDataSourceImpl(dbName,
+          CommonParameter.getInstance().getRocksDBCustomSettings(), getDirectComparator());
     } else if ("ROCKSDB".equals(CommonParameter.getInstance()
         .getStorage().getDbEngine().toUpperCase())) {
       String parentName = Paths.get(StorageUtils.getOutputDirectoryByDbName(dbName),
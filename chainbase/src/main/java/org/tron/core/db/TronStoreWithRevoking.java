@@ -21,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.common.storage.metric.DbStatService;
+import org.tron.common.storage.rocksdb.RocksDbColumnFamilies;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
 import org.tron.common.utils.StorageUtils;
 import org.tron.core.capsule.ProtoCapsule;
@@ -44,6 +45,8 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
   protected IRevokingDB revokingDB;
   private TypeToken<T> token = new TypeToken<T>(getClass()) {
   };
+  // looked up once, a lookup per read copies the constructor
+  private final CapsuleFactory<T> factory = resolveFactory();
 
   @Autowired
   private RevokingDatabase revokingDatabase;
@@ -63,6 +66,9 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
               getOptionsByDbNameForLevelDB(dbName),
               new WriteOptions().sync(CommonParameter.getInstance()
                   .getStorage().isDbSync())));
+    } else if (RocksDbColumnFamilies.isShared(dbName)) {
+      this.db = new RocksDB(new RocksDbDataSourceImpl(dbName,
+          CommonParameter.getInstance().getRocksDBCustomSettings(), getDirectComparator()));
     } else if ("ROCKSDB".equals(dbEngine.toUpperCase())) {
       String parentPath = Paths
           .get(StorageUtils.getOutputDirectoryByDbName(dbName), CommonParameter
@@ -117,7 +123,7 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 
   @Override
   public T get(byte[] key) throws ItemNotFoundException, BadItemException {
-    return of(revokingDB.get(key));
+    return of(key, revokingDB.get(key));
   }
 
   @Override
@@ -125,7 +131,7 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
     byte[] value = revokingDB.getUnchecked(key);
 
     try {
-      return of(value);
+      return of(key, value);
     } catch (BadItemException e) {
       return null;
     }
@@ -133,19 +139,38 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 
   @Override
   public T getFromRoot(byte[] key) throws ItemNotFoundException, BadItemException{
-    return of(revokingDB.getFromRoot(key)) ;
+    return of(key, revokingDB.getFromRoot(key)) ;
 
   }
 
   public T of(byte[] value) throws BadItemException {
+    return factory.of(value);
+  }
+
+  /**
+   * Builds the capsule of a value read by key, a store keeping decoded values overrides it.
+   */
+  protected T of(byte[] key, byte[] value) throws BadItemException {
+    return of(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private CapsuleFactory<T> resolveFactory() {
+    Constructor<T> constructor;
     try {
-      Constructor constructor = token.getRawType().getConstructor(byte[].class);
-      @SuppressWarnings("unchecked")
-      T t = (T) constructor.newInstance(value);
-      return t;
-    } catch (NoSuchMethodException | IllegalAccessException | InstantiationException | InvocationTargetException e) {
-      throw new BadItemException(e.getMessage());
+      constructor = (Constructor<T>) token.getRawType().getConstructor(byte[].class);
+    } catch (NoSuchMethodException e) {
+      return value -> {
+        throw new BadItemException(e.getMessage());
+      };
     }
+    return value -> {
+      try {
+        return constructor.newInstance(value);
+      } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+        throw new BadItemException(e.getMessage());
+      }
+    };
   }
 
   @Override
@@ -227,4 +252,10 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
         }
     ));
   }
+
+  @FunctionalInterface
+  private interface CapsuleFactory<T> {
+
+    T of(byte[] value) throws BadItemException;
+  }
 }
@@ -4,6 +4,8 @@ import com.google.common.collect.Maps;
 import java.util.HashMap;
 import java.util.Map;
 import lombok.Getter;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.storage.WriteOptionsWrapper;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
@@ -58,10 +60,21 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
 
   @Override
   public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-    Map<byte[], byte[]> rows = batch.entrySet().stream()
+    db.updateByBatch(rows(batch), optionsWrapper);
+  }
+
+  /**
+   * Adds the rows of a flush to a batch across the column families of the shared instance.
+   */
+  public void flush(Map<WrappedByteArray, WrappedByteArray> batch, WriteBatch writeBatch)
+      throws RocksDBException {
+    db.addToBatch(writeBatch, rows(batch));
+  }
+
+  private static Map<byte[], byte[]> rows(Map<WrappedByteArray, WrappedByteArray> batch) {
+    return batch.entrySet().stream()
         .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
         .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll);
-    db.updateByBatch(rows, optionsWrapper);
   }
 
   @Override
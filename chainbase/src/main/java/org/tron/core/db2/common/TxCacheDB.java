@@ -30,7 +30,6 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
-import org.bouncycastle.util.encoders.Hex;
 import org.iq80.leveldb.WriteOptions;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.prometheus.MetricKeys;
@@ -39,10 +38,9 @@ import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
-import org.tron.common.utils.JsonUtil;
 import org.tron.common.utils.StorageUtils;
 import org.tron.core.capsule.BytesCapsule;
-import org.tron.core.db.RecentTransactionItem;
+import org.tron.core.db.RecentTransactionRecord;
 import org.tron.core.db.RecentTransactionStore;
 import org.tron.core.db.common.iterator.DBIterator;
 import org.tron.core.store.DynamicPropertiesStore;
@@ -171,10 +169,11 @@ public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
     long start = System.currentTimeMillis();
     for (Entry<byte[], BytesCapsule> bytesCapsuleEntry : recentTransactionStore) {
       byte[] data = bytesCapsuleEntry.getValue().getData();
-      RecentTransactionItem trx =
-          JsonUtil.json2Obj(new String(data), RecentTransactionItem.class);
-
-      trx.getTransactionIds().forEach(tid -> bloomFilters[1].put(Hex.decode(tid)));
+      RecentTransactionRecord trx = RecentTransactionRecord.of(data);
+      if (trx == null) {
+        continue;
+      }
+      trx.getTransactionIds().forEach(bloomFilters[1]::put);
     }
 
     logger.info("Load cache from recentTransactionStore, filter: {}, filter-fpp: {}, cost: {} ms.",
@@ -1,7 +1,7 @@
 package org.tron.core.db2.core;
 
-import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.common.primitives.Bytes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,7 +12,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.tron.common.utils.ByteUtil;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.storage.metric.ChainbaseMetrics;
 import org.tron.common.utils.Pair;
 import org.tron.core.capsule.utils.MarketUtils;
 import org.tron.core.db2.common.IRevokingDB;
@@ -36,9 +37,13 @@ public class Chainbase implements IRevokingDB {
   private ThreadLocal<Cursor> cursor = new ThreadLocal<>();
   private ThreadLocal<Long> offset = new ThreadLocal<>();
   private Snapshot head;
+  // bumped whenever head is replaced, lets a cache over this db see a session change
+  private volatile long headVersion;
+  private final ChainbaseMetrics.Db metrics;
 
   public Chainbase(Snapshot head) {
     this.head = head;
+    this.metrics = ChainbaseMetrics.of(head.getDbName());
     cursor.set(Cursor.HEAD);
     offset.set(0L);
   }
@@ -102,6 +107,11 @@ public class Chainbase implements IRevokingDB {
 
   public synchronized void setHead(Snapshot head) {
     this.head = head;
+    headVersion++;
+  }
+
+  public long getHeadVersion() {
+    return headVersion;
   }
 
   /**
@@ -117,11 +127,14 @@ public class Chainbase implements IRevokingDB {
     head().reset();
     head().close();
     head = head.getRoot().newInstance();
+    headVersion++;
   }
 
   @Override
   public synchronized void put(byte[] key, byte[] value) {
+    long start = metrics.start();
     head().put(key, value);
+    metrics.write(MetricLabels.Histogram.DB_OP_PUT, start, value);
   }
 
   @Override
@@ -150,7 +163,10 @@ public class Chainbase implements IRevokingDB {
 
   @Override
   public byte[] getUnchecked(byte[] key) {
-    return head().get(key);
+    long start = metrics.start();
+    byte[] value = head().get(key);
+    metrics.read(MetricLabels.Histogram.DB_OP_GET, start, value);
+    return value;
   }
 
   @Override
@@ -174,34 +190,13 @@ public class Chainbase implements IRevokingDB {
       return Collections.emptySet();
     }
 
-    Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
-    if (head.getPrevious() != null) {
-      ((SnapshotImpl) head).collect(collection);
-    }
-
-    Map<WrappedByteArray, WrappedByteArray> levelDBMap = new HashMap<>();
-
-    if (((SnapshotRoot) head.getRoot()).db.getClass() == LevelDB.class) {
-      ((LevelDB) ((SnapshotRoot) head.getRoot()).db).getDb().getNext(key, limit).entrySet().stream()
-          .map(e -> Maps
-              .immutableEntry(WrappedByteArray.of(e.getKey()), WrappedByteArray.of(e.getValue())))
-          .forEach(e -> levelDBMap.put(e.getKey(), e.getValue()));
-    } else if (((SnapshotRoot) head.getRoot()).db.getClass() == RocksDB.class) {
-      ((RocksDB) ((SnapshotRoot) head.getRoot()).db).getDb().getNext(key, limit).entrySet().stream()
-          .map(e -> Maps
-              .immutableEntry(WrappedByteArray.of(e.getKey()), WrappedByteArray.of(e.getValue())))
-          .forEach(e -> levelDBMap.put(e.getKey(), e.getValue()));
+    Set<byte[]> result = new HashSet<>();
+    try (SnapshotIterator iterator = new SnapshotIterator(head, key)) {
+      for (long i = 0; i < limit && iterator.hasNext(); i++) {
+        result.add(iterator.next().getValue());
+      }
     }
-
-    levelDBMap.putAll(collection);
-
-    return levelDBMap.entrySet().stream()
-        .sorted((e1, e2) -> ByteUtil.compare(e1.getKey().getBytes(), e2.getKey().getBytes()))
-        .filter(e -> ByteUtil.greaterOrEquals(e.getKey().getBytes(), key))
-        .limit(limit)
-        .map(Map.Entry::getValue)
-        .map(WrappedByteArray::getBytes)
-        .collect(Collectors.toSet());
+    return result;
   }
 
   @Override
@@ -320,61 +315,31 @@ public class Chainbase implements IRevokingDB {
       return Collections.emptyMap();
     }
 
-    Map<WrappedByteArray, WrappedByteArray> collection = new HashMap<>();
-    if (head.getPrevious() != null) {
-      ((SnapshotImpl) head).collect(collection);
-    }
-
-    Map<WrappedByteArray, WrappedByteArray> levelDBMap = new HashMap<>();
-
-    if (((SnapshotRoot) head.getRoot()).db.getClass() == LevelDB.class) {
-      ((LevelDB) ((SnapshotRoot) head.getRoot()).db).getDb().getNext(key, limit).entrySet().stream()
-          .map(e -> Maps
-              .immutableEntry(WrappedByteArray.of(e.getKey()), WrappedByteArray.of(e.getValue())))
-          .forEach(e -> levelDBMap.put(e.getKey(), e.getValue()));
-    } else if (((SnapshotRoot) head.getRoot()).db.getClass() == RocksDB.class) {
-      ((RocksDB) ((SnapshotRoot) head.getRoot()).db).getDb().getNext(key, limit).entrySet().stream()
-          .map(e -> Maps
-              .immutableEntry(WrappedByteArray.of(e.getKey()), WrappedByteArray.of(e.getValue())))
-          .forEach(e -> levelDBMap.put(e.getKey(), e.getValue()));
-    }
-
-    levelDBMap.putAll(collection);
-
-    return levelDBMap.entrySet().stream()
-        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-        .sorted((e1, e2) -> ByteUtil.compare(e1.getKey(), e2.getKey()))
-        .filter(e -> ByteUtil.greaterOrEquals(e.getKey(), key))
-        .limit(limit)
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-  }
-
-  public Map<WrappedByteArray, byte[]> prefixQuery(byte[] key) {
-    Map<WrappedByteArray, byte[]> result = prefixQueryRoot(key);
-    Map<WrappedByteArray, byte[]>  snapshot = prefixQuerySnapshot(key);
-    result.putAll(snapshot);
-    result.entrySet().removeIf(e -> e.getValue() == null);
-    return result;
-  }
-
-  private Map<WrappedByteArray, byte[]> prefixQueryRoot(byte[] key) {
-    Map<WrappedByteArray, byte[]> result = new HashMap<>();
-    if (((SnapshotRoot) head.getRoot()).db.getClass() == LevelDB.class) {
-      result = ((LevelDB) ((SnapshotRoot) head.getRoot()).db).getDb().prefixQuery(key);
-    } else if (((SnapshotRoot) head.getRoot()).db.getClass() == RocksDB.class) {
-      result = ((RocksDB) ((SnapshotRoot) head.getRoot()).db).getDb().prefixQuery(key);
+    Map<byte[], byte[]> result = new HashMap<>();
+    try (SnapshotIterator iterator = new SnapshotIterator(head, key)) {
+      for (long i = 0; i < limit && iterator.hasNext(); i++) {
+        Map.Entry<byte[], byte[]> e = iterator.next();
+        result.put(e.getKey(), e.getValue());
+      }
     }
     return result;
   }
 
-  private Map<WrappedByteArray, byte[]> prefixQuerySnapshot(byte[] key) {
+  public Map<WrappedByteArray, byte[]> prefixQuery(byte[] key) {
+    long start = metrics.start();
+    long bytes = 0;
     Map<WrappedByteArray, byte[]> result = new HashMap<>();
-    Snapshot snapshot = head();
-    if (!snapshot.equals(head.getRoot())) {
-      Map<WrappedByteArray, WrappedByteArray> all = new HashMap<>();
-      ((SnapshotImpl) snapshot).collect(all, key);
-      all.forEach((k, v) -> result.put(k, v.getBytes()));
+    try (SnapshotIterator iterator = new SnapshotIterator(head(), key)) {
+      while (iterator.hasNext()) {
+        Map.Entry<byte[], byte[]> e = iterator.next();
+        if (Bytes.indexOf(e.getKey(), key) != 0) {
+          break;
+        }
+        result.put(WrappedByteArray.of(e.getKey()), e.getValue());
+        bytes += e.getValue().length;
+      }
     }
+    metrics.read(MetricLabels.Histogram.DB_OP_PREFIX_QUERY, start, bytes);
     return result;
   }
 
@@ -0,0 +1,113 @@
+package org.tron.core.db2.core;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.tron.core.db2.common.DB;
+import org.tron.core.db2.common.Key;
+import org.tron.core.db2.common.Value;
+
+/**
+ * Bloom filter over the keys written into one {@link SnapshotImpl} layer.
+ * A negative answer means the layer never held the key, so a lookup can skip
+ * the layer without touching its HashDB. The filter only ever grows; removed keys
+ * are written as DELETE values and therefore stay members.
+ * Writers are serialized by the snapshot manager, readers may race with them,
+ * so bits are always set before the key becomes visible in the layer.
+ */
+final class KeyFilter {
+
+  private static final int HASHES = 3;
+  private static final int MIN_BITS = 1 << 10;
+  private static final int MAX_BITS = 1 << 26;
+  // grow once a layer holds more than one key per BITS_PER_KEY bits, ~3% false positives
+  private static final int BITS_PER_KEY = 8;
+
+  private volatile AtomicLongArray bits = new AtomicLongArray(MIN_BITS >>> 6);
+  private int count;
+
+  static long hash(byte[] key) {
+    // 64-bit FNV-1a, the two halves feed the double hashing below
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+
+  boolean mightContain(long hash) {
+    AtomicLongArray current = bits;
+    int mask = (current.length() << 6) - 1;
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      if ((current.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Add a key that is about to be written into {@code db}. Every key already
+   * in {@code db} must have been added before, so an overwrite changes nothing
+   * and only distinct keys are counted towards growing.
+   */
+  void put(byte[] key, DB<Key, Value> db) {
+    if (db.get(Key.of(key)) != null) {
+      return;
+    }
+    AtomicLongArray current = bits;
+    int size = current.length() << 6;
+    if (++count > size / BITS_PER_KEY && size < MAX_BITS) {
+      current = rebuild(db, size << 1);
+    }
+    set(current, hash(key));
+  }
+
+  /**
+   * Fold the filter of a layer that is merged into this one.
+   * @return false if the caller has to add the keys one by one instead.
+   */
+  boolean putAll(KeyFilter other) {
+    AtomicLongArray current = bits;
+    AtomicLongArray from = other.bits;
+    if (from.length() != current.length()
+        || count + other.count > (current.length() << 6) / BITS_PER_KEY) {
+      return false;
+    }
+    for (int i = 0; i < from.length(); i++) {
+      long word = from.get(i);
+      if (word != 0) {
+        current.getAndAccumulate(i, word, (a, b) -> a | b);
+      }
+    }
+    count += other.count;
+    return true;
+  }
+
+  private AtomicLongArray rebuild(DB<Key, Value> db, int size) {
+    AtomicLongArray next = new AtomicLongArray(size >>> 6);
+    for (Map.Entry<Key, Value> e : db) {
+      set(next, hash(e.getKey().getBytes()));
+    }
+    // folded layers may share keys, recount them, with the one being added
+    count = (int) Math.min(Integer.MAX_VALUE - 1, db.size()) + 1;
+    bits = next;
+    return next;
+  }
+
+  private static void set(AtomicLongArray array, long hash) {
+    int mask = (array.length() << 6) - 1;
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      long flag = 1L << bit;
+      if ((array.get(bit >>> 6) & flag) == 0) {
+        array.getAndAccumulate(bit >>> 6, flag, (a, b) -> a | b);
+      }
+    }
+  }
+}
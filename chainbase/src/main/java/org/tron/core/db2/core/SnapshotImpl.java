@@ -1,17 +1,11 @@
 package org.tron.core.db2.core;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterators;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
-import com.google.common.primitives.Bytes;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import lombok.Getter;
+import org.tron.common.storage.metric.ChainbaseMetrics;
 import org.tron.core.db2.common.HashDB;
 import org.tron.core.db2.common.Key;
 import org.tron.core.db2.common.Value;
@@ -23,6 +17,14 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   @Getter
   protected Snapshot root;
 
+  private final KeyFilter filter = new KeyFilter();
+
+  private final ChainbaseMetrics.Db metrics;
+
+  // bumped on every write, tells whether sortedKeys is still current
+  private volatile long version;
+  private volatile SortedKeys sortedKeys;
+
   SnapshotImpl(Snapshot snapshot) {
     root = snapshot.getRoot();
     synchronized (this) {
@@ -30,6 +32,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     }
     previous = snapshot;
     snapshot.setNext(this);
+    metrics = ChainbaseMetrics.of(root.getDbName());
     isOptimized = snapshot.isOptimized();
     if (isOptimized &&  root == previous) {
       Streams.stream(root.iterator()).forEach( e -> put(e.getKey(),e.getValue()));
@@ -44,15 +47,28 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   private byte[] get(Snapshot head, byte[] key) {
     Snapshot snapshot = head;
     Value value;
+    long hash = KeyFilter.hash(key);
+    Key k = null;
+    int layers = 0;
 
     while (Snapshot.isImpl(snapshot)) {
-      if ((value = ((SnapshotImpl) snapshot).db.get(Key.of(key))) != null) {
-        return value.getBytes();
+      SnapshotImpl impl = (SnapshotImpl) snapshot;
+      // most layers never saw the key, skip them without a hash lookup
+      if (impl.filter.mightContain(hash)) {
+        if (k == null) {
+          k = Key.of(key);
+        }
+        if ((value = impl.db.get(k)) != null) {
+          metrics.depth(layers);
+          return value.getBytes();
+        }
       }
 
+      layers++;
       snapshot = snapshot.getPrevious();
     }
 
+    metrics.depth(layers);
     return snapshot == null ? null : snapshot.get(key);
   }
 
@@ -61,13 +77,17 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     Preconditions.checkNotNull(key, "key in db is not null.");
     Preconditions.checkNotNull(value, "value in db is not null.");
 
+    filter.put(key, db);
     db.put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+    version++;
   }
 
   @Override
   public void remove(byte[] key) {
     Preconditions.checkNotNull(key, "key in db is not null.");
+    filter.put(key, db);
     db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+    version++;
   }
 
   // we have a 3x3 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -85,7 +105,15 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   @Override
   public void merge(Snapshot from) {
     SnapshotImpl fromImpl = (SnapshotImpl) from;
-    Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+    version++;
+    if (filter.putAll(fromImpl.filter)) {
+      Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+      return;
+    }
+    Streams.stream(fromImpl.db).forEach(e -> {
+      filter.put(e.getKey().getBytes(), db);
+      db.put(e.getKey(), e.getValue());
+    });
   }
 
   public void mergeAhead(Snapshot from) {
@@ -93,8 +121,10 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
       return ;
     }
     SnapshotImpl fromImpl = (SnapshotImpl) from;
+    version++;
     Streams.stream(fromImpl.db).forEach(e -> {
       if (db.get(e.getKey()) == null) {
+        filter.put(e.getKey().getBytes(), db);
         db.put(e.getKey(), e.getValue());
       }
     }
@@ -113,37 +143,25 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
   @Override
   public Iterator<Map.Entry<byte[], byte[]>> iterator() {
-    Map<WrappedByteArray, WrappedByteArray> all = new HashMap<>();
-    collect(all);
-    Set<WrappedByteArray> keys = new HashSet<>(all.keySet());
-    all.entrySet()
-        .removeIf(entry -> entry.getValue() == null || entry.getValue().getBytes() == null);
-    return Iterators.concat(
-        Iterators.transform(all.entrySet().iterator(),
-            e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes())),
-        Iterators.filter(getRoot().iterator(),
-            e -> !keys.contains(WrappedByteArray.of(e.getKey()))));
-  }
-
-  synchronized void collect(Map<WrappedByteArray, WrappedByteArray> all) {
-    Snapshot next = getRoot().getNext();
-    while (next != null) {
-      Streams.stream(((SnapshotImpl) next).db)
-          .forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
-              WrappedByteArray.of(e.getValue().getBytes())));
-      next = next.getNext();
-    }
+    return new SnapshotIterator(this, null);
   }
 
-  synchronized void collect(Map<WrappedByteArray, WrappedByteArray> all, byte[] prefix) {
-    Snapshot next = getRoot().getNext();
-    while (next != null) {
-      Streams.stream(((SnapshotImpl) next).db).filter(e -> Bytes.indexOf(
-              Objects.requireNonNull(e.getKey().getBytes()), prefix) == 0)
-          .forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
-              WrappedByteArray.of(e.getValue().getBytes())));
-      next = next.getNext();
+  /**
+   * Keys of this layer in bytewise order. Layers below the head are not written
+   * any more, so the sorted copy is built once and reused by later scans.
+   */
+  byte[][] sortedKeys() {
+    SortedKeys current = sortedKeys;
+    long v = version;
+    if (current != null && current.version == v) {
+      return current.keys;
     }
+    byte[][] keys = Streams.stream(db)
+        .map(e -> e.getKey().getBytes())
+        .sorted(SnapshotIterator.COMPARATOR)
+        .toArray(byte[][]::new);
+    sortedKeys = new SortedKeys(v, keys);
+    return keys;
   }
 
   /**
@@ -200,4 +218,15 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   public void reloadToMem() {
       mergeAhead(previous);
   }
+
+  private static class SortedKeys {
+
+    private final long version;
+    private final byte[][] keys;
+
+    private SortedKeys(long version, byte[][] keys) {
+      this.version = version;
+      this.keys = keys;
+    }
+  }
 }
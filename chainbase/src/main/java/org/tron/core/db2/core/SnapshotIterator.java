@@ -0,0 +1,192 @@
+package org.tron.core.db2.core;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Streams;
+import com.google.common.primitives.UnsignedBytes;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db2.common.Key;
+import org.tron.core.db2.common.Value;
+
+/**
+ * Sorted merge of the snapshot layers and the root db.
+ * Nothing is materialized: every layer contributes its sorted dirty keys from
+ * the seek position on, the root contributes a db iterator, and for equal keys
+ * the newest layer wins. Deleted keys are skipped.
+ * Keys are ordered bytewise, like the default comparator of LevelDB and RocksDB.
+ */
+@Slf4j(topic = "DB")
+final class SnapshotIterator implements Iterator<Map.Entry<byte[], byte[]>>, Closeable {
+
+  static final Comparator<byte[]> COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+  private final PriorityQueue<Cursor> cursors = new PriorityQueue<>((c1, c2) -> {
+    int ret = COMPARATOR.compare(c1.key, c2.key);
+    return ret != 0 ? ret : Integer.compare(c1.order, c2.order);
+  });
+  private final Iterator<Map.Entry<byte[], byte[]>> rootIterator;
+  private Map.Entry<byte[], byte[]> next;
+
+  /**
+   * Like {@link SnapshotImpl#collectUnique}, a head above the root sees
+   * every layer linked after the root, a root head sees the root only.
+   * @param seek the first key to return, or null to start from the first key
+   */
+  SnapshotIterator(Snapshot head, byte[] seek) {
+    Snapshot root = head.getRoot();
+    if (head != root) {
+      List<SnapshotImpl> layers = new ArrayList<>();
+      for (Snapshot layer = root.getNext(); layer != null; layer = layer.getNext()) {
+        layers.add((SnapshotImpl) layer);
+      }
+      // newest layer first, it wins ties
+      for (int i = layers.size() - 1, order = 0; i >= 0; i--, order++) {
+        advance(new LayerCursor(order, layers.get(i), seek));
+      }
+    }
+    rootIterator = rootIterator((SnapshotRoot) root, seek);
+    advance(new RootCursor(rootIterator));
+    next = computeNext();
+  }
+
+  private static Iterator<Map.Entry<byte[], byte[]>> rootIterator(SnapshotRoot root,
+      byte[] seek) {
+    Iterator<Map.Entry<byte[], byte[]>> iterator = root.iterator();
+    if (iterator instanceof DBIterator) {
+      if (seek != null) {
+        ((DBIterator) iterator).seek(seek);
+      }
+      return iterator;
+    }
+    // not backed by a sorted store, only small in-memory dbs end up here
+    return Streams.stream(iterator)
+        .filter(e -> seek == null || COMPARATOR.compare(e.getKey(), seek) >= 0)
+        .sorted((e1, e2) -> COMPARATOR.compare(e1.getKey(), e2.getKey()))
+        .iterator();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  @Override
+  public Map.Entry<byte[], byte[]> next() {
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    Map.Entry<byte[], byte[]> ret = next;
+    next = computeNext();
+    return ret;
+  }
+
+  private Map.Entry<byte[], byte[]> computeNext() {
+    while (!cursors.isEmpty()) {
+      // ties are ordered newest first, so the polled cursor holds the live value
+      Cursor top = cursors.poll();
+      byte[] key = top.key;
+      byte[] value = top.value;
+      advance(top);
+      while (!cursors.isEmpty() && COMPARATOR.compare(cursors.peek().key, key) == 0) {
+        advance(cursors.poll());
+      }
+      if (value != null) {
+        return Maps.immutableEntry(key, value);
+      }
+    }
+    close();
+    return null;
+  }
+
+  private void advance(Cursor cursor) {
+    if (cursor.advance()) {
+      cursors.add(cursor);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (rootIterator instanceof Closeable) {
+      try {
+        ((Closeable) rootIterator).close();
+      } catch (IOException e) {
+        logger.warn("close root iterator error", e);
+      }
+    }
+  }
+
+  private abstract static class Cursor {
+
+    private final int order;
+    protected byte[] key;
+    // null for a deleted key
+    protected byte[] value;
+
+    Cursor(int order) {
+      this.order = order;
+    }
+
+    abstract boolean advance();
+  }
+
+  private static class LayerCursor extends Cursor {
+
+    private final SnapshotImpl layer;
+    private final byte[][] keys;
+    private int pos;
+
+    LayerCursor(int order, SnapshotImpl layer, byte[] seek) {
+      super(order);
+      this.layer = layer;
+      this.keys = layer.sortedKeys();
+      if (seek != null) {
+        int index = Arrays.binarySearch(keys, seek, COMPARATOR);
+        pos = index >= 0 ? index : -index - 1;
+      }
+    }
+
+    @Override
+    boolean advance() {
+      while (pos < keys.length) {
+        key = keys[pos++];
+        Value v = layer.getDb().get(Key.of(key));
+        if (v != null) {
+          value = v.getBytes();
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class RootCursor extends Cursor {
+
+    private final Iterator<Map.Entry<byte[], byte[]>> iterator;
+
+    RootCursor(Iterator<Map.Entry<byte[], byte[]>> iterator) {
+      super(Integer.MAX_VALUE);
+      this.iterator = iterator;
+    }
+
+    @Override
+    boolean advance() {
+      if (!iterator.hasNext()) {
+        return false;
+      }
+      Map.Entry<byte[], byte[]> entry = iterator.next();
+      key = entry.getKey();
+      value = entry.getValue();
+      return true;
+    }
+  }
+}
@@ -12,9 +12,12 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,11 +29,16 @@ import javax.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.tron.common.error.TronDBException;
 import org.tron.common.es.ExecutorServiceManager;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.storage.WriteOptionsWrapper;
+import org.tron.common.storage.rocksdb.RocksDbColumnFamilies;
 import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.StorageUtils;
 import org.tron.core.db.RevokingDatabase;
@@ -39,8 +47,8 @@ import org.tron.core.db2.ISession;
 import org.tron.core.db2.common.DB;
 import org.tron.core.db2.common.IRevokingDB;
 import org.tron.core.db2.common.Key;
+import org.tron.core.db2.common.RocksDB;
 import org.tron.core.db2.common.Value;
-import org.tron.core.db2.common.WrappedByteArray;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
 import org.tron.core.store.CheckPointV2Store;
 import org.tron.core.store.CheckTmpStore;
@@ -52,6 +60,12 @@ public class SnapshotManager implements RevokingDatabase {
   private static final int DEFAULT_STACK_MAX_SIZE = 256;
   private static final long ONE_MINUTE_MILLS = 60*1000L;
   private static final String CHECKPOINT_V2_DIR = "checkpoint";
+  private static final int CHECKPOINT_CHUNK_SIZE = 10_000;
+  private static final int CHECKPOINT_QUEUE_SIZE = 16;
+  private static final long CHECKPOINT_POLL_MILLIS = 10;
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+  // length prefixed like the db names, but no db is named this way
+  private static final byte[] CHECKPOINT_MARKER = simpleEncode("checkpoint-in-progress");
   @Getter
   private List<Chainbase> dbs = new ArrayList<>();
   @Getter
@@ -318,22 +332,80 @@ public class SnapshotManager implements RevokingDatabase {
     }
   }
 
-  private void refreshOne(Chainbase db) {
-    if (Snapshot.isRoot(db.getHead())) {
-      return;
+  /**
+   * Merges the snapshots of the dbs sharing the rocksdb instance by one atomic write, a crash
+   * leaves all of them flushed or none, so no checkpoint is needed. The other dbs are
+   * refreshed one by one as before.
+   */
+  private void refreshShared() {
+    List<Chainbase> shared = new ArrayList<>(dbs.size());
+    List<ListenableFuture<SnapshotRoot.Merge>> merges = new ArrayList<>(dbs.size());
+    List<ListenableFuture<?>> others = new ArrayList<>();
+    for (Chainbase db : dbs) {
+      if (Snapshot.isRoot(db.getHead())) {
+        continue;
+      }
+      ListeningExecutorService service = flushServices.get(db.getDbName());
+      if (isShared(db)) {
+        shared.add(db);
+        SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
+        merges.add(service.submit(() -> root.prepareMerge(flushed(root))));
+      } else {
+        others.add(service.submit(() -> refreshOne(db)));
+      }
+    }
+    try (WriteBatch batch = new WriteBatch()) {
+      List<SnapshotRoot.Merge> prepared = Futures.allAsList(merges).get();
+      for (SnapshotRoot.Merge merge : prepared) {
+        merge.writeTo(batch);
+      }
+      RocksDbColumnFamilies.getInstance().write(batch,
+          CommonParameter.getInstance().getStorage().isDbSync());
+      for (int i = 0; i < shared.size(); i++) {
+        prepared.get(i).commit();
+        Chainbase db = shared.get(i);
+        SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
+        retire(db, root, flushed(root));
+      }
+      Futures.allAsList(others).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TronDBException(e);
+    } catch (ExecutionException | RocksDBException e) {
+      throw new TronDBException(e);
     }
+  }
 
-    List<Snapshot> snapshots = new ArrayList<>();
+  private boolean isShared(Chainbase db) {
+    DB<byte[], byte[]> root = ((SnapshotRoot) db.getHead().getRoot()).getDb();
+    return root instanceof RocksDB && ((RocksDB) root).getDb().isColumnFamily();
+  }
 
-    SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
+  private List<Snapshot> flushed(SnapshotRoot root) {
+    List<Snapshot> snapshots = new ArrayList<>();
     Snapshot next = root;
     for (int i = 0; i < flushCount; ++i) {
       next = next.getNext();
       snapshots.add(next);
     }
+    return snapshots;
+  }
+
+  private void refreshOne(Chainbase db) {
+    if (Snapshot.isRoot(db.getHead())) {
+      return;
+    }
+
+    SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
+    List<Snapshot> snapshots = flushed(root);
 
     root.merge(snapshots);
 
+    retire(db, root, snapshots);
+  }
+
+  private void retire(Chainbase db, SnapshotRoot root, List<Snapshot> snapshots) {
+    Snapshot next = snapshots.isEmpty() ? root : snapshots.get(snapshots.size() - 1);
     root.resetSolidity();
     if (db.getHead() == next) {
       db.setHead(root);
@@ -351,13 +423,20 @@ public class SnapshotManager implements RevokingDatabase {
     if (shouldBeRefreshed()) {
       try {
         long start = System.currentTimeMillis();
-        if (!isV2Open()) {
-          deleteCheckpoint();
+        boolean shared = RocksDbColumnFamilies.isEnabled();
+        if (!shared) {
+          if (!isV2Open()) {
+            deleteCheckpoint();
+          }
+          createCheckpoint();
         }
-        createCheckpoint();
 
         long checkPointEnd = System.currentTimeMillis();
-        refresh();
+        if (shared) {
+          refreshShared();
+        } else {
+          refresh();
+        }
         flushCount = 0;
         logger.info("Flush cost: {} ms, create checkpoint cost: {} ms, refresh cost: {} ms.",
             System.currentTimeMillis() - start,
@@ -375,34 +454,14 @@ public class SnapshotManager implements RevokingDatabase {
   private void createCheckpoint() {
     TronDatabase<byte[]> checkPointStore = null;
     boolean syncFlag;
+    ListenableFuture<List<Object>> collectors = null;
     try {
-      Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
       for (Chainbase db : dbs) {
-        Snapshot head = db.getHead();
-        if (Snapshot.isRoot(head)) {
+        if (Snapshot.isRoot(db.getHead())) {
           return;
         }
-
-        String dbName = db.getDbName();
-
-        if (Objects.equals(dbName, "trans-cache")) {
-          // trans-cache is deprecated
-          continue;
-        }
-
-        Snapshot next = head.getRoot();
-        for (int i = 0; i < flushCount; ++i) {
-          next = next.getNext();
-          SnapshotImpl snapshot = (SnapshotImpl) next;
-          DB<Key, Value> keyValueDB = snapshot.getDb();
-          for (Map.Entry<Key, Value> e : keyValueDB) {
-            Key k = e.getKey();
-            Value v = e.getValue();
-            batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-                WrappedByteArray.of(v.encode()));
-          }
-        }
       }
+
       if (isV2Open()) {
         String dbName = String.valueOf(System.currentTimeMillis());
         checkPointStore = getCheckpointDB(dbName);
@@ -412,20 +471,117 @@ public class SnapshotManager implements RevokingDatabase {
         syncFlag = CommonParameter.getInstance().getStorage().isDbSync();
       }
 
-      checkPointStore.getDbSource().updateByBatch(batch.entrySet().stream()
-              .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-              .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
+      // the marker is removed by the last write, a checkpoint that still has it
+      // was interrupted before any root was touched and must not be recovered
+      WriteOptionsWrapper chunkOptions = WriteOptionsWrapper.getInstance().sync(false);
+      Map<byte[], byte[]> marker = new HashMap<>();
+      marker.put(CHECKPOINT_MARKER, CHECKPOINT_MARKER);
+      checkPointStore.getDbSource().updateByBatch(marker, chunkOptions);
+
+      BlockingQueue<CheckpointChunk> chunks = new ArrayBlockingQueue<>(CHECKPOINT_QUEUE_SIZE);
+      Map<String, CheckpointStat> stats = new HashMap<>();
+      List<ListenableFuture<Object>> futures = new ArrayList<>(dbs.size());
+      for (Chainbase db : dbs) {
+        String dbName = db.getDbName();
+        if (Objects.equals(dbName, "trans-cache")) {
+          // trans-cache is deprecated
+          continue;
+        }
+        CheckpointStat stat = new CheckpointStat();
+        stats.put(dbName, stat);
+        futures.add(flushServices.get(dbName).submit(() -> {
+          collectCheckpoint(db, stat, chunks);
+          return null;
+        }));
+      }
+      collectors = Futures.allAsList(futures);
+
+      while (true) {
+        CheckpointChunk chunk = chunks.poll(CHECKPOINT_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (chunk == null && collectors.isDone()) {
+          // surface a failed collector before the checkpoint is committed
+          collectors.get();
+          chunk = chunks.poll();
+          if (chunk == null) {
+            break;
+          }
+        }
+        if (chunk != null) {
+          writeCheckpointChunk(checkPointStore, chunkOptions, chunk,
+              stats.get(chunk.dbName));
+        }
+      }
+
+      Map<byte[], byte[]> commit = new HashMap<>();
+      commit.put(CHECKPOINT_MARKER, null);
+      checkPointStore.getDbSource().updateByBatch(commit,
           WriteOptionsWrapper.getInstance().sync(syncFlag));
 
+      stats.forEach((dbName, stat) -> {
+        Metrics.counterInc(MetricKeys.Counter.CHECKPOINT_KEYS, stat.keys, dbName);
+        Metrics.histogramObserve(MetricKeys.Histogram.CHECKPOINT_BYTES, stat.bytes, dbName);
+        Metrics.histogramObserve(MetricKeys.Histogram.CHECKPOINT_LATENCY,
+            (stat.collectNanos + stat.writeNanos) / NANOS_PER_SECOND, dbName);
+      });
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TronDBException(e);
     } catch (Exception e) {
       throw new TronDBException(e);
     } finally {
+      if (collectors != null && !collectors.isDone()) {
+        // unblock collectors waiting on a full queue
+        collectors.cancel(true);
+      }
       if (isV2Open() && checkPointStore != null) {
         checkPointStore.close();
       }
     }
   }
 
+  /**
+   * Runs on the flush service of the db, layers are visited oldest first and the
+   * chunks keep insertion order, so a later value of a key overwrites an earlier one.
+   */
+  private void collectCheckpoint(Chainbase db, CheckpointStat stat,
+      BlockingQueue<CheckpointChunk> chunks) throws InterruptedException {
+    long start = System.nanoTime();
+    String dbName = db.getDbName();
+    byte[] prefix = simpleEncode(dbName);
+    CheckpointChunk chunk = new CheckpointChunk(dbName);
+    Snapshot next = db.getHead().getRoot();
+    for (int i = 0; i < flushCount; ++i) {
+      next = next.getNext();
+      SnapshotImpl snapshot = (SnapshotImpl) next;
+      DB<Key, Value> keyValueDB = snapshot.getDb();
+      for (Map.Entry<Key, Value> e : keyValueDB) {
+        byte[] k = Bytes.concat(prefix, e.getKey().getBytes());
+        byte[] v = e.getValue().encode();
+        chunk.rows.put(k, v);
+        chunk.bytes += k.length + v.length;
+        if (chunk.rows.size() >= CHECKPOINT_CHUNK_SIZE) {
+          stat.collectNanos += System.nanoTime() - start;
+          chunks.put(chunk);
+          start = System.nanoTime();
+          chunk = new CheckpointChunk(dbName);
+        }
+      }
+    }
+    stat.collectNanos += System.nanoTime() - start;
+    if (!chunk.rows.isEmpty()) {
+      chunks.put(chunk);
+    }
+  }
+
+  private void writeCheckpointChunk(TronDatabase<byte[]> checkPointStore,
+      WriteOptionsWrapper options, CheckpointChunk chunk, CheckpointStat stat) {
+    long start = System.nanoTime();
+    checkPointStore.getDbSource().updateByBatch(chunk.rows, options);
+    stat.writeNanos += System.nanoTime() - start;
+    stat.keys += chunk.rows.size();
+    stat.bytes += chunk.bytes;
+  }
+
   private TronDatabase<byte[]> getCheckpointDB(String dbName) {
     return new CheckPointV2Store(CHECKPOINT_V2_DIR+"/"+dbName);
   }
@@ -487,6 +643,10 @@ public class SnapshotManager implements RevokingDatabase {
   // ensure run this method first after process start.
   @Override
   public void check() {
+    if (RocksDbColumnFamilies.isEnabled()) {
+      checkShared();
+      return;
+    }
     if (!isV2Open()) {
       List<String> cpList = getCheckpointList();
       if (cpList != null && cpList.size() != 0) {
@@ -501,6 +661,32 @@ public class SnapshotManager implements RevokingDatabase {
     }
   }
 
+  /**
+   * The shared dbs are flushed by one atomic write and never checkpointed, so there is nothing
+   * to recover. A checkpoint left by the per-directory layout is older than what was flushed
+   * since and is dropped, replaying it would write its stale values over the newer ones.
+   */
+  private void checkShared() {
+    for (Chainbase db: dbs) {
+      if (!Snapshot.isRoot(db.getHead())) {
+        throw new IllegalStateException("First check.");
+      }
+    }
+    deleteCheckpoint();
+    List<String> cpList = getCheckpointList();
+    if (cpList != null && !cpList.isEmpty()) {
+      String checkpointPath = Paths.get(
+          StorageUtils.getOutputDirectoryByDbName(CHECKPOINT_V2_DIR),
+          CommonParameter.getInstance().getStorage().getDbDirectory(),
+          CHECKPOINT_V2_DIR).toString();
+      if (!FileUtil.recursiveDelete(checkpointPath)) {
+        throw new TronDBException("failed to delete checkpoint: " + checkpointPath);
+      }
+    }
+    logger.info("checkpoint skipped, the dbs are column families");
+    unChecked = false;
+  }
+
   private void checkV1() {
     for (Chainbase db: dbs) {
       if (!Snapshot.isRoot(db.getHead())) {
@@ -538,6 +724,10 @@ public class SnapshotManager implements RevokingDatabase {
   }
 
   private void recover(TronDatabase<byte[]> tronDatabase) {
+    if (tronDatabase.getDbSource().getData(CHECKPOINT_MARKER) != null) {
+      logger.warn("checkpoint {} is incomplete, skip it", tronDatabase.getDbName());
+      return;
+    }
     Map<String, Chainbase> dbMap = dbs.stream()
         .map(db -> Maps.immutableEntry(db.getDbName(), db))
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
@@ -571,7 +761,7 @@ public class SnapshotManager implements RevokingDatabase {
     return checkpointVersion == 2;
   }
 
-  private byte[] simpleEncode(String s) {
+  private static byte[] simpleEncode(String s) {
     byte[] bytes = s.getBytes();
     byte[] length = Ints.toByteArray(bytes.length);
     byte[] r = new byte[4 + bytes.length];
@@ -580,6 +770,26 @@ public class SnapshotManager implements RevokingDatabase {
     return r;
   }
 
+  private static class CheckpointChunk {
+
+    private final String dbName;
+    private final Map<byte[], byte[]> rows = new LinkedHashMap<>();
+    private long bytes;
+
+    private CheckpointChunk(String dbName) {
+      this.dbName = dbName;
+    }
+  }
+
+  // collectNanos belongs to the collector, the rest to the writer
+  private static class CheckpointStat {
+
+    private long collectNanos;
+    private long writeNanos;
+    private long keys;
+    private long bytes;
+  }
+
   @Slf4j(topic = "DB")
   @Getter // only for unit test
   public static class Session implements ISession {
@@ -9,15 +9,22 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.Getter;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.tron.common.cache.ByteCodec;
 import org.tron.common.cache.CacheManager;
 import org.tron.common.cache.CacheType;
 import org.tron.common.cache.TronCache;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.storage.metric.ChainbaseMetrics;
+import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
 import org.tron.common.utils.ByteArray;
 import org.tron.core.ChainBaseManager;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.db2.common.DB;
 import org.tron.core.db2.common.Flusher;
+import org.tron.core.db2.common.RocksDB;
 import org.tron.core.db2.common.WrappedByteArray;
 import org.tron.core.store.AccountAssetStore;
 
@@ -28,17 +35,22 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   private boolean isAccountDB;
 
   private TronCache<WrappedByteArray, WrappedByteArray> cache;
+  private final ChainbaseMetrics.Db metrics;
   private static final List<String> CACHE_DBS = CommonParameter.getInstance()
       .getStorage().getCacheDbs();
+  private static final ByteCodec<WrappedByteArray> CACHE_CODEC = ByteCodec.of(
+      WrappedByteArray::getBytes, WrappedByteArray::of);
 
   public SnapshotRoot(DB<byte[], byte[]> db) {
     this.db = db;
     solidity = this;
     isAccountDB = "account".equalsIgnoreCase(db.getDbName());
     if (CACHE_DBS.contains(this.db.getDbName())) {
-      this.cache = CacheManager.allocate(CacheType.findByType(this.db.getDbName()));
+      this.cache = CacheManager.allocate(CacheType.findByType(this.db.getDbName()),
+          CACHE_CODEC, CACHE_CODEC);
     }
     isOptimized = "properties".equalsIgnoreCase(db.getDbName());
+    metrics = ChainbaseMetrics.of(db.getDbName());
   }
 
   private boolean needOptAsset() {
@@ -49,10 +61,16 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   @Override
   public byte[] get(byte[] key) {
     WrappedByteArray cache = getCache(key);
+    if (cached()) {
+      metrics.cache(this.cache.getName(), cache != null);
+    }
     if (cache != null) {
       return cache.getBytes();
     }
+    long start = metrics.start();
     byte[] value = db.get(key);
+    // the bytes are counted by the chainbase reading through this root
+    metrics.latency(MetricLabels.Histogram.DB_OP_ROOT_GET, start);
     putCache(key, value);
     return value;
   }
@@ -105,6 +123,31 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   }
 
   public void merge(List<Snapshot> snapshots) {
+    Map<WrappedByteArray, WrappedByteArray> batch = collect(snapshots);
+    if (needOptAsset()) {
+      processAccount(batch);
+    } else {
+      ((Flusher) db).flush(batch);
+      putCache(batch);
+    }
+  }
+
+  /**
+   * Prepares the merge of the snapshots into a root whose db is a column family of the
+   * shared rocksdb instance, to be written in one batch with the other dbs.
+   */
+  public Merge prepareMerge(List<Snapshot> snapshots) {
+    Map<WrappedByteArray, WrappedByteArray> batch = collect(snapshots);
+    if (!needOptAsset()) {
+      return new Merge(batch, new HashMap<>());
+    }
+    Map<WrappedByteArray, WrappedByteArray> accounts = new HashMap<>();
+    Map<WrappedByteArray, WrappedByteArray> assets = new HashMap<>();
+    splitAssets(batch, accounts, assets);
+    return new Merge(accounts, assets);
+  }
+
+  private Map<WrappedByteArray, WrappedByteArray> collect(List<Snapshot> snapshots) {
     Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
     for (Snapshot snapshot : snapshots) {
       SnapshotImpl from = (SnapshotImpl) snapshot;
@@ -113,18 +156,25 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
               WrappedByteArray.of(e.getValue().getBytes())))
           .forEach(e -> batch.put(e.getKey(), e.getValue()));
     }
-    if (needOptAsset()) {
-      processAccount(batch);
-    } else {
-      ((Flusher) db).flush(batch);
-      putCache(batch);
-    }
+    return batch;
   }
 
   private void processAccount(Map<WrappedByteArray, WrappedByteArray> batch) {
     AccountAssetStore assetStore = ChainBaseManager.getInstance().getAccountAssetStore();
     Map<WrappedByteArray, WrappedByteArray> accounts = new HashMap<>();
     Map<WrappedByteArray, WrappedByteArray> assets = new HashMap<>();
+    splitAssets(batch, accounts, assets);
+    ((Flusher) db).flush(accounts);
+    putCache(accounts);
+    if (assets.size() > 0) {
+      assetStore.updateByBatch(AccountAssetStore.convert(assets));
+    }
+  }
+
+  private void splitAssets(Map<WrappedByteArray, WrappedByteArray> batch,
+      Map<WrappedByteArray, WrappedByteArray> accounts,
+      Map<WrappedByteArray, WrappedByteArray> assets) {
+    AccountAssetStore assetStore = ChainBaseManager.getInstance().getAccountAssetStore();
     batch.forEach((k, v) -> {
       if (ByteArray.isEmpty(v.getBytes())) {
         accounts.put(k, v);
@@ -140,11 +190,6 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
         accounts.put(k, WrappedByteArray.of(item.getData()));
       }
     });
-    ((Flusher) db).flush(accounts);
-    putCache(accounts);
-    if (assets.size() > 0) {
-      assetStore.updateByBatch(AccountAssetStore.convert(assets));
-    }
   }
 
   private boolean cached() {
@@ -225,4 +270,34 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
   @Override
   public void reloadToMem() { }
+
+  /**
+   * The rows a merge writes to this root, and to the account assets for the account db.
+   */
+  public final class Merge {
+
+    private final Map<WrappedByteArray, WrappedByteArray> rows;
+    private final Map<WrappedByteArray, WrappedByteArray> assets;
+
+    private Merge(Map<WrappedByteArray, WrappedByteArray> rows,
+        Map<WrappedByteArray, WrappedByteArray> assets) {
+      this.rows = rows;
+      this.assets = assets;
+    }
+
+    public void writeTo(WriteBatch batch) throws RocksDBException {
+      ((RocksDB) db).flush(rows, batch);
+      if (!assets.isEmpty()) {
+        ((RocksDbDataSourceImpl) ChainBaseManager.getInstance().getAccountAssetStore()
+            .getDbSource()).addToBatch(batch, AccountAssetStore.convert(assets));
+      }
+    }
+
+    /**
+     * Caches the rows once the batch is written.
+     */
+    public void commit() {
+      putCache(rows);
+    }
+  }
 }
@@ -6,12 +6,16 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.tron.common.cache.CacheType;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.utils.Commons;
 import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.db.DecodedCache;
 import org.tron.core.db.TronStoreWithRevoking;
 import org.tron.core.db.accountstate.AccountStateCallBackUtils;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Protocol.Account;
 import org.tron.protos.contract.BalanceContract.TransactionBalanceTrace;
 import org.tron.protos.contract.BalanceContract.TransactionBalanceTrace.Operation;
 
@@ -37,9 +41,12 @@ public class AccountStore extends TronStoreWithRevoking<AccountCapsule> {
   @Autowired
   private DynamicPropertiesStore dynamicPropertiesStore;
 
+  private final DecodedCache<Account> decodedCache;
+
   @Autowired
   private AccountStore(@Value("account") String dbName) {
     super(dbName);
+    decodedCache = new DecodedCache<>(dbName, CacheType.accountDecoded, Account.parser());
   }
 
   public static void setAccount(com.typesafe.config.Config config) {
@@ -55,7 +62,17 @@ public class AccountStore extends TronStoreWithRevoking<AccountCapsule> {
   @Override
   public AccountCapsule get(byte[] key) {
     byte[] value = revokingDB.getUnchecked(key);
-    return ArrayUtils.isEmpty(value) ? null : new AccountCapsule(value);
+    return ArrayUtils.isEmpty(value) ? null : decode(key, value);
+  }
+
+  @Override
+  protected AccountCapsule of(byte[] key, byte[] value) throws BadItemException {
+    return value == null ? of(value) : decode(key, value);
+  }
+
+  private AccountCapsule decode(byte[] key, byte[] value) {
+    Account account = decodedCache.decode(key, value);
+    return account == null ? new AccountCapsule(value) : new AccountCapsule(account);
   }
 
   @Override
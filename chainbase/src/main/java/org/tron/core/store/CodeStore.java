@@ -5,21 +5,53 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import java.util.Objects;
 import org.tron.core.capsule.CodeCapsule;
+import org.tron.core.db.BlockStateCache;
 import org.tron.core.db.TronStoreWithRevoking;
 
 @Slf4j(topic = "DB")
 @Component
 public class CodeStore extends TronStoreWithRevoking<CodeCapsule> {
 
+  private BlockStateCache.Section<byte[]> cache;
+
   @Autowired
   private CodeStore(@Value("code") String dbName) {
     super(dbName);
   }
 
+  @Autowired
+  private void setBlockStateCache(BlockStateCache blockStateCache) {
+    cache = blockStateCache.newSection();
+  }
+
   @Override
   public CodeCapsule get(byte[] key) {
-    return getUnchecked(key);
+    byte[] code = cache.getIfPresent(key);
+    if (code != null) {
+      return new CodeCapsule(code);
+    }
+    CodeCapsule codeCapsule = getUnchecked(key);
+    if (codeCapsule != null) {
+      cache.put(key, codeCapsule.getData());
+    }
+    return codeCapsule;
+  }
+
+  @Override
+  public void put(byte[] key, CodeCapsule item) {
+    if (Objects.isNull(key) || Objects.isNull(item)) {
+      return;
+    }
+    cache.invalidate(key);
+    revokingDB.put(key, item.getData());
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    cache.invalidate(key);
+    super.delete(key);
   }
 
   public long getTotalCodes() {
@@ -7,20 +7,37 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.tron.core.capsule.ContractStateCapsule;
+import org.tron.core.db.BlockStateCache;
 import org.tron.core.db.TronStoreWithRevoking;
+import org.tron.protos.contract.SmartContractOuterClass.ContractState;
 
 @Slf4j(topic = "DB")
 @Component
 public class ContractStateStore extends TronStoreWithRevoking<ContractStateCapsule> {
 
+  private BlockStateCache.Section<ContractState> cache;
+
   @Autowired
   private ContractStateStore(@Value("contract-state") String dbName) {
     super(dbName);
   }
 
+  @Autowired
+  private void setBlockStateCache(BlockStateCache blockStateCache) {
+    cache = blockStateCache.newSection();
+  }
+
   @Override
   public ContractStateCapsule get(byte[] key) {
-    return getUnchecked(key);
+    ContractState contractState = cache.getIfPresent(key);
+    if (contractState != null) {
+      return new ContractStateCapsule(contractState);
+    }
+    ContractStateCapsule contractStateCapsule = getUnchecked(key);
+    if (contractStateCapsule != null) {
+      cache.put(key, contractStateCapsule.getInstance());
+    }
+    return contractStateCapsule;
   }
 
   @Override
@@ -29,7 +46,14 @@ public class ContractStateStore extends TronStoreWithRevoking<ContractStateCapsu
       return;
     }
 
+    cache.invalidate(key);
     revokingDB.put(key, item.getData());
   }
 
+  @Override
+  public void delete(byte[] key) {
+    cache.invalidate(key);
+    super.delete(key);
+  }
+
 }
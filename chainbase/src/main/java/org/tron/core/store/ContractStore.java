@@ -6,9 +6,13 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.tron.common.cache.CacheType;
 import org.tron.core.capsule.AbiCapsule;
 import org.tron.core.capsule.ContractCapsule;
+import org.tron.core.db.BlockStateCache;
+import org.tron.core.db.DecodedCache;
 import org.tron.core.db.TronStoreWithRevoking;
+import org.tron.core.exception.BadItemException;
 import org.tron.protos.contract.SmartContractOuterClass.SmartContract;
 
 import java.util.Objects;
@@ -17,14 +21,38 @@ import java.util.Objects;
 @Component
 public class ContractStore extends TronStoreWithRevoking<ContractCapsule> {
 
+  private BlockStateCache.Section<SmartContract> cache;
+
+  private final DecodedCache<SmartContract> decodedCache;
+
   @Autowired
   private ContractStore(@Value("contract") String dbName) {
     super(dbName);
+    decodedCache = new DecodedCache<>(dbName, CacheType.contractDecoded, SmartContract.parser());
+  }
+
+  @Autowired
+  private void setBlockStateCache(BlockStateCache blockStateCache) {
+    cache = blockStateCache.newSection();
   }
 
   @Override
   public ContractCapsule get(byte[] key) {
-    return getUnchecked(key);
+    SmartContract contract = cache.getIfPresent(key);
+    if (contract != null) {
+      return new ContractCapsule(contract);
+    }
+    ContractCapsule contractCapsule = getUnchecked(key);
+    if (contractCapsule != null) {
+      cache.put(key, contractCapsule.getInstance());
+    }
+    return contractCapsule;
+  }
+
+  @Override
+  protected ContractCapsule of(byte[] key, byte[] value) throws BadItemException {
+    SmartContract contract = decodedCache.decode(key, value);
+    return contract == null ? of(value) : new ContractCapsule(contract);
   }
 
   @Override
@@ -36,9 +64,16 @@ public class ContractStore extends TronStoreWithRevoking<ContractCapsule> {
     if (item.getInstance().hasAbi()) {
       item = new ContractCapsule(item.getInstance().toBuilder().clearAbi().build());
     }
+    cache.invalidate(key);
     revokingDB.put(key, item.getData());
   }
 
+  @Override
+  public void delete(byte[] key) {
+    cache.invalidate(key);
+    super.delete(key);
+  }
+
   /**
    * get total transaction.
    */
@@ -5,6 +5,7 @@ import static org.tron.core.config.Parameter.ChainConstant.DELEGATE_PERIOD;
 
 import com.google.protobuf.ByteString;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.IntStream;
 import lombok.Getter;
@@ -19,8 +20,10 @@ import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BytesCapsule;
 import org.tron.core.config.Parameter.ChainConstant;
 import org.tron.core.db.TronStoreWithRevoking;
+import org.tron.core.db2.core.Chainbase;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ItemNotFoundException;
+import org.tron.core.store.DynamicPropertiesView.Property;
 
 @Slf4j(topic = "DB")
 @Component
@@ -223,6 +226,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   private static final byte[] MAX_CREATE_ACCOUNT_TX_SIZE = "MAX_CREATE_ACCOUNT_TX_SIZE".getBytes();
 
+  private final DynamicPropertiesView view = new DynamicPropertiesView((Chainbase) revokingDB);
+
   @Autowired
   private DynamicPropertiesStore(@Value("properties") String dbName) {
     super(dbName);
@@ -960,6 +965,54 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
     }
   }
 
+  @Override
+  public void put(byte[] key, BytesCapsule item) {
+    if (Objects.isNull(key) || Objects.isNull(item)) {
+      return;
+    }
+    view.put(key, item.getData());
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    view.delete(key);
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) throws ItemNotFoundException {
+    Property property = view.get(key);
+    if (!property.isPresent()) {
+      throw new ItemNotFoundException();
+    }
+    return new BytesCapsule(property.getData());
+  }
+
+  @Override
+  public BytesCapsule getUnchecked(byte[] key) {
+    return new BytesCapsule(view.get(key).getData());
+  }
+
+  private long getLong(byte[] key, String error) {
+    Property property = view.get(key);
+    if (!property.isPresent()) {
+      throw new IllegalArgumentException(error);
+    }
+    return property.getLong();
+  }
+
+  private long getLong(byte[] key, long defaultValue) {
+    Property property = view.get(key);
+    return property.isPresent() ? property.getLong() : defaultValue;
+  }
+
+  private int getInt(byte[] key, String error) {
+    Property property = view.get(key);
+    if (!property.isPresent()) {
+      throw new IllegalArgumentException(error);
+    }
+    return property.getInt();
+  }
+
   public String intArrayToString(int[] a) {
     StringBuilder sb = new StringBuilder();
     for (int i : a) {
@@ -983,11 +1036,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTokenIdNum() {
-    return Optional.ofNullable(getUnchecked(TOKEN_ID_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOKEN_ID_NUM"));
+    return getLong(TOKEN_ID_NUM, "not found TOKEN_ID_NUM");
   }
 
   public void saveTokenUpdateDone(long num) {
@@ -996,11 +1045,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTokenUpdateDone() {
-    return Optional.ofNullable(getUnchecked(TOKEN_UPDATE_DONE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOKEN_UPDATE_DONE"));
+    return getLong(TOKEN_UPDATE_DONE, "not found TOKEN_UPDATE_DONE");
   }
 
   public void saveAbiMoveDone(long num) {
@@ -1009,11 +1054,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAbiMoveDone() {
-    return Optional.ofNullable(getUnchecked(ABI_MOVE_DONE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ABI_MOVE_DONE"));
+    return getLong(ABI_MOVE_DONE, "not found ABI_MOVE_DONE");
   }
 
   public void saveBlockFilledSlotsIndex(int blockFilledSlotsIndex) {
@@ -1023,11 +1064,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getBlockFilledSlotsIndex() {
-    return Optional.ofNullable(getUnchecked(BLOCK_FILLED_SLOTS_INDEX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found BLOCK_FILLED_SLOTS_INDEX"));
+    return getInt(BLOCK_FILLED_SLOTS_INDEX, "not found BLOCK_FILLED_SLOTS_INDEX");
   }
 
   public void saveMaxFrozenTime(int maxFrozenTime) {
@@ -1037,11 +1074,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getMaxFrozenTime() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FROZEN_TIME"));
+    return getInt(MAX_FROZEN_TIME, "not found MAX_FROZEN_TIME");
   }
 
   public void saveMinFrozenTime(int minFrozenTime) {
@@ -1051,11 +1084,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getMinFrozenTime() {
-    return Optional.ofNullable(getUnchecked(MIN_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MIN_FROZEN_TIME"));
+    return getInt(MIN_FROZEN_TIME, "not found MIN_FROZEN_TIME");
   }
 
   public void saveMaxFrozenSupplyNumber(int maxFrozenSupplyNumber) {
@@ -1065,11 +1094,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getMaxFrozenSupplyNumber() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_NUMBER"));
+    return getInt(MAX_FROZEN_SUPPLY_NUMBER, "not found MAX_FROZEN_SUPPLY_NUMBER");
   }
 
   public void saveMaxFrozenSupplyTime(int maxFrozenSupplyTime) {
@@ -1079,11 +1104,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getMaxFrozenSupplyTime() {
-    return Optional.ofNullable(getUnchecked(MAX_FROZEN_SUPPLY_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FROZEN_SUPPLY_TIME"));
+    return getInt(MAX_FROZEN_SUPPLY_TIME, "not found MAX_FROZEN_SUPPLY_TIME");
   }
 
   public void saveMinFrozenSupplyTime(int minFrozenSupplyTime) {
@@ -1093,11 +1114,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getMinFrozenSupplyTime() {
-    return Optional.ofNullable(getUnchecked(MIN_FROZEN_SUPPLY_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MIN_FROZEN_SUPPLY_TIME"));
+    return getInt(MIN_FROZEN_SUPPLY_TIME, "not found MIN_FROZEN_SUPPLY_TIME");
   }
 
   public void saveWitnessAllowanceFrozenTime(int witnessAllowanceFrozenTime) {
@@ -1107,11 +1124,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getWitnessAllowanceFrozenTime() {
-    return Optional.ofNullable(getUnchecked(WITNESS_ALLOWANCE_FROZEN_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found WITNESS_ALLOWANCE_FROZEN_TIME"));
+    return getInt(WITNESS_ALLOWANCE_FROZEN_TIME, "not found WITNESS_ALLOWANCE_FROZEN_TIME");
   }
 
   public void saveMaintenanceTimeInterval(long timeInterval) {
@@ -1121,11 +1134,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMaintenanceTimeInterval() {
-    return Optional.ofNullable(getUnchecked(MAINTENANCE_TIME_INTERVAL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAINTENANCE_TIME_INTERVAL"));
+    return getLong(MAINTENANCE_TIME_INTERVAL, "not found MAINTENANCE_TIME_INTERVAL");
   }
 
   public void saveAccountUpgradeCost(long accountUpgradeCost) {
@@ -1135,11 +1144,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAccountUpgradeCost() {
-    return Optional.ofNullable(getUnchecked(ACCOUNT_UPGRADE_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ACCOUNT_UPGRADE_COST"));
+    return getLong(ACCOUNT_UPGRADE_COST, "not found ACCOUNT_UPGRADE_COST");
   }
 
   public void saveWitnessPayPerBlock(long pay) {
@@ -1149,11 +1154,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getWitnessPayPerBlock() {
-    return Optional.ofNullable(getUnchecked(WITNESS_PAY_PER_BLOCK))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found WITNESS_PAY_PER_BLOCK"));
+    return getLong(WITNESS_PAY_PER_BLOCK, "not found WITNESS_PAY_PER_BLOCK");
   }
 
   public void saveWitness127PayPerBlock(long pay) {
@@ -1163,10 +1164,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getWitness127PayPerBlock() {
-    return Optional.ofNullable(getUnchecked(WITNESS_127_PAY_PER_BLOCK))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(16000000L);
+    return getLong(WITNESS_127_PAY_PER_BLOCK, 16000000L);
   }
 
   public void saveWitnessStandbyAllowance(long allowance) {
@@ -1176,11 +1174,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getWitnessStandbyAllowance() {
-    return Optional.ofNullable(getUnchecked(WITNESS_STANDBY_ALLOWANCE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found WITNESS_STANDBY_ALLOWANCE"));
+    return getLong(WITNESS_STANDBY_ALLOWANCE, "not found WITNESS_STANDBY_ALLOWANCE");
   }
 
   public void saveOneDayNetLimit(long oneDayNetLimit) {
@@ -1189,11 +1183,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getOneDayNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.ONE_DAY_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ONE_DAY_NET_LIMIT"));
+    return getLong(DynamicResourceProperties.ONE_DAY_NET_LIMIT, "not found ONE_DAY_NET_LIMIT");
   }
 
   public void savePublicNetUsage(long publicNetUsage) {
@@ -1202,11 +1192,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getPublicNetUsage() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_USAGE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found PUBLIC_NET_USAGE"));
+    return getLong(DynamicResourceProperties.PUBLIC_NET_USAGE, "not found PUBLIC_NET_USAGE");
   }
 
   public void savePublicNetLimit(long publicNetLimit) {
@@ -1215,11 +1201,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getPublicNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found PUBLIC_NET_LIMIT"));
+    return getLong(DynamicResourceProperties.PUBLIC_NET_LIMIT, "not found PUBLIC_NET_LIMIT");
   }
 
   public void savePublicNetTime(long publicNetTime) {
@@ -1228,11 +1210,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getPublicNetTime() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.PUBLIC_NET_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found PUBLIC_NET_TIME"));
+    return getLong(DynamicResourceProperties.PUBLIC_NET_TIME, "not found PUBLIC_NET_TIME");
   }
 
   public void saveFreeNetLimit(long freeNetLimit) {
@@ -1241,11 +1219,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getFreeNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.FREE_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found FREE_NET_LIMIT"));
+    return getLong(DynamicResourceProperties.FREE_NET_LIMIT, "not found FREE_NET_LIMIT");
   }
 
   public void saveTotalNetWeight(long totalNetWeight) {
@@ -1254,11 +1228,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalNetWeight() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_NET_WEIGHT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_NET_WEIGHT"));
+    return getLong(DynamicResourceProperties.TOTAL_NET_WEIGHT, "not found TOTAL_NET_WEIGHT");
   }
 
   public void saveTotalEnergyWeight(long totalEnergyWeight) {
@@ -1267,11 +1237,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyWeight() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_WEIGHT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_ENERGY_WEIGHT"));
+    return getLong(DynamicResourceProperties.TOTAL_ENERGY_WEIGHT, "not found TOTAL_ENERGY_WEIGHT");
   }
 
   public void saveTotalTronPowerWeight(long totalEnergyWeight) {
@@ -1280,11 +1246,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalTronPowerWeight() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_TRON_POWER_WEIGHT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_TRON_POWER_WEIGHT"));
+    return getLong(DynamicResourceProperties.TOTAL_TRON_POWER_WEIGHT,
+        "not found TOTAL_TRON_POWER_WEIGHT");
   }
 
   public void saveTotalNetLimit(long totalNetLimit) {
@@ -1293,11 +1256,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalNetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_NET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_NET_LIMIT"));
+    return getLong(DynamicResourceProperties.TOTAL_NET_LIMIT, "not found TOTAL_NET_LIMIT");
   }
 
   @Deprecated
@@ -1321,11 +1280,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_ENERGY_LIMIT"));
+    return getLong(DynamicResourceProperties.TOTAL_ENERGY_LIMIT, "not found TOTAL_ENERGY_LIMIT");
   }
 
   public void saveTotalEnergyCurrentLimit(long totalEnergyCurrentLimit) {
@@ -1334,11 +1289,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyCurrentLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_CURRENT_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_ENERGY_CURRENT_LIMIT"));
+    return getLong(DynamicResourceProperties.TOTAL_ENERGY_CURRENT_LIMIT,
+        "not found TOTAL_ENERGY_CURRENT_LIMIT");
   }
 
   public void saveTotalEnergyTargetLimit(long targetTotalEnergyLimit) {
@@ -1347,11 +1299,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyTargetLimit() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_TARGET_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_ENERGY_TARGET_LIMIT"));
+    return getLong(DynamicResourceProperties.TOTAL_ENERGY_TARGET_LIMIT,
+        "not found TOTAL_ENERGY_TARGET_LIMIT");
   }
 
   public void saveTotalEnergyAverageUsage(long totalEnergyAverageUsage) {
@@ -1360,11 +1309,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyAverageUsage() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_USAGE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_ENERGY_AVERAGE_USAGE"));
+    return getLong(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_USAGE,
+        "not found TOTAL_ENERGY_AVERAGE_USAGE");
   }
 
   public void saveAdaptiveResourceLimitMultiplier(long adaptiveResourceLimitMultiplier) {
@@ -1373,12 +1319,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAdaptiveResourceLimitMultiplier() {
-    return Optional
-        .ofNullable(getUnchecked(DynamicResourceProperties.ADAPTIVE_RESOURCE_LIMIT_MULTIPLIER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ADAPTIVE_RESOURCE_LIMIT_MULTIPLIER"));
+    return getLong(DynamicResourceProperties.ADAPTIVE_RESOURCE_LIMIT_MULTIPLIER,
+        "not found ADAPTIVE_RESOURCE_LIMIT_MULTIPLIER");
   }
 
   public void saveAdaptiveResourceLimitTargetRatio(long adaptiveResourceLimitTargetRatio) {
@@ -1387,12 +1329,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAdaptiveResourceLimitTargetRatio() {
-    return Optional
-        .ofNullable(getUnchecked(DynamicResourceProperties.ADAPTIVE_RESOURCE_LIMIT_TARGET_RATIO))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ADAPTIVE_RESOURCE_LIMIT_TARGET_RATIO"));
+    return getLong(DynamicResourceProperties.ADAPTIVE_RESOURCE_LIMIT_TARGET_RATIO,
+        "not found ADAPTIVE_RESOURCE_LIMIT_TARGET_RATIO");
   }
 
   public void saveTotalEnergyAverageTime(long totalEnergyAverageTime) {
@@ -1401,11 +1339,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalEnergyAverageTime() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_NET_AVERAGE_TIME"));
+    return getLong(DynamicResourceProperties.TOTAL_ENERGY_AVERAGE_TIME,
+        "not found TOTAL_NET_AVERAGE_TIME");
   }
 
   public void saveBlockEnergyUsage(long blockEnergyUsage) {
@@ -1414,11 +1349,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getBlockEnergyUsage() {
-    return Optional.ofNullable(getUnchecked(DynamicResourceProperties.BLOCK_ENERGY_USAGE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found BLOCK_ENERGY_USAGE"));
+    return getLong(DynamicResourceProperties.BLOCK_ENERGY_USAGE, "not found BLOCK_ENERGY_USAGE");
   }
 
   public void saveEnergyFee(long totalEnergyFee) {
@@ -1427,11 +1358,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getEnergyFee() {
-    return Optional.ofNullable(getUnchecked(ENERGY_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ENERGY_FEE"));
+    return getLong(ENERGY_FEE, "not found ENERGY_FEE");
   }
 
   public void saveMaxCpuTimeOfOneTx(long time) {
@@ -1440,11 +1367,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMaxCpuTimeOfOneTx() {
-    return Optional.ofNullable(getUnchecked(MAX_CPU_TIME_OF_ONE_TX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_CPU_TIME_OF_ONE_TX"));
+    return getLong(MAX_CPU_TIME_OF_ONE_TX, "not found MAX_CPU_TIME_OF_ONE_TX");
   }
 
   public void saveCreateAccountFee(long fee) {
@@ -1453,12 +1376,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getShieldedTransactionCreateAccountFee() {
-    return Optional.ofNullable(getUnchecked(SHIELDED_TRANSACTION_CREATE_ACCOUNT_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(
-                "not found SHIELDED_TRANSACTION_CREATE_ACCOUNT_FEE"));
+    return getLong(SHIELDED_TRANSACTION_CREATE_ACCOUNT_FEE,
+        "not found SHIELDED_TRANSACTION_CREATE_ACCOUNT_FEE");
   }
 
   public void saveShieldedTransactionCreateAccountFee(long fee) {
@@ -1467,11 +1386,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getShieldedTransactionFee() {
-    return Optional.ofNullable(getUnchecked(SHIELDED_TRANSACTION_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found SHIELD_TRANSACTION_FEE"));
+    return getLong(SHIELDED_TRANSACTION_FEE, "not found SHIELD_TRANSACTION_FEE");
   }
 
   public void saveShieldedTransactionFee(long fee) {
@@ -1480,11 +1395,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalShieldedPoolValue() {
-    return Optional.ofNullable(getUnchecked(TOTAL_SHIELDED_POOL_VALUE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_SHIELDED_POOL_Value"));
+    return getLong(TOTAL_SHIELDED_POOL_VALUE, "not found TOTAL_SHIELDED_POOL_Value");
   }
 
   public void saveTotalShieldedPoolValue(long value) {
@@ -1493,11 +1404,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getCreateAccountFee() {
-    return Optional.ofNullable(getUnchecked(CREATE_ACCOUNT_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found CREATE_ACCOUNT_FEE"));
+    return getLong(CREATE_ACCOUNT_FEE, "not found CREATE_ACCOUNT_FEE");
   }
 
   public void saveCreateNewAccountFeeInSystemContract(long fee) {
@@ -1506,12 +1413,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getCreateNewAccountFeeInSystemContract() {
-    return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(
-                "not found CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT"));
+    return getLong(CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT,
+        "not found CREATE_NEW_ACCOUNT_FEE_IN_SYSTEM_CONTRACT");
   }
 
   public void saveCreateNewAccountBandwidthRate(long rate) {
@@ -1520,12 +1423,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getCreateNewAccountBandwidthRate() {
-    return Optional.ofNullable(getUnchecked(CREATE_NEW_ACCOUNT_BANDWIDTH_RATE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(
-                "not found CREATE_NsEW_ACCOUNT_BANDWIDTH_RATE2"));
+    return getLong(CREATE_NEW_ACCOUNT_BANDWIDTH_RATE,
+        "not found CREATE_NsEW_ACCOUNT_BANDWIDTH_RATE2");
   }
 
   public void saveTransactionFee(long fee) {
@@ -1534,11 +1433,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTransactionFee() {
-    return Optional.ofNullable(getUnchecked(TRANSACTION_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TRANSACTION_FEE"));
+    return getLong(TRANSACTION_FEE, "not found TRANSACTION_FEE");
   }
 
   public void saveAssetIssueFee(long fee) {
@@ -1557,27 +1452,15 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAssetIssueFee() {
-    return Optional.ofNullable(getUnchecked(ASSET_ISSUE_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ASSET_ISSUE_FEE"));
+    return getLong(ASSET_ISSUE_FEE, "not found ASSET_ISSUE_FEE");
   }
 
   public long getUpdateAccountPermissionFee() {
-    return Optional.ofNullable(getUnchecked(UPDATE_ACCOUNT_PERMISSION_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found UPDATE_ACCOUNT_PERMISSION_FEE"));
+    return getLong(UPDATE_ACCOUNT_PERMISSION_FEE, "not found UPDATE_ACCOUNT_PERMISSION_FEE");
   }
 
   public long getMultiSignFee() {
-    return Optional.ofNullable(getUnchecked(MULTI_SIGN_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MULTI_SIGN_FEE"));
+    return getLong(MULTI_SIGN_FEE, "not found MULTI_SIGN_FEE");
   }
 
   public void saveExchangeCreateFee(long fee) {
@@ -1586,11 +1469,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getExchangeCreateFee() {
-    return Optional.ofNullable(getUnchecked(EXCHANGE_CREATE_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found EXCHANGE_CREATE_FEE"));
+    return getLong(EXCHANGE_CREATE_FEE, "not found EXCHANGE_CREATE_FEE");
   }
 
   public void saveExchangeBalanceLimit(long limit) {
@@ -1599,11 +1478,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getExchangeBalanceLimit() {
-    return Optional.ofNullable(getUnchecked(EXCHANGE_BALANCE_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found EXCHANGE_BALANCE_LIMIT"));
+    return getLong(EXCHANGE_BALANCE_LIMIT, "not found EXCHANGE_BALANCE_LIMIT");
   }
 
   public void saveAllowMarketTransaction(long allowMarketTransaction) {
@@ -1612,11 +1487,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowMarketTransaction() {
-    return Optional.ofNullable(getUnchecked(ALLOW_MARKET_TRANSACTION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_MARKET_TRANSACTION"));
+    return getLong(ALLOW_MARKET_TRANSACTION, "not found ALLOW_MARKET_TRANSACTION");
   }
 
   public boolean supportAllowMarketTransaction() {
@@ -1629,11 +1500,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMarketSellFee() {
-    return Optional.ofNullable(getUnchecked(MARKET_SELL_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MARKET_SELL_FEE"));
+    return getLong(MARKET_SELL_FEE, "not found MARKET_SELL_FEE");
   }
 
   public void saveMarketCancelFee(long fee) {
@@ -1642,11 +1509,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMarketCancelFee() {
-    return Optional.ofNullable(getUnchecked(MARKET_CANCEL_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MARKET_CANCEL_FEE"));
+    return getLong(MARKET_CANCEL_FEE, "not found MARKET_CANCEL_FEE");
   }
 
   public void saveMarketQuantityLimit(long limit) {
@@ -1655,11 +1518,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMarketQuantityLimit() {
-    return Optional.ofNullable(getUnchecked(MARKET_QUANTITY_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MARKET_QUANTITY_LIMIT"));
+    return getLong(MARKET_QUANTITY_LIMIT, "not found MARKET_QUANTITY_LIMIT");
   }
 
 
@@ -1673,11 +1532,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowTransactionFeePool() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TRANSACTION_FEE_POOL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_TRANSACTION_FEE_POOL"));
+    return getLong(ALLOW_TRANSACTION_FEE_POOL, "not found ALLOW_TRANSACTION_FEE_POOL");
   }
 
   public void addTransactionFeePool(long amount) {
@@ -1694,11 +1549,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTransactionFeePool() {
-    return Optional.ofNullable(getUnchecked(TRANSACTION_FEE_POOL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TRANSACTION_FEE_POOL"));
+    return getLong(TRANSACTION_FEE_POOL, "not found TRANSACTION_FEE_POOL");
   }
 
   public void saveTotalTransactionCost(long value) {
@@ -1707,11 +1558,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalTransactionCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_TRANSACTION_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_TRANSACTION_COST"));
+    return getLong(TOTAL_TRANSACTION_COST, "not found TOTAL_TRANSACTION_COST");
   }
 
   public void saveTotalCreateAccountFee(long value) {
@@ -1720,11 +1567,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalCreateAccountCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_CREATE_ACCOUNT_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_CREATE_ACCOUNT_COST"));
+    return getLong(TOTAL_CREATE_ACCOUNT_COST, "not found TOTAL_CREATE_ACCOUNT_COST");
   }
 
   public void saveTotalCreateWitnessFee(long value) {
@@ -1733,11 +1576,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalCreateWitnessCost() {
-    return Optional.ofNullable(getUnchecked(TOTAL_CREATE_WITNESS_COST))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_CREATE_WITNESS_COST"));
+    return getLong(TOTAL_CREATE_WITNESS_COST, "not found TOTAL_CREATE_WITNESS_COST");
   }
 
   public void saveTotalStoragePool(long trx) {
@@ -1746,11 +1585,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalStoragePool() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_POOL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_STORAGE_POOL"));
+    return getLong(TOTAL_STORAGE_POOL, "not found TOTAL_STORAGE_POOL");
   }
 
   public void saveTotalStorageTax(long trx) {
@@ -1759,11 +1594,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalStorageTax() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_TAX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_STORAGE_TAX"));
+    return getLong(TOTAL_STORAGE_TAX, "not found TOTAL_STORAGE_TAX");
   }
 
   public void saveTotalStorageReserved(long bytes) {
@@ -1772,11 +1603,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getTotalStorageReserved() {
-    return Optional.ofNullable(getUnchecked(TOTAL_STORAGE_RESERVED))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_STORAGE_RESERVED"));
+    return getLong(TOTAL_STORAGE_RESERVED, "not found TOTAL_STORAGE_RESERVED");
   }
 
   public void saveStorageExchangeTaxRate(long rate) {
@@ -1785,11 +1612,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getStorageExchangeTaxRate() {
-    return Optional.ofNullable(getUnchecked(STORAGE_EXCHANGE_TAX_RATE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found STORAGE_EXCHANGE_TAX_RATE"));
+    return getLong(STORAGE_EXCHANGE_TAX_RATE, "not found STORAGE_EXCHANGE_TAX_RATE");
   }
 
   public void saveRemoveThePowerOfTheGr(long rate) {
@@ -1798,11 +1621,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getRemoveThePowerOfTheGr() {
-    return Optional.ofNullable(getUnchecked(REMOVE_THE_POWER_OF_THE_GR))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found REMOVE_THE_POWER_OF_THE_GR"));
+    return getLong(REMOVE_THE_POWER_OF_THE_GR, "not found REMOVE_THE_POWER_OF_THE_GR");
   }
 
   public void saveAllowDelegateResource(long value) {
@@ -1811,11 +1630,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowDelegateResource() {
-    return Optional.ofNullable(getUnchecked(ALLOW_DELEGATE_RESOURCE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_DELEGATE_RESOURCE"));
+    return getLong(ALLOW_DELEGATE_RESOURCE, "not found ALLOW_DELEGATE_RESOURCE");
   }
 
   public void saveAllowAdaptiveEnergy(long value) {
@@ -1824,11 +1639,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowAdaptiveEnergy() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ADAPTIVE_ENERGY))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_ADAPTIVE_ENERGY"));
+    return getLong(ALLOW_ADAPTIVE_ENERGY, "not found ALLOW_ADAPTIVE_ENERGY");
   }
 
   public void saveAllowTvmTransferTrc10(long value) {
@@ -1837,11 +1648,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowTvmTransferTrc10() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_TRANSFER_TRC10))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_TVM_TRANSFER_TRC10"));
+    return getLong(ALLOW_TVM_TRANSFER_TRC10, "not found ALLOW_TVM_TRANSFER_TRC10");
   }
 
   public void saveAllowTvmConstantinople(long value) {
@@ -1850,11 +1657,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowTvmConstantinople() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_CONSTANTINOPLE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_TVM_CONSTANTINOPLE"));
+    return getLong(ALLOW_TVM_CONSTANTINOPLE, "not found ALLOW_TVM_CONSTANTINOPLE");
   }
 
   public void saveAllowTvmSolidity059(long value) {
@@ -1863,10 +1666,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowTvmSolidity059() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_SOLIDITY_059))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found ALLOW_TVM_SOLIDITY_059"));
+    return getLong(ALLOW_TVM_SOLIDITY_059, "not found ALLOW_TVM_SOLIDITY_059");
   }
 
   public void saveForbidTransferToContract(long value) {
@@ -1875,10 +1675,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getForbidTransferToContract() {
-    return Optional.ofNullable(getUnchecked(FORBID_TRANSFER_TO_CONTRACT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found FORBID_TRANSFER_TO_CONTRACT"));
+    return getLong(FORBID_TRANSFER_TO_CONTRACT, "not found FORBID_TRANSFER_TO_CONTRACT");
   }
 
   public void saveAvailableContractType(byte[] value) {
@@ -1934,11 +1731,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowUpdateAccountName() {
-    return Optional.ofNullable(getUnchecked(ALLOW_UPDATE_ACCOUNT_NAME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_UPDATE_ACCOUNT_NAME"));
+    return getLong(ALLOW_UPDATE_ACCOUNT_NAME, "not found ALLOW_UPDATE_ACCOUNT_NAME");
   }
 
   public void saveAllowSameTokenName(long rate) {
@@ -1947,11 +1740,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowSameTokenName() {
-    return Optional.ofNullable(getUnchecked(ALLOW_SAME_TOKEN_NAME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_SAME_TOKEN_NAME"));
+    return getLong(ALLOW_SAME_TOKEN_NAME, "not found ALLOW_SAME_TOKEN_NAME");
   }
 
   public void saveAllowCreationOfContracts(long allowCreationOfContracts) {
@@ -1965,11 +1754,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getTotalSignNum() {
-    return Optional.ofNullable(getUnchecked(TOTAL_SIGN_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found TOTAL_SIGN_NUM"));
+    return getInt(TOTAL_SIGN_NUM, "not found TOTAL_SIGN_NUM");
   }
 
   public void saveAllowMultiSign(long allowMultiSing) {
@@ -1978,19 +1763,11 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowMultiSign() {
-    return Optional.ofNullable(getUnchecked(ALLOW_MULTI_SIGN))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_MULTI_SIGN"));
+    return getLong(ALLOW_MULTI_SIGN, "not found ALLOW_MULTI_SIGN");
   }
 
   public long getAllowCreationOfContracts() {
-    return Optional.ofNullable(getUnchecked(ALLOW_CREATION_OF_CONTRACTS))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_CREATION_OF_CONTRACTS"));
+    return getLong(ALLOW_CREATION_OF_CONTRACTS, "not found ALLOW_CREATION_OF_CONTRACTS");
   }
 
   public boolean supportVM() {
@@ -2004,11 +1781,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowShieldedTransaction() {
-    return Optional.ofNullable(getUnchecked(ALLOW_SHIELDED_TRANSACTION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_SHIELDED_TRANSACTION"));
+    return getLong(ALLOW_SHIELDED_TRANSACTION, "not found ALLOW_SHIELDED_TRANSACTION");
   }
 
   public void saveAllowShieldedTRC20Transaction(long allowShieldedTRC20Transaction) {
@@ -2018,11 +1791,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowShieldedTRC20Transaction() {
     String msg = "not found ALLOW_SHIELDED_TRC20_TRANSACTION";
-    return Optional.ofNullable(getUnchecked(ALLOW_SHIELDED_TRC20_TRANSACTION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_SHIELDED_TRC20_TRANSACTION, msg);
   }
 
   public void saveAllowTvmIstanbul(long allowTVMIstanbul) {
@@ -2032,11 +1801,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowTvmIstanbul() {
     String msg = "not found ALLOW_TVM_ISTANBUL";
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_ISTANBUL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_TVM_ISTANBUL, msg);
   }
 
   public boolean supportShieldedTransaction() {
@@ -2085,11 +1850,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getLatestSolidifiedBlockNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_SOLIDIFIED_BLOCK_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest SOLIDIFIED_BLOCK_NUM"));
+    return getLong(LATEST_SOLIDIFIED_BLOCK_NUM, "not found latest SOLIDIFIED_BLOCK_NUM");
   }
 
   public void saveLatestProposalNum(long number) {
@@ -2097,11 +1858,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getLatestProposalNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_PROPOSAL_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest PROPOSAL_NUM"));
+    return getLong(LATEST_PROPOSAL_NUM, "not found latest PROPOSAL_NUM");
   }
 
   public void saveLatestExchangeNum(long number) {
@@ -2109,33 +1866,21 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getLatestExchangeNum() {
-    return Optional.ofNullable(getUnchecked(LATEST_EXCHANGE_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest EXCHANGE_NUM"));
+    return getLong(LATEST_EXCHANGE_NUM, "not found latest EXCHANGE_NUM");
   }
 
   /**
    * get timestamp of creating global latest block.
    */
   public long getLatestBlockHeaderTimestamp() {
-    return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_TIMESTAMP))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest block header timestamp"));
+    return getLong(LATEST_BLOCK_HEADER_TIMESTAMP, "not found latest block header timestamp");
   }
 
   /**
    * get number of global latest block.
    */
   public long getLatestBlockHeaderNumber() {
-    return Optional.ofNullable(getUnchecked(LATEST_BLOCK_HEADER_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found latest block header number"));
+    return getLong(LATEST_BLOCK_HEADER_NUMBER, "not found latest block header number");
   }
 
   public long getLatestBlockHeaderNumberFromDB() {
@@ -2152,10 +1897,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public int getStateFlag() {
-    return Optional.ofNullable(getUnchecked(STATE_FLAG))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toInt)
-        .orElseThrow(() -> new IllegalArgumentException("not found maintenance flag"));
+    return getInt(STATE_FLAG, "not found maintenance flag");
   }
 
   /**
@@ -2199,11 +1941,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getNextMaintenanceTime() {
-    return Optional.ofNullable(getUnchecked(NEXT_MAINTENANCE_TIME))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found NEXT_MAINTENANCE_TIME"));
+    return getLong(NEXT_MAINTENANCE_TIME, "not found NEXT_MAINTENANCE_TIME");
   }
 
   public long getMaintenanceSkipSlots() {
@@ -2323,10 +2061,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
    * get allow protobuf number.
    */
   public long getAllowProtoFilterNum() {
-    return Optional.ofNullable(getUnchecked(ALLOW_PROTO_FILTER_NUM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found allow protobuf number"));
+    return getLong(ALLOW_PROTO_FILTER_NUM, "not found allow protobuf number");
   }
 
   /**
@@ -2343,11 +2078,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowAccountStateRoot() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ACCOUNT_STATE_ROOT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_ACCOUNT_STATE_ROOT"));
+    return getLong(ALLOW_ACCOUNT_STATE_ROOT, "not found ALLOW_ACCOUNT_STATE_ROOT");
   }
 
   public boolean allowAccountStateRoot() {
@@ -2355,10 +2086,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getCurrentCycleNumber() {
-    return Optional.ofNullable(getUnchecked(CURRENT_CYCLE_NUMBER))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(0L);
+    return getLong(CURRENT_CYCLE_NUMBER, 0L);
   }
 
   public void saveCurrentCycleNumber(long number) {
@@ -2371,10 +2099,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getChangeDelegation() {
-    return Optional.ofNullable(getUnchecked(CHANGE_DELEGATION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found CHANGE_DELEGATION"));
+    return getLong(CHANGE_DELEGATION, "not found CHANGE_DELEGATION");
   }
 
   public boolean allowChangeDelegation() {
@@ -2387,10 +2112,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowPBFT() {
-    return Optional.ofNullable(getUnchecked(ALLOW_PBFT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found ALLOW_PBFT"));
+    return getLong(ALLOW_PBFT, "not found ALLOW_PBFT");
   }
 
   public boolean allowPBFT() {
@@ -2398,11 +2120,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMaxFeeLimit() {
-    return Optional.ofNullable(getUnchecked(MAX_FEE_LIMIT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found MAX_FEE_LIMIT"));
+    return getLong(MAX_FEE_LIMIT, "not found MAX_FEE_LIMIT");
   }
 
   public void saveMaxFeeLimit(long maxFeeLimit) {
@@ -2411,10 +2129,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getBurnTrxAmount() {
-    return Optional.ofNullable(getUnchecked(BURN_TRX_AMOUNT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found BURN_TRX_AMOUNT"));
+    return getLong(BURN_TRX_AMOUNT, "not found BURN_TRX_AMOUNT");
   }
 
   public void burnTrx(long amount) {
@@ -2438,11 +2153,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowBlackHoleOptimization() {
-    return Optional.ofNullable(getUnchecked(ALLOW_BLACKHOLE_OPTIMIZATION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_BLACKHOLE_OPTIMIZATION"));
+    return getLong(ALLOW_BLACKHOLE_OPTIMIZATION, "not found ALLOW_BLACKHOLE_OPTIMIZATION");
   }
 
   public boolean supportAllowNewResourceModel() {
@@ -2462,11 +2173,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowNewResourceModel() {
-    return Optional.ofNullable(getUnchecked(ALLOW_NEW_RESOURCE_MODEL))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_NEW_RESOURCE_MODEL"));
+    return getLong(ALLOW_NEW_RESOURCE_MODEL, "not found ALLOW_NEW_RESOURCE_MODEL");
   }
 
   public void saveAllowTvmFreeze(long allowTvmFreeze) {
@@ -2476,11 +2183,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowTvmFreeze() {
     String msg = "not found ALLOW_TVM_FREEZE";
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_FREEZE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_TVM_FREEZE, msg);
   }
 
   public void saveAllowTvmVote(long allowTvmVote) {
@@ -2490,11 +2193,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowTvmVote() {
     String msg = "not found ALLOW_TVM_VOTE";
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_VOTE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_TVM_VOTE, msg);
   }
 
   public void saveAllowTvmLondon(long allowTvmLondon) {
@@ -2504,11 +2203,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowTvmLondon() {
     String msg = "not found ALLOW_TVM_LONDON";
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_LONDON))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_TVM_LONDON, msg);
   }
 
   public void saveAllowTvmCompatibleEvm(long allowTvmCompatibleEvm) {
@@ -2518,11 +2213,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowTvmCompatibleEvm() {
     String msg = "not found ALLOW_TVM_COMPATIBLE_EVM";
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_COMPATIBLE_EVM))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_TVM_COMPATIBLE_EVM, msg);
   }
 
   public boolean useNewRewardAlgorithm() {
@@ -2538,11 +2229,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getNewRewardAlgorithmEffectiveCycle() {
-    return Optional.ofNullable(getUnchecked(NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE"));
+    return getLong(NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE,
+        "not found NEW_REWARD_ALGORITHM_EFFECTIVE_CYCLE");
   }
 
   public long getAllowAccountAssetOptimizationFromRoot() {
@@ -2560,11 +2248,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   // 1: enable
   public long getAllowAccountAssetOptimization() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ACCOUNT_ASSET_OPTIMIZATION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_ACCOUNT_ASSET_OPTIMIZATION"));
+    return getLong(ALLOW_ACCOUNT_ASSET_OPTIMIZATION, "not found ALLOW_ACCOUNT_ASSET_OPTIMIZATION");
   }
 
   public void setAllowAccountAssetOptimization(long value) {
@@ -2573,11 +2257,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   // 1: enable
   public long getAllowAssetOptimization() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ASSET_OPTIMIZATION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_ASSET_OPTIMIZATION"));
+    return getLong(ALLOW_ASSET_OPTIMIZATION, "not found ALLOW_ASSET_OPTIMIZATION");
   }
 
   public void setAllowAssetOptimization(long value) {
@@ -2591,11 +2271,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getEnergyPriceHistoryDone() {
-    return Optional.ofNullable(getUnchecked(ENERGY_PRICE_HISTORY_DONE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ENERGY_PRICE_HISTORY_DONE"));
+    return getLong(ENERGY_PRICE_HISTORY_DONE, "not found ENERGY_PRICE_HISTORY_DONE");
   }
 
   public String getEnergyPriceHistory() {
@@ -2616,11 +2292,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getBandwidthPriceHistoryDone() {
-    return Optional.ofNullable(getUnchecked(BANDWIDTH_PRICE_HISTORY_DONE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found BANDWIDTH_PRICE_HISTORY_DONE"));
+    return getLong(BANDWIDTH_PRICE_HISTORY_DONE, "not found BANDWIDTH_PRICE_HISTORY_DONE");
   }
 
   public String getBandwidthPriceHistory() {
@@ -2653,18 +2325,11 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowHigherLimitForMaxCpuTimeOfOneTx() {
     String msg = "not found ALLOW_HIGHER_LIMIT_FOR_MAX_CPU_TIME_OF_ONE_TX";
-    return Optional.ofNullable(getUnchecked(ALLOW_HIGHER_LIMIT_FOR_MAX_CPU_TIME_OF_ONE_TX))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_HIGHER_LIMIT_FOR_MAX_CPU_TIME_OF_ONE_TX, msg);
   }
 
   public long getMemoFee() {
-    return Optional.ofNullable(getUnchecked(MEMO_FEE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(() -> new IllegalArgumentException("not found MEMO_FEE"));
+    return getLong(MEMO_FEE, "not found MEMO_FEE");
   }
 
   public void saveMemoFee(long value) {
@@ -2683,10 +2348,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowNewReward() {
-    return Optional.ofNullable(getUnchecked(ALLOW_NEW_REWARD))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElseThrow(() -> new IllegalArgumentException("not found AllowNewReward"));
+    return getLong(ALLOW_NEW_REWARD, "not found AllowNewReward");
   }
 
   public void saveAllowNewReward(long newReward) {
@@ -2694,11 +2356,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowDelegateOptimization() {
-    return Optional.ofNullable(getUnchecked(ALLOW_DELEGATE_OPTIMIZATION))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_DELEGATE_OPTIMIZATION"));
+    return getLong(ALLOW_DELEGATE_OPTIMIZATION, "not found ALLOW_DELEGATE_OPTIMIZATION");
   }
 
   public boolean supportAllowDelegateOptimization() {
@@ -2710,11 +2368,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowDynamicEnergy() {
-    return Optional.ofNullable(getUnchecked(ALLOW_DYNAMIC_ENERGY))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found ALLOW_DYNAMIC_ENERGY"));
+    return getLong(ALLOW_DYNAMIC_ENERGY, "not found ALLOW_DYNAMIC_ENERGY");
   }
 
   public boolean supportAllowDynamicEnergy() {
@@ -2726,11 +2380,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getDynamicEnergyThreshold() {
-    return Optional.ofNullable(getUnchecked(DYNAMIC_ENERGY_THRESHOLD))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found DYNAMIC_ENERGY_THRESHOLD"));
+    return getLong(DYNAMIC_ENERGY_THRESHOLD, "not found DYNAMIC_ENERGY_THRESHOLD");
   }
 
   public void saveDynamicEnergyThreshold(long value) {
@@ -2738,11 +2388,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getDynamicEnergyIncreaseFactor() {
-    return Optional.ofNullable(getUnchecked(DYNAMIC_ENERGY_INCREASE_FACTOR))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found DYNAMIC_ENERGY_INCREASE_FACTOR"));
+    return getLong(DYNAMIC_ENERGY_INCREASE_FACTOR, "not found DYNAMIC_ENERGY_INCREASE_FACTOR");
   }
 
   public void saveDynamicEnergyIncreaseFactor(long value) {
@@ -2750,11 +2396,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getDynamicEnergyMaxFactor() {
-    return Optional.ofNullable(getUnchecked(DYNAMIC_ENERGY_MAX_FACTOR))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException("not found DYNAMIC_ENERGY_MAX_FACTOR"));
+    return getLong(DYNAMIC_ENERGY_MAX_FACTOR, "not found DYNAMIC_ENERGY_MAX_FACTOR");
   }
 
   public void saveDynamicEnergyMaxFactor(long value) {
@@ -2766,10 +2408,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getUnfreezeDelayDays() {
-    return Optional.ofNullable(getUnchecked(UNFREEZE_DELAY_DAYS))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElseThrow(() -> new IllegalArgumentException("not found UNFREEZE_DELAY_DAYS"));
+    return getLong(UNFREEZE_DELAY_DAYS, "not found UNFREEZE_DELAY_DAYS");
   }
 
   public boolean supportUnfreezeDelay() {
@@ -2787,11 +2426,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   public long getAllowOptimizedReturnValueOfChainId() {
     String msg = "not found ALLOW_OPTIMIZED_RETURN_VALUE_OF_CHAIN_ID";
-    return Optional.ofNullable(getUnchecked(ALLOW_OPTIMIZED_RETURN_VALUE_OF_CHAIN_ID))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElseThrow(
-            () -> new IllegalArgumentException(msg));
+    return getLong(ALLOW_OPTIMIZED_RETURN_VALUE_OF_CHAIN_ID, msg);
   }
 
   public void saveAllowTvmShangHai(long allowTvmShangHai) {
@@ -2800,10 +2435,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowTvmShangHai() {
-    return Optional.ofNullable(getUnchecked(ALLOW_TVM_SHANGHAI))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(CommonParameter.getInstance().getAllowTvmShangHai());
+    return getLong(ALLOW_TVM_SHANGHAI, CommonParameter.getInstance().getAllowTvmShangHai());
   }
 
   public void saveAllowCancelAllUnfreezeV2(long allowCancelAllUnfreezeV2) {
@@ -2812,10 +2444,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowCancelAllUnfreezeV2() {
-    return Optional.ofNullable(getUnchecked(ALLOW_CANCEL_ALL_UNFREEZE_V2))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(CommonParameter.getInstance().getAllowCancelAllUnfreezeV2());
+    return getLong(ALLOW_CANCEL_ALL_UNFREEZE_V2,
+        CommonParameter.getInstance().getAllowCancelAllUnfreezeV2());
   }
 
   public boolean supportAllowCancelAllUnfreezeV2() {
@@ -2828,10 +2458,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMaxDelegateLockPeriod() {
-    return Optional.ofNullable(getUnchecked(MAX_DELEGATE_LOCK_PERIOD))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(DELEGATE_PERIOD / BLOCK_PRODUCED_INTERVAL);
+    return getLong(MAX_DELEGATE_LOCK_PERIOD, DELEGATE_PERIOD / BLOCK_PRODUCED_INTERVAL);
   }
 
   public boolean supportMaxDelegateLockPeriod() {
@@ -2848,10 +2475,7 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowOldRewardOpt() {
-    return Optional.ofNullable(getUnchecked(ALLOW_OLD_REWARD_OPT))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(CommonParameter.getInstance().getAllowOldRewardOpt());
+    return getLong(ALLOW_OLD_REWARD_OPT, CommonParameter.getInstance().getAllowOldRewardOpt());
   }
 
   public void saveAllowEnergyAdjustment(long allowEnergyAdjustment) {
@@ -2859,10 +2483,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getAllowEnergyAdjustment() {
-    return Optional.ofNullable(getUnchecked(ALLOW_ENERGY_ADJUSTMENT))
-            .map(BytesCapsule::getData)
-            .map(ByteArray::toLong)
-            .orElse(CommonParameter.getInstance().getAllowEnergyAdjustment());
+    return getLong(ALLOW_ENERGY_ADJUSTMENT,
+        CommonParameter.getInstance().getAllowEnergyAdjustment());
   }
 
   public void saveMaxCreateAccountTxSize(long maxCreateAccountTxSize) {
@@ -2871,10 +2493,8 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
   }
 
   public long getMaxCreateAccountTxSize() {
-    return Optional.ofNullable(getUnchecked(MAX_CREATE_ACCOUNT_TX_SIZE))
-        .map(BytesCapsule::getData)
-        .map(ByteArray::toLong)
-        .orElse(CommonParameter.getInstance().getMaxCreateAccountTxSize());
+    return getLong(MAX_CREATE_ACCOUNT_TX_SIZE,
+        CommonParameter.getInstance().getMaxCreateAccountTxSize());
   }
 
   private static class DynamicResourceProperties {
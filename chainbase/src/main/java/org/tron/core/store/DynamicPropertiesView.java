@@ -0,0 +1,146 @@
+package org.tron.core.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.db2.common.WrappedByteArray;
+import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.Chainbase.Cursor;
+import org.tron.core.db2.core.Snapshot;
+
+/**
+ * The properties of {@link DynamicPropertiesStore} as read at the head of its chainbase,
+ * each held once decoded, so that a getter costs a lookup by the identity of its key
+ * instead of a walk down the snapshot layers and a BigInteger.
+ *
+ * <p>Writes go through the view to the chainbase. The view follows the sessions by the
+ * head version of the chainbase: a session built on top of the head it was read at holds
+ * the same values until written, any other change of the head (revoke, merge, pop, flush)
+ * drops every property, as it may change values under the view. Reads at the solidity or
+ * pbft cursor are not cached.
+ */
+final class DynamicPropertiesView {
+
+  // bounds the identity index, should a caller build its key for each read
+  private static final int MAX_KEYS = 1024;
+
+  private static final Property ABSENT = new Property(null);
+
+  private final Chainbase chainbase;
+
+  private final Map<byte[], Slot> byKey = new IdentityHashMap<>();
+
+  private final Map<WrappedByteArray, Slot> byContent = new HashMap<>();
+
+  private Snapshot head;
+
+  private long headVersion = -1;
+
+  DynamicPropertiesView(Chainbase chainbase) {
+    this.chainbase = chainbase;
+  }
+
+  Property get(byte[] key) {
+    if (chainbase.getCursor() != Cursor.HEAD) {
+      return new Property(chainbase.getUnchecked(key));
+    }
+    synchronized (this) {
+      follow();
+      Slot slot = byKey.get(key);
+      if (slot == null) {
+        slot = byContent.get(WrappedByteArray.of(key));
+        if (slot == null) {
+          slot = new Slot();
+          slot.property = new Property(chainbase.getUnchecked(key));
+          byContent.put(WrappedByteArray.copyOf(key), slot);
+        }
+        if (byKey.size() < MAX_KEYS) {
+          byKey.put(key, slot);
+        }
+      }
+      return slot.property;
+    }
+  }
+
+  synchronized void put(byte[] key, byte[] value) {
+    follow();
+    chainbase.put(key, value);
+    update(key, new Property(Arrays.copyOf(value, value.length)));
+  }
+
+  synchronized void delete(byte[] key) {
+    follow();
+    chainbase.delete(key);
+    update(key, ABSENT);
+  }
+
+  private void update(byte[] key, Property property) {
+    if (chainbase.getCursor() != Cursor.HEAD) {
+      // written below the head, the values read at the head are unknown
+      clear();
+      return;
+    }
+    Slot slot = byContent.get(WrappedByteArray.of(key));
+    if (slot != null) {
+      slot.property = property;
+    }
+  }
+
+  private void follow() {
+    long version = chainbase.getHeadVersion();
+    if (version == headVersion) {
+      return;
+    }
+    Snapshot current = chainbase.getHead();
+    if (version != headVersion + 1 || current.getPrevious() != head) {
+      clear();
+    }
+    head = current;
+    headVersion = version;
+  }
+
+  private void clear() {
+    byKey.clear();
+    byContent.clear();
+  }
+
+  private static final class Slot {
+
+    private Property property;
+  }
+
+  /**
+   * A property value and its number, as decoded by {@link ByteArray#toLong}.
+   */
+  static final class Property {
+
+    private final byte[] data;
+    private final long number;
+
+    private Property(byte[] data) {
+      this.data = data;
+      this.number = data == null ? 0 : ByteArray.toLong(data);
+    }
+
+    boolean isPresent() {
+      return data != null;
+    }
+
+    /**
+     * @return a copy of the value, as the chainbase returns
+     */
+    byte[] getData() {
+      return data == null ? null : Arrays.copyOf(data, data.length);
+    }
+
+    long getLong() {
+      return number;
+    }
+
+    int getInt() {
+      return (int) number;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package org.tron.core.store;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
@@ -22,7 +24,13 @@ import org.tron.core.exception.EventBloomException;
 public class SectionBloomStore extends TronStoreWithRevoking<BytesCapsule> {
 
   public static final int BLOCK_PER_SECTION = 2048;
+  // at most 256 bytes per bitset
+  private static final int SOLID_CACHE_SIZE = 65536;
+  private static final BitSet NOT_FOUND = new BitSet(0);
   private List<Integer> bitList;
+  // the bitsets of the sections whose blocks are all solidified never change again
+  private final Cache<Long, BitSet> solidCache = CacheBuilder.newBuilder()
+      .maximumSize(SOLID_CACHE_SIZE).build();
 
   @Autowired
   public SectionBloomStore(@Value("section-bloom") String dbName) {
@@ -65,8 +73,24 @@ public class SectionBloomStore extends TronStoreWithRevoking<BytesCapsule> {
     return BitSet.valueOf(data);
   }
 
+  /**
+   * Same as {@link #get(int, int)} for a section whose blocks are all solidified,
+   * the decoded bitsets of such sections are cached. The returned bitset is shared
+   * and must not be modified.
+   */
+  public BitSet getSolid(int section, int bitIndex) throws EventBloomException {
+    long keyLong = combineKey(section, bitIndex);
+    BitSet bitSet = solidCache.getIfPresent(keyLong);
+    if (bitSet == null) {
+      bitSet = get(section, bitIndex);
+      solidCache.put(keyLong, bitSet == null ? NOT_FOUND : bitSet);
+    }
+    return bitSet == NOT_FOUND ? null : bitSet;
+  }
+
   public void put(int section, int bitIndex, BitSet bitSet) throws EventBloomException {
     long keyLong = combineKey(section, bitIndex);
+    solidCache.invalidate(keyLong);
     byte[] key = Long.toHexString(keyLong).getBytes();
     byte[] compressData = ByteUtil.compress(bitSet.toByteArray());
     super.put(key, new BytesCapsule(compressData));
@@ -11,17 +11,24 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.tron.common.cache.CacheType;
 import org.tron.core.capsule.WitnessCapsule;
 import org.tron.core.config.Parameter;
+import org.tron.core.db.DecodedCache;
 import org.tron.core.db.TronStoreWithRevoking;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Protocol.Witness;
 
 @Slf4j(topic = "DB")
 @Component
 public class WitnessStore extends TronStoreWithRevoking<WitnessCapsule> {
 
+  private final DecodedCache<Witness> decodedCache;
+
   @Autowired
   protected WitnessStore(@Value("witness") String dbName) {
     super(dbName);
+    decodedCache = new DecodedCache<>(dbName, CacheType.witnessDecoded, Witness.parser());
   }
 
   /**
@@ -36,7 +43,17 @@ public class WitnessStore extends TronStoreWithRevoking<WitnessCapsule> {
   @Override
   public WitnessCapsule get(byte[] key) {
     byte[] value = revokingDB.getUnchecked(key);
-    return ArrayUtils.isEmpty(value) ? null : new WitnessCapsule(value);
+    return ArrayUtils.isEmpty(value) ? null : decode(key, value);
+  }
+
+  @Override
+  protected WitnessCapsule of(byte[] key, byte[] value) throws BadItemException {
+    return value == null ? of(value) : decode(key, value);
+  }
+
+  private WitnessCapsule decode(byte[] key, byte[] value) {
+    Witness witness = decodedCache.decode(key, value);
+    return witness == null ? new WitnessCapsule(value) : new WitnessCapsule(witness);
   }
 
   public List<WitnessCapsule> getWitnessStandby() {
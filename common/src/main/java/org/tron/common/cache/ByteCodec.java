@@ -0,0 +1,28 @@
+package org.tron.common.cache;
+
+import java.util.function.Function;
+
+/**
+ * Converts cache keys and values to bytes, used to weigh entries by size and to
+ * store them outside the heap. A null value encodes to null and decodes back.
+ */
+public interface ByteCodec<T> {
+
+  byte[] encode(T t);
+
+  T decode(byte[] bytes);
+
+  static <T> ByteCodec<T> of(Function<T, byte[]> encoder, Function<byte[], T> decoder) {
+    return new ByteCodec<T>() {
+      @Override
+      public byte[] encode(T t) {
+        return t == null ? null : encoder.apply(t);
+      }
+
+      @Override
+      public T decode(byte[] bytes) {
+        return decoder.apply(bytes);
+      }
+    };
+  }
+}
@@ -18,6 +18,17 @@ public class CacheManager {
     return cache;
   }
 
+  /**
+   * The codecs let byte-sized and off-heap strategies measure and store the entries.
+   */
+  public static <K, V> TronCache<K, V> allocate(CacheType name, ByteCodec<K> keyCodec,
+                                                ByteCodec<V> valueCodec) {
+    TronCache<K, V> cache = new TronCache<>(name, CommonParameter.getInstance()
+        .getStorage().getCacheStrategy(name), keyCodec, valueCodec);
+    CACHES.put(name, cache);
+    return cache;
+  }
+
   public  static <K, V> TronCache<K, V> allocate(CacheType name, String strategy) {
     TronCache<K, V> cache = new TronCache<>(name, strategy);
     CACHES.put(name, cache);
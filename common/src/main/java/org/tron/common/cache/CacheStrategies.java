@@ -2,9 +2,11 @@ package org.tron.common.cache;
 
 import static org.tron.common.cache.CacheType.abi;
 import static org.tron.common.cache.CacheType.account;
+import static org.tron.common.cache.CacheType.accountDecoded;
 import static org.tron.common.cache.CacheType.assetIssueV2;
 import static org.tron.common.cache.CacheType.code;
 import static org.tron.common.cache.CacheType.contract;
+import static org.tron.common.cache.CacheType.contractDecoded;
 import static org.tron.common.cache.CacheType.delegatedResource;
 import static org.tron.common.cache.CacheType.delegatedResourceAccountIndex;
 import static org.tron.common.cache.CacheType.delegation;
@@ -13,6 +15,7 @@ import static org.tron.common.cache.CacheType.recentBlock;
 import static org.tron.common.cache.CacheType.storageRow;
 import static org.tron.common.cache.CacheType.votes;
 import static org.tron.common.cache.CacheType.witness;
+import static org.tron.common.cache.CacheType.witnessDecoded;
 import static org.tron.common.cache.CacheType.witnessSchedule;
 
 import java.util.Arrays;
@@ -45,6 +48,11 @@ public class CacheStrategies {
   private static final String CACHE_STRATEGY_HUGE_DEFAULT =
       String.format(PATTERNS, 20000, 20000, "30s", CPUS);
   private static final List<CacheType> CACHE_HUGE_DBS = Arrays.asList(storageRow, account);
+  // decoded values, kept beside the bytes cached for their db
+  private static final List<CacheType> CACHE_NORMAL_DECODED = Arrays.asList(witnessDecoded,
+      contractDecoded);
+  private static final List<CacheType> CACHE_HUGE_DECODED = Collections.singletonList(
+      accountDecoded);
 
   public static final List<String> CACHE_DBS = Stream.of(CACHE_SMALL_DBS, CACHE_NORMAL_DBS,
           CACHE_BIG_DBS, CACHE_HUGE_DBS).flatMap(Collection::stream).map(CacheType::toString)
@@ -65,6 +73,12 @@ public class CacheStrategies {
     if (CACHE_HUGE_DBS.contains(dbName)) {
       defaultStrategy = CACHE_STRATEGY_HUGE_DEFAULT;
     }
+    if (CACHE_NORMAL_DECODED.contains(dbName)) {
+      defaultStrategy = CACHE_STRATEGY_NORMAL_DEFAULT;
+    }
+    if (CACHE_HUGE_DECODED.contains(dbName)) {
+      defaultStrategy = CACHE_STRATEGY_HUGE_DEFAULT;
+    }
     return defaultStrategy;
   }
 }
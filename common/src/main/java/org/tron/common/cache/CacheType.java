@@ -19,8 +19,11 @@ public enum CacheType {
   properties("properties"),
   delegation("delegation"),
   storageRow("storage-row"),
-  account("account");
-  // for leveldb or rocksdb cache
+  account("account"),
+  // for the decoded values of a store
+  accountDecoded("account-decoded"),
+  witnessDecoded("witness-decoded"),
+  contractDecoded("contract-decoded");
 
   public final String type;
 
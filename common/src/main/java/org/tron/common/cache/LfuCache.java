@@ -0,0 +1,335 @@
+package org.tron.common.cache;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheStats;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Frequency-aware cache bounded by the total weight of its entries, following the
+ * W-TinyLFU design: new entries enter a small LRU window, and an entry leaving
+ * the window only replaces the least recently used entry of the main space if a
+ * count-min sketch has seen it more often. One-hit keys of a large scan therefore
+ * cannot flush the hot accounts out of the cache.
+ * Lookups never block, their reordering is dropped when the policy lock is busy.
+ */
+final class LfuCache<K, V> extends AbstractCache<K, V> {
+
+  private static final int WINDOW_PERCENT = 1;
+  private static final int PROTECTED_PERCENT = 80;
+
+  private final Map<K, Node<K, V>> data = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ToIntBiFunction<K, V> weigher;
+  private final FrequencySketch sketch;
+  private final StatsCounter statsCounter;
+
+  private final long windowMax;
+  private final long mainMax;
+  private final long protectedMax;
+  private final Node<K, V> window = Node.sentinel();
+  private final Node<K, V> probation = Node.sentinel();
+  private final Node<K, V> protectedRegion = Node.sentinel();
+  private long windowWeight;
+  private long probationWeight;
+  private long protectedWeight;
+
+  LfuCache(long maximumWeight, long expectedEntries, ToIntBiFunction<K, V> weigher,
+      boolean recordStats) {
+    this.weigher = weigher;
+    this.windowMax = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+    this.mainMax = Math.max(1, maximumWeight - windowMax);
+    this.protectedMax = mainMax * PROTECTED_PERCENT / 100;
+    this.sketch = new FrequencySketch(expectedEntries);
+    this.statsCounter = recordStats ? new SimpleStatsCounter() : null;
+  }
+
+  @Override
+  public V getIfPresent(Object key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      recordMisses(1);
+      return null;
+    }
+    recordHits(1);
+    if (lock.tryLock()) {
+      try {
+        sketch.increment(node.key.hashCode());
+        if (node.queue != null) {
+          onAccess(node);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return node.value;
+  }
+
+  @Override
+  public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+    V value = getIfPresent(key);
+    if (value != null) {
+      return value;
+    }
+    try {
+      value = loader.call();
+    } catch (Exception e) {
+      throw new ExecutionException(e);
+    }
+    put(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    int weight = weigher.applyAsInt(key, value);
+    lock.lock();
+    try {
+      sketch.increment(key.hashCode());
+      Node<K, V> node = data.get(key);
+      if (node != null) {
+        unlink(node);
+      }
+      if (weight > mainMax) {
+        // larger than the cache itself, keep it out
+        data.remove(key);
+        return;
+      }
+      node = new Node<>(key, value, weight);
+      data.put(key, node);
+      link(window, node);
+      evict();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidate(Object key) {
+    lock.lock();
+    try {
+      Node<K, V> node = data.remove(key);
+      if (node != null) {
+        unlink(node);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      data.clear();
+      window.clear();
+      probation.clear();
+      protectedRegion.clear();
+      windowWeight = 0;
+      probationWeight = 0;
+      protectedWeight = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    return data.size();
+  }
+
+  @Override
+  public CacheStats stats() {
+    return statsCounter == null ? new CacheStats(0, 0, 0, 0, 0, 0) : statsCounter.snapshot();
+  }
+
+  private void recordHits(int count) {
+    if (statsCounter != null) {
+      statsCounter.recordHits(count);
+    }
+  }
+
+  private void recordMisses(int count) {
+    if (statsCounter != null) {
+      statsCounter.recordMisses(count);
+    }
+  }
+
+  private void onAccess(Node<K, V> node) {
+    if (node.queue == probation) {
+      unlink(node);
+      link(protectedRegion, node);
+      while (protectedWeight > protectedMax) {
+        Node<K, V> demoted = protectedRegion.next;
+        unlink(demoted);
+        link(probation, demoted);
+      }
+    } else {
+      Node<K, V> queue = node.queue;
+      unlink(node);
+      link(queue, node);
+    }
+  }
+
+  private void evict() {
+    while (windowWeight > windowMax) {
+      Node<K, V> candidate = window.next;
+      unlink(candidate);
+      link(probation, candidate);
+    }
+    while (probationWeight + protectedWeight > mainMax) {
+      if (probation.next == probation) {
+        Node<K, V> demoted = protectedRegion.next;
+        unlink(demoted);
+        link(probation, demoted);
+      }
+      // the candidate just left the window, the victim is the lru entry of probation
+      Node<K, V> victim = probation.next;
+      Node<K, V> candidate = probation.prev;
+      if (victim != candidate && sketch.frequency(candidate.key.hashCode())
+          > sketch.frequency(victim.key.hashCode())) {
+        remove(victim);
+      } else {
+        remove(candidate);
+      }
+    }
+  }
+
+  private void remove(Node<K, V> node) {
+    unlink(node);
+    data.remove(node.key, node);
+    if (statsCounter != null) {
+      statsCounter.recordEviction();
+    }
+  }
+
+  private void link(Node<K, V> queue, Node<K, V> node) {
+    node.queue = queue;
+    node.prev = queue.prev;
+    node.next = queue;
+    queue.prev.next = node;
+    queue.prev = node;
+    addWeight(queue, node.weight);
+  }
+
+  private void unlink(Node<K, V> node) {
+    if (node.queue == null) {
+      return;
+    }
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    addWeight(node.queue, -node.weight);
+    node.queue = null;
+    node.prev = null;
+    node.next = null;
+  }
+
+  private void addWeight(Node<K, V> queue, long weight) {
+    if (queue == window) {
+      windowWeight += weight;
+    } else if (queue == probation) {
+      probationWeight += weight;
+    } else {
+      protectedWeight += weight;
+    }
+  }
+
+  private static final class Node<K, V> {
+
+    private final K key;
+    private final V value;
+    private final int weight;
+    // the sentinel of the queue holding this node, null once it left the cache
+    private Node<K, V> queue;
+    private Node<K, V> prev;
+    private Node<K, V> next;
+
+    private Node(K key, V value, int weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+
+    private static <K, V> Node<K, V> sentinel() {
+      Node<K, V> sentinel = new Node<>(null, null, 0);
+      sentinel.clear();
+      return sentinel;
+    }
+
+    private void clear() {
+      prev = this;
+      next = this;
+    }
+  }
+
+  /**
+   * Count-min sketch of 4 rows of saturating 4-bit counters packed into longs.
+   * All counters are halved once the sketch has seen ten times its width, so
+   * keys that used to be hot fade out.
+   */
+  static final class FrequencySketch {
+
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedEntries) {
+      int counters = (int) Math.min(1 << 26, Math.max(1 << 10,
+          Long.highestOneBit(Math.max(1, expectedEntries) - 1) << 1));
+      table = new long[counters * ROWS / 16];
+      mask = counters - 1;
+      sampleSize = counters * 10;
+    }
+
+    int frequency(int hash) {
+      int frequency = MAX_COUNT;
+      for (int row = 0; row < ROWS; row++) {
+        int index = indexOf(hash, row);
+        int count = (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 0xfL);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    void increment(int hash) {
+      boolean added = false;
+      for (int row = 0; row < ROWS; row++) {
+        int index = indexOf(hash, row);
+        int offset = (index & 15) << 2;
+        long word = table[index >>> 4];
+        if (((word >>> offset) & 0xfL) != MAX_COUNT) {
+          table[index >>> 4] = word + (1L << offset);
+          added = true;
+        }
+      }
+      if (added && ++additions == sampleSize) {
+        reset();
+      }
+    }
+
+    private int indexOf(int hash, int row) {
+      long h = (hash + SEEDS[row]) * SEEDS[row];
+      h += h >>> 32;
+      // each row owns its own run of counters
+      return row * (mask + 1) + ((int) h & mask);
+    }
+
+    private void reset() {
+      for (int i = 0; i < table.length; i++) {
+        // halve every 4-bit counter of the word at once
+        table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+      }
+      additions /= 2;
+    }
+  }
+}
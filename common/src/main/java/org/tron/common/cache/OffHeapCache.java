@@ -0,0 +1,266 @@
+package org.tron.common.cache;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheStats;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Byte cache whose values live in direct buffers, so large values add neither heap
+ * pressure nor GC work; only the keys and a small record per entry stay on the heap.
+ * Each segment is a ring log: values are appended at the write position and the
+ * oldest values are evicted when the ring wraps onto them (FIFO).
+ */
+final class OffHeapCache<K, V> extends AbstractCache<K, V> {
+
+  private static final int MIN_SEGMENTS = 16;
+  private static final long MAX_SEGMENT_BYTES = 1L << 30;
+  // value length, -1 for a null value
+  private static final int HEADER_BYTES = 4;
+
+  private final Segment[] segments;
+  private final ByteCodec<K> keyCodec;
+  private final ByteCodec<V> valueCodec;
+  private final StatsCounter statsCounter;
+
+  OffHeapCache(long maximumBytes, ByteCodec<K> keyCodec, ByteCodec<V> valueCodec,
+      boolean recordStats) {
+    int count = MIN_SEGMENTS;
+    while (maximumBytes / count > MAX_SEGMENT_BYTES) {
+      count <<= 1;
+    }
+    segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment((int) Math.max(HEADER_BYTES, maximumBytes / count));
+    }
+    this.keyCodec = keyCodec;
+    this.valueCodec = valueCodec;
+    this.statsCounter = recordStats ? new SimpleStatsCounter() : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V getIfPresent(Object key) {
+    byte[] keyBytes = keyCodec.encode((K) key);
+    Segment segment = segmentFor(keyBytes);
+    Record record;
+    byte[] value;
+    synchronized (segment) {
+      record = segment.index.get(new Bytes(keyBytes));
+      value = record == null ? null : segment.read(record);
+    }
+    if (record == null) {
+      record(false);
+      return null;
+    }
+    record(true);
+    return valueCodec.decode(value);
+  }
+
+  @Override
+  public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+    V value = getIfPresent(key);
+    if (value != null) {
+      return value;
+    }
+    try {
+      value = loader.call();
+    } catch (Exception e) {
+      throw new ExecutionException(e);
+    }
+    put(key, value);
+    return value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    byte[] keyBytes = keyCodec.encode(key);
+    byte[] valueBytes = valueCodec.encode(value);
+    Segment segment = segmentFor(keyBytes);
+    int evicted;
+    synchronized (segment) {
+      evicted = segment.write(new Bytes(keyBytes), valueBytes);
+    }
+    if (statsCounter != null) {
+      for (int i = 0; i < evicted; i++) {
+        statsCounter.recordEviction();
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public void invalidate(Object key) {
+    byte[] keyBytes = keyCodec.encode((K) key);
+    Segment segment = segmentFor(keyBytes);
+    synchronized (segment) {
+      segment.index.remove(new Bytes(keyBytes));
+    }
+  }
+
+  @Override
+  public void invalidateAll() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  @Override
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.index.size();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public CacheStats stats() {
+    return statsCounter == null ? new CacheStats(0, 0, 0, 0, 0, 0) : statsCounter.snapshot();
+  }
+
+  private void record(boolean hit) {
+    if (statsCounter == null) {
+      return;
+    }
+    if (hit) {
+      statsCounter.recordHits(1);
+    } else {
+      statsCounter.recordMisses(1);
+    }
+  }
+
+  private Segment segmentFor(byte[] key) {
+    int h = Arrays.hashCode(key);
+    h ^= h >>> 16;
+    return segments[h & (segments.length - 1)];
+  }
+
+  private static final class Segment {
+
+    private final ByteBuffer buffer;
+    private final Map<Bytes, Record> index = new HashMap<>();
+    // records in buffer order, the oldest first
+    private final ArrayDeque<Record> log = new ArrayDeque<>();
+    private int writePos;
+
+    private Segment(int capacity) {
+      buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    private byte[] read(Record record) {
+      if (record.valueLength < 0) {
+        return null;
+      }
+      byte[] value = new byte[record.valueLength];
+      ByteBuffer view = buffer.duplicate();
+      view.position(record.offset + HEADER_BYTES);
+      view.get(value);
+      return value;
+    }
+
+    /**
+     * @return the number of records evicted to make room.
+     */
+    private int write(Bytes key, byte[] value) {
+      int size = HEADER_BYTES + (value == null ? 0 : value.length);
+      if (size > buffer.capacity()) {
+        index.remove(key);
+        return 0;
+      }
+      int evicted = 0;
+      while (!fits(size)) {
+        Record oldest = log.pollFirst();
+        if (index.get(oldest.key) == oldest) {
+          index.remove(oldest.key);
+          evicted++;
+        }
+      }
+      if (log.isEmpty()) {
+        writePos = 0;
+      }
+
+      ByteBuffer view = buffer.duplicate();
+      view.position(writePos);
+      view.putInt(value == null ? -1 : value.length);
+      if (value != null) {
+        view.put(value);
+      }
+      Record record = new Record(key, writePos, value == null ? -1 : value.length);
+      writePos += size;
+      log.addLast(record);
+      index.put(key, record);
+      return evicted;
+    }
+
+    // may move the write position to the start of the ring
+    private boolean fits(int size) {
+      if (log.isEmpty()) {
+        return true;
+      }
+      int oldest = log.peekFirst().offset;
+      if (writePos > oldest) {
+        // live records sit in [oldest, writePos), free space wraps around the end
+        if (buffer.capacity() - writePos >= size) {
+          return true;
+        }
+        if (oldest >= size) {
+          writePos = 0;
+          return true;
+        }
+        return false;
+      }
+      // the ring has wrapped, free space ends at the oldest record
+      return writePos < oldest && oldest - writePos >= size;
+    }
+
+    private void clear() {
+      index.clear();
+      log.clear();
+      writePos = 0;
+    }
+  }
+
+  private static final class Record {
+
+    private final Bytes key;
+    private final int offset;
+    private final int valueLength;
+
+    private Record(Bytes key, int offset, int valueLength) {
+      this.key = key;
+      this.offset = offset;
+      this.valueLength = valueLength;
+    }
+  }
+
+  private static final class Bytes {
+
+    private final byte[] bytes;
+    private final int hash;
+
+    private Bytes(byte[] bytes) {
+      this.bytes = bytes;
+      this.hash = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || o instanceof Bytes && Arrays.equals(bytes, ((Bytes) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
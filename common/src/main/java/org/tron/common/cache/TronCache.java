@@ -5,19 +5,69 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.CacheStats;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 import lombok.Getter;
 
 public class TronCache<K, V> {
 
+  private static final String POLICY = "policy";
+  private static final String POLICY_GUAVA = "guava";
+  private static final String POLICY_LFU = "lfu";
+  private static final String POLICY_OFF_HEAP = "offheap";
+  private static final String MAXIMUM_BYTES = "maximumBytes";
+  private static final String RECORD_STATS = "recordStats";
+  // object headers, the wrappers and the map node of one entry
+  private static final int ENTRY_OVERHEAD_BYTES = 96;
+  private static final int EXPECTED_ENTRY_BYTES = 256;
+
   @Getter
   private final CacheType name;
   private final Cache<K, V> cache;
 
   TronCache(CacheType name, String strategy) {
+    this(name, strategy, null, null);
+  }
+
+  /**
+   * Besides a guava {@link CacheBuilder} spec, the strategy may pick another backend:
+   * <ul>
+   *   <li>{@code policy=lfu,maximumBytes=N[,recordStats]} frequency-aware on-heap cache
+   *   bounded by the bytes of its keys and values, entries count 1 without codecs</li>
+   *   <li>{@code policy=offheap,maximumBytes=N[,recordStats]} values kept in direct
+   *   buffers, needs both codecs</li>
+   * </ul>
+   */
+  TronCache(CacheType name, String strategy, ByteCodec<K> keyCodec, ByteCodec<V> valueCodec) {
     this.name = name;
-    this.cache = CacheBuilder.from(strategy).build();
+    Map<String, String> spec = parse(strategy);
+    String policy = spec.getOrDefault(POLICY, POLICY_GUAVA);
+    boolean recordStats = spec.containsKey(RECORD_STATS);
+    switch (policy) {
+      case POLICY_GUAVA:
+        this.cache = CacheBuilder.from(withoutPolicy(strategy)).build();
+        break;
+      case POLICY_LFU:
+        long maximumBytes = maximumBytes(spec, strategy);
+        long expectedEntries = keyCodec == null || valueCodec == null
+            ? maximumBytes : maximumBytes / EXPECTED_ENTRY_BYTES;
+        this.cache = new LfuCache<>(maximumBytes, expectedEntries,
+            (k, v) -> weigh(k, v, keyCodec, valueCodec), recordStats);
+        break;
+      case POLICY_OFF_HEAP:
+        if (keyCodec == null || valueCodec == null) {
+          throw new IllegalArgumentException(name + " can not be cached off heap: " + strategy);
+        }
+        this.cache = new OffHeapCache<>(maximumBytes(spec, strategy), keyCodec, valueCodec,
+            recordStats);
+        break;
+      default:
+        throw new IllegalArgumentException("unknown cache policy: " + strategy);
+    }
   }
 
   TronCache(CacheType name, String strategy, CacheLoader<K, V> loader) {
@@ -25,6 +75,39 @@ public class TronCache<K, V> {
     this.cache = CacheBuilder.from(strategy).build(loader);
   }
 
+  private static Map<String, String> parse(String strategy) {
+    Map<String, String> spec = new HashMap<>();
+    for (String option : strategy.split(",")) {
+      String[] kv = option.trim().split("=", 2);
+      spec.put(kv[0].trim(), kv.length > 1 ? kv[1].trim() : "");
+    }
+    return spec;
+  }
+
+  private static String withoutPolicy(String strategy) {
+    return Arrays.stream(strategy.split(","))
+        .filter(option -> !option.trim().startsWith(POLICY + "="))
+        .collect(Collectors.joining(","));
+  }
+
+  private static long maximumBytes(Map<String, String> spec, String strategy) {
+    String maximumBytes = spec.get(MAXIMUM_BYTES);
+    if (maximumBytes == null) {
+      throw new IllegalArgumentException(MAXIMUM_BYTES + " is required: " + strategy);
+    }
+    return Long.parseLong(maximumBytes);
+  }
+
+  private static <K, V> int weigh(K k, V v, ByteCodec<K> keyCodec, ByteCodec<V> valueCodec) {
+    if (keyCodec == null || valueCodec == null) {
+      return 1;
+    }
+    byte[] key = keyCodec.encode(k);
+    byte[] value = valueCodec.encode(v);
+    return ENTRY_OVERHEAD_BYTES + (key == null ? 0 : key.length)
+        + (value == null ? 0 : value.length);
+  }
+
   public void put(K k, V v) {
     this.cache.put(k, v);
   }
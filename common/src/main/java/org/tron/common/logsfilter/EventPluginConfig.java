@@ -14,6 +14,8 @@ public class EventPluginConfig {
   public static final String SOLIDITY_TRIGGER_NAME = "solidity";
   public static final String SOLIDITY_EVENT_NAME = "solidityevent";
   public static final String SOLIDITY_LOG_NAME = "soliditylog";
+  public static final String QUEUE_FULL_DROP = "drop";
+  public static final String QUEUE_FULL_BLOCK = "block";
 
   @Getter
   @Setter
@@ -39,6 +41,15 @@ public class EventPluginConfig {
   @Setter
   private int sendQueueLength;
 
+  // the max number of triggers waiting to be posted, unbounded if not positive
+  @Getter
+  @Setter
+  private int queueSize;
+
+  // whether block processing waits for room in a full trigger queue, else drops the trigger
+  @Getter
+  @Setter
+  private boolean blockWhenQueueFull;
 
   @Getter
   @Setter
@@ -51,6 +62,8 @@ public class EventPluginConfig {
     useNativeQueue = false;
     bindPort = 0;
     sendQueueLength = 0;
+    queueSize = 0;
+    blockWhenQueueFull = false;
     triggerConfigList = new ArrayList<>();
   }
 }
@@ -262,6 +262,9 @@ public class CommonParameter {
   public int validateSignThreadNum;
   @Getter
   @Setter
+  public boolean prefetchBlockState;
+  @Getter
+  @Setter
   public long maintenanceTimeInterval; // (ms)
   @Getter
   @Setter
@@ -506,6 +509,11 @@ public class CommonParameter {
   @Setter
   public int metricsPrometheusPort;
 
+  // switched by the dynamic config, read on every chainbase operation
+  @Getter
+  @Setter
+  public volatile boolean metricsChainbaseEnable = false;
+
   @Getter
   @Setter
   public int agreeNodeCount;
@@ -17,6 +17,11 @@ public class MetricKeys {
     public static final String P2P_ERROR = "tron:p2p_error";
     public static final String P2P_DISCONNECT = "tron:p2p_disconnect";
     public static final String INTERNAL_SERVICE_FAIL = "tron:internal_service_fail";
+    public static final String CHECKPOINT_KEYS = "tron:checkpoint_keys";
+    public static final String SIGNER_CACHE = "tron:signer_cache";
+    public static final String P2P_TRX_DROP = "tron:p2p_trx_drop";
+    public static final String DB_DECODE_CACHE = "tron:db_decode_cache";
+    public static final String DB_CACHE = "tron:db_cache";
 
     private Counter() {
       throw new IllegalStateException("Counter");
@@ -62,6 +67,17 @@ public class MetricKeys {
     public static final String MESSAGE_PROCESS_LATENCY = "tron:message_process_latency_seconds";
     public static final String BLOCK_FETCH_LATENCY = "tron:block_fetch_latency_seconds";
     public static final String BLOCK_RECEIVE_DELAY = "tron:block_receive_delay_seconds";
+    public static final String INV_SPREAD_DELAY = "tron:inv_spread_delay_seconds";
+    public static final String CHECKPOINT_LATENCY = "tron:checkpoint_latency_seconds";
+    public static final String CHECKPOINT_BYTES = "tron:checkpoint_bytes";
+    public static final String MANAGER_QUEUE_AGE = "tron:manager_queue_age_seconds";
+    public static final String TRIGGER_SERIALIZE_LATENCY =
+        "tron:trigger_serialize_latency_seconds";
+    public static final String DB_DECODE_LATENCY = "tron:db_decode_latency_seconds";
+    public static final String DB_OP_LATENCY = "tron:db_op_latency_seconds";
+    public static final String DB_LOOKUP_DEPTH = "tron:db_lookup_depth";
+    public static final String DB_BLOCK_BYTES = "tron:db_block_bytes";
+    public static final String ESTIMATE_ENERGY_EXECUTIONS = "tron:estimate_energy_executions";
 
     private Histogram() {
       throw new IllegalStateException("Histogram");
@@ -31,6 +31,18 @@ public class MetricLabels {
     public static final String TXS_FAIL_SIG = "sig";
     public static final String TXS_FAIL_TAPOS = "tapos";
     public static final String TXS_FAIL_DUP = "dup";
+    public static final String SIGNER_CACHE_HIT = "hit";
+    public static final String SIGNER_CACHE_MISS = "miss";
+    public static final String P2P_TRX_DROP_TAPOS = TXS_FAIL_TAPOS;
+    public static final String P2P_TRX_DROP_EXPIRED = TXS_FAIL_EXPIRED;
+    public static final String P2P_TRX_DROP_BIG = TXS_FAIL_BIG;
+    public static final String P2P_TRX_DROP_DUP = TXS_FAIL_DUP;
+    public static final String P2P_TRX_DROP_FULL = "full";
+    public static final String P2P_TRX_DROP_EVICTED = "evicted";
+    public static final String DB_DECODE_CACHE_HIT = "hit";
+    public static final String DB_DECODE_CACHE_MISS = "miss";
+    public static final String DB_CACHE_HIT = "hit";
+    public static final String DB_CACHE_MISS = "miss";
 
     private Counter() {
       throw new IllegalStateException("Counter");
@@ -49,6 +61,8 @@ public class MetricLabels {
 
     public static final String QUEUE_QUEUED = "queued";
 
+    public static final String QUEUE_TRIGGER = "trigger";
+
     public static final String PEERS_ACTIVE = "active";
 
     public static final String PEERS_PASSIVE = "passive";
@@ -68,6 +82,15 @@ public class MetricLabels {
   public static class Histogram {
     public static final String TRAFFIC_IN = "in";
     public static final String TRAFFIC_OUT = "out";
+    public static final String DB_OP_GET = "get";
+    public static final String DB_OP_PUT = "put";
+    public static final String DB_OP_PREFIX_QUERY = "prefix_query";
+    public static final String DB_OP_ROOT_GET = "root_get";
+    public static final String DB_BYTES_READ = "read";
+    public static final String DB_BYTES_WRITTEN = "written";
+    public static final String ESTIMATE_SINGLE_PASS = "single_pass";
+    public static final String ESTIMATE_SEARCH = "search";
+    public static final String ESTIMATE_FAIL = FAIL;
 
     private Histogram() {
       throw new IllegalStateException("Histogram");
@@ -18,6 +18,14 @@ class MetricsCounter {
     init(MetricKeys.Counter.P2P_DISCONNECT, "tron p2p disconnect .", "type");
     init(MetricKeys.Counter.INTERNAL_SERVICE_FAIL, "internal Service fail.",
         "class", "method");
+    init(MetricKeys.Counter.CHECKPOINT_KEYS, "keys written to checkpoint.", "db");
+    init(MetricKeys.Counter.SIGNER_CACHE, "tx signers recovered ahead or cached.", "type");
+    init(MetricKeys.Counter.P2P_TRX_DROP, "trx received from peers and dropped before push.",
+        "reason");
+    init(MetricKeys.Counter.DB_DECODE_CACHE, "db values decoded or served decoded.",
+        "db", "type");
+    init(MetricKeys.Counter.DB_CACHE, "db reads served by the cache of the root or not.",
+        "cache", "type");
   }
 
   private MetricsCounter() {
@@ -48,6 +48,28 @@ public class MetricsHistogram {
     init(MetricKeys.Histogram.BLOCK_FETCH_LATENCY, "fetch block latency.");
     init(MetricKeys.Histogram.BLOCK_RECEIVE_DELAY,
         "receive block delay time, receiveTime - blockTime.");
+    init(MetricKeys.Histogram.INV_SPREAD_DELAY,
+        "spread inventory delay time, sendTime - broadcastTime.",
+        "type");
+    init(MetricKeys.Histogram.CHECKPOINT_LATENCY, "collect and write checkpoint latency.",
+        "db");
+    init(MetricKeys.Histogram.CHECKPOINT_BYTES, "bytes written to checkpoint per flush.",
+        "db");
+    init(MetricKeys.Histogram.MANAGER_QUEUE_AGE, "time a transaction waited in manager queue.",
+        "type");
+    init(MetricKeys.Histogram.TRIGGER_SERIALIZE_LATENCY, "serialize event trigger latency.",
+        "trigger");
+    init(MetricKeys.Histogram.DB_DECODE_LATENCY, "decode db value latency.",
+        "db");
+    init(MetricKeys.Histogram.DB_OP_LATENCY, "chainbase get, put and prefix query latency.",
+        "db", "op");
+    init(MetricKeys.Histogram.DB_LOOKUP_DEPTH, "snapshot layers walked before a key is found.",
+        new double[] {0, 1, 2, 4, 8, 16, 32, 64, 128, 256}, "db");
+    init(MetricKeys.Histogram.DB_BLOCK_BYTES, "bytes read and written per block.",
+        new double[] {1 << 10, 1 << 14, 1 << 17, 1 << 20, 1 << 23, 1 << 26, 1 << 29},
+        "db", "type");
+    init(MetricKeys.Histogram.ESTIMATE_ENERGY_EXECUTIONS, "executions per energy estimate.",
+        new double[] {1, 2, 3, 5, 10, 20, 40}, "type");
   }
 
   private MetricsHistogram() {
@@ -62,6 +84,15 @@ public class MetricsHistogram {
         .register());
   }
 
+  private static void init(String name, String help, double[] buckets, String... labels) {
+    container.put(name, Histogram.build()
+        .name(name)
+        .help(help)
+        .buckets(buckets)
+        .labelNames(labels)
+        .register());
+  }
+
   static Histogram.Timer startTimer(String key, String... labels) {
     if (Metrics.enabled()) {
       Histogram histogram = container.get(key);
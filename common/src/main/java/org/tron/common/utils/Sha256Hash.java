@@ -28,6 +28,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -43,6 +44,11 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
 
   public static final int LENGTH = 32; // bytes
   public static final Sha256Hash ZERO_HASH = wrap(new byte[LENGTH]);
+  // a digest is not thread safe, each thread reuses its own instead of creating one per hash
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(Sha256Hash::newDigest);
+  private static final ThreadLocal<SM3Digest> SM3 =
+      ThreadLocal.withInitial(Sha256Hash::newSM3Digest);
 
   private final byte[] bytes;
 
@@ -179,11 +185,11 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    */
   public static byte[] hash(boolean isSha256, byte[] input, int offset, int length) {
     if (isSha256) {
-      MessageDigest digest = newDigest();
+      MessageDigest digest = sha256();
       digest.update(input, offset, length);
       return digest.digest();
     } else {
-      SM3Digest digest = newSM3Digest();
+      SM3Digest digest = sm3();
       digest.update(input, offset, length);
       byte[] eHash = new byte[digest.getDigestSize()];
       digest.doFinal(eHash, 0);
@@ -192,6 +198,30 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
 
   }
 
+  /**
+   * Calculates the SHA-256 hash of the remaining bytes of the buffer, without copying the bytes
+   * of a heap buffer.
+   *
+   * @param input the bytes to hash, its position is moved to its limit
+   * @return the hash (in big-endian order)
+   */
+  public static byte[] hash(boolean isSha256, ByteBuffer input) {
+    if (isSha256) {
+      MessageDigest digest = sha256();
+      digest.update(input);
+      return digest.digest();
+    }
+    if (input.hasArray()) {
+      byte[] eHash = hash(false, input.array(), input.arrayOffset() + input.position(),
+          input.remaining());
+      input.position(input.limit());
+      return eHash;
+    }
+    byte[] data = new byte[input.remaining()];
+    input.get(data);
+    return hash(false, data);
+  }
+
   /**
    * Calculates the SHA-256 hash of the given bytes, and then hashes the resulting hash again.
    *
@@ -212,11 +242,11 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    */
   public static byte[] hashTwice(boolean isSha256, byte[] input, int offset, int length) {
     if (isSha256) {
-      MessageDigest digest = newDigest();
+      MessageDigest digest = sha256();
       digest.update(input, offset, length);
       return digest.digest(digest.digest());
     } else {
-      SM3Digest digest = newSM3Digest();
+      SM3Digest digest = sm3();
       digest.update(input, offset, length);
       byte[] eHash = new byte[digest.getDigestSize()];
       digest.doFinal(eHash, 0);
@@ -235,12 +265,12 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
   public static byte[] hashTwice(boolean isSha256, byte[] input1, int offset1, int length1,
       byte[] input2, int offset2, int length2) {
     if (isSha256) {
-      MessageDigest digest = newDigest();
+      MessageDigest digest = sha256();
       digest.update(input1, offset1, length1);
       digest.update(input2, offset2, length2);
       return digest.digest(digest.digest());
     } else {
-      SM3Digest digest = newSM3Digest();
+      SM3Digest digest = sm3();
       digest.update(input1, offset1, length1);
       digest.update(input2, offset2, length2);
       byte[] eHash = new byte[digest.getDigestSize()];
@@ -249,6 +279,19 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     }
   }
 
+  private static MessageDigest sha256() {
+    MessageDigest digest = SHA_256.get();
+    // drops the input of a hash that failed half way
+    digest.reset();
+    return digest;
+  }
+
+  private static SM3Digest sm3() {
+    SM3Digest digest = SM3.get();
+    digest.reset();
+    return digest;
+  }
+
   private byte[] generateBlockId(long blockNum, Sha256Hash blockHash) {
     byte[] numBytes = Longs.toByteArray(blockNum);
     byte[] hash = new byte[blockHash.getBytes().length];
@@ -192,6 +192,8 @@ public class Constant {
 
   public static final String NODE_VALIDATE_SIGN_THREAD_NUM = "node.validateSignThreadNum";
 
+  public static final String NODE_PREFETCH_BLOCK_STATE = "node.prefetchBlockState";
+
   public static final String NODE_WALLET_EXTENSION_API = "node.walletExtensionApi";
 
   public static final String NODE_RECEIVE_TCP_MIN_DATA_LENGTH = "node.receiveTcpMinDataLength";
@@ -286,6 +288,8 @@ public class Constant {
   public static final String EVENT_SUBSCRIBE_TO_BLOCK = "event.subscribe.filter.toblock";
   public static final String EVENT_SUBSCRIBE_CONTRACT_ADDRESS = "event.subscribe.filter.contractAddress";
   public static final String EVENT_SUBSCRIBE_CONTRACT_TOPIC = "event.subscribe.filter.contractTopic";
+  public static final String EVENT_SUBSCRIBE_QUEUE_SIZE = "event.subscribe.queue.size";
+  public static final String EVENT_SUBSCRIBE_QUEUE_FULL_POLICY = "event.subscribe.queue.fullPolicy";
 
   public static final String NODE_DISCOVERY_EXTERNAL_IP = "node.discovery.external.ip";
 
@@ -337,6 +341,7 @@ public class Constant {
   public static final String METRICS_REPORT_INTERVAL = "node.metrics.influxdb.metricsReportInterval";
   public static final String METRICS_PROMETHEUS_ENABLE = "node.metrics.prometheus.enable";
   public static final String METRICS_PROMETHEUS_PORT = "node.metrics.prometheus.port";
+  public static final String METRICS_PROMETHEUS_CHAINBASE = "node.metrics.prometheus.chainbase";
 
   public static final String HISTORY_BALANCE_LOOKUP = "storage.balance.history.lookup";
   public static final String OPEN_PRINT_LOG = "node.openPrintLog";
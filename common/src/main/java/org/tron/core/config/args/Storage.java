@@ -50,6 +50,7 @@ public class Storage {
   private static final String DB_DIRECTORY_CONFIG_KEY = "storage.db.directory";
   private static final String DB_ENGINE_CONFIG_KEY = "storage.db.engine";
   private static final String DB_SYNC_CONFIG_KEY = "storage.db.sync";
+  private static final String DB_COLUMN_FAMILIES_CONFIG_KEY = "storage.db.columnFamilies";
   private static final String INDEX_DIRECTORY_CONFIG_KEY = "storage.index.directory";
   private static final String INDEX_SWITCH_CONFIG_KEY = "storage.index.switch";
   private static final String TRANSACTIONHISTORY_SWITCH_CONFIG_KEY = "storage.transHistory.switch";
@@ -88,6 +89,7 @@ public class Storage {
    */
   private static final String DEFAULT_DB_ENGINE = "LEVELDB";
   private static final boolean DEFAULT_DB_SYNC = false;
+  private static final boolean DEFAULT_DB_COLUMN_FAMILIES = false;
   private static final boolean DEFAULT_EVENT_SUBSCRIBE_CONTRACT_PARSE = true;
   private static final String DEFAULT_DB_DIRECTORY = "database";
   private static final String DEFAULT_INDEX_DIRECTORY = "index";
@@ -113,6 +115,13 @@ public class Storage {
   @Setter
   private boolean dbSync;
 
+  /**
+   * With rocksdb, the stores are column families of one instance: /path/to/{dbDirectory}/chainbase
+   */
+  @Getter
+  @Setter
+  private boolean dbColumnFamilies;
+
   @Getter
   @Setter
   private int maxFlushCount;
@@ -180,6 +189,11 @@ public class Storage {
         ? config.getBoolean(DB_SYNC_CONFIG_KEY) : DEFAULT_DB_SYNC;
   }
 
+  public static boolean getDbColumnFamiliesFromConfig(final Config config) {
+    return config.hasPath(DB_COLUMN_FAMILIES_CONFIG_KEY)
+        ? config.getBoolean(DB_COLUMN_FAMILIES_CONFIG_KEY) : DEFAULT_DB_COLUMN_FAMILIES;
+  }
+
   public static int getSnapshotMaxFlushCountFromConfig(final Config config) {
     if (!config.hasPath(SNAPSHOT_MAX_FLUSH_COUNT_CONFIG_KEY)) {
       return DEFAULT_SNAPSHOT_MAX_FLUSH_COUNT;
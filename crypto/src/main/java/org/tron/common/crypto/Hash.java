@@ -23,6 +23,7 @@ import static org.tron.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 import static org.tron.common.utils.ByteUtil.isNullOrZeroArray;
 import static org.tron.common.utils.ByteUtil.isSingleZero;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.Provider;
@@ -67,40 +68,29 @@ public class Hash {
    */
   private static final int SIZE_THRESHOLD = 56;
 
+  // a digest is not thread safe, each thread reuses its own instead of looking one up per hash
+  private static final ThreadLocal<MessageDigest> KECCAK_256;
+
   static {
     Security.addProvider(TronCastleProvider.getInstance());
     CRYPTO_PROVIDER = Security.getProvider("BC");
     HASH_256_ALGORITHM_NAME = "TRON-KECCAK-256";
     HASH_512_ALGORITHM_NAME = "TRON-KECCAK-512";
+    KECCAK_256 = ThreadLocal.withInitial(() -> newDigest(HASH_256_ALGORITHM_NAME));
     EMPTY_TRIE_HASH = sha3(encodeElement(EMPTY_BYTE_ARRAY));
   }
 
   public static byte[] sha3(byte[] input) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error(ALGORITHM_NOT_FOUND, e);
-      throw new RuntimeException(e);
-    }
-
+    MessageDigest digest = keccak256();
+    digest.update(input);
+    return digest.digest();
   }
 
   public static byte[] sha3(byte[] input1, byte[] input2) {
-    MessageDigest digest;
-    try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input1, 0, input1.length);
-      digest.update(input2, 0, input2.length);
-      return digest.digest();
-    } catch (NoSuchAlgorithmException e) {
-      logger.error(ALGORITHM_NOT_FOUND, e);
-      throw new RuntimeException(e);
-    }
+    MessageDigest digest = keccak256();
+    digest.update(input1, 0, input1.length);
+    digest.update(input2, 0, input2.length);
+    return digest.digest();
   }
 
   /**
@@ -112,12 +102,33 @@ public class Hash {
    * @return - keccak hash of the chunk
    */
   public static byte[] sha3(byte[] input, int start, int length) {
-    MessageDigest digest;
+    MessageDigest digest = keccak256();
+    digest.update(input, start, length);
+    return digest.digest();
+  }
+
+  /**
+   * hashing the remaining bytes of the buffer, without copying them
+   *
+   * @param input - data for hash, its position is moved to its limit
+   * @return - keccak hash of the data
+   */
+  public static byte[] sha3(ByteBuffer input) {
+    MessageDigest digest = keccak256();
+    digest.update(input);
+    return digest.digest();
+  }
+
+  private static MessageDigest keccak256() {
+    MessageDigest digest = KECCAK_256.get();
+    // drops the input of a hash that failed half way
+    digest.reset();
+    return digest;
+  }
+
+  private static MessageDigest newDigest(String algorithm) {
     try {
-      digest = MessageDigest.getInstance(HASH_256_ALGORITHM_NAME,
-          CRYPTO_PROVIDER);
-      digest.update(input, start, length);
-      return digest.digest();
+      return MessageDigest.getInstance(algorithm, CRYPTO_PROVIDER);
     } catch (NoSuchAlgorithmException e) {
       logger.error(ALGORITHM_NOT_FOUND, e);
       throw new RuntimeException(e);
@@ -0,0 +1,94 @@
+package org.tron.common.crypto;
+
+import java.math.BigInteger;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.asn1.x9.X9IntegerConverter;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Public key recovery on the secp256k1 implementation dedicated to the curve, rather
+ * than the generic one of {@link ECKey#CURVE}: the field elements are fixed-width, and
+ * Q = r^-1 (sR - eG) splits both scalars with the GLV endomorphism and multiplies G and
+ * R in a single pass (Shamir's trick), the window table of G being precomputed once.
+ * The keys are encoded as by the generic curve.
+ */
+final class Secp256k1Recovery {
+
+  private static final ECCurve CURVE;
+  private static final ECPoint G;
+  private static final BigInteger N;
+  private static final BigInteger PRIME;
+
+  static {
+    X9ECParameters params = CustomNamedCurves.getByName("secp256k1");
+    CURVE = params.getCurve();
+    G = params.getG();
+    N = params.getN();
+    PRIME = CURVE.getField().getCharacteristic();
+  }
+
+  private Secp256k1Recovery() {
+  }
+
+  /**
+   * @return the 65-byte public key, or null if it can not be recovered with recId
+   */
+  static byte[] recover(int recId, BigInteger r, BigInteger s, byte[] messageHash) {
+    ECPoint q = recoverPoint(recId, r, s, messageHash);
+    return q == null ? null : q.getEncoded(false);
+  }
+
+  /**
+   * Recovers several keys, normalizing all the points with a single field inversion.
+   * A key that can not be recovered, or whose recId is negative, is null.
+   */
+  static byte[][] recover(int[] recIds, BigInteger[] rs, BigInteger[] ss, byte[][] hashes) {
+    ECPoint[] points = new ECPoint[recIds.length];
+    for (int i = 0; i < points.length; i++) {
+      if (recIds[i] < 0) {
+        continue;
+      }
+      try {
+        points[i] = recoverPoint(recIds[i], rs[i], ss[i], hashes[i]);
+      } catch (IllegalArgumentException | ArithmeticException e) {
+        points[i] = null;
+      }
+    }
+    CURVE.normalizeAll(points);
+    byte[][] keys = new byte[points.length][];
+    for (int i = 0; i < points.length; i++) {
+      keys[i] = points[i] == null ? null : points[i].getEncoded(false);
+    }
+    return keys;
+  }
+
+  /**
+   * SEC1v2 section 4.1.6, see {@link ECKey#recoverPubBytesFromSignature}.
+   */
+  private static ECPoint recoverPoint(int recId, BigInteger r, BigInteger s,
+      byte[] messageHash) {
+    // x = r + jn, the x coordinate of R
+    BigInteger x = r.add(BigInteger.valueOf((long) recId / 2).multiply(N));
+    if (x.compareTo(PRIME) >= 0) {
+      return null;
+    }
+    ECPoint point = decompressKey(x, (recId & 1) == 1);
+    // the cofactor is 1, every point of the curve has order n and nR is infinity
+    BigInteger e = new BigInteger(1, messageHash);
+    BigInteger eInv = BigInteger.ZERO.subtract(e).mod(N);
+    BigInteger rInv = r.modInverse(N);
+    BigInteger srInv = rInv.multiply(s).mod(N);
+    BigInteger eInvrInv = rInv.multiply(eInv).mod(N);
+    return ECAlgorithms.sumOfTwoMultiplies(G, eInvrInv, point, srInv);
+  }
+
+  private static ECPoint decompressKey(BigInteger x, boolean yBit) {
+    X9IntegerConverter x9 = new X9IntegerConverter();
+    byte[] compEnc = x9.integerToBytes(x, 1 + x9.getByteLength(CURVE));
+    compEnc[0] = (byte) (yBit ? 0x03 : 0x02);
+    return CURVE.decodePoint(compEnc);
+  }
+}
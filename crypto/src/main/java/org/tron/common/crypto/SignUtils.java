@@ -52,4 +52,30 @@ public class SignUtils {
     }
     return SM2.signatureToAddress(messageHash, (SM2Signature) signatureInterface);
   }
+
+  /**
+   * Recovers the signer addresses of several signatures at once, which is cheaper than one
+   * at a time with the ECKey engine.
+   *
+   * @return the addresses, null for a signature that can not be recovered
+   */
+  public static byte[][] signaturesToAddresses(byte[][] messageHashes,
+      SignatureInterface[] signatures, boolean isECKeyCryptoEngine) {
+    if (isECKeyCryptoEngine) {
+      ECDSASignature[] sigs = new ECDSASignature[signatures.length];
+      for (int i = 0; i < sigs.length; i++) {
+        sigs[i] = (ECDSASignature) signatures[i];
+      }
+      return ECKey.signaturesToAddresses(messageHashes, sigs);
+    }
+    byte[][] addresses = new byte[signatures.length][];
+    for (int i = 0; i < addresses.length; i++) {
+      try {
+        addresses[i] = SM2.signatureToAddress(messageHashes[i], (SM2Signature) signatures[i]);
+      } catch (SignatureException | RuntimeException e) {
+        addresses[i] = null;
+      }
+    }
+    return addresses;
+  }
 }
@@ -42,9 +42,12 @@ public class Keccak256 extends KeccakCore {
 
   @Override
   protected void engineUpdate(byte arg0) {
+    update(arg0);
   }
 
+  // reached by MessageDigest.update(ByteBuffer)
   @Override
   protected void engineUpdate(byte[] arg0, int arg1, int arg2) {
+    update(arg0, arg1, arg2);
   }
 }
@@ -20,9 +20,11 @@ package org.tron.common.crypto.zksnark;
 import static org.tron.common.crypto.zksnark.Params.P;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 
 /**
  * Arithmetic in F_p, p = 21888242871839275222246405745257275088696311157297823662689037894645226208583
+ * The values are held in Montgomery form and operated on fixed-width limbs.
  *
  * @author Mikhail Kalinin
  * @since 01.09.2017
@@ -36,10 +38,28 @@ public class Fp implements Field<Fp> {
 
   static final Fp _2_INV = new Fp(BigInteger.valueOf(2).modInverse(P));
 
-  BigInteger v;
+  // the value mod p in Montgomery form, see Montgomery
+  private final int[] m;
+  // a value out of [0, p) as given, only kept to fail isValid, null for a member of F_p
+  private final BigInteger outOfField;
+
+  // the limbs the Fp2 products work on, per thread as the precompiles may run concurrently
+  private static final ThreadLocal<int[][]> SCRATCH =
+      ThreadLocal.withInitial(() -> new int[4][Montgomery.LIMBS]);
 
   Fp(BigInteger v) {
-    this.v = v;
+    if (v.signum() >= 0 && v.compareTo(P) < 0) {
+      this.m = Montgomery.toMontgomery(v);
+      this.outOfField = null;
+    } else {
+      this.m = Montgomery.toMontgomery(v.mod(P));
+      this.outOfField = v;
+    }
+  }
+
+  private Fp(int[] m) {
+    this.m = m;
+    this.outOfField = null;
   }
 
   static Fp create(byte[] v) {
@@ -52,42 +72,42 @@ public class Fp implements Field<Fp> {
 
   @Override
   public Fp add(Fp o) {
-    return new Fp(this.v.add(o.v).mod(P));
+    return new Fp(Montgomery.add(m, o.m));
   }
 
   @Override
   public Fp mul(Fp o) {
-    return new Fp(this.v.multiply(o.v).mod(P));
+    return new Fp(Montgomery.mul(m, o.m));
   }
 
   @Override
   public Fp sub(Fp o) {
-    return new Fp(this.v.subtract(o.v).mod(P));
+    return new Fp(Montgomery.sub(m, o.m));
   }
 
   @Override
   public Fp squared() {
-    return new Fp(v.multiply(v).mod(P));
+    return new Fp(Montgomery.mul(m, m));
   }
 
   @Override
   public Fp dbl() {
-    return new Fp(v.add(v).mod(P));
+    return new Fp(Montgomery.add(m, m));
   }
 
   @Override
   public Fp inverse() {
-    return new Fp(v.modInverse(P));
+    return new Fp(Montgomery.fromMontgomery(m).modInverse(P));
   }
 
   @Override
   public Fp negate() {
-    return new Fp(v.negate().mod(P));
+    return new Fp(Montgomery.negate(m));
   }
 
   @Override
   public boolean isZero() {
-    return v.compareTo(BigInteger.ZERO) == 0;
+    return outOfField == null && Montgomery.isZero(m);
   }
 
   /**
@@ -95,15 +115,66 @@ public class Fp implements Field<Fp> {
    */
   @Override
   public boolean isValid() {
-    return v.compareTo(P) < 0;
+    return outOfField == null;
   }
 
   Fp2 mul(Fp2 o) {
     return new Fp2(o.a.mul(this), o.b.mul(this));
   }
 
+  /**
+   * (a1 + b1 * i)(a2 + b2 * i) with i^2 = NON_RESIDUE = -1, in the limbs of this thread so
+   * that only the result is allocated.
+   */
+  static Fp2 mulFp2(Fp a1, Fp b1, Fp a2, Fp b2) {
+    int[][] scratch = SCRATCH.get();
+    int[] aa = scratch[0];
+    int[] bb = scratch[1];
+    int[] s = scratch[2];
+    int[] t = scratch[3];
+    Montgomery.mulInto(a1.m, a2.m, aa);
+    Montgomery.mulInto(b1.m, b2.m, bb);
+    Montgomery.addInto(a1.m, b1.m, s);
+    Montgomery.addInto(a2.m, b2.m, t);
+
+    // rb = (a1 + b1)(a2 + b2) - a1 * a2 - b1 * b2
+    int[] rb = new int[Montgomery.LIMBS];
+    Montgomery.mulInto(s, t, rb);
+    Montgomery.subInto(rb, aa, rb);
+    Montgomery.subInto(rb, bb, rb);
+    // ra = a1 * a2 + NON_RESIDUE * b1 * b2
+    int[] ra = new int[Montgomery.LIMBS];
+    Montgomery.subInto(aa, bb, ra);
+    return new Fp2(new Fp(ra), new Fp(rb));
+  }
+
+  /**
+   * (a + b * i)^2 with i^2 = NON_RESIDUE = -1, in the limbs of this thread so that only the
+   * result is allocated.
+   */
+  static Fp2 squaredFp2(Fp a, Fp b) {
+    int[][] scratch = SCRATCH.get();
+    int[] s = scratch[0];
+    int[] t = scratch[1];
+
+    // ra = (a + b)(a + NON_RESIDUE * b) - ab - NON_RESIDUE * ab = (a + b)(a - b)
+    Montgomery.addInto(a.m, b.m, s);
+    Montgomery.subInto(a.m, b.m, t);
+    int[] ra = new int[Montgomery.LIMBS];
+    Montgomery.mulInto(s, t, ra);
+    // rb = 2ab
+    Montgomery.mulInto(a.m, b.m, s);
+    int[] rb = new int[Montgomery.LIMBS];
+    Montgomery.addInto(s, s, rb);
+    return new Fp2(new Fp(ra), new Fp(rb));
+  }
+
   public byte[] bytes() {
-    return v.toByteArray();
+    return toBigInteger().toByteArray();
+  }
+
+  BigInteger toBigInteger() {
+    return outOfField != null ? outOfField : Montgomery.fromMontgomery(m);
   }
 
   @Override
@@ -117,16 +188,19 @@ public class Fp implements Field<Fp> {
 
     Fp fp = (Fp) o;
 
-    return !(v != null ? v.compareTo(fp.v) != 0 : fp.v != null);
+    if (outOfField == null && fp.outOfField == null) {
+      return Arrays.equals(m, fp.m);
+    }
+    return toBigInteger().equals(fp.toBigInteger());
   }
 
   @Override
   public int hashCode() {
-    return v.hashCode();
+    return toBigInteger().hashCode();
   }
 
   @Override
   public String toString() {
-    return v.toString();
+    return toBigInteger().toString();
   }
 }
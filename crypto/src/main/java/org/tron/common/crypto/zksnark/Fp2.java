@@ -74,30 +74,13 @@ class Fp2 implements Field<Fp2> {
 
   @Override
   public Fp2 squared() {
-
     // using Complex squaring
-
-    Fp ab = a.mul(b);
-
-    Fp ra = a.add(b).mul(b.mul(Fp.NON_RESIDUE).add(a))
-        .sub(ab)
-        .sub(ab.mul(Fp.NON_RESIDUE)); // ra = (a + b)(a + NON_RESIDUE * b) - ab - NON_RESIDUE * b
-    Fp rb = ab.dbl();
-
-    return new Fp2(ra, rb);
+    return Fp.squaredFp2(a, b);
   }
 
   @Override
   public Fp2 mul(Fp2 o) {
-
-    Fp aa = a.mul(o.a);
-    Fp bb = b.mul(o.b);
-
-    Fp ra = bb.mul(Fp.NON_RESIDUE).add(aa);    // ra = a1 * a2 + NON_RESIDUE * b1 * b2
-    Fp rb = a.add(b).mul(o.a.add(o.b)).sub(aa)
-        .sub(bb);     // rb = (a1 + b1)(a2 + b2) - a1 * a2 - b1 * b2
-
-    return new Fp2(ra, rb);
+    return Fp.mulFp2(a, b, o.a, o.b);
   }
 
   @Override
@@ -0,0 +1,189 @@
+package org.tron.common.crypto.zksnark;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Fixed-width arithmetic modulo {@link Params#P} in Montgomery form, on values of eight
+ * little-endian 32-bit limbs. A value a is held as a * 2^256 mod p, fully reduced, so
+ * two values are equal when their limbs are. The limbs are 32-bit as Java 8 has no
+ * 64x64 to 128-bit multiplication, a product of two limbs fits an unsigned long.
+ */
+final class Montgomery {
+
+  static final int LIMBS = 8;
+
+  private static final long MASK = 0xFFFFFFFFL;
+
+  // same as Params.P, not read from there as Params creates Fp values while initializing
+  private static final BigInteger P = new BigInteger(
+      "21888242871839275222246405745257275088696311157297823662689037894645226208583");
+
+  private static final int[] P_LIMBS = toLimbs(P);
+
+  // -p^-1 mod 2^32
+  private static final long N0 = P.modInverse(BigInteger.ONE.shiftLeft(32)).negate()
+      .mod(BigInteger.ONE.shiftLeft(32)).longValue();
+
+  // 2^512 mod p, converts a value into Montgomery form
+  private static final int[] R2 = toLimbs(BigInteger.ONE.shiftLeft(512).mod(P));
+
+  private static final int[] ONE = {1, 0, 0, 0, 0, 0, 0, 0};
+
+  private Montgomery() {
+  }
+
+  /**
+   * @param v a value in [0, p)
+   */
+  static int[] toMontgomery(BigInteger v) {
+    return mul(toLimbs(v), R2);
+  }
+
+  static BigInteger fromMontgomery(int[] a) {
+    int[] r = mul(a, ONE);
+    byte[] bytes = new byte[LIMBS * 4];
+    for (int i = 0; i < LIMBS; i++) {
+      int limb = r[LIMBS - 1 - i];
+      bytes[i * 4] = (byte) (limb >>> 24);
+      bytes[i * 4 + 1] = (byte) (limb >>> 16);
+      bytes[i * 4 + 2] = (byte) (limb >>> 8);
+      bytes[i * 4 + 3] = (byte) limb;
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  static int[] add(int[] a, int[] b) {
+    int[] r = new int[LIMBS];
+    addInto(a, b, r);
+    return r;
+  }
+
+  /**
+   * a + b into r, which may be a or b.
+   */
+  static void addInto(int[] a, int[] b, int[] r) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      long s = (a[i] & MASK) + (b[i] & MASK) + carry;
+      r[i] = (int) s;
+      carry = s >>> 32;
+    }
+    // p < 2^254, the sum never carries out of the top limb
+    if (compare(r, P_LIMBS) >= 0) {
+      subtractP(r);
+    }
+  }
+
+  static int[] sub(int[] a, int[] b) {
+    int[] r = new int[LIMBS];
+    subInto(a, b, r);
+    return r;
+  }
+
+  /**
+   * a - b into r, which may be a or b.
+   */
+  static void subInto(int[] a, int[] b, int[] r) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      long d = (a[i] & MASK) - (b[i] & MASK) - borrow;
+      r[i] = (int) d;
+      borrow = d >>> 63;
+    }
+    if (borrow != 0) {
+      long carry = 0;
+      for (int i = 0; i < LIMBS; i++) {
+        long s = (r[i] & MASK) + (P_LIMBS[i] & MASK) + carry;
+        r[i] = (int) s;
+        carry = s >>> 32;
+      }
+    }
+  }
+
+  static int[] negate(int[] a) {
+    return isZero(a) ? new int[LIMBS] : sub(P_LIMBS, a);
+  }
+
+  static int[] mul(int[] a, int[] b) {
+    int[] r = new int[LIMBS];
+    mulInto(a, b, r);
+    return r;
+  }
+
+  /**
+   * Montgomery product a * b * 2^-256 mod p into r, coarsely integrated operand scanning.
+   * The low limbs are accumulated in r itself, so r must be neither a nor b.
+   */
+  static void mulInto(int[] a, int[] b, int[] r) {
+    Arrays.fill(r, 0);
+    // the two limbs above r
+    long t8 = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      long bi = b[i] & MASK;
+      long carry = 0;
+      for (int j = 0; j < LIMBS; j++) {
+        // at most (2^32 - 1)^2 + 2 * (2^32 - 1), fits an unsigned long
+        long s = (r[j] & MASK) + (a[j] & MASK) * bi + carry;
+        r[j] = (int) s;
+        carry = s >>> 32;
+      }
+      long s = t8 + carry;
+      t8 = s & MASK;
+      long t9 = s >>> 32;
+
+      // adds m * p so that the lowest limb is zero, then shifts it out
+      long m = ((r[0] & MASK) * N0) & MASK;
+      s = (r[0] & MASK) + m * (P_LIMBS[0] & MASK);
+      carry = s >>> 32;
+      for (int j = 1; j < LIMBS; j++) {
+        s = (r[j] & MASK) + m * (P_LIMBS[j] & MASK) + carry;
+        r[j - 1] = (int) s;
+        carry = s >>> 32;
+      }
+      s = t8 + carry;
+      r[LIMBS - 1] = (int) s;
+      t8 = t9 + (s >>> 32);
+    }
+    // the product is below 2p
+    if (t8 != 0 || compare(r, P_LIMBS) >= 0) {
+      subtractP(r);
+    }
+  }
+
+  static boolean isZero(int[] a) {
+    for (int limb : a) {
+      if (limb != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void subtractP(int[] r) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      long d = (r[i] & MASK) - (P_LIMBS[i] & MASK) - borrow;
+      r[i] = (int) d;
+      borrow = d >>> 63;
+    }
+  }
+
+  private static int compare(int[] a, int[] b) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      int c = Integer.compareUnsigned(a[i], b[i]);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return 0;
+  }
+
+  private static int[] toLimbs(BigInteger v) {
+    int[] r = new int[LIMBS];
+    for (int i = 0; i < LIMBS; i++) {
+      r[i] = v.shiftRight(32 * i).intValue();
+    }
+    return r;
+  }
+}
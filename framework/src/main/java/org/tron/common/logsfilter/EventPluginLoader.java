@@ -3,6 +3,7 @@ package org.tron.common.logsfilter;
 import com.beust.jcommander.internal.Sets;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.prometheus.client.Histogram;
 import java.io.File;
 import java.util.HashSet;
 import java.util.List;
@@ -24,6 +25,8 @@ import org.tron.common.logsfilter.trigger.ContractTrigger;
 import org.tron.common.logsfilter.trigger.SolidityTrigger;
 import org.tron.common.logsfilter.trigger.TransactionLogTrigger;
 import org.tron.common.logsfilter.trigger.Trigger;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.Metrics;
 
 @Slf4j
 public class EventPluginLoader {
@@ -349,12 +352,11 @@ public class EventPluginLoader {
   }
 
   public void postSolidityTrigger(SolidityTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener ->
-          listener.handleSolidityTrigger(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleSolidityTrigger(data));
     }
   }
 
@@ -462,71 +464,71 @@ public class EventPluginLoader {
   }
 
   public void postBlockTrigger(BlockLogTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener ->
-          listener.handleBlockEvent(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleBlockEvent(data));
     }
   }
 
   public void postSolidityLogTrigger(ContractLogTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener ->
-          listener.handleSolidityLogTrigger(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleSolidityLogTrigger(data));
     }
   }
 
   public void postSolidityEventTrigger(ContractEventTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener ->
-          listener.handleSolidityEventTrigger(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleSolidityEventTrigger(data));
     }
   }
 
   public void postTransactionTrigger(TransactionLogTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener -> listener.handleTransactionTrigger(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleTransactionTrigger(data));
     }
   }
 
   public void postContractLogTrigger(ContractLogTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener ->
-          listener.handleContractLogTrigger(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleContractLogTrigger(data));
     }
   }
 
   public void postContractEventTrigger(ContractEventTrigger trigger) {
+    String data = toJsonString(trigger);
     if (useNativeQueue) {
-      NativeMessageQueue.getInstance()
-          .publishTrigger(toJsonString(trigger), trigger.getTriggerName());
+      NativeMessageQueue.getInstance().publishTrigger(data, trigger.getTriggerName());
     } else {
-      eventListeners.forEach(listener ->
-          listener.handleContractEventTrigger(toJsonString(trigger)));
+      eventListeners.forEach(listener -> listener.handleContractEventTrigger(data));
     }
   }
 
-  private String toJsonString(Object data) {
+  // serialized once, the same data is passed to all the listeners
+  private String toJsonString(Trigger trigger) {
     String jsonData = "";
 
+    Histogram.Timer timer = Metrics.histogramStartTimer(
+        MetricKeys.Histogram.TRIGGER_SERIALIZE_LATENCY, trigger.getTriggerName());
     try {
-      jsonData = objectMapper.writeValueAsString(data);
+      jsonData = objectMapper.writeValueAsString(trigger);
     } catch (JsonProcessingException e) {
       logger.error("'{}'", e);
+    } finally {
+      Metrics.histogramObserve(timer);
     }
 
     return jsonData;
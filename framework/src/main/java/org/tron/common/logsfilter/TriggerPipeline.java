@@ -0,0 +1,109 @@
+package org.tron.common.logsfilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.logsfilter.capsule.TriggerCapsule;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
+
+/**
+ * The stage between block processing and the event plugin. The triggers built while
+ * a block is processed are queued and processed in batches by a single thread, in
+ * the order they were queued, so the triggers of a block are posted in order and
+ * after the ones of the blocks before it. Once the queue is full, a trigger is either
+ * dropped or waits for room, as configured.
+ */
+@Slf4j
+public class TriggerPipeline {
+
+  // the triggers processed at a time
+  private static final int BATCH_SIZE = 256;
+  private static final String NAME = "event-trigger";
+
+  private final BlockingQueue<TriggerCapsule> queue;
+  private final boolean blockWhenFull;
+  private volatile boolean running = true;
+  private ExecutorService executor;
+
+  /**
+   * @param capacity the max number of queued triggers, unbounded if not positive
+   * @param blockWhenFull whether a trigger waits for room in a full queue, or is dropped
+   */
+  public TriggerPipeline(int capacity, boolean blockWhenFull) {
+    this.queue = new LinkedBlockingQueue<>(capacity > 0 ? capacity : Integer.MAX_VALUE);
+    this.blockWhenFull = blockWhenFull;
+  }
+
+  public void start() {
+    executor = ExecutorServiceManager.newSingleThreadExecutor(NAME, true);
+    executor.submit(this::processLoop);
+  }
+
+  public void stop() {
+    running = false;
+    ExecutorServiceManager.shutdownAndAwaitTermination(executor, NAME);
+  }
+
+  /**
+   * @return false if the trigger is dropped
+   */
+  public boolean offer(TriggerCapsule trigger) {
+    if (!blockWhenFull) {
+      return queue.offer(trigger);
+    }
+    try {
+      // waits as long as the pipeline runs, it may be stopped while the queue is full
+      while (running) {
+        if (queue.offer(trigger, 1, TimeUnit.SECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  public int size() {
+    return queue.size();
+  }
+
+  private void processLoop() {
+    List<TriggerCapsule> batch = new ArrayList<>(BATCH_SIZE);
+    while (running) {
+      try {
+        TriggerCapsule trigger = queue.poll(1, TimeUnit.SECONDS);
+        if (trigger == null) {
+          continue;
+        }
+        batch.add(trigger);
+        queue.drainTo(batch, BATCH_SIZE - 1);
+        Metrics.gaugeSet(MetricKeys.Gauge.MANAGER_QUEUE, queue.size(),
+            MetricLabels.Gauge.QUEUE_TRIGGER);
+        process(batch);
+      } catch (InterruptedException ex) {
+        logger.info(ex.getMessage());
+        Thread.currentThread().interrupt();
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void process(List<TriggerCapsule> batch) {
+    for (TriggerCapsule trigger : batch) {
+      try {
+        trigger.processTrigger();
+      } catch (Throwable throwable) {
+        logger.error("Unknown throwable happened in process capsule loop.", throwable);
+      }
+    }
+  }
+}
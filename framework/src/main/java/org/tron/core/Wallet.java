@@ -52,6 +52,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
@@ -108,6 +109,9 @@ import org.tron.common.crypto.Hash;
 import org.tron.common.crypto.SignInterface;
 import org.tron.common.crypto.SignUtils;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.runtime.ProgramResult;
 import org.tron.common.runtime.vm.LogInfo;
 import org.tron.common.utils.ByteArray;
@@ -2887,16 +2891,21 @@ public class Wallet {
           + "so estimate energy cannot work");
     }
     int retry = Args.getInstance().estimateEnergyMaxRetry;
+    int executions = 0;
 
     DynamicPropertiesStore dps = chainBaseManager.getDynamicPropertiesStore();
     long high = dps.getMaxFeeLimit();
+    long energyFee = dps.getEnergyFee();
+    // the least energy the call runs as it did with, worked out by the run itself
+    AtomicLong energyRequired = new AtomicLong();
 
     Transaction transaction;
 
     while (true) {
       try {
+        executions++;
         transaction = cleanContextAndTriggerConstantContract(
-            triggerSmartContract, txCap, txExtBuilder, txRetBuilder, high);
+            triggerSmartContract, txCap, txExtBuilder, txRetBuilder, high, energyRequired);
         break;
       } catch (Program.OutOfTimeException e) {
         retry--;
@@ -2908,26 +2917,25 @@ public class Wallet {
 
     // If failed, return directly.
     if (transaction.getRet(0).getRet().equals(code.FAILED)) {
+      Metrics.histogramObserve(MetricKeys.Histogram.ESTIMATE_ENERGY_EXECUTIONS, executions,
+          MetricLabels.Histogram.ESTIMATE_FAIL);
       txRetBuilder.setCode(response_code.CONTRACT_EXE_ERROR);
       estimateBuilder.setResult(txRetBuilder);
       return transaction;
     }
 
-    long low = dps.getEnergyFee() * txExtBuilder.getEnergyUsed();
+    long low = energyFee * txExtBuilder.getEnergyUsed();
 
-    long twoTimes = low * 2;
-    if (twoTimes < high) {
+    // Verify the energy required by one run with it, searching only if the call runs otherwise
+    boolean verified = false;
+    long required = energyRequired.get();
+    if (required > 0 && required <= high / energyFee) {
+      long feeLimit = required * energyFee;
       while (true) {
         try {
+          executions++;
           transaction = cleanContextAndTriggerConstantContract(
-              triggerSmartContract, txCap, txExtBuilder, txRetBuilder, twoTimes);
-
-          if (transaction.getRet(0).getRet().equals(code.FAILED)) {
-            low = twoTimes;
-          } else {
-            high = twoTimes;
-          }
-
+              triggerSmartContract, txCap, txExtBuilder, txRetBuilder, feeLimit, null);
           break;
         } catch (Program.OutOfTimeException e) {
           retry--;
@@ -2936,40 +2944,78 @@ public class Wallet {
           }
         }
       }
+
+      if (transaction.getRet(0).getRet().equals(code.FAILED)) {
+        low = Math.max(low, feeLimit);
+      } else {
+        high = feeLimit;
+        verified = true;
+      }
     }
 
-    while (low + TRX_PRECISION < high) {
-      long mid = (low + high) / 2;
+    if (!verified) {
+      long twoTimes = low * 2;
+      if (twoTimes < high) {
+        while (true) {
+          try {
+            executions++;
+            transaction = cleanContextAndTriggerConstantContract(
+                triggerSmartContract, txCap, txExtBuilder, txRetBuilder, twoTimes, null);
 
-      while (true) {
-        try {
-          transaction = cleanContextAndTriggerConstantContract(
-              triggerSmartContract, txCap, txExtBuilder, txRetBuilder, mid);
-          break;
-        } catch (Program.OutOfTimeException e) {
-          retry--;
-          if (retry < 0) {
-            throw e;
+            if (transaction.getRet(0).getRet().equals(code.FAILED)) {
+              low = twoTimes;
+            } else {
+              high = twoTimes;
+            }
+
+            break;
+          } catch (Program.OutOfTimeException e) {
+            retry--;
+            if (retry < 0) {
+              throw e;
+            }
           }
         }
       }
 
-      if (transaction.getRet(0).getRet().equals(code.FAILED)) {
-        low = mid;
-      } else {
-        high = mid;
+      while (low + TRX_PRECISION < high) {
+        long mid = (low + high) / 2;
+
+        while (true) {
+          try {
+            executions++;
+            transaction = cleanContextAndTriggerConstantContract(
+                triggerSmartContract, txCap, txExtBuilder, txRetBuilder, mid, null);
+            break;
+          } catch (Program.OutOfTimeException e) {
+            retry--;
+            if (retry < 0) {
+              throw e;
+            }
+          }
+        }
+
+        if (transaction.getRet(0).getRet().equals(code.FAILED)) {
+          low = mid;
+        } else {
+          high = mid;
+        }
       }
-    }
 
-    // Retry the binary search result
-    transaction = cleanContextAndTriggerConstantContract(
-        triggerSmartContract, txCap, txExtBuilder, txRetBuilder, high);
+      // Retry the binary search result
+      executions++;
+      transaction = cleanContextAndTriggerConstantContract(
+          triggerSmartContract, txCap, txExtBuilder, txRetBuilder, high, null);
+    }
+    Metrics.histogramObserve(MetricKeys.Histogram.ESTIMATE_ENERGY_EXECUTIONS, executions,
+        verified ? MetricLabels.Histogram.ESTIMATE_SINGLE_PASS
+            : MetricLabels.Histogram.ESTIMATE_SEARCH);
     // Setting estimating result
     estimateBuilder.setResult(txRetBuilder);
     if (transaction.getRet(0).getRet().equals(code.SUCESS)) {
       txRetBuilder.setResult(true);
       txRetBuilder.setCode(response_code.SUCCESS);
-      estimateBuilder.setEnergyRequired((long) Math.ceil((double) high / dps.getEnergyFee()));
+      estimateBuilder.setEnergyRequired((long) Math.ceil((double) high / energyFee));
     }
 
     return transaction;
@@ -2977,7 +3023,7 @@ public class Wallet {
 
   private Transaction cleanContextAndTriggerConstantContract(
       TriggerSmartContract triggerSmartContract, TransactionCapsule txCap,
-      Builder txExtBuilder, Return.Builder txRetBuilder, long feeLimit)
+      Builder txExtBuilder, Return.Builder txRetBuilder, long feeLimit, AtomicLong energyRequired)
       throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
     Transaction transaction;
     txCap.setFeeLimit(feeLimit);
@@ -2985,7 +3031,7 @@ public class Wallet {
     txExtBuilder.clear();
     txRetBuilder.clear();
     transaction = triggerConstantContract(
-        triggerSmartContract, txCap, txExtBuilder, txRetBuilder, true);
+        triggerSmartContract, txCap, txExtBuilder, txRetBuilder, true, energyRequired);
     return transaction;
   }
 
@@ -2998,7 +3044,14 @@ public class Wallet {
   public Transaction triggerConstantContract(TriggerSmartContract triggerSmartContract,
       TransactionCapsule trxCap, Builder builder, Return.Builder retBuilder, boolean isEstimating)
       throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
+    return triggerConstantContract(triggerSmartContract, trxCap, builder, retBuilder,
+        isEstimating, null);
+  }
 
+  private Transaction triggerConstantContract(TriggerSmartContract triggerSmartContract,
+      TransactionCapsule trxCap, Builder builder, Return.Builder retBuilder, boolean isEstimating,
+      AtomicLong energyRequired)
+      throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
     if (triggerSmartContract.getContractAddress().isEmpty()) { // deploy contract
       CreateSmartContract.Builder deployBuilder = CreateSmartContract.newBuilder();
       deployBuilder.setOwnerAddress(triggerSmartContract.getOwnerAddress());
@@ -3022,12 +3075,22 @@ public class Wallet {
         throw new ContractValidateException("Smart contract is not exist.");
       }
     }
-    return callConstantContract(trxCap, builder, retBuilder, isEstimating);
+    return callConstantContract(trxCap, builder, retBuilder, isEstimating, energyRequired);
   }
 
   public Transaction callConstantContract(TransactionCapsule trxCap,
       Builder builder, Return.Builder retBuilder, boolean isEstimating)
       throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
+    return callConstantContract(trxCap, builder, retBuilder, isEstimating, null);
+  }
+
+  /**
+   * @param energyRequired set to the least energy the call runs as it did with, if not null
+   */
+  private Transaction callConstantContract(TransactionCapsule trxCap,
+      Builder builder, Return.Builder retBuilder, boolean isEstimating,
+      AtomicLong energyRequired)
+      throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
 
     if (!Args.getInstance().isSupportConstant()) {
       throw new ContractValidateException("this node does not support constant");
@@ -3058,6 +3121,9 @@ public class Wallet {
       throw e;
     }
 
+    if (energyRequired != null) {
+      energyRequired.set(result.getEnergyRequired());
+    }
     TransactionResultCapsule ret = new TransactionResultCapsule();
     builder.setEnergyUsed(result.getEnergyUsed());
     builder.setEnergyPenalty(result.getEnergyPenaltyTotal());
@@ -494,6 +494,8 @@ public class Args extends CommonParameter {
         .map(Boolean::valueOf)
         .orElse(Storage.getDbVersionSyncFromConfig(config)));
 
+    PARAMETER.storage.setDbColumnFamilies(Storage.getDbColumnFamiliesFromConfig(config));
+
     PARAMETER.storage.setContractParseSwitch(Optional.ofNullable(PARAMETER.contractParseEnable)
         .filter(StringUtils::isNotEmpty)
         .map(Boolean::valueOf)
@@ -821,6 +823,10 @@ public class Args extends CommonParameter {
             .getInt(Constant.NODE_VALIDATE_SIGN_THREAD_NUM)
             : Runtime.getRuntime().availableProcessors();
 
+    PARAMETER.prefetchBlockState =
+        config.hasPath(Constant.NODE_PREFETCH_BLOCK_STATE)
+            && config.getBoolean(Constant.NODE_PREFETCH_BLOCK_STATE);
+
     PARAMETER.walletExtensionApi =
         config.hasPath(Constant.NODE_WALLET_EXTENSION_API)
             && config.getBoolean(Constant.NODE_WALLET_EXTENSION_API);
@@ -1054,6 +1060,7 @@ public class Args extends CommonParameter {
         .getBoolean(Constant.METRICS_PROMETHEUS_ENABLE);
     PARAMETER.metricsPrometheusPort = config.hasPath(Constant.METRICS_PROMETHEUS_PORT) ? config
         .getInt(Constant.METRICS_PROMETHEUS_PORT) : 9527;
+    PARAMETER.metricsChainbaseEnable = getMetricsChainbaseEnable(config);
     PARAMETER.setOpenHistoryQueryWhenLiteFN(
         config.hasPath(Constant.NODE_OPEN_HISTORY_QUERY_WHEN_LITEFN)
             && config.getBoolean(Constant.NODE_OPEN_HISTORY_QUERY_WHEN_LITEFN));
@@ -1288,6 +1295,11 @@ public class Args extends CommonParameter {
     return ret;
   }
 
+  public static boolean getMetricsChainbaseEnable(final com.typesafe.config.Config config) {
+    return config.hasPath(Constant.METRICS_PROMETHEUS_CHAINBASE)
+        && config.getBoolean(Constant.METRICS_PROMETHEUS_CHAINBASE);
+  }
+
   public static List<InetAddress> getInetAddress(
       final com.typesafe.config.Config config, String path) {
     List<InetAddress> ret = new ArrayList<>();
@@ -1358,6 +1370,22 @@ public class Args extends CommonParameter {
       eventPluginConfig.setTriggerConfigList(triggerConfigList);
     }
 
+    if (config.hasPath(Constant.EVENT_SUBSCRIBE_QUEUE_SIZE)) {
+      eventPluginConfig.setQueueSize(config.getInt(Constant.EVENT_SUBSCRIBE_QUEUE_SIZE));
+    }
+
+    if (config.hasPath(Constant.EVENT_SUBSCRIBE_QUEUE_FULL_POLICY)) {
+      String policy = config.getString(Constant.EVENT_SUBSCRIBE_QUEUE_FULL_POLICY).trim();
+      if (!EventPluginConfig.QUEUE_FULL_DROP.equalsIgnoreCase(policy)
+          && !EventPluginConfig.QUEUE_FULL_BLOCK.equalsIgnoreCase(policy)) {
+        throw new IllegalArgumentException(String.format("Check %s, must be %s or %s",
+            Constant.EVENT_SUBSCRIBE_QUEUE_FULL_POLICY, EventPluginConfig.QUEUE_FULL_DROP,
+            EventPluginConfig.QUEUE_FULL_BLOCK));
+      }
+      eventPluginConfig.setBlockWhenQueueFull(
+          EventPluginConfig.QUEUE_FULL_BLOCK.equalsIgnoreCase(policy));
+    }
+
     return eventPluginConfig;
   }
 
@@ -86,6 +86,8 @@ public class DynamicArgs {
     updateActiveNodes(config);
 
     updateTrustNodes(config);
+
+    updateChainbaseMetrics(config);
   }
 
   private void updateActiveNodes(Config config) {
@@ -111,6 +113,11 @@ public class DynamicArgs {
         TronNetService.getP2pConfig().getTrustNodes().toString());
   }
 
+  private void updateChainbaseMetrics(Config config) {
+    parameter.setMetricsChainbaseEnable(Args.getMetricsChainbaseEnable(config));
+    logger.debug("chainbase metrics : {}", parameter.isMetricsChainbaseEnable());
+  }
+
   @PreDestroy
   public void close() {
     ExecutorServiceManager.shutdownAndAwaitTermination(reloadExecutor, esName);
@@ -0,0 +1,234 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.utils.DecodeUtil;
+import org.tron.core.ChainBaseManager;
+import org.tron.core.capsule.ContractCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.protos.Protocol.Transaction.Contract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.contract.SmartContractOuterClass.TriggerSmartContract;
+
+/**
+ * Loads the accounts and contracts a block touches while the block executes.
+ * The transactions are partitioned into groups sharing no owner, receiver or
+ * contract address, each group is loaded on the pool in block order, so the
+ * state of independent transfers is read from disk concurrently instead of one
+ * miss at a time on the execution thread.
+ * Only reads are issued, execution itself stays sequential, so the results are
+ * the same with or without the prefetch.
+ */
+@Slf4j(topic = "DB")
+public class BlockStatePrefetcher {
+
+  private static final String NAME = "prefetch-state";
+  // transfer(address,uint256) and transferFrom(address,address,uint256)
+  private static final byte[] TRC20_TRANSFER = {(byte) 0xa9, 0x05, (byte) 0x9c, (byte) 0xbb};
+  private static final byte[] TRC20_TRANSFER_FROM = {0x23, (byte) 0xb8, 0x72, (byte) 0xdd};
+  private static final int SELECTOR_SIZE = 4;
+  private static final int WORD_SIZE = 32;
+  private static final int ADDRESS_SIZE = 21;
+
+  private final ChainBaseManager chainBaseManager;
+  private final ExecutorService executor;
+
+  public BlockStatePrefetcher(ChainBaseManager chainBaseManager, int threads) {
+    this.chainBaseManager = chainBaseManager;
+    this.executor = ExecutorServiceManager.newFixedThreadPool(NAME, threads, true);
+  }
+
+  /**
+   * Starts loading the state of the transactions, the returned prefetch must be
+   * stopped before the snapshot the block executes on is merged or reverted.
+   */
+  public Prefetch prefetch(List<TransactionCapsule> txs) {
+    Prefetch prefetch = new Prefetch();
+    for (List<TransactionCapsule> group : partition(txs)) {
+      prefetch.futures.add(executor.submit(() -> {
+        for (TransactionCapsule tx : group) {
+          if (prefetch.stopped) {
+            return;
+          }
+          load(tx);
+        }
+      }));
+    }
+    return prefetch;
+  }
+
+  public void close() {
+    ExecutorServiceManager.shutdownAndAwaitTermination(executor, NAME);
+  }
+
+  private void load(TransactionCapsule tx) {
+    if (tx.getInstance().getRawData().getContractCount() != 1) {
+      return;
+    }
+    Contract contract = tx.getInstance().getRawData().getContract(0);
+    byte[] owner = TransactionCapsule.getOwner(contract);
+    if (owner != null && owner.length > 0) {
+      chainBaseManager.getAccountStore().get(owner);
+    }
+    byte[] to = TransactionCapsule.getToAddress(contract);
+    if (to.length > 0) {
+      chainBaseManager.getAccountStore().get(to);
+    }
+    if (contract.getType() == ContractType.TriggerSmartContract) {
+      byte[] address = triggerContractAddress(contract);
+      if (address.length > 0) {
+        chainBaseManager.getAccountStore().get(address);
+        chainBaseManager.getCodeStore().get(address);
+        ContractCapsule contractCapsule = chainBaseManager.getContractStore().get(address);
+        if (contractCapsule != null) {
+          chainBaseManager.getAccountStore().get(contractCapsule.getOriginAddress());
+        }
+      }
+    }
+  }
+
+  /**
+   * Groups the transactions so that no address is shared between two groups.
+   * Transactions keep their block order inside a group, and groups are ordered
+   * by their first transaction.
+   */
+  static List<List<TransactionCapsule>> partition(List<TransactionCapsule> txs) {
+    int[] parent = new int[txs.size()];
+    Map<ByteString, Integer> owners = new HashMap<>();
+    for (int i = 0; i < txs.size(); i++) {
+      parent[i] = i;
+      for (ByteString address : addresses(txs.get(i))) {
+        Integer other = owners.putIfAbsent(address, i);
+        if (other != null) {
+          union(parent, other, i);
+        }
+      }
+    }
+
+    Map<Integer, List<TransactionCapsule>> groups = new HashMap<>();
+    List<List<TransactionCapsule>> ret = new ArrayList<>();
+    for (int i = 0; i < txs.size(); i++) {
+      List<TransactionCapsule> group = groups.computeIfAbsent(find(parent, i), k -> {
+        List<TransactionCapsule> list = new ArrayList<>();
+        ret.add(list);
+        return list;
+      });
+      group.add(txs.get(i));
+    }
+    return ret;
+  }
+
+  static List<ByteString> addresses(TransactionCapsule tx) {
+    List<ByteString> addresses = new ArrayList<>();
+    if (tx.getInstance().getRawData().getContractCount() != 1) {
+      return addresses;
+    }
+    Contract contract = tx.getInstance().getRawData().getContract(0);
+    add(addresses, TransactionCapsule.getOwner(contract));
+    add(addresses, TransactionCapsule.getToAddress(contract));
+    if (contract.getType() == ContractType.TriggerSmartContract) {
+      add(addresses, triggerContractAddress(contract));
+      add(addresses, trc20Recipient(contract));
+    }
+    return addresses;
+  }
+
+  private static void add(List<ByteString> addresses, byte[] address) {
+    if (address != null && address.length > 0) {
+      addresses.add(ByteString.copyFrom(address));
+    }
+  }
+
+  private static byte[] triggerContractAddress(Contract contract) {
+    try {
+      return contract.getParameter().unpack(TriggerSmartContract.class)
+          .getContractAddress().toByteArray();
+    } catch (Exception e) {
+      return new byte[0];
+    }
+  }
+
+  /**
+   * The token receiver of a TRC-20 transfer, the balances of sender and
+   * receiver are both written by the call.
+   */
+  private static byte[] trc20Recipient(Contract contract) {
+    byte[] data;
+    try {
+      data = contract.getParameter().unpack(TriggerSmartContract.class).getData().toByteArray();
+    } catch (Exception e) {
+      return new byte[0];
+    }
+    int word;
+    if (startsWith(data, TRC20_TRANSFER)) {
+      word = 0;
+    } else if (startsWith(data, TRC20_TRANSFER_FROM)) {
+      word = 1;
+    } else {
+      return new byte[0];
+    }
+    int end = SELECTOR_SIZE + (word + 1) * WORD_SIZE;
+    if (data.length < end) {
+      return new byte[0];
+    }
+    // the abi word ends with the 20 address bytes, prefix them like an account address
+    byte[] address = new byte[ADDRESS_SIZE];
+    address[0] = DecodeUtil.addressPreFixByte;
+    System.arraycopy(data, end - ADDRESS_SIZE + 1, address, 1, ADDRESS_SIZE - 1);
+    return address;
+  }
+
+  private static boolean startsWith(byte[] data, byte[] prefix) {
+    return data.length >= prefix.length
+        && Arrays.equals(Arrays.copyOf(data, prefix.length), prefix);
+  }
+
+  private static int find(int[] parent, int i) {
+    while (parent[i] != i) {
+      parent[i] = parent[parent[i]];
+      i = parent[i];
+    }
+    return i;
+  }
+
+  private static void union(int[] parent, int a, int b) {
+    int ra = find(parent, a);
+    int rb = find(parent, b);
+    if (ra != rb) {
+      // the root is always the earliest transaction of the group
+      parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+  }
+
+  public static class Prefetch {
+
+    private final List<Future<?>> futures = new ArrayList<>();
+    private volatile boolean stopped;
+
+    /**
+     * Skips the loads not started yet and waits for the running ones.
+     */
+    public void stop() {
+      stopped = true;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          logger.warn("Prefetch block state failed.", e.getCause());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+}
@@ -35,7 +35,6 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import lombok.Getter;
@@ -50,8 +49,10 @@ import org.tron.api.GrpcAPI.TransactionInfoList;
 import org.tron.common.args.GenesisBlock;
 import org.tron.common.bloom.Bloom;
 import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.logsfilter.EventPluginConfig;
 import org.tron.common.logsfilter.EventPluginLoader;
 import org.tron.common.logsfilter.FilterQuery;
+import org.tron.common.logsfilter.TriggerPipeline;
 import org.tron.common.logsfilter.capsule.BlockFilterCapsule;
 import org.tron.common.logsfilter.capsule.BlockLogTriggerCapsule;
 import org.tron.common.logsfilter.capsule.ContractTriggerCapsule;
@@ -70,8 +71,8 @@ import org.tron.common.prometheus.MetricKeys;
 import org.tron.common.prometheus.MetricLabels;
 import org.tron.common.prometheus.Metrics;
 import org.tron.common.runtime.RuntimeImpl;
+import org.tron.common.storage.metric.ChainbaseMetrics;
 import org.tron.common.utils.ByteArray;
-import org.tron.common.utils.JsonUtil;
 import org.tron.common.utils.Pair;
 import org.tron.common.utils.SessionOptional;
 import org.tron.common.utils.Sha256Hash;
@@ -186,6 +187,8 @@ public class Manager {
   private TransactionCache transactionCache;
   @Autowired
   private KhaosDatabase khaosDb;
+  @Autowired
+  private BlockStateCache blockStateCache;
   @Getter
   @Autowired
   private RevokingDatabase revokingStore;
@@ -207,9 +210,9 @@ public class Manager {
   @Setter
   private MerkleContainer merkleContainer;
   private ExecutorService validateSignService;
+  private BlockStatePrefetcher blockStatePrefetcher;
   private String validateSignName = "validate-sign";
   private boolean isRunRePushThread = true;
-  private boolean isRunTriggerCapsuleProcessThread = true;
   private BlockingQueue<TransactionCapsule> pushTransactionQueue = new LinkedBlockingQueue<>();
   @Getter
   private Cache<Sha256Hash, Boolean> transactionIdCache = CacheBuilder
@@ -229,15 +232,15 @@ public class Manager {
   @Getter
   private ChainBaseManager chainBaseManager;
   // transactions cache
-  private BlockingQueue<TransactionCapsule> pendingTransactions;
+  private PendingTransactionQueue pendingTransactions;
   @Getter
   private AtomicInteger shieldedTransInPendingCounts = new AtomicInteger(0);
   // transactions popped
   private List<TransactionCapsule> poppedTransactions =
       Collections.synchronizedList(Lists.newArrayList());
   // the capacity is equal to Integer.MAX_VALUE default
-  private BlockingQueue<TransactionCapsule> rePushTransactions;
-  private BlockingQueue<TriggerCapsule> triggerCapsuleQueue;
+  private PendingTransactionQueue rePushTransactions;
+  private TriggerPipeline triggerPipeline;
   // log filter
   private boolean isRunFilterProcessThread = true;
   private BlockingQueue<FilterTriggerCapsule> filterCapsuleQueue;
@@ -257,8 +260,6 @@ public class Manager {
 
   private ExecutorService rePushEs;
   private static final String rePushEsName = "repush";
-  private ExecutorService triggerEs;
-  private static final String triggerEsName = "event-trigger";
   private ExecutorService filterEs;
   private static final String filterEsName = "filter";
 
@@ -296,23 +297,6 @@ public class Manager {
           }
         }
       };
-  private Runnable triggerCapsuleProcessLoop =
-      () -> {
-        while (isRunTriggerCapsuleProcessThread) {
-          try {
-            TriggerCapsule triggerCapsule = triggerCapsuleQueue.poll(1, TimeUnit.SECONDS);
-            if (triggerCapsule != null) {
-              triggerCapsule.processTrigger();
-            }
-          } catch (InterruptedException ex) {
-            logger.info(ex.getMessage());
-            Thread.currentThread().interrupt();
-          } catch (Throwable throwable) {
-            logger.error("Unknown throwable happened in process capsule loop.", throwable);
-          }
-        }
-      };
-
   private Runnable filterProcessLoop =
       () -> {
         while (isRunFilterProcessThread) {
@@ -427,7 +411,7 @@ public class Manager {
     return chainBaseManager.getBlockIndexStore();
   }
 
-  public BlockingQueue<TransactionCapsule> getPendingTransactions() {
+  public PendingTransactionQueue getPendingTransactions() {
     return this.pendingTransactions;
   }
 
@@ -435,7 +419,7 @@ public class Manager {
     return this.poppedTransactions;
   }
 
-  public BlockingQueue<TransactionCapsule> getRePushTransactions() {
+  public PendingTransactionQueue getRePushTransactions() {
     return rePushTransactions;
   }
 
@@ -445,8 +429,7 @@ public class Manager {
   }
 
   public void stopRePushTriggerThread() {
-    isRunTriggerCapsuleProcessThread = false;
-    ExecutorServiceManager.shutdownAndAwaitTermination(triggerEs, triggerEsName);
+    triggerPipeline.stop();
   }
 
   public void stopFilterProcessThread() {
@@ -456,6 +439,9 @@ public class Manager {
 
   public void stopValidateSignThread() {
     ExecutorServiceManager.shutdownAndAwaitTermination(validateSignService, "validate-sign");
+    if (blockStatePrefetcher != null) {
+      blockStatePrefetcher.close();
+    }
   }
 
   @PostConstruct
@@ -476,13 +462,20 @@ public class Manager {
         merkleContainer.createInstance(chainBaseManager.getMerkleTreeStore(),
             chainBaseManager.getMerkleTreeIndexStore()));
     if (Args.getInstance().isOpenTransactionSort()) {
-      this.pendingTransactions = new PriorityBlockingQueue(2000, downComparator);
-      this.rePushTransactions = new PriorityBlockingQueue<>(2000, downComparator);
+      this.pendingTransactions = new PendingTransactionQueue(
+          new PriorityBlockingQueue<>(2000, downComparator), MetricLabels.Gauge.QUEUE_PENDING);
+      this.rePushTransactions = new PendingTransactionQueue(
+          new PriorityBlockingQueue<>(2000, downComparator), MetricLabels.Gauge.QUEUE_REPUSH);
     } else {
-      this.pendingTransactions = new LinkedBlockingQueue<>();
-      this.rePushTransactions = new LinkedBlockingQueue<>();
-    }
-    this.triggerCapsuleQueue = new LinkedBlockingQueue<>();
+      this.pendingTransactions = new PendingTransactionQueue(
+          new LinkedBlockingQueue<>(), MetricLabels.Gauge.QUEUE_PENDING);
+      this.rePushTransactions = new PendingTransactionQueue(
+          new LinkedBlockingQueue<>(), MetricLabels.Gauge.QUEUE_REPUSH);
+    }
+    EventPluginConfig eventPluginConfig = Args.getInstance().getEventPluginConfig();
+    this.triggerPipeline = eventPluginConfig == null ? new TriggerPipeline(0, false)
+        : new TriggerPipeline(eventPluginConfig.getQueueSize(),
+            eventPluginConfig.isBlockWhenQueueFull());
     this.filterCapsuleQueue = new LinkedBlockingQueue<>();
     chainBaseManager.setMerkleContainer(getMerkleContainer());
     chainBaseManager.setMortgageService(mortgageService);
@@ -544,13 +537,16 @@ public class Manager {
     revokingStore.enable();
     validateSignService = ExecutorServiceManager
         .newFixedThreadPool(validateSignName, Args.getInstance().getValidateSignThreadNum());
+    if (Args.getInstance().isPrefetchBlockState()) {
+      blockStatePrefetcher = new BlockStatePrefetcher(chainBaseManager,
+          Args.getInstance().getValidateSignThreadNum());
+    }
     rePushEs = ExecutorServiceManager.newSingleThreadExecutor(rePushEsName, true);
     rePushEs.submit(rePushLoop);
     // add contract event listener for subscribing
     if (Args.getInstance().isEventSubscribe()) {
       startEventSubscribing();
-      triggerEs = ExecutorServiceManager.newSingleThreadExecutor(triggerEsName, true);
-      triggerEs.submit(triggerCapsuleProcessLoop);
+      triggerPipeline.start();
     }
 
     // start json rpc filter process
@@ -844,6 +840,17 @@ public class Manager {
         .has(transactionId);
   }
 
+  /**
+   * The checks of processTransaction that read no account, run on a transaction received
+   * from the network before it is queued, so that a stale or known one is dropped early.
+   */
+  public void precheckTransaction(TransactionCapsule trx) throws TaposException,
+      TransactionExpirationException, TooBigTransactionException, DupTransactionException {
+    validateTapos(trx);
+    validateCommon(trx);
+    validateDup(trx);
+  }
+
   /**
    * push transaction into pending.
    */
@@ -1180,23 +1187,13 @@ public class Manager {
     }
 
     List<TransactionCapsule> txs = new ArrayList<>();
-    Set<String> txIds = new HashSet<>();
-    Set<String> multiAddresses = new HashSet<>();
-
-    pendingTransactions.forEach(capsule -> {
-      String txId = Hex.toHexString(capsule.getTransactionId().getBytes());
-      if (isMultiSignTransaction(capsule.getInstance())) {
-        String address = Hex.toHexString(capsule.getOwnerAddress());
-        multiAddresses.add(address);
-      } else {
-        txIds.add(txId);
-      }
-    });
 
+    // the signatures of a pending tx are checked again if its owner has a pending
+    // permission update, the permissions may have changed since
     block.getTransactions().forEach(capsule -> {
-      String address = Hex.toHexString(capsule.getOwnerAddress());
-      String txId = Hex.toHexString(capsule.getTransactionId().getBytes());
-      if (multiAddresses.contains(address) || !txIds.contains(txId)) {
+      if (pendingTransactions.get(capsule.getTransactionId()) == null
+          || pendingTransactions.getByOwner(capsule.getOwnerAddress()).stream()
+          .anyMatch(tx -> isMultiSignTransaction(tx.getInstance()))) {
         txs.add(capsule);
       } else {
         capsule.setVerified(true);
@@ -1736,6 +1733,7 @@ public class Manager {
       throw new ValidateScheduleException("validateWitnessSchedule error");
     }
 
+    ChainbaseMetrics.blockBegin();
     chainBaseManager.getBalanceTraceStore().initCurrentBlockBalanceTrace(block);
 
     //reset BlockEnergyUsage
@@ -1752,6 +1750,13 @@ public class Manager {
 
     TransactionRetCapsule transactionRetCapsule =
         new TransactionRetCapsule(block);
+    // loads the state of later transactions while the earlier ones execute
+    BlockStatePrefetcher.Prefetch prefetch = null;
+    if (blockStatePrefetcher != null && !block.generatedByMyself) {
+      prefetch = blockStatePrefetcher.prefetch(block.getTransactions());
+    }
+    // the contracts read by one transaction are reused by the later ones
+    blockStateCache.begin();
     try {
       merkleContainer.resetCurrentMerkleTree();
       accountStateCallBack.preExecute(block);
@@ -1772,6 +1777,10 @@ public class Manager {
       transactionRetCapsule.addAllTransactionInfos(results);
       accountStateCallBack.executePushFinish();
     } finally {
+      blockStateCache.end();
+      if (prefetch != null) {
+        prefetch.stop();
+      }
       accountStateCallBack.exceptionFinish();
     }
     merkleContainer.saveCurrentMerkleTreeAsBestMerkleTree(block.getNum());
@@ -1812,6 +1821,7 @@ public class Manager {
       chainBaseManager.getSectionBloomStore().write(block.getNum());
       block.setBloom(blockBloom);
     }
+    ChainbaseMetrics.blockEnd();
   }
 
   private void payReward(BlockCapsule block) {
@@ -1853,6 +1863,20 @@ public class Manager {
     }
   }
 
+  private void postSolidityContractTrigger(long latestSolidifiedBlockNumber) {
+    if (EventPluginLoader.getInstance().isSolidityLogTriggerEnable()) {
+      for (Long i : Args.getSolidityContractLogTriggerMap().keySet()) {
+        postSolidityLogContractTrigger(i, latestSolidifiedBlockNumber);
+      }
+    }
+
+    if (EventPluginLoader.getInstance().isSolidityEventTriggerEnable()) {
+      for (Long i : Args.getSolidityContractEventTriggerMap().keySet()) {
+        postSolidityEventContractTrigger(i, latestSolidifiedBlockNumber);
+      }
+    }
+  }
+
   private void postSolidityLogContractTrigger(Long blockNum, Long lastSolidityNum) {
     if (blockNum > lastSolidityNum) {
       return;
@@ -1869,7 +1893,7 @@ public class Manager {
         triggerCapsule.setTriggerName(Trigger.SOLIDITYLOG_TRIGGER_NAME);
         EventPluginLoader.getInstance().postSolidityLogTrigger(triggerCapsule);
       } else {
-        // when switch fork, block will be post to triggerCapsuleQueue, transaction may be not found
+        // when switch fork, block will be post to triggerPipeline, transaction may be not found
         logger.error("PostSolidityLogContractTrigger txId = {} not contains transaction.",
             triggerCapsule.getTransactionId());
       }
@@ -1910,15 +1934,14 @@ public class Manager {
         new BytesCapsule(ByteArray.subArray(block.getBlockId().getBytes(), 8, 16)));
   }
 
+  // written as binary records, which versions before RecentTransactionRecord cannot read
   public void updateRecentTransaction(BlockCapsule block) {
-    List list = new ArrayList<>();
-    block.getTransactions().forEach(capsule -> {
-      list.add(capsule.getTransactionId().toString());
-    });
-    RecentTransactionItem item = new RecentTransactionItem(block.getNum(), list);
+    List<byte[]> ids = new ArrayList<>(block.getTransactions().size());
+    block.getTransactions().forEach(capsule -> ids.add(capsule.getTransactionId().getBytes()));
+    RecentTransactionRecord record = new RecentTransactionRecord(block.getNum(), ids);
     chainBaseManager.getRecentTransactionStore().put(
             ByteArray.subArray(ByteArray.fromLong(block.getNum()), 6, 8),
-            new BytesCapsule(JsonUtil.obj2Json(item).getBytes()));
+            new BytesCapsule(record.toBytes()));
   }
 
   public void updateFork(BlockCapsule block) {
@@ -2074,15 +2097,19 @@ public class Manager {
   }
 
   private void postSolidityTrigger(final long oldSolidNum, final long latestSolidifiedBlockNumber) {
-    if (eventPluginLoaded && EventPluginLoader.getInstance().isSolidityLogTriggerEnable()) {
-      for (Long i : Args.getSolidityContractLogTriggerMap().keySet()) {
-        postSolidityLogContractTrigger(i, latestSolidifiedBlockNumber);
-      }
-    }
-
-    if (eventPluginLoaded && EventPluginLoader.getInstance().isSolidityEventTriggerEnable()) {
-      for (Long i : Args.getSolidityContractEventTriggerMap().keySet()) {
-        postSolidityEventContractTrigger(i, latestSolidifiedBlockNumber);
+    if (eventPluginLoaded && (EventPluginLoader.getInstance().isSolidityLogTriggerEnable()
+        || EventPluginLoader.getInstance().isSolidityEventTriggerEnable())) {
+      // the solidity logs and events are collected by the trigger pipeline while posting
+      // the contract triggers, they are posted once the ones of the solidified blocks are
+      boolean result = triggerPipeline.offer(new TriggerCapsule() {
+        @Override
+        public void processTrigger() {
+          postSolidityContractTrigger(latestSolidifiedBlockNumber);
+        }
+      });
+      if (!result) {
+        logger.info("Too many trigger, lost solidified contract trigger, block number: {}.",
+            latestSolidifiedBlockNumber);
       }
     }
 
@@ -2092,7 +2119,7 @@ public class Manager {
         SolidityTriggerCapsule solidityTriggerCapsule
             = new SolidityTriggerCapsule(blockCapsule.getNum());//unique key
         solidityTriggerCapsule.setTimeStamp(blockCapsule.getTimeStamp());
-        boolean result = triggerCapsuleQueue.offer(solidityTriggerCapsule);
+        boolean result = triggerPipeline.offer(solidityTriggerCapsule);
         if (!result) {
           logger.info("Too many trigger, lost solidified trigger, block number: {}.",
               blockCapsule.getNum());
@@ -2233,7 +2260,7 @@ public class Manager {
       for (BlockCapsule capsule : capsuleList) {
         BlockLogTriggerCapsule blockLogTriggerCapsule = new BlockLogTriggerCapsule(capsule);
         blockLogTriggerCapsule.setLatestSolidifiedBlockNumber(solidityBlkNum);
-        if (!triggerCapsuleQueue.offer(blockLogTriggerCapsule)) {
+        if (!triggerPipeline.offer(blockLogTriggerCapsule)) {
           logger.info("Too many triggers, block trigger lost: {}.", capsule.getBlockId());
         }
       }
@@ -2282,7 +2309,7 @@ public class Manager {
         index, preCumulativeEnergyUsed, cumulativeLogCount, transactionInfo, energyUnitPrice);
     trx.setLatestSolidifiedBlockNumber(getDynamicPropertiesStore()
         .getLatestSolidifiedBlockNum());
-    if (!triggerCapsuleQueue.offer(trx)) {
+    if (!triggerPipeline.offer(trx)) {
       logger.info("Too many triggers, transaction trigger lost: {}.", trxCap.getTransactionId());
     }
 
@@ -2295,7 +2322,7 @@ public class Manager {
     TransactionLogTriggerCapsule trx = new TransactionLogTriggerCapsule(trxCap, blockCap);
     trx.setLatestSolidifiedBlockNumber(getDynamicPropertiesStore()
         .getLatestSolidifiedBlockNum());
-    if (!triggerCapsuleQueue.offer(trx)) {
+    if (!triggerPipeline.offer(trx)) {
       logger.info("Too many triggers, transaction trigger lost: {}.", trxCap.getTransactionId());
     }
   }
@@ -2335,7 +2362,7 @@ public class Manager {
             .getLatestSolidifiedBlockNum());
         contractTriggerCapsule.setBlockHash(blockHash);
 
-        if (!triggerCapsuleQueue.offer(contractTriggerCapsule)) {
+        if (!triggerPipeline.offer(contractTriggerCapsule)) {
           logger.info("Too many triggers, contract log trigger lost: {}.",
               trigger.getTransactionId());
         }
@@ -2349,34 +2376,18 @@ public class Manager {
   }
 
   public TransactionCapsule getTxFromPending(String txId) {
-    AtomicReference<TransactionCapsule> transactionCapsule = new AtomicReference<>();
     Sha256Hash txHash = Sha256Hash.wrap(ByteArray.fromHexString(txId));
-    pendingTransactions.forEach(tx -> {
-      if (tx.getTransactionId().equals(txHash)) {
-        transactionCapsule.set(tx);
-        return;
-      }
-    });
-    if (transactionCapsule.get() != null) {
-      return transactionCapsule.get();
+    TransactionCapsule transactionCapsule = pendingTransactions.get(txHash);
+    if (transactionCapsule != null) {
+      return transactionCapsule;
     }
-    rePushTransactions.forEach(tx -> {
-      if (tx.getTransactionId().equals(txHash)) {
-        transactionCapsule.set(tx);
-        return;
-      }
-    });
-    return transactionCapsule.get();
+    return rePushTransactions.get(txHash);
   }
 
   public Collection<String> getTxListFromPending() {
     Set<String> result = new HashSet<>();
-    pendingTransactions.forEach(tx -> {
-      result.add(tx.getTransactionId().toString());
-    });
-    rePushTransactions.forEach(tx -> {
-      result.add(tx.getTransactionId().toString());
-    });
+    pendingTransactions.getIds().forEach(id -> result.add(id.toString()));
+    rePushTransactions.getIds().forEach(id -> result.add(id.toString()));
     return result;
   }
 
@@ -2416,8 +2427,7 @@ public class Manager {
       for (Map.Entry<byte[], BytesCapsule> entry :
           chainBaseManager.getRecentTransactionStore()) {
         byte[] data = entry.getValue().getData();
-        RecentTransactionItem trx =
-            JsonUtil.json2Obj(new String(data), RecentTransactionItem.class);
+        RecentTransactionRecord trx = RecentTransactionRecord.of(data);
         if (trx == null) {
           continue;
         }
@@ -2427,7 +2437,7 @@ public class Manager {
         minBlock = Math.min(minBlock, blockNum);
         item.setBlockNum(blockNum);
         trx.getTransactionIds().forEach(
-            tid -> chainBaseManager.getTransactionStore().put(Hex.decode(tid), item));
+            tid -> chainBaseManager.getTransactionStore().put(tid, item));
       }
       logger.info("Load trans complete, trans: {}, from = {}, to = {}.",
           transactionCount, minBlock, maxBlock);
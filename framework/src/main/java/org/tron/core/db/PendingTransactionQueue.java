@@ -0,0 +1,232 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.Metrics;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.TransactionCapsule;
+
+/**
+ * A queue of pending transactions, indexed by transaction id and owner address.
+ * The order of the transactions is the one of the wrapped queue, FIFO or by fee
+ * order. Every transaction is indexed before it is queued and removed from the
+ * index once it leaves the queue, so lookups never scan the queue; when it
+ * leaves, the time it waited is observed by the queue age histogram.
+ */
+public class PendingTransactionQueue extends AbstractQueue<TransactionCapsule>
+    implements BlockingQueue<TransactionCapsule> {
+
+  private final BlockingQueue<TransactionCapsule> queue;
+  private final String type;
+  private final Map<Sha256Hash, Entry> ids = new ConcurrentHashMap<>();
+  private final Map<ByteString, Set<TransactionCapsule>> owners = new ConcurrentHashMap<>();
+
+  /**
+   * @param queue the queue holding the transactions in order, must be empty
+   * @param type the queue label of the metrics
+   */
+  public PendingTransactionQueue(BlockingQueue<TransactionCapsule> queue, String type) {
+    this.queue = queue;
+    this.type = type;
+  }
+
+  public TransactionCapsule get(Sha256Hash id) {
+    Entry entry = ids.get(id);
+    return entry == null ? null : entry.tx;
+  }
+
+  public Set<Sha256Hash> getIds() {
+    return Collections.unmodifiableSet(ids.keySet());
+  }
+
+  public Set<TransactionCapsule> getByOwner(byte[] owner) {
+    Set<TransactionCapsule> txs = owner == null ? null : owners.get(ByteString.copyFrom(owner));
+    return txs == null ? Collections.emptySet() : Collections.unmodifiableSet(txs);
+  }
+
+  @Override
+  public boolean offer(TransactionCapsule tx) {
+    index(tx);
+    if (!queue.offer(tx)) {
+      unindex(tx, false);
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean offer(TransactionCapsule tx, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    index(tx);
+    boolean offered = false;
+    try {
+      offered = queue.offer(tx, timeout, unit);
+      return offered;
+    } finally {
+      if (!offered) {
+        unindex(tx, false);
+      }
+    }
+  }
+
+  @Override
+  public void put(TransactionCapsule tx) throws InterruptedException {
+    index(tx);
+    boolean queued = false;
+    try {
+      queue.put(tx);
+      queued = true;
+    } finally {
+      if (!queued) {
+        unindex(tx, false);
+      }
+    }
+  }
+
+  @Override
+  public TransactionCapsule take() throws InterruptedException {
+    return unindex(queue.take(), true);
+  }
+
+  @Override
+  public TransactionCapsule poll(long timeout, TimeUnit unit) throws InterruptedException {
+    return unindex(queue.poll(timeout, unit), true);
+  }
+
+  @Override
+  public TransactionCapsule poll() {
+    return unindex(queue.poll(), true);
+  }
+
+  @Override
+  public TransactionCapsule peek() {
+    return queue.peek();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (queue.remove(o)) {
+      unindex((TransactionCapsule) o, true);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof TransactionCapsule
+        && ids.containsKey(((TransactionCapsule) o).getTransactionId()) && queue.contains(o);
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return queue.remainingCapacity();
+  }
+
+  @Override
+  public int drainTo(Collection<? super TransactionCapsule> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super TransactionCapsule> c, int maxElements) {
+    List<TransactionCapsule> drained = new ArrayList<>();
+    int n = queue.drainTo(drained, maxElements);
+    drained.forEach(tx -> unindex(tx, true));
+    c.addAll(drained);
+    return n;
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public Iterator<TransactionCapsule> iterator() {
+    Iterator<TransactionCapsule> iterator = queue.iterator();
+    return new Iterator<TransactionCapsule>() {
+
+      private TransactionCapsule last;
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public TransactionCapsule next() {
+        last = iterator.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        iterator.remove();
+        unindex(last, true);
+      }
+    };
+  }
+
+  private void index(TransactionCapsule tx) {
+    ids.put(tx.getTransactionId(), new Entry(tx, System.currentTimeMillis()));
+    ByteString owner = owner(tx);
+    if (owner != null) {
+      owners.compute(owner, (k, txs) -> {
+        Set<TransactionCapsule> set = txs == null ? ConcurrentHashMap.newKeySet() : txs;
+        set.add(tx);
+        return set;
+      });
+    }
+  }
+
+  private TransactionCapsule unindex(TransactionCapsule tx, boolean observe) {
+    if (tx == null) {
+      return null;
+    }
+    Entry entry = ids.get(tx.getTransactionId());
+    // a transaction queued twice keeps the index of the latest one
+    if (entry != null && entry.tx == tx && ids.remove(tx.getTransactionId(), entry) && observe) {
+      Metrics.histogramObserve(MetricKeys.Histogram.MANAGER_QUEUE_AGE,
+          (System.currentTimeMillis() - entry.time) / Metrics.MILLISECONDS_PER_SECOND, type);
+    }
+    ByteString owner = owner(tx);
+    if (owner != null) {
+      owners.computeIfPresent(owner, (k, txs) -> {
+        txs.remove(tx);
+        return txs.isEmpty() ? null : txs;
+      });
+    }
+    return tx;
+  }
+
+  private static ByteString owner(TransactionCapsule tx) {
+    if (tx.getInstance().getRawData().getContractCount() == 0) {
+      return null;
+    }
+    byte[] owner = tx.getOwnerAddress();
+    return owner == null ? null : ByteString.copyFrom(owner);
+  }
+
+  private static class Entry {
+
+    private final TransactionCapsule tx;
+    private final long time;
+
+    private Entry(TransactionCapsule tx, long time) {
+      this.tx = tx;
+      this.time = time;
+    }
+  }
+}
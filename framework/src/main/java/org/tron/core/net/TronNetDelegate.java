@@ -303,6 +303,17 @@ public class TronNetDelegate {
     }
   }
 
+  public void precheckTransaction(TransactionCapsule trx) throws P2pException {
+    try {
+      dbManager.precheckTransaction(trx);
+    } catch (TaposException
+        | TransactionExpirationException
+        | TooBigTransactionException
+        | DupTransactionException e) {
+      throw new P2pException(TypeEnum.TRX_EXE_FAILED, e);
+    }
+  }
+
   public void pushTransaction(TransactionCapsule trx) throws P2pException {
     try {
       trx.setTime(System.currentTimeMillis());
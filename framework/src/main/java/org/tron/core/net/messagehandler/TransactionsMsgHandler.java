@@ -6,13 +6,20 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.core.config.args.Args;
+import org.tron.core.exception.DupTransactionException;
 import org.tron.core.exception.P2pException;
 import org.tron.core.exception.P2pException.TypeEnum;
+import org.tron.core.exception.TaposException;
+import org.tron.core.exception.TooBigTransactionException;
 import org.tron.core.net.TronNetDelegate;
 import org.tron.core.net.message.TronMessage;
 import org.tron.core.net.message.adv.TransactionMessage;
@@ -36,7 +43,7 @@ public class TransactionsMsgHandler implements TronMsgHandler {
   @Autowired
   private AdvService advService;
 
-  private BlockingQueue<TrxEvent> smartContractQueue = new LinkedBlockingQueue(MAX_TRX_SIZE);
+  private TrxAdmissionQueue smartContractQueue = new TrxAdmissionQueue(MAX_TRX_SIZE);
 
   private BlockingQueue<Runnable> queue = new LinkedBlockingQueue();
 
@@ -70,16 +77,25 @@ public class TransactionsMsgHandler implements TronMsgHandler {
     int trxHandlePoolQueueSize = 0;
     int dropSmartContractCount = 0;
     for (Transaction trx : transactionsMessage.getTransactions().getTransactionsList()) {
+      TransactionMessage trxMsg = new TransactionMessage(trx);
+      if (!precheck(peer, trxMsg)) {
+        continue;
+      }
       int type = trx.getRawData().getContract(0).getType().getNumber();
       if (type == ContractType.TriggerSmartContract_VALUE
           || type == ContractType.CreateSmartContract_VALUE) {
-        if (!smartContractQueue.offer(new TrxEvent(peer, new TransactionMessage(trx)))) {
+        TrxEvent event = new TrxEvent(peer, trxMsg);
+        TrxEvent dropped = smartContractQueue.offer(event);
+        if (dropped != null) {
           smartContractQueueSize = smartContractQueue.size();
           trxHandlePoolQueueSize = queue.size();
           dropSmartContractCount++;
+          Metrics.counterInc(MetricKeys.Counter.P2P_TRX_DROP, 1, dropped == event
+              ? MetricLabels.Counter.P2P_TRX_DROP_FULL
+              : MetricLabels.Counter.P2P_TRX_DROP_EVICTED);
         }
       } else {
-        trxHandlePool.submit(() -> handleTransaction(peer, new TransactionMessage(trx)));
+        trxHandlePool.submit(() -> handleTransaction(peer, trxMsg));
       }
     }
 
@@ -89,6 +105,33 @@ public class TransactionsMsgHandler implements TronMsgHandler {
     }
   }
 
+  /**
+   * Drops a transaction that would fail the TaPoS, expiration, size or duplicate checks of
+   * pushTransaction, before it takes a place in a queue.
+   */
+  private boolean precheck(PeerConnection peer, TransactionMessage trx) {
+    try {
+      tronNetDelegate.precheckTransaction(trx.getTransactionCapsule());
+      return true;
+    } catch (P2pException e) {
+      Throwable cause = e.getCause();
+      String reason;
+      if (cause instanceof TaposException) {
+        reason = MetricLabels.Counter.P2P_TRX_DROP_TAPOS;
+      } else if (cause instanceof TooBigTransactionException) {
+        reason = MetricLabels.Counter.P2P_TRX_DROP_BIG;
+      } else if (cause instanceof DupTransactionException) {
+        reason = MetricLabels.Counter.P2P_TRX_DROP_DUP;
+      } else {
+        reason = MetricLabels.Counter.P2P_TRX_DROP_EXPIRED;
+      }
+      Metrics.counterInc(MetricKeys.Counter.P2P_TRX_DROP, 1, reason);
+      logger.debug("Drop trx {} from {}, reason: {}", trx.getMessageId(),
+          peer.getInetAddress(), e.getMessage());
+      return false;
+    }
+  }
+
   private void check(PeerConnection peer, TransactionsMessage msg) throws P2pException {
     for (Transaction trx : msg.getTransactions().getTransactionsList()) {
       Item item = new Item(new TransactionMessage(trx).getMessageId(), InventoryType.TRX);
@@ -103,13 +146,12 @@ public class TransactionsMsgHandler implements TronMsgHandler {
   private void handleSmartContract() {
     smartContractExecutor.scheduleWithFixedDelay(() -> {
       try {
-        while (queue.size() < MAX_SMART_CONTRACT_SUBMIT_SIZE && smartContractQueue.size() > 0) {
-          TrxEvent event = smartContractQueue.take();
-          trxHandlePool.submit(() -> handleTransaction(event.getPeer(), event.getMsg()));
+        TrxEvent event;
+        while (queue.size() < MAX_SMART_CONTRACT_SUBMIT_SIZE
+            && (event = smartContractQueue.poll()) != null) {
+          TrxEvent submitted = event;
+          trxHandlePool.submit(() -> handleTransaction(submitted.getPeer(), submitted.getMsg()));
         }
-      } catch (InterruptedException e) {
-        logger.warn("Handle smart server interrupted");
-        Thread.currentThread().interrupt();
       } catch (Exception e) {
         logger.error("Handle smart contract exception", e);
       }
@@ -143,7 +185,7 @@ public class TransactionsMsgHandler implements TronMsgHandler {
     }
   }
 
-  class TrxEvent {
+  static class TrxEvent {
 
     @Getter
     private PeerConnection peer;
@@ -151,11 +193,20 @@ public class TransactionsMsgHandler implements TronMsgHandler {
     private TransactionMessage msg;
     @Getter
     private long time;
+    @Getter
+    private long feeLimit;
+    @Getter
+    @Setter
+    private int round;
+    @Getter
+    @Setter
+    private long seq;
 
     public TrxEvent(PeerConnection peer, TransactionMessage msg) {
       this.peer = peer;
       this.msg = msg;
       this.time = System.currentTimeMillis();
+      this.feeLimit = msg.getTransactionCapsule().getInstance().getRawData().getFeeLimit();
     }
   }
 }
\ No newline at end of file
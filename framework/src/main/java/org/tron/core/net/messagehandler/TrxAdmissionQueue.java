@@ -0,0 +1,73 @@
+package org.tron.core.net.messagehandler;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import org.tron.core.net.messagehandler.TransactionsMsgHandler.TrxEvent;
+import org.tron.core.net.peer.PeerConnection;
+
+/**
+ * A bounded queue of the smart contract transactions waiting to be pushed, served fairly
+ * across peers and by fee. The n-th transaction a peer has queued is served in round n,
+ * a round is served by decreasing fee limit, then in arrival order. When the queue is
+ * full, an event of a later round or a lower fee limit is evicted for a better one, so
+ * a peer flooding the node only pushes its own transactions out.
+ */
+class TrxAdmissionQueue {
+
+  private static final Comparator<TrxEvent> ORDER = Comparator
+      .comparingInt(TrxEvent::getRound)
+      .thenComparing(Comparator.comparingLong(TrxEvent::getFeeLimit).reversed())
+      .thenComparingLong(TrxEvent::getSeq);
+
+  private final int capacity;
+
+  private final TreeSet<TrxEvent> events = new TreeSet<>(ORDER);
+
+  private final Map<PeerConnection, Integer> queued = new HashMap<>();
+
+  private long seq;
+
+  TrxAdmissionQueue(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * @return the event dropped for this one to be admitted, the event itself if it is not
+   *     admitted, or null if the queue was not full
+   */
+  synchronized TrxEvent offer(TrxEvent event) {
+    event.setRound(queued.getOrDefault(event.getPeer(), 0));
+    event.setSeq(seq++);
+    TrxEvent dropped = null;
+    if (events.size() >= capacity) {
+      TrxEvent last = events.last();
+      if (ORDER.compare(event, last) > 0) {
+        return event;
+      }
+      events.pollLast();
+      release(last);
+      dropped = last;
+    }
+    events.add(event);
+    queued.merge(event.getPeer(), 1, Integer::sum);
+    return dropped;
+  }
+
+  synchronized TrxEvent poll() {
+    TrxEvent event = events.pollFirst();
+    if (event != null) {
+      release(event);
+    }
+    return event;
+  }
+
+  synchronized int size() {
+    return events.size();
+  }
+
+  private void release(TrxEvent event) {
+    queued.computeIfPresent(event.getPeer(), (peer, count) -> count > 1 ? count - 1 : null);
+  }
+}
@@ -12,8 +12,12 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -23,10 +27,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.common.es.ExecutorServiceManager;
 import org.tron.common.overlay.message.Message;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.common.utils.Time;
 import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.config.args.Args;
+import org.tron.core.metrics.MetricsKey;
+import org.tron.core.metrics.MetricsUtil;
 import org.tron.core.net.TronNetDelegate;
 import org.tron.core.net.message.adv.BlockMessage;
 import org.tron.core.net.message.adv.FetchInvDataMessage;
@@ -79,6 +88,12 @@ public class AdvService {
   private final ScheduledExecutorService fetchExecutor = ExecutorServiceManager
       .newSingleThreadScheduledExecutor(fetchName);
 
+  // the active peers are split into this many shards, each sent on its own thread
+  private final int spreadShards = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+  private final String spreadPeerName = "adv-spread-peer";
+  private final ExecutorService spreadPeerExecutor = ExecutorServiceManager
+      .newFixedThreadPool(spreadPeerName, spreadShards);
+
   @Getter
   private MessageCount trxCount = new MessageCount();
 
@@ -106,9 +121,10 @@ public class AdvService {
   public void close() {
     ExecutorServiceManager.shutdownAndAwaitTermination(spreadExecutor, spreadName);
     ExecutorServiceManager.shutdownAndAwaitTermination(fetchExecutor, fetchName);
+    ExecutorServiceManager.shutdownAndAwaitTermination(spreadPeerExecutor, spreadPeerName);
   }
 
-  public synchronized void addInvToCache(Item item) {
+  public void addInvToCache(Item item) {
     invToFetchCache.put(item, System.currentTimeMillis());
     invToFetch.remove(item);
   }
@@ -125,13 +141,10 @@ public class AdvService {
       return false;
     }
 
-    synchronized (this) {
-      if (invToFetchCache.getIfPresent(item) != null) {
-        return false;
-      }
-      invToFetchCache.put(item, System.currentTimeMillis());
-      invToFetch.put(item, System.currentTimeMillis());
+    if (invToFetchCache.asMap().putIfAbsent(item, System.currentTimeMillis()) != null) {
+      return false;
     }
+    invToFetch.put(item, System.currentTimeMillis());
 
     if (InventoryType.BLOCK.equals(item.getType())) {
       consumerInvToFetch();
@@ -259,64 +272,145 @@ public class AdvService {
     }
   }
 
+  /**
+   * Assigns the items to fetch to the idle peers that advertised them. It may run on several
+   * threads at once, an item is claimed by removing it from invToFetch before it is assigned.
+   */
   private void consumerInvToFetch() {
+    if (invToFetch.isEmpty()) {
+      return;
+    }
     Collection<PeerConnection> peers = tronNetDelegate.getActivePeer().stream()
         .filter(peer -> peer.isIdle())
         .collect(Collectors.toList());
+    if (peers.isEmpty()) {
+      return;
+    }
     InvSender invSender = new InvSender();
-    synchronized (this) {
-      if (invToFetch.isEmpty() || peers.isEmpty()) {
-        return;
-      }
-      long now = System.currentTimeMillis();
-      invToFetch.forEach((item, time) -> {
-        if (time < now - TIMEOUT) {
+    long now = System.currentTimeMillis();
+    invToFetch.forEach((item, time) -> {
+      if (time < now - TIMEOUT) {
+        if (invToFetch.remove(item, time)) {
           logger.info("This obj is too late to fetch, type: {} hash: {}", item.getType(),
-                  item.getHash());
-          invToFetch.remove(item);
+              item.getHash());
           invToFetchCache.invalidate(item);
-          return;
         }
-        peers.stream().filter(peer -> {
-          Long t = peer.getAdvInvReceive().getIfPresent(item);
-          return t != null && now - t < TIMEOUT && invSender.getSize(peer) < MAX_TRX_FETCH_PER_PEER;
-        }).sorted(Comparator.comparingInt(peer -> invSender.getSize(peer)))
-            .findFirst().ifPresent(peer -> {
-              if (peer.checkAndPutAdvInvRequest(item, now)) {
-                invSender.add(item, peer);
-              }
-              invToFetch.remove(item);
-            });
-      });
-    }
+        return;
+      }
+      peers.stream().filter(peer -> {
+        Long t = peer.getAdvInvReceive().getIfPresent(item);
+        return t != null && now - t < TIMEOUT && invSender.getSize(peer) < MAX_TRX_FETCH_PER_PEER;
+      }).min(Comparator.comparingInt(peer -> invSender.getSize(peer)))
+          .filter(peer -> invToFetch.remove(item, time))
+          .ifPresent(peer -> {
+            if (peer.checkAndPutAdvInvRequest(item, now)) {
+              invSender.add(item, peer);
+            }
+          });
+    });
 
     invSender.sendFetch();
   }
 
-  private synchronized void consumerInvToSpread() {
+  /**
+   * Spreads the pending items to the peers that do not know them yet, one inventory message
+   * per peer and type. The items are claimed by removing them from invToSpread, so that
+   * concurrent calls never spread the same item twice, and the peers are sent in parallel.
+   */
+  private void consumerInvToSpread() {
+    if (invToSpread.isEmpty()) {
+      return;
+    }
 
     List<PeerConnection> peers = tronNetDelegate.getActivePeer().stream()
         .filter(peer -> !peer.isNeedSyncFromPeer() && !peer.isNeedSyncFromUs())
         .collect(Collectors.toList());
 
-    if (invToSpread.isEmpty() || peers.isEmpty()) {
+    if (peers.isEmpty()) {
       return;
     }
 
-    InvSender invSender = new InvSender();
+    HashMap<Item, Long> items = new HashMap<>();
+    invToSpread.forEach((item, time) -> {
+      if (invToSpread.remove(item, time)) {
+        items.put(item, time);
+      }
+    });
+    if (items.isEmpty()) {
+      return;
+    }
 
-    invToSpread.forEach((item, time) -> peers.forEach(peer -> {
-      if (peer.getAdvInvReceive().getIfPresent(item) == null
-          && peer.getAdvInvSpread().getIfPresent(item) == null
-          && !(item.getType().equals(InventoryType.BLOCK)
-          && System.currentTimeMillis() - time > BLOCK_PRODUCED_INTERVAL)) {
-        peer.getAdvInvSpread().put(item, Time.getCurrentMillis());
-        invSender.add(item, peer);
+    int shards = Math.min(spreadShards, peers.size());
+    if (shards == 1) {
+      peers.forEach(peer -> spreadToPeer(peer, items));
+      return;
+    }
+    List<Future<?>> futures = new ArrayList<>(shards);
+    for (int i = 0; i < shards; i++) {
+      int shard = i;
+      futures.add(spreadPeerExecutor.submit(() -> {
+        for (int j = shard; j < peers.size(); j += shards) {
+          spreadToPeer(peers.get(j), items);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        logger.error("Spread to peers error", e.getCause());
+      }
+    }
+  }
+
+  private void spreadToPeer(PeerConnection peer, Map<Item, Long> items) {
+    long now = System.currentTimeMillis();
+    List<Sha256Hash> blocks = new ArrayList<>();
+    List<Sha256Hash> trxs = new ArrayList<>();
+    long blockTime = now;
+    long trxTime = now;
+    for (Entry<Item, Long> entry : items.entrySet()) {
+      Item item = entry.getKey();
+      long time = entry.getValue();
+      boolean isBlock = item.getType().equals(InventoryType.BLOCK);
+      if (peer.getAdvInvReceive().getIfPresent(item) != null
+          || peer.getAdvInvSpread().getIfPresent(item) != null
+          || (isBlock && now - time > BLOCK_PRODUCED_INTERVAL)) {
+        continue;
       }
-      invToSpread.remove(item);
-    }));
+      peer.getAdvInvSpread().put(item, Time.getCurrentMillis());
+      if (isBlock) {
+        blocks.add(item.getHash());
+        blockTime = Math.min(blockTime, time);
+      } else {
+        trxs.add(item.getHash());
+        trxTime = Math.min(trxTime, time);
+      }
+    }
+
+    if (!blocks.isEmpty()) {
+      blocks.sort(Comparator.comparingLong(value -> new BlockId(value).getNum()));
+      peer.sendMessage(new InventoryMessage(blocks, InventoryType.BLOCK));
+      observeSpreadDelay(peer, MetricLabels.BLOCK, System.currentTimeMillis() - blockTime);
+    }
+    if (!trxs.isEmpty() && !peer.isRelayPeer()) {
+      peer.sendMessage(new InventoryMessage(trxs, InventoryType.TRX));
+      observeSpreadDelay(peer, MetricLabels.TRX, System.currentTimeMillis() - trxTime);
+    }
+  }
 
-    invSender.sendInv();
+  /**
+   * Records the time from the broadcast of the oldest item of a message to its sending, per
+   * peer in the node metrics and per type only in prometheus, as peers come and go.
+   */
+  private void observeSpreadDelay(PeerConnection peer, String type, long delay) {
+    MetricsUtil.histogramUpdate(MetricsKey.NET_LATENCY_SPREAD + type + "."
+        + peer.getInetAddress(), delay);
+    Metrics.histogramObserve(MetricKeys.Histogram.INV_SPREAD_DELAY,
+        delay / Metrics.MILLISECONDS_PER_SECOND, type);
   }
 
   class InvSender {
@@ -361,20 +455,6 @@ public class AdvService {
       return 0;
     }
 
-    public void sendInv() {
-      send.forEach((peer, ids) -> ids.forEach((key, value) -> {
-        if (peer.isRelayPeer() && key.equals(InventoryType.TRX)) {
-          return;
-        }
-        if (key.equals(InventoryType.BLOCK)) {
-          value.sort(Comparator.comparingLong(value1 -> new BlockId(value1).getNum()));
-          peer.sendMessage(new InventoryMessage(value, key));
-        } else {
-          peer.sendMessage(new InventoryMessage(value, key));
-        }
-      }));
-    }
-
     void sendFetch() {
       send.forEach((peer, ids) -> ids.forEach((key, value) -> {
         if (key.equals(InventoryType.BLOCK)) {
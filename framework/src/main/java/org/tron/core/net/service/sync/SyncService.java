@@ -4,13 +4,17 @@ import static org.tron.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PE
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import java.security.SignatureException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.Setter;
@@ -21,6 +25,7 @@ import org.tron.common.es.ExecutorServiceManager;
 import org.tron.common.utils.Pair;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.exception.P2pException;
 import org.tron.core.exception.P2pException.TypeEnum;
@@ -62,6 +67,14 @@ public class SyncService {
   private final ScheduledExecutorService blockHandleExecutor = ExecutorServiceManager
       .newSingleThreadScheduledExecutor(handleEsName);
 
+  // blocks waiting to be prepared, the ones beyond are verified when they are processed
+  private static final int MAX_PREPARE_BLOCKS = 1000;
+  private final String prepareEsName = "sync-prepare-block";
+  private final int prepareThreads = Math.max(1, Args.getInstance().getValidateSignThreadNum());
+  private final ExecutorService prepareExecutor = ExecutorServiceManager
+      .newThreadPoolExecutor(prepareThreads, prepareThreads, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(MAX_PREPARE_BLOCKS), prepareEsName, true);
+
   private volatile boolean handleFlag = false;
 
   @Setter
@@ -96,6 +109,7 @@ public class SyncService {
   public void close() {
     ExecutorServiceManager.shutdownAndAwaitTermination(fetchExecutor, fetchEsName);
     ExecutorServiceManager.shutdownAndAwaitTermination(blockHandleExecutor, handleEsName);
+    ExecutorServiceManager.shutdownAndAwaitTermination(prepareExecutor, prepareEsName);
   }
 
   public void startSync(PeerConnection peer) {
@@ -133,6 +147,7 @@ public class SyncService {
     synchronized (blockJustReceived) {
       blockJustReceived.put(blockMessage, peer);
     }
+    prepareSyncBlock(peer, blockMessage);
     handleFlag = true;
     if (peer.isIdle()) {
       if (peer.getRemainNum() > 0
@@ -295,6 +310,35 @@ public class SyncService {
     }
   }
 
+  /**
+   * Recovers the witness and transaction signers and the merkle root of a block while
+   * the blocks before it execute, none of it depends on the state, so processing the
+   * block later only checks the results against the state.
+   * Blocks of a peer already dropped for a bad block, and blocks at or below the head
+   * after a fork switch, are skipped.
+   */
+  private void prepareSyncBlock(PeerConnection peer, BlockMessage msg) {
+    try {
+      prepareExecutor.execute(() -> {
+        if (peer.isDisconnect()
+            || msg.getBlockId().getNum() <= tronNetDelegate.getHeadBlockId().getNum()) {
+          return;
+        }
+        BlockCapsule block = msg.getBlockCapsule();
+        try {
+          block.recoverWitnessSigner();
+          block.calcMerkleRoot();
+          TransactionCapsule.recoverSigners(block.getTransactions());
+        } catch (SignatureException | RuntimeException e) {
+          // the block fails again and is reported when it is processed
+          logger.debug("Prepare sync block {} failed", msg.getBlockId().getString(), e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      logger.debug("Prepare queue is full, skip block {}", msg.getBlockId().getString());
+    }
+  }
+
   private void processSyncBlock(BlockCapsule block, PeerConnection peerConnection) {
     boolean flag = true;
     boolean attackFlag = false;
@@ -1347,13 +1347,15 @@ public class TronJsonRpcImpl implements TronJsonRpc, Closeable {
       InterruptedException, BadItemException, ItemNotFoundException {
     //query possible block
     LogBlockQuery logBlockQuery = new LogBlockQuery(logFilterWrapper, manager.getChainBaseManager()
-        .getSectionBloomStore(), currentMaxBlockNum, sectionExecutor);
-    List<Long> possibleBlockList = logBlockQuery.getPossibleBlock();
-
-    //match event from block one by one exactly
-    LogMatch logMatch =
-        new LogMatch(logFilterWrapper, possibleBlockList, manager);
-    return logMatch.matchBlockOneByOne();
+        .getSectionBloomStore(), currentMaxBlockNum,
+        manager.getDynamicPropertiesStore().getLatestSolidifiedBlockNum(), sectionExecutor);
+
+    //match event from the possible blocks exactly, a page at a time
+    List<LogFilterElement> logFilterElementList = logBlockQuery.matchPages(
+        LogBlockQuery.MAX_RESULT, LogBlockQuery.MAX_PAGES,
+        possibleBlockList -> new LogMatch(logFilterWrapper, possibleBlockList, manager)
+            .matchBlockOneByOne());
+    return logFilterElementList.toArray(new LogFilterElement[0]);
   }
 
   public static Object[] getFilterResult(String filterId, Map<String, BlockFilterAndResult>
@@ -2,7 +2,11 @@ package org.tron.core.services.jsonrpc.filters;
 
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -10,7 +14,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.bloom.Bloom;
 import org.tron.common.crypto.Hash;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.EventBloomException;
+import org.tron.core.exception.ItemNotFoundException;
 import org.tron.core.exception.JsonRpcTooManyResultException;
+import org.tron.core.services.jsonrpc.TronJsonRpc.LogFilterElement;
 import org.tron.core.store.SectionBloomStore;
 
 /**
@@ -21,6 +29,10 @@ import org.tron.core.store.SectionBloomStore;
 public class LogBlockQuery {
 
   public static final int MAX_RESULT = 10000;
+  // pages of possible blocks matched by a query at most, MAX_RESULT blocks a page
+  public static final int MAX_PAGES = 10;
+  // sections evaluated at a time, the evaluation stops at the batch reaching the limit
+  private static final int SECTION_BATCH = 64;
   private final LogFilterWrapper logFilterWrapper;
   private final SectionBloomStore sectionBloomStore;
   private final ExecutorService sectionExecutor;
@@ -30,13 +42,21 @@ public class LogBlockQuery {
   private final long minBlock;
   private long maxBlock;
   private final long currentMaxBlockNum;
+  // the sections below are all solidified
+  private final int solidSection;
 
   public LogBlockQuery(LogFilterWrapper logFilterWrapper, SectionBloomStore sectionBloomStore,
       long currentMaxBlockNum, ExecutorService executor) {
+    this(logFilterWrapper, sectionBloomStore, currentMaxBlockNum, -1, executor);
+  }
+
+  public LogBlockQuery(LogFilterWrapper logFilterWrapper, SectionBloomStore sectionBloomStore,
+      long currentMaxBlockNum, long solidBlockNum, ExecutorService executor) {
     this.logFilterWrapper = logFilterWrapper;
     this.sectionBloomStore = sectionBloomStore;
     this.sectionExecutor = executor;
     this.currentMaxBlockNum = currentMaxBlockNum;
+    this.solidSection = (int) ((solidBlockNum + 1) / SectionBloomStore.BLOCK_PER_SECTION);
 
     if (logFilterWrapper.getFromBlock() == Long.MAX_VALUE) {
       minSection = (int) (currentMaxBlockNum / Bloom.BLOOM_BIT_SIZE);
@@ -60,33 +80,7 @@ public class LogBlockQuery {
 
   public List<Long> getPossibleBlock() throws ExecutionException, InterruptedException,
       JsonRpcTooManyResultException {
-    List<Long> blockNumList = new ArrayList<>();
-    if (minBlock > currentMaxBlockNum) {
-      return blockNumList;
-    }
-
-    int[][][] allConditionsIndex = getConditions();
-
-    int capacity = (maxSection - minSection + 1) * SectionBloomStore.BLOCK_PER_SECTION;
-    BitSet blockNumBitSet = new BitSet(capacity);
-    blockNumBitSet.set(0, capacity);
-
-    //works serial
-    for (int[][] conditionsIndex : allConditionsIndex) {
-      BitSet bitSet = subMatch(conditionsIndex);
-      blockNumBitSet.and(bitSet);
-    }
-
-    for (int i = blockNumBitSet.nextSetBit(0); i >= 0; i = blockNumBitSet.nextSetBit(i + 1)) {
-      // operate on index i here
-      if (i == Integer.MAX_VALUE) {
-        break; // or (i+1) would overflow
-      }
-      long blockNum = (long) minSection * SectionBloomStore.BLOCK_PER_SECTION + i;
-      if (minBlock <= blockNum && blockNum <= maxBlock) {
-        blockNumList.add(blockNum);
-      }
-    }
+    List<Long> blockNumList = getPossibleBlock(minBlock, MAX_RESULT);
 
     if (blockNumList.size() >= MAX_RESULT) {
       throw new JsonRpcTooManyResultException(
@@ -97,70 +91,128 @@ public class LogBlockQuery {
   }
 
   /**
-   * address -> subMatch0,
-   * topic1 -> subMatch1, topic2 -> subMatch2, topic3 -> subMatch3, topic4 -> subMatch4
-   * works serial, return a BitSet with capacity of section num * blockPerSection
+   * Matches the logs of the possible blocks a page of pageSize blocks at a time, only the
+   * logs found count to the result limit. As every possible block is read to be matched,
+   * a query needing more than maxPages pages is refused rather than scanning on.
    */
-  private BitSet subMatch(int[][] bitIndexes) throws ExecutionException, InterruptedException {
+  public List<LogFilterElement> matchPages(int pageSize, int maxPages, PageMatcher matcher)
+      throws ExecutionException, InterruptedException, BadItemException,
+      ItemNotFoundException, JsonRpcTooManyResultException {
+    List<LogFilterElement> logFilterElementList = new ArrayList<>();
+    long fromBlock = 0;
+    for (int page = 1; ; page++) {
+      List<Long> possibleBlockList = getPossibleBlock(fromBlock, pageSize);
+
+      Collections.addAll(logFilterElementList, matcher.match(possibleBlockList));
+      if (logFilterElementList.size() > MAX_RESULT) {
+        throw new JsonRpcTooManyResultException(
+            "query returned more than " + MAX_RESULT + " results");
+      }
+
+      if (possibleBlockList.size() < pageSize) {
+        return logFilterElementList;
+      }
+      if (page >= maxPages) {
+        throw new JsonRpcTooManyResultException("query scanned more than "
+            + (long) pageSize * maxPages + " possible blocks, narrow the block range");
+      }
+      fromBlock = possibleBlockList.get(possibleBlockList.size() - 1) + 1;
+    }
+  }
 
-    int capacity = (maxSection - minSection + 1) * SectionBloomStore.BLOCK_PER_SECTION;
-    BitSet subBitSet = new BitSet(capacity);
+  /**
+   * Returns at most limit possible blocks from fromBlock on, in ascending order.
+   * Only the sections up to the one reaching the limit are read, so a large range
+   * can be queried page by page, a page with less than limit blocks is the last.
+   */
+  public List<Long> getPossibleBlock(long fromBlock, int limit)
+      throws ExecutionException, InterruptedException {
+    List<Long> blockNumList = new ArrayList<>();
+    long from = Math.max(fromBlock, minBlock);
+    if (from > currentMaxBlockNum || from > maxBlock || limit <= 0) {
+      return blockNumList;
+    }
 
-    for (int section = minSection; section <= maxSection; section++) {
-      BitSet partialBitSet = partialMatch(bitIndexes, section);
+    int[][][] allConditionsIndex = getConditions();
+    int fromSection = (int) (from / SectionBloomStore.BLOCK_PER_SECTION);
+
+    for (int batch = fromSection; batch <= maxSection; batch += SECTION_BATCH) {
+      // the sections of a batch are evaluated in parallel
+      List<Future<BitSet>> futures = new ArrayList<>();
+      for (int section = batch; section <= Math.min(maxSection, batch + SECTION_BATCH - 1);
+          section++) {
+        final int s = section;
+        futures.add(sectionExecutor.submit(() -> matchSection(allConditionsIndex, s)));
+      }
 
-      for (int i = partialBitSet.nextSetBit(0); i >= 0; i = partialBitSet.nextSetBit(i + 1)) {
-        // operate on index i here
-        if (i == Integer.MAX_VALUE) {
-          break; // or (i+1) would overflow
+      try {
+        for (int k = 0; k < futures.size(); k++) {
+          BitSet bitSet = futures.get(k).get();
+          for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            long blockNum = (long) (batch + k) * SectionBloomStore.BLOCK_PER_SECTION + i;
+            if (from <= blockNum && blockNum <= maxBlock) {
+              blockNumList.add(blockNum);
+              if (blockNumList.size() >= limit) {
+                return blockNumList;
+              }
+            }
+          }
         }
-        int offset = (section - minSection) * SectionBloomStore.BLOCK_PER_SECTION + i;
-        subBitSet.set(offset);
+      } finally {
+        futures.forEach(future -> future.cancel(false));
       }
     }
 
-    return subBitSet;
+    return blockNumList;
   }
 
   /**
-   * every section has a compound query of sectionBloomStore, works parallel
-   * "and" condition in second dimension of query, "or" condition in first dimension
-   * return a BitSet whose capacity is blockPerSection
+   * The blocks of a section matching all the conditions, a BitSet with capacity of
+   * blockPerSection. Within a condition, the bitsets of a value are "and"ed and the
+   * values are "or"ed, e.g. address -> condition 0, topic1 -> condition 1, ...
+   * The bitsets are read once per section, and not at all once nothing matches.
    */
-  private BitSet partialMatch(final int[][] bitIndexes, int section)
-      throws ExecutionException, InterruptedException {
-    List<List<Future<BitSet>>> bitSetList = new ArrayList<>();
-
-    for (int[] index : bitIndexes) {
-      List<Future<BitSet>> futureList = new ArrayList<>();
-      for (final int bitIndex : index) { //must be 3
-        Future<BitSet> bitSetFuture =
-            sectionExecutor.submit(() -> sectionBloomStore.get(section, bitIndex));
-        futureList.add(bitSetFuture);
+  private BitSet matchSection(int[][][] allConditionsIndex, int section)
+      throws EventBloomException {
+    Map<Integer, Optional<BitSet>> bitSets = new HashMap<>();
+    BitSet blockNumBitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
+    blockNumBitSet.set(0, SectionBloomStore.BLOCK_PER_SECTION);
+
+    for (int[][] bitIndexes : allConditionsIndex) {
+      BitSet bitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
+      for (int[] index : bitIndexes) {
+        // initial a BitSet with all 1
+        BitSet subBitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
+        subBitSet.set(0, SectionBloomStore.BLOCK_PER_SECTION);
+        // and condition in second dimension
+        for (int bitIndex : index) { //must be 3
+          Optional<BitSet> one = bitSets.get(bitIndex);
+          if (one == null) {
+            one = Optional.ofNullable(getBitSet(section, bitIndex));
+            bitSets.put(bitIndex, one);
+          }
+          if (!one.isPresent()) { //match nothing
+            subBitSet.clear();
+            break;
+          }
+          subBitSet.and(one.get());
+        }
+        // "or" condition in first dimension
+        bitSet.or(subBitSet);
+      }
+      blockNumBitSet.and(bitSet);
+      if (blockNumBitSet.isEmpty()) {
+        break;
       }
-      bitSetList.add(futureList);
     }
+    return blockNumBitSet;
+  }
 
-    BitSet bitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
-
-    for (List<Future<BitSet>> futureList : bitSetList) {
-      // initial a BitSet with all 1
-      BitSet subBitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
-      subBitSet.set(0, SectionBloomStore.BLOCK_PER_SECTION);
-      // and condition in second dimension
-      for (Future<BitSet> future : futureList) {
-        BitSet one = future.get();
-        if (one == null) { //match nothing
-          subBitSet.clear();
-          break;
-        }
-        // "and" condition in second dimension
-        subBitSet.and(one);
-      }
-      // "or" condition in first dimension
-      bitSet.or(subBitSet);
+  private BitSet getBitSet(int section, int bitIndex) throws EventBloomException {
+    if (section < solidSection) {
+      return sectionBloomStore.getSolid(section, bitIndex);
     }
-    return bitSet;
+    return sectionBloomStore.get(section, bitIndex);
   }
 
   /**
@@ -208,4 +260,10 @@ public class LogBlockQuery {
 
     return allConditionsIndex;
   }
+
+  public interface PageMatcher {
+
+    LogFilterElement[] match(List<Long> possibleBlockList)
+        throws BadItemException, ItemNotFoundException, JsonRpcTooManyResultException;
+  }
 }
@@ -0,0 +1,108 @@
+package org.tron.common.cache;
+
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TronCacheTest {
+
+  private static final ByteCodec<String> CODEC = ByteCodec.of(String::getBytes,
+      bytes -> bytes == null ? null : new String(bytes));
+
+  @Test
+  public void testGuava() {
+    TronCache<String, String> cache = new TronCache<>(CacheType.witness,
+        "policy=guava,maximumSize=10,recordStats", CODEC, CODEC);
+    cache.put("k", "v");
+    Assert.assertEquals("v", cache.getIfPresent("k"));
+    Assert.assertNull(cache.getIfPresent("missing"));
+    Assert.assertEquals(1, cache.stats().hitCount());
+    Assert.assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  public void testLfu() throws ExecutionException {
+    TronCache<String, String> cache = new TronCache<>(CacheType.account,
+        "policy=lfu,maximumBytes=20000,recordStats", CODEC, CODEC);
+    assertReadWrite(cache);
+
+    // make a few keys hot, then scan many one-hit keys through the cache
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 10; i++) {
+        cache.put(hot(i), value(i));
+        cache.getIfPresent(hot(i));
+      }
+    }
+    for (int i = 0; i < 1000; i++) {
+      cache.put("scan-" + i, value(i));
+    }
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(value(i), cache.getIfPresent(hot(i)));
+    }
+    Assert.assertTrue(cache.stats().evictionCount() > 0);
+
+    TronCache<String, String> counted = new TronCache<>(CacheType.code,
+        "policy=lfu,maximumBytes=100", null, null);
+    for (int i = 0; i < 1000; i++) {
+      counted.put("key-" + i, value(i));
+    }
+    // without codecs every entry weighs 1, the newest one still sits in the window
+    Assert.assertEquals(value(999), counted.getIfPresent("key-999"));
+    Assert.assertEquals(0, counted.stats().hitCount());
+  }
+
+  @Test
+  public void testOffHeap() throws ExecutionException {
+    TronCache<String, String> cache = new TronCache<>(CacheType.storageRow,
+        "policy=offheap,maximumBytes=65536,recordStats", CODEC, CODEC);
+    assertReadWrite(cache);
+
+    cache.put("null", null);
+    Assert.assertNull(cache.getIfPresent("null"));
+    cache.put("k", "v2");
+    Assert.assertEquals("v2", cache.getIfPresent("k"));
+
+    // 16 segments of 4k, each ring wraps several times
+    for (int i = 0; i < 10000; i++) {
+      cache.put("key-" + i, value(i));
+    }
+    Assert.assertEquals(value(9999), cache.getIfPresent("key-" + 9999));
+    Assert.assertNull(cache.getIfPresent("key-0"));
+    Assert.assertTrue(cache.stats().evictionCount() > 0);
+
+    cache.invalidateAll();
+    Assert.assertNull(cache.getIfPresent("key-" + 9999));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOffHeapWithoutCodec() {
+    new TronCache<String, String>(CacheType.votes, "policy=offheap,maximumBytes=1024");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPolicy() {
+    new TronCache<String, String>(CacheType.votes, "policy=fifo,maximumBytes=1024");
+  }
+
+  private static void assertReadWrite(TronCache<String, String> cache)
+      throws ExecutionException {
+    Assert.assertNull(cache.getIfPresent("k"));
+    Assert.assertEquals("v", cache.get("k", () -> "v"));
+    Assert.assertEquals("v", cache.getIfPresent("k"));
+    Assert.assertEquals("v", cache.get("k", () -> "other"));
+    Assert.assertEquals(2, cache.stats().hitCount());
+    Assert.assertEquals(2, cache.stats().missCount());
+  }
+
+  private static String hot(int i) {
+    return "hot-" + i;
+  }
+
+  private static String value(int i) {
+    StringBuilder sb = new StringBuilder();
+    for (int j = 0; j < 8; j++) {
+      sb.append("value-").append(i);
+    }
+    return sb.toString();
+  }
+}
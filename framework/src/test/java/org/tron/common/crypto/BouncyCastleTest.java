@@ -3,7 +3,10 @@ package org.tron.common.crypto;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.lang.reflect.Field;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
 import java.security.SignatureException;
 import java.util.Arrays;
 import org.bouncycastle.crypto.digests.SM3Digest;
@@ -53,6 +56,48 @@ public class BouncyCastleTest {
     assertEquals(spongyHash, Hex.toHexString(hash));
   }
 
+  @Test
+  public void testSha3Buffer() {
+    String msg = "transaction raw data";
+    String spongyHash = "429e4ce662a41be0a50e65626f0ec4c8f68d45a57fe80beebab2f82601884795";
+    byte[] data = ("  " + msg + "  ").getBytes();
+    assertEquals(spongyHash, Hex.toHexString(Hash.sha3(data, 2, msg.length())));
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+    buffer.put(data);
+    buffer.position(2);
+    buffer.limit(2 + msg.length());
+    assertEquals(spongyHash, Hex.toHexString(Hash.sha3(buffer)));
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  @Test
+  public void testSha3Reset() throws Exception {
+    String msg = "transaction raw data";
+    String spongyHash = "429e4ce662a41be0a50e65626f0ec4c8f68d45a57fe80beebab2f82601884795";
+    byte[] emptyHash = Hash.sha3(new byte[0]);
+    Field field = Hash.class.getDeclaredField("KECCAK_256");
+    field.setAccessible(true);
+    MessageDigest digest = ((ThreadLocal<MessageDigest>) field.get(null)).get();
+
+    // the digest takes the input a block of 136 bytes at a time, the third one fails
+    try {
+      Hash.sha3(new byte[300], 0, 400);
+      Assert.fail();
+    } catch (IndexOutOfBoundsException e) {
+      Assert.assertFalse(Arrays.equals(emptyHash, digest.digest()));
+    }
+
+    // so a hash failing half way leaves nothing behind for the next one of the thread
+    try {
+      Hash.sha3(new byte[300], 0, 400);
+      Assert.fail();
+    } catch (IndexOutOfBoundsException e) {
+      assertEquals(spongyHash, Hex.toHexString(Hash.sha3(msg.getBytes())));
+    }
+    Assert.assertSame(digest, ((ThreadLocal<MessageDigest>) field.get(null)).get());
+  }
+
   @Test
   public void testECKeyAddress() {
     String spongyPubkey =
@@ -220,4 +220,32 @@ public class ECKeyTest {
 
     assertEquals(key, ECKey.fromNodeId(key.getNodeId()));
   }
+
+  @Test
+  public void testSignaturesToAddresses() throws SignatureException {
+    int count = 20;
+    byte[][] hashes = new byte[count][];
+    ECDSASignature[] sigs = new ECDSASignature[count];
+    byte[][] expected = new byte[count][];
+    for (int i = 0; i < count; i++) {
+      ECKey key = new ECKey();
+      hashes[i] = Hash.sha3(("message " + i).getBytes());
+      sigs[i] = key.sign(hashes[i]);
+      expected[i] = key.getAddress();
+      assertArrayEquals(expected[i], ECKey.signatureToAddress(hashes[i], sigs[i]));
+    }
+    // a header out of range and an x coordinate out of the field
+    sigs[3] = ECDSASignature.fromComponents(sigs[3].r.toByteArray(),
+        sigs[3].s.toByteArray(), (byte) 40);
+    sigs[7] = ECDSASignature.fromComponents(Hex.decode(
+        "fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe"),
+        sigs[7].s.toByteArray(), (byte) 27);
+    expected[3] = null;
+    expected[7] = null;
+
+    byte[][] addresses = ECKey.signaturesToAddresses(hashes, sigs);
+    for (int i = 0; i < count; i++) {
+      assertArrayEquals(expected[i], addresses[i]);
+    }
+  }
 }
@@ -0,0 +1,78 @@
+package org.tron.common.crypto;
+
+import java.security.MessageDigest;
+import java.security.Security;
+import java.util.Random;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.tron.common.crypto.cryptohash.Keccak256;
+import org.tron.common.crypto.jce.TronCastleProvider;
+import org.tron.common.utils.Sha256Hash;
+
+/**
+ * Compares the throughput of hashing with a digest looked up per hash, as before, with
+ * the reused digests of {@link Hash} and {@link Sha256Hash}, run it manually.
+ */
+@Slf4j
+@Ignore
+public class HashBenchmarkTest {
+
+  private static final int ROUNDS = 10;
+  private static final int ITERATIONS = 200_000;
+  // a tx raw data, a storage key and an address derivation
+  private static final int[] SIZES = {200, 64, 32};
+
+  @Test
+  public void benchmarkKeccak256() {
+    Security.addProvider(TronCastleProvider.getInstance());
+    for (int size : SIZES) {
+      byte[] data = data(size);
+      byte[] expected = Hash.sha3(data);
+      run("keccak256 jce lookup", size, data, expected, input -> {
+        try {
+          return MessageDigest.getInstance("TRON-KECCAK-256", Security.getProvider("BC"))
+              .digest(input);
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      run("keccak256 new KeccakCore", size, data, expected,
+          input -> new Keccak256().digest(input));
+      run("keccak256 reused", size, data, expected, Hash::sha3);
+    }
+  }
+
+  @Test
+  public void benchmarkSha256() {
+    for (int size : SIZES) {
+      byte[] data = data(size);
+      byte[] expected = Sha256Hash.hash(true, data);
+      run("sha256 jce lookup", size, data, expected,
+          input -> Sha256Hash.newDigest().digest(input));
+      run("sha256 reused", size, data, expected, input -> Sha256Hash.hash(true, input));
+    }
+  }
+
+  private static void run(String name, int size, byte[] data, byte[] expected,
+      Function<byte[], byte[]> hash) {
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        hash.apply(data);
+      }
+      long cost = System.nanoTime() - start;
+      Assert.assertArrayEquals(expected, hash.apply(data));
+      logger.info("{}, {} bytes, round {}, {} hashes/s", name, size, round,
+          ITERATIONS * 1_000_000_000L / cost);
+    }
+  }
+
+  private static byte[] data(int size) {
+    byte[] data = new byte[size];
+    new Random(size).nextBytes(data);
+    return data;
+  }
+}
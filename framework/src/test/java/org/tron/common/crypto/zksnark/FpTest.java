@@ -0,0 +1,133 @@
+package org.tron.common.crypto.zksnark;
+
+import static org.tron.common.crypto.zksnark.Params.P;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FpTest {
+
+  private static final BigInteger G1_X = BigInteger.ONE;
+  private static final BigInteger G1_Y = BigInteger.valueOf(2);
+  private static final BigInteger G2_X_A = new BigInteger(
+      "10857046999023057135944570762232829481370756359578518086990519993285655852781");
+  private static final BigInteger G2_X_B = new BigInteger(
+      "11559732032986387107991004021392285783925812861821192530917403151452391805634");
+  private static final BigInteger G2_Y_A = new BigInteger(
+      "8495653923123431417604973247489272438418190587263600148770280649306958101930");
+  private static final BigInteger G2_Y_B = new BigInteger(
+      "4082367875863433681332203403145435568316851327593401208105741076214120093531");
+
+  @Test
+  public void testArithmetic() {
+    Random random = new Random(0);
+    BigInteger[] values = new BigInteger[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = new BigInteger(256, random).mod(P);
+    }
+    values[0] = BigInteger.ZERO;
+    values[1] = BigInteger.ONE;
+    values[2] = P.subtract(BigInteger.ONE);
+    for (int i = 0; i < values.length; i++) {
+      BigInteger a = values[i];
+      BigInteger b = values[(i * 7 + 3) % values.length];
+      Fp fa = Fp.create(a);
+      Fp fb = Fp.create(b);
+      Assert.assertEquals(a, fa.toBigInteger());
+      Assert.assertEquals(a.add(b).mod(P), fa.add(fb).toBigInteger());
+      Assert.assertEquals(a.subtract(b).mod(P), fa.sub(fb).toBigInteger());
+      Assert.assertEquals(a.multiply(b).mod(P), fa.mul(fb).toBigInteger());
+      Assert.assertEquals(a.multiply(a).mod(P), fa.squared().toBigInteger());
+      Assert.assertEquals(a.shiftLeft(1).mod(P), fa.dbl().toBigInteger());
+      Assert.assertEquals(a.negate().mod(P), fa.negate().toBigInteger());
+      if (a.signum() != 0) {
+        Assert.assertEquals(a.modInverse(P), fa.inverse().toBigInteger());
+      }
+      Assert.assertArrayEquals(a.toByteArray(), fa.bytes());
+      Assert.assertEquals(fa, Fp.create(a.toByteArray()));
+      Assert.assertEquals(a.hashCode(), fa.hashCode());
+    }
+  }
+
+  @Test
+  public void testFp2Arithmetic() {
+    Random random = new Random(1);
+    for (int i = 0; i < 1000; i++) {
+      BigInteger a1 = i == 0 ? P.subtract(BigInteger.ONE) : new BigInteger(256, random).mod(P);
+      BigInteger b1 = new BigInteger(256, random).mod(P);
+      BigInteger a2 = new BigInteger(256, random).mod(P);
+      BigInteger b2 = i == 1 ? BigInteger.ZERO : new BigInteger(256, random).mod(P);
+      Fp2 x = Fp2.create(a1, b1);
+      Fp2 y = Fp2.create(a2, b2);
+
+      // i^2 = -1
+      Fp2 product = x.mul(y);
+      Assert.assertEquals(a1.multiply(a2).subtract(b1.multiply(b2)).mod(P),
+          product.a.toBigInteger());
+      Assert.assertEquals(a1.multiply(b2).add(b1.multiply(a2)).mod(P),
+          product.b.toBigInteger());
+      Fp2 square = x.squared();
+      Assert.assertEquals(a1.multiply(a1).subtract(b1.multiply(b1)).mod(P),
+          square.a.toBigInteger());
+      Assert.assertEquals(a1.multiply(b1).shiftLeft(1).mod(P), square.b.toBigInteger());
+      Assert.assertEquals(square, x.mul(x));
+    }
+  }
+
+  @Test
+  public void testOutOfField() {
+    Fp p = Fp.create(P);
+    Assert.assertFalse(p.isValid());
+    Assert.assertFalse(p.isZero());
+    Assert.assertArrayEquals(P.toByteArray(), p.bytes());
+    Assert.assertNotEquals(Fp.ZERO, p);
+
+    BigInteger max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+    Fp fmax = Fp.create(max.toByteArray());
+    Assert.assertFalse(fmax.isValid());
+    Assert.assertEquals(max.mod(P), fmax.add(Fp.ZERO).toBigInteger());
+
+    Assert.assertTrue(Fp.create(P.subtract(BigInteger.ONE)).isValid());
+    Assert.assertTrue(Fp.ZERO.isZero());
+    Assert.assertNull(BN128Fp.create(P.toByteArray(), BigInteger.ZERO.toByteArray()));
+  }
+
+  @Test
+  public void testAddAndMul() {
+    BN128<Fp> g1 = BN128Fp.create(G1_X.toByteArray(), G1_Y.toByteArray());
+    Assert.assertNotNull(g1);
+    BN128<Fp> dbl = g1.add(g1).toEthNotation();
+    Assert.assertEquals(new BigInteger(
+            "030644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd3", 16),
+        dbl.x().toBigInteger());
+    Assert.assertEquals(new BigInteger(
+            "15ed738c0e0a7c92e7845f96b2ae9c0a68a6a449e3538fc7ff3ebf7a5a18a2c4", 16),
+        dbl.y().toBigInteger());
+    Assert.assertEquals(dbl, g1.mul(BigInteger.valueOf(2)).toEthNotation());
+    Assert.assertTrue(g1.mul(Params.R).isZero());
+  }
+
+  @Test
+  public void testPairing() {
+    BN128G1 g1 = BN128G1.create(G1_X.toByteArray(), G1_Y.toByteArray());
+    BN128G1 negG1 = BN128G1.create(G1_X.toByteArray(), P.subtract(G1_Y).toByteArray());
+    BN128G2 g2 = BN128G2.create(G2_X_A.toByteArray(), G2_X_B.toByteArray(),
+        G2_Y_A.toByteArray(), G2_Y_B.toByteArray());
+    Assert.assertNotNull(g1);
+    Assert.assertNotNull(negG1);
+    Assert.assertNotNull(g2);
+
+    PairingCheck check = PairingCheck.create();
+    check.addPair(g1, g2);
+    check.run();
+    Assert.assertEquals(0, check.result());
+
+    check = PairingCheck.create();
+    check.addPair(g1, g2);
+    check.addPair(negG1, g2);
+    check.run();
+    Assert.assertEquals(1, check.result());
+  }
+}
@@ -0,0 +1,60 @@
+package org.tron.common.logsfilter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.logsfilter.capsule.TriggerCapsule;
+
+public class TriggerPipelineTest {
+
+  @Test
+  public void testOrder() throws InterruptedException {
+    TriggerPipeline pipeline = new TriggerPipeline(0, false);
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+    int count = 1000;
+    CountDownLatch latch = new CountDownLatch(count);
+    for (int i = 0; i < count; i++) {
+      Assert.assertTrue(pipeline.offer(trigger(i, processed, latch)));
+    }
+    pipeline.start();
+    Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+    pipeline.stop();
+
+    Assert.assertEquals(count, processed.size());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, processed.get(i).intValue());
+    }
+  }
+
+  @Test
+  public void testFullQueue() {
+    List<Integer> processed = new CopyOnWriteArrayList<>();
+    TriggerPipeline drop = new TriggerPipeline(2, false);
+    Assert.assertTrue(drop.offer(trigger(0, processed, null)));
+    Assert.assertTrue(drop.offer(trigger(1, processed, null)));
+    Assert.assertFalse(drop.offer(trigger(2, processed, null)));
+    Assert.assertEquals(2, drop.size());
+
+    // a trigger waiting for room gives up once the pipeline stops
+    TriggerPipeline block = new TriggerPipeline(1, true);
+    Assert.assertTrue(block.offer(trigger(0, processed, null)));
+    block.stop();
+    Assert.assertFalse(block.offer(trigger(1, processed, null)));
+    Assert.assertEquals(1, block.size());
+  }
+
+  private static TriggerCapsule trigger(int i, List<Integer> processed, CountDownLatch latch) {
+    return new TriggerCapsule() {
+      @Override
+      public void processTrigger() {
+        processed.add(i);
+        if (latch != null) {
+          latch.countDown();
+        }
+      }
+    };
+  }
+}
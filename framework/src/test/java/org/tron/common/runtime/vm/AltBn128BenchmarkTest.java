@@ -0,0 +1,72 @@
+package org.tron.common.runtime.vm;
+
+import java.math.BigInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.tron.core.vm.PrecompiledContracts.BN128Addition;
+import org.tron.core.vm.PrecompiledContracts.BN128Multiplication;
+import org.tron.core.vm.PrecompiledContracts.BN128Pairing;
+import org.tron.core.vm.PrecompiledContracts.PrecompiledContract;
+
+/**
+ * Measures the throughput of the alt_bn128 precompiles, run it manually.
+ */
+@Slf4j
+@Ignore
+public class AltBn128BenchmarkTest {
+
+  private static final int ROUNDS = 5;
+
+  private static final String G1 =
+      "0000000000000000000000000000000000000000000000000000000000000001"
+          + "0000000000000000000000000000000000000000000000000000000000000002";
+  private static final String NEG_G1 =
+      "0000000000000000000000000000000000000000000000000000000000000001"
+          + "30644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd45";
+  // (b, a; d, c) as encoded by the pairing precompile
+  private static final String G2 =
+      "198e9393920d483a7260bfb731fb5d25f1aa493335a9e71297e485b7aef312c2"
+          + "1800deef121f1e76426a00665e5c4479674322d4f75edadd46debd5cd992f6ed"
+          + "090689d0585ff075ec9e99ad690c3395bc4b313370b38ef355acdadcd122975b"
+          + "12c85ea5db8c6deb4aab71808dcb408fe3d1e7690c43d37b4ce6cc0166fa7daa";
+
+  @Test
+  public void benchmarkAddition() {
+    byte[] data = Hex.decode(G1 + G1);
+    run("bn128 add", new BN128Addition(), data, 20_000);
+  }
+
+  @Test
+  public void benchmarkMultiplication() {
+    // r - 1, the longest scalar
+    byte[] data = Hex.decode(G1
+        + "30644e72e131a029b85045b68181585d2833e84879b9709143e1f593f0000000");
+    run("bn128 mul", new BN128Multiplication(), data, 2_000);
+  }
+
+  @Test
+  public void benchmarkPairing() {
+    byte[] data = Hex.decode(G1 + G2 + NEG_G1 + G2);
+    Pair<Boolean, byte[]> result = new BN128Pairing().execute(data);
+    Assert.assertTrue(result.getLeft());
+    Assert.assertEquals(1, new BigInteger(1, result.getRight()).intValue());
+    run("bn128 pairing, 2 pairs", new BN128Pairing(), data, 100);
+  }
+
+  private static void run(String name, PrecompiledContract contract, byte[] data,
+      int iterations) {
+    Assert.assertTrue(contract.execute(data).getLeft());
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        contract.execute(data);
+      }
+      long cost = System.nanoTime() - start;
+      logger.info("{}, round {}, {} us/op", name, round, cost / 1000 / iterations);
+    }
+  }
+}
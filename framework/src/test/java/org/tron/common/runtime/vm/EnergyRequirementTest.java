@@ -0,0 +1,81 @@
+package org.tron.common.runtime.vm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.core.vm.program.EnergyRequirement;
+
+public class EnergyRequirementTest {
+
+  @Test
+  public void testNoCall() {
+    Assert.assertEquals(100, new EnergyRequirement(true).required(100));
+  }
+
+  @Test
+  public void testCall() {
+    // 100 before the call, whose callee used 800 of the 1000 it needed, 50 after it
+    EnergyRequirement requirement = new EnergyRequirement(false);
+    requirement.call(100, 900, 5000, 0, 1000, false);
+    Assert.assertEquals(1100, requirement.required(950));
+
+    // all but a 64th is forwarded: 6399 - 6399 / 64 = 6300
+    requirement = new EnergyRequirement(true);
+    requirement.call(100, 6100, 10000, 0, 6300, false);
+    Assert.assertEquals(6499, requirement.required(6150));
+
+    // the caller going on needs more than the callee
+    requirement = new EnergyRequirement(true);
+    requirement.call(100, 900, 5000, 0, 1000, false);
+    Assert.assertEquals(100 + 1015, requirement.required(1100));
+    Assert.assertEquals(100 + 800 + 2000, requirement.required(2900));
+  }
+
+  @Test
+  public void testStipend() {
+    // the callee needed no more than the stipend it was given on top of the energy forwarded
+    EnergyRequirement requirement = new EnergyRequirement(false);
+    requirement.call(9100, 8800, 0, 2300, 2000, false);
+    Assert.assertEquals(9100, requirement.required(8850));
+  }
+
+  @Test
+  public void testFailedCall() {
+    // the callee used all the 10000 it asked for, the caller needs 10 after it
+    EnergyRequirement requirement = new EnergyRequirement(false);
+    requirement.call(100, 10100, 10000, 0, 0, true);
+    Assert.assertEquals(10110, requirement.required(10110));
+
+    // with 640 left, 630 are forwarded and 10 kept back
+    requirement = new EnergyRequirement(true);
+    requirement.call(100, 10100, 10000, 0, 0, true);
+    Assert.assertEquals(740, requirement.required(10110));
+  }
+
+  @Test
+  public void testCreate() {
+    // 639 - 639 / 64 = 630 is forwarded
+    EnergyRequirement requirement = new EnergyRequirement(true);
+    requirement.call(100, 700, Long.MAX_VALUE, 0, 630, false);
+    Assert.assertEquals(739, requirement.required(705));
+
+    // a failed create takes all but the 64th kept back for the caller
+    requirement = new EnergyRequirement(true);
+    requirement.call(100, 700, Long.MAX_VALUE, 0, 0, true);
+    Assert.assertEquals(100 + 64 * 5, requirement.required(705));
+
+    // or all of it
+    requirement = new EnergyRequirement(false);
+    requirement.call(100, 700, Long.MAX_VALUE, 0, 0, true);
+    Assert.assertEquals(Long.MAX_VALUE, requirement.required(705));
+    Assert.assertEquals(100, requirement.required(700));
+  }
+
+  @Test
+  public void testNestedCalls() {
+    EnergyRequirement requirement = new EnergyRequirement(false);
+    requirement.call(100, 600, 5000, 0, 700, false);
+    requirement.call(650, 850, 5000, 0, 300, false);
+    // 100 + max(700, 500 + 50 + max(300, 200 + 10))
+    Assert.assertEquals(950, requirement.required(860));
+  }
+}
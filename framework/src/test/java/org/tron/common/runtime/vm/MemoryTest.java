@@ -562,5 +562,36 @@ public class MemoryTest {
     assertTrue(zero == 10);
   }
 
+  @Test
+  public void memoryGrow() {
+
+    Memory memoryBuffer = new Memory();
+    DataWord word = new DataWord(
+        Hex.decode("0102030405060708091011121314151617181920212223242526272829303132"));
 
+    // every extension keeps what was written before, wherever the buffer was copied
+    for (int i = 0; i < 100; ++i) {
+      memoryBuffer.write(i * 100, word.getData(), WORD_SIZE, false);
+    }
+    for (int i = 0; i < 100; ++i) {
+      assertArrayEquals(word.getData(), memoryBuffer.readWord(i * 100).getData());
+    }
+    Assert.assertEquals(calcSize(99 * 100 + WORD_SIZE, CHUNK_SIZE), memoryBuffer.internalSize());
+    Assert.assertEquals(calcSize(99 * 100 + WORD_SIZE, WORD_SIZE), memoryBuffer.size());
+    Assert.assertEquals(memoryBuffer.internalSize() / CHUNK_SIZE,
+        memoryBuffer.getChunks().size());
+
+    // the word read is a copy, updating it leaves the memory alone
+    DataWord read = memoryBuffer.readWord(0);
+    read.add(DataWord.ONE());
+    assertArrayEquals(word.getData(), memoryBuffer.readWord(0).getData());
+
+    byte[] large = new byte[100_000];
+    Arrays.fill(large, (byte) 7);
+    memoryBuffer.write(50_000, large, large.length, false);
+    Assert.assertEquals(150_016, memoryBuffer.size());
+    assertArrayEquals(large, memoryBuffer.read(50_000, large.length));
+    assertArrayEquals(word.getData(), memoryBuffer.readWord(9900).getData());
+    Assert.assertEquals(0, memoryBuffer.readByte(150_000));
+  }
 }
@@ -0,0 +1,51 @@
+package org.tron.common.runtime.vm;
+
+import java.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.Hash;
+import org.tron.core.vm.Op;
+import org.tron.core.vm.program.ProgramPrecompile;
+
+public class ProgramPrecompileTest {
+
+  @Test
+  public void testCompile() {
+    // JUMPDEST, PUSH2 0x5b5b, JUMPDEST, 100 * STOP, JUMPDEST
+    byte[] ops = new byte[106];
+    byte[] head = Hex.decode("5b615b5b5b");
+    System.arraycopy(head, 0, ops, 0, head.length);
+    ops[105] = (byte) Op.JUMPDEST;
+
+    ProgramPrecompile precompile = ProgramPrecompile.compile(ops);
+    Assert.assertTrue(precompile.hasJumpDest(0));
+    // the immediates of a push are no jump destinations
+    Assert.assertFalse(precompile.hasJumpDest(2));
+    Assert.assertFalse(precompile.hasJumpDest(3));
+    Assert.assertTrue(precompile.hasJumpDest(4));
+    Assert.assertFalse(precompile.hasJumpDest(64));
+    Assert.assertTrue(precompile.hasJumpDest(105));
+    Assert.assertFalse(precompile.hasJumpDest(106));
+    Assert.assertFalse(precompile.hasJumpDest(-1));
+    Assert.assertFalse(precompile.hasJumpDest(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testGetOrCompile() {
+    byte[] ops = Hex.decode("5b600056");
+    byte[] codeHash = Hash.sha3(ops);
+
+    ProgramPrecompile precompile = ProgramPrecompile.getOrCompile(codeHash, ops);
+    Assert.assertSame(precompile,
+        ProgramPrecompile.getOrCompile(codeHash, Arrays.copyOf(ops, ops.length)));
+
+    // the same hash with other code, e.g. a stale hash, is compiled again
+    byte[] other = Hex.decode("00005b");
+    ProgramPrecompile otherPrecompile = ProgramPrecompile.getOrCompile(codeHash, other);
+    Assert.assertNotSame(precompile, otherPrecompile);
+    Assert.assertFalse(otherPrecompile.hasJumpDest(0));
+    Assert.assertTrue(otherPrecompile.hasJumpDest(2));
+    Assert.assertTrue(ProgramPrecompile.getOrCompile(codeHash, ops).hasJumpDest(0));
+  }
+}
@@ -0,0 +1,76 @@
+package org.tron.common.runtime.vm;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.tron.common.BaseTest;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.runtime.InternalTransaction;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+import org.tron.core.vm.JumpTable;
+import org.tron.core.vm.OperationRegistry;
+import org.tron.core.vm.VM;
+import org.tron.core.vm.program.Program;
+import org.tron.core.vm.program.invoke.ProgramInvokeMockImpl;
+import org.tron.protos.Protocol;
+
+/**
+ * Runs the interpreter loop over the op mix of a TRC-20 transfer, run it manually
+ * to compare the cost per op of the stack, memory and jump handling.
+ */
+@Slf4j
+@Ignore
+public class VMBenchmarkTest extends BaseTest {
+
+  private static final int ROUNDS = 20;
+  private static final int ITERATIONS = 10_000;
+
+  // PUSH2 ITERATIONS
+  // loop: mstore(0, caller), mstore(32, 1), slot = sha3(0, 64)  (balances[msg.sender])
+  //       the balance checks and updates of transfer(to, 100): sub, lt, iszero, add, and, mul
+  //       ITERATIONS -= 1, jumpi(loop, ITERATIONS)
+  private static final byte[] TRANSFER_LOOP = Hex.decode("612710"
+      + "5b"
+      + "3360005260016020526040600020"
+      + "60648181900381811015500160ff160250"
+      + "6001900380600357"
+      + "00");
+
+  private final JumpTable jumpTable = OperationRegistry.getTable();
+
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{"--output-directory", dbPath(), "--debug"}, Constant.TEST_CONF);
+    CommonParameter.getInstance().setDebug(true);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+  }
+
+  @Test
+  public void benchmarkTransferLoop() {
+    for (int round = 0; round < ROUNDS; round++) {
+      ProgramInvokeMockImpl invoke = new ProgramInvokeMockImpl();
+      invoke.setEnergyLimit(Long.MAX_VALUE / 2);
+      Program program = new Program(TRANSFER_LOOP, TRANSFER_LOOP, invoke,
+          new InternalTransaction(Protocol.Transaction.getDefaultInstance(),
+              InternalTransaction.TrxType.TRX_UNKNOWN_TYPE));
+      long start = System.nanoTime();
+      VM.play(program, jumpTable);
+      long cost = System.nanoTime() - start;
+
+      Assert.assertNull(program.getResult().getException());
+      // the exhausted counter
+      Assert.assertEquals(1, program.getStack().size());
+      logger.info("round {}, {} ns/iteration, energy {}", round, cost / ITERATIONS,
+          program.getResult().getEnergyUsed());
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package org.tron.common.storage.rocksdb;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.ComparatorOptions;
+import org.rocksdb.WriteBatch;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.MarketOrderPriceComparatorForRockDB;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+
+public class RocksDbColumnFamiliesTest {
+
+  private static final String MARKET = "market_pair_price_to_order";
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private RocksDbDataSourceImpl account;
+  private RocksDbDataSourceImpl market;
+
+  @Before
+  public void init() throws IOException {
+    Args.setParam(new String[]{"--output-directory", temporaryFolder.newFolder().toString(),
+        "--storage-db-engine", "ROCKSDB"}, Constant.TEST_CONF);
+    Args.getInstance().getStorage().setDbColumnFamilies(true);
+    open();
+  }
+
+  @After
+  public void destroy() {
+    account.closeDB();
+    market.closeDB();
+    Args.clearParam();
+  }
+
+  private void open() {
+    account = new RocksDbDataSourceImpl("account",
+        Args.getInstance().getRocksDBCustomSettings(), null);
+    market = new RocksDbDataSourceImpl(MARKET, Args.getInstance().getRocksDBCustomSettings(),
+        new MarketOrderPriceComparatorForRockDB(new ComparatorOptions()));
+  }
+
+  @Test
+  public void testShared() {
+    Assert.assertTrue(RocksDbColumnFamilies.isShared("account"));
+    Assert.assertFalse(RocksDbColumnFamilies.isShared("trans-cache"));
+    Assert.assertFalse(RocksDbColumnFamilies.isShared("checkpoint/1"));
+    Assert.assertTrue(account.isColumnFamily());
+    Assert.assertEquals(RocksDbColumnFamilies.getInstance().getPath(),
+        account.getDbPath().getParent().toString());
+  }
+
+  @Test
+  public void testBatchAcrossColumnFamilies() throws Exception {
+    byte[] key = ByteArray.fromString("key");
+    account.putData(key, ByteArray.fromString("old"));
+    Assert.assertNull(market.getData(key));
+
+    Map<byte[], byte[]> accounts = new HashMap<>();
+    accounts.put(key, null);
+    accounts.put(ByteArray.fromString("other"), ByteArray.fromString("account"));
+    Map<byte[], byte[]> orders = new HashMap<>();
+    orders.put(key, ByteArray.fromString("market"));
+    try (WriteBatch batch = new WriteBatch()) {
+      account.addToBatch(batch, accounts);
+      market.addToBatch(batch, orders);
+      RocksDbColumnFamilies.getInstance().write(batch, true);
+    }
+
+    // reopened from disk, the market column family with its comparator
+    account.closeDB();
+    market.closeDB();
+    open();
+    Assert.assertNull(account.getData(key));
+    Assert.assertEquals("account",
+        ByteArray.toStr(account.getData(ByteArray.fromString("other"))));
+    Assert.assertEquals("market", ByteArray.toStr(market.getData(key)));
+  }
+
+  @Test
+  public void testReset() {
+    byte[] key = ByteArray.fromString("key");
+    account.putData(key, key);
+    market.putData(key, key);
+    market.resetDb();
+    Assert.assertNull(market.getData(key));
+    Assert.assertArrayEquals(key, account.getData(key));
+    Assert.assertEquals(1, account.allKeys().size());
+  }
+}
@@ -1,5 +1,6 @@
 package org.tron.common.utils;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
@@ -54,4 +55,24 @@ public class Sha256HashTest {
     Assert.assertEquals(70000, countAll.get());
     Assert.assertEquals(0, countFailed.get());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testBufferHash() {
+    byte[] input = ByteArray.fromHexString("00A0E11973395042BA3C0B52B4CDF4E15EA77818F27500");
+    for (boolean isSha256 : new boolean[] {true, false}) {
+      byte[] hash = Sha256Hash.hash(isSha256, Arrays.copyOfRange(input, 1, input.length - 1));
+      Assert.assertArrayEquals(hash, Sha256Hash.hash(isSha256, input, 1, input.length - 2));
+
+      ByteBuffer heap = ByteBuffer.wrap(input, 1, input.length - 2).slice();
+      Assert.assertArrayEquals(hash, Sha256Hash.hash(isSha256, heap));
+      Assert.assertFalse(heap.hasRemaining());
+
+      ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+      direct.put(input);
+      direct.position(1);
+      direct.limit(input.length - 1);
+      Assert.assertArrayEquals(hash, Sha256Hash.hash(isSha256, direct));
+      Assert.assertFalse(direct.hasRemaining());
+    }
+  }
+}
@@ -1098,6 +1098,8 @@ public class WalletTest extends BaseTest {
         contract, trxCap, trxExtBuilder, retBuilder, estimateBuilder);
     GrpcAPI.EstimateEnergyMessage message = estimateBuilder.build();
     Assert.assertTrue(message.getEnergyRequired() > 0);
+    // making no call, it needs the energy it used, verified by the last run
+    Assert.assertEquals(trxExtBuilder.getEnergyUsed(), message.getEnergyRequired());
   }
 
   @Test
@@ -12,6 +12,8 @@ import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.tron.common.crypto.SignUtils;
+import org.tron.common.parameter.CommonParameter;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.LocalWitnesses;
 import org.tron.common.utils.PublicMethod;
@@ -143,6 +145,25 @@ public class BlockCapsuleTest {
     Assert.assertTrue(blockCapsule0.hasWitnessSignature());
   }
 
+  @Test
+  public void testRecoverWitnessSigner() throws Exception {
+    BlockCapsule block = new BlockCapsule(2, blockCapsule0.getBlockId(), 4321,
+        ByteString.copyFrom("1234567".getBytes()));
+    String otherKey = PublicMethod.getRandomPrivateKey();
+    block.sign(ByteArray.fromHexString(privateKey));
+    Assert.assertArrayEquals(address(privateKey), block.recoverWitnessSigner());
+    Assert.assertSame(block.recoverWitnessSigner(), block.recoverWitnessSigner());
+
+    // a new signature replaces the recovered signer
+    block.sign(ByteArray.fromHexString(otherKey));
+    Assert.assertArrayEquals(address(otherKey), block.recoverWitnessSigner());
+  }
+
+  private static byte[] address(String key) {
+    return SignUtils.fromPrivate(ByteArray.fromHexString(key),
+        CommonParameter.getInstance().isECKeyCryptoEngine()).getAddress();
+  }
+
   @Test
   public void testGetTimeStamp() {
     Assert.assertEquals(1234L, blockCapsule0.getTimeStamp());
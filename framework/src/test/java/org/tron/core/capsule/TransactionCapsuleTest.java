@@ -5,22 +5,26 @@ import static org.tron.protos.Protocol.Transaction.Result.contractResult.PRECOMP
 import static org.tron.protos.Protocol.Transaction.Result.contractResult.SUCCESS;
 
 import com.google.protobuf.ByteString;
+import java.lang.reflect.Field;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.tron.common.BaseTest;
+import org.tron.common.crypto.ECKey;
 import org.tron.common.utils.StringUtil;
 import org.tron.core.Constant;
 import org.tron.core.Wallet;
 import org.tron.core.config.args.Args;
+import org.tron.core.exception.ValidateSignatureException;
 import org.tron.protos.Protocol.AccountType;
 import org.tron.protos.Protocol.Transaction;
 import org.tron.protos.Protocol.Transaction.Contract.ContractType;
 import org.tron.protos.Protocol.Transaction.Result;
 import org.tron.protos.Protocol.Transaction.Result.contractResult;
 import org.tron.protos.Protocol.Transaction.raw;
+import org.tron.protos.contract.BalanceContract.TransferContract;
 
 @Slf4j
 public class TransactionCapsuleTest extends BaseTest {
@@ -1084,4 +1088,110 @@ public class TransactionCapsuleTest extends BaseTest {
     Assert.assertEquals(1, transactionCapsule.getInstance().getRetCount());
     Assert.assertEquals(SUCCESS, transactionCapsule.getInstance().getRet(0).getContractRet());
   }
+
+  private static Transaction transfer(ECKey owner) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner.getAddress()))
+        .setToAddress(StringUtil.hexString2ByteString(OWNER_ADDRESS))
+        .setAmount(1)
+        .build();
+    TransactionCapsule capsule = new TransactionCapsule(contract, ContractType.TransferContract);
+    capsule.setTimestamp(System.nanoTime());
+    return capsule.getInstance();
+  }
+
+  private static Transaction signed(Transaction unsigned, ECKey... keys) {
+    TransactionCapsule capsule = new TransactionCapsule(unsigned);
+    for (ECKey key : keys) {
+      capsule.sign(key.getPrivKeyBytes());
+    }
+    return capsule.getInstance();
+  }
+
+  private static Object signers(TransactionCapsule capsule) throws Exception {
+    Field field = TransactionCapsule.class.getDeclaredField("signers");
+    field.setAccessible(true);
+    return field.get(capsule);
+  }
+
+  private static byte[][] addresses(TransactionCapsule capsule) throws Exception {
+    Object signers = signers(capsule);
+    Field field = signers.getClass().getDeclaredField("addresses");
+    field.setAccessible(true);
+    return (byte[][]) field.get(signers);
+  }
+
+  private boolean validate(TransactionCapsule capsule) {
+    try {
+      return capsule.validatePubSignature(dbManager.getAccountStore(),
+          dbManager.getDynamicPropertiesStore());
+    } catch (ValidateSignatureException e) {
+      return false;
+    }
+  }
+
+  @Test
+  public void testRecoveredSignersShared() throws Exception {
+    ECKey owner = new ECKey();
+    Transaction trx = signed(transfer(owner), owner);
+
+    TransactionCapsule pushed = new TransactionCapsule(trx);
+    Assert.assertTrue(validate(pushed));
+    // the capsule decoded from a block is served the signers recovered for the pushed one
+    TransactionCapsule fromBlock = new TransactionCapsule(trx.toByteArray());
+    Assert.assertNull(signers(fromBlock));
+    Assert.assertTrue(validate(fromBlock));
+    Assert.assertSame(signers(pushed), signers(fromBlock));
+  }
+
+  @Test
+  public void testRecoveredSignersOfOtherSignatures() throws Exception {
+    ECKey owner = new ECKey();
+    ECKey other = new ECKey();
+    Transaction unsigned = transfer(owner);
+    TransactionCapsule pushed = new TransactionCapsule(signed(unsigned, owner));
+    Assert.assertTrue(validate(pushed));
+
+    // the same raw data signed by another key misses the cache and recovers that key
+    TransactionCapsule changed = new TransactionCapsule(signed(unsigned, other));
+    Assert.assertEquals(pushed.getTransactionId(), changed.getTransactionId());
+    Assert.assertFalse(validate(changed));
+    Assert.assertNotSame(signers(pushed), signers(changed));
+    Assert.assertArrayEquals(other.getAddress(), addresses(changed)[0]);
+
+    // as does an extra signature
+    TransactionCapsule extra = new TransactionCapsule(signed(unsigned, owner, other));
+    Assert.assertFalse(validate(extra));
+    Assert.assertArrayEquals(owner.getAddress(), addresses(extra)[0]);
+    Assert.assertArrayEquals(other.getAddress(), addresses(extra)[1]);
+
+    // the entry of the id now holds the last signatures, the original is recovered again
+    TransactionCapsule again = new TransactionCapsule(signed(unsigned, owner));
+    Assert.assertTrue(validate(again));
+    Assert.assertArrayEquals(owner.getAddress(), addresses(again)[0]);
+  }
+
+  @Test
+  public void testInvalidSignatureNotCached() throws Exception {
+    ECKey owner = new ECKey();
+    Transaction trx = signed(transfer(owner), owner);
+    byte[] sig = trx.getSignature(0).toByteArray();
+    // a recovery id out of range, no key can be recovered
+    sig[64] = 40;
+    Transaction invalid = trx.toBuilder().setSignature(0, ByteString.copyFrom(sig)).build();
+
+    TransactionCapsule first = new TransactionCapsule(invalid);
+    Assert.assertFalse(validate(first));
+    Assert.assertNull(signers(first));
+    TransactionCapsule second = new TransactionCapsule(invalid);
+    Assert.assertFalse(validate(second));
+    Assert.assertNull(signers(second));
+
+    // nor does a signature of another key pass once its signers are cached
+    ECKey other = new ECKey();
+    Transaction forged = trx.toBuilder().setSignature(0,
+        signed(transfer(owner), other).getSignature(0)).build();
+    Assert.assertFalse(validate(new TransactionCapsule(forged)));
+    Assert.assertFalse(validate(new TransactionCapsule(forged)));
+  }
 }
\ No newline at end of file
@@ -180,6 +180,32 @@ public class AccountStoreTest extends BaseTest {
     assertEquals(10, (long)assets.get("400"));
   }
 
+  @Test
+  public void decodedTest() {
+    byte[] key = TransactionStoreTest.randomBytes(21);
+    AccountCapsule accountCapsule = new AccountCapsule(ByteString.copyFrom(key),
+        AccountType.Normal);
+    accountCapsule.setBalance(100);
+    accountStore.put(key, accountCapsule);
+    Assert.assertEquals(100, accountStore.get(key).getBalance());
+
+    // a capsule served decoded is its own copy
+    AccountCapsule read = accountStore.get(key);
+    read.setBalance(1);
+    Assert.assertEquals(100, accountStore.get(key).getBalance());
+
+    try (ISession tmpSession = dbManager.getRevokingStore().buildSession()) {
+      accountCapsule.setBalance(200);
+      accountStore.put(key, accountCapsule);
+      Assert.assertEquals(200, accountStore.get(key).getBalance());
+      Assert.assertEquals(200, accountStore.getUnchecked(key).getBalance());
+    }
+    Assert.assertEquals(100, accountStore.get(key).getBalance());
+    Assert.assertEquals(100, accountStore.getUnchecked(key).getBalance());
+
+    Assert.assertNull(accountStore.getUnchecked(TransactionStoreTest.randomBytes(21)));
+  }
+
   private AccountCapsule saveAccount(AccountCapsule accountCapsule) {
     accountStore.put(accountCapsule.createDbKey(), accountCapsule);
     accountCapsule = accountStore.get(accountCapsule.createDbKey());
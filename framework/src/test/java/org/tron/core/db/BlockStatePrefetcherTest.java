@@ -0,0 +1,64 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.DecodeUtil;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.contract.BalanceContract.TransferContract;
+import org.tron.protos.contract.SmartContractOuterClass.TriggerSmartContract;
+
+public class BlockStatePrefetcherTest {
+
+  @Test
+  public void testPartition() {
+    TransactionCapsule tx0 = transfer(address(0xa), address(0xb));
+    TransactionCapsule tx1 = transfer(address(0xc), address(0xd));
+    TransactionCapsule tx2 = transfer(address(0xb), address(0xe));
+    // a token transfer to c joins the group of tx1
+    TransactionCapsule tx3 = trigger(address(0xf), address(0x1),
+        "a9059cbb" + "000000000000000000000000" + ByteArray.toHexString(address(0xc))
+            .substring(2) + "0000000000000000000000000000000000000000000000000000000000000001");
+    TransactionCapsule tx4 = trigger(address(0x2), address(0x3), "06fdde03");
+    TransactionCapsule tx5 = transfer(address(0x4), address(0x3));
+
+    List<List<TransactionCapsule>> groups = BlockStatePrefetcher.partition(
+        Arrays.asList(tx0, tx1, tx2, tx3, tx4, tx5));
+    Assert.assertEquals(3, groups.size());
+    Assert.assertEquals(Arrays.asList(tx0, tx2), groups.get(0));
+    Assert.assertEquals(Arrays.asList(tx1, tx3), groups.get(1));
+    Assert.assertEquals(Arrays.asList(tx4, tx5), groups.get(2));
+
+    Assert.assertEquals(3, BlockStatePrefetcher.addresses(tx3).size());
+    Assert.assertEquals(2, BlockStatePrefetcher.addresses(tx4).size());
+  }
+
+  private static TransactionCapsule transfer(byte[] from, byte[] to) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(from))
+        .setToAddress(ByteString.copyFrom(to))
+        .setAmount(1)
+        .build();
+    return new TransactionCapsule(contract, ContractType.TransferContract);
+  }
+
+  private static TransactionCapsule trigger(byte[] owner, byte[] contractAddress, String data) {
+    TriggerSmartContract contract = TriggerSmartContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner))
+        .setContractAddress(ByteString.copyFrom(contractAddress))
+        .setData(ByteString.copyFrom(ByteArray.fromHexString(data)))
+        .build();
+    return new TransactionCapsule(contract, ContractType.TriggerSmartContract);
+  }
+
+  private static byte[] address(int i) {
+    byte[] address = new byte[21];
+    address[0] = DecodeUtil.addressPreFixByte;
+    address[20] = (byte) i;
+    return address;
+  }
+}
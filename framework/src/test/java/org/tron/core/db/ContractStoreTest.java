@@ -32,6 +32,8 @@ public class ContractStoreTest extends BaseTest {
 
   @Resource
   private ContractStore contractStore;
+  @Resource
+  private BlockStateCache blockStateCache;
 
   @Before
   public void init() {
@@ -98,4 +100,30 @@ public class ContractStoreTest extends BaseTest {
     ContractCapsule contractCapsule2 = contractStore.get(ByteArray.fromHexString(contractAddress));
     Assert.assertNull(contractCapsule2);
   }
+
+  @Test
+  public void testBlockStateCache() {
+    byte[] address = ByteArray.fromHexString("44444444");
+    contractStore.put(address, new ContractCapsule(createContract("44444444", "v1").build()));
+
+    blockStateCache.begin();
+    try {
+      ContractCapsule first = contractStore.get(address);
+      ContractCapsule second = contractStore.get(address);
+      // the later reads of the block share the decoded contract
+      Assert.assertSame(first.getInstance(), second.getInstance());
+
+      contractStore.put(address, new ContractCapsule(createContract("44444444", "v2").build()));
+      Assert.assertEquals("v2", contractStore.get(address).getInstance().getName());
+
+      contractStore.delete(address);
+      Assert.assertNull(contractStore.get(address));
+    } finally {
+      blockStateCache.end();
+    }
+
+    contractStore.put(address, new ContractCapsule(createContract("44444444", "v3").build()));
+    Assert.assertNotSame(contractStore.get(address).getInstance(),
+        contractStore.get(address).getInstance());
+  }
 }
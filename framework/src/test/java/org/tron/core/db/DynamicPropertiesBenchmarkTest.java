@@ -0,0 +1,138 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.tron.common.BaseTest;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.common.utils.Utils;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.ISession;
+import org.tron.core.store.DynamicPropertiesStore;
+import org.tron.protos.Protocol.AccountType;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.contract.BalanceContract.TransferContract;
+
+/**
+ * Measures the reads of dynamic properties and the throughput of processTransaction, run it
+ * manually, on this and on an earlier revision to compare.
+ */
+@Slf4j
+@Ignore
+public class DynamicPropertiesBenchmarkTest extends BaseTest {
+
+  private static final int ROUNDS = 5;
+  private static final int LAYERS = 20;
+  private static final int READS = 1_000_000;
+  private static final int TRANSACTIONS = 2_000;
+
+  private static final byte[][] KEYS = {
+      "ENERGY_FEE".getBytes(),
+      "TRANSACTION_FEE".getBytes(),
+      "latest_block_header_timestamp".getBytes(),
+      "latest_block_header_number".getBytes()};
+
+  @Resource
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Resource
+  private RevokingDatabase revokingDatabase;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath()}, Constant.TEST_CONF);
+  }
+
+  @Test
+  public void benchmarkReads() {
+    List<ISession> sessions = new ArrayList<>();
+    for (int i = 0; i < LAYERS; i++) {
+      sessions.add(revokingDatabase.buildSession());
+      dynamicPropertiesStore.saveTotalNetWeight(i);
+    }
+    try {
+      for (int round = 0; round < ROUNDS; round++) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+          sum += ByteArray.toLong(
+              dynamicPropertiesStore.getRevokingDB().getUnchecked(KEYS[i & 3]));
+        }
+        long chain = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < READS / 4; i++) {
+          sum += dynamicPropertiesStore.getEnergyFee();
+          sum += dynamicPropertiesStore.getTransactionFee();
+          sum += dynamicPropertiesStore.getLatestBlockHeaderTimestamp();
+          sum += dynamicPropertiesStore.getLatestBlockHeaderNumber();
+        }
+        long view = System.nanoTime() - start;
+        logger.info("property read, {} layers, round {}, chain {} ns/op, view {} ns/op ({})",
+            LAYERS, round, chain / READS, view / READS, sum);
+      }
+    } finally {
+      for (int i = sessions.size() - 1; i >= 0; i--) {
+        sessions.get(i).close();
+      }
+    }
+  }
+
+  @Test
+  public void benchmarkProcessTransaction() throws Exception {
+    BlockCapsule block = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 1_000,
+        ByteString.copyFromUtf8("benchmark"));
+    dynamicPropertiesStore.saveLatestBlockHeaderNumber(block.getNum());
+    dynamicPropertiesStore.saveLatestBlockHeaderTimestamp(block.getTimeStamp());
+    dbManager.updateRecentBlock(block);
+
+    ECKey owner = new ECKey(Utils.getRandom());
+    ECKey to = new ECKey(Utils.getRandom());
+    putAccount(owner.getAddress());
+    putAccount(to.getAddress());
+
+    List<Transaction> transactions = new ArrayList<>(TRANSACTIONS);
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      TransferContract transfer = TransferContract.newBuilder()
+          .setAmount(i + 1)
+          .setOwnerAddress(ByteString.copyFrom(owner.getAddress()))
+          .setToAddress(ByteString.copyFrom(to.getAddress()))
+          .build();
+      TransactionCapsule trx = new TransactionCapsule(transfer, ContractType.TransferContract);
+      trx.setReference(block.getNum(), block.getBlockId().getBytes());
+      trx.setExpiration(block.getTimeStamp() + 60_000);
+      trx.sign(owner.getPrivKeyBytes());
+      transactions.add(trx.getInstance());
+    }
+
+    // the first round recovers the signers, the next ones measure the rest
+    for (int round = 0; round <= ROUNDS; round++) {
+      long start = System.nanoTime();
+      try (ISession session = revokingDatabase.buildSession()) {
+        for (Transaction transaction : transactions) {
+          dbManager.processTransaction(new TransactionCapsule(transaction), block);
+        }
+      }
+      long cost = System.nanoTime() - start;
+      logger.info("processTransaction, round {}, {} tx/s", round,
+          TRANSACTIONS * 1_000_000_000L / cost);
+    }
+  }
+
+  private void putAccount(byte[] address) {
+    AccountCapsule account = new AccountCapsule(ByteString.copyFrom(address),
+        AccountType.Normal, 0, true, dynamicPropertiesStore);
+    account.setBalance(1_000_000_000_000L);
+    chainBaseManager.getAccountStore().put(address, account);
+  }
+}
@@ -0,0 +1,91 @@
+package org.tron.core.db;
+
+import javax.annotation.Resource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.BaseTest;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.ISession;
+import org.tron.core.db2.core.Chainbase.Cursor;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.core.store.DynamicPropertiesStore;
+
+public class DynamicPropertiesStoreTest extends BaseTest {
+
+  @Resource
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Resource
+  private RevokingDatabase revokingDatabase;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath()}, Constant.TEST_CONF);
+  }
+
+  @Test
+  public void testRevoke() {
+    dynamicPropertiesStore.saveEnergyFee(100);
+    try (ISession session = revokingDatabase.buildSession()) {
+      Assert.assertEquals(100, dynamicPropertiesStore.getEnergyFee());
+      dynamicPropertiesStore.saveEnergyFee(200);
+      Assert.assertEquals(200, dynamicPropertiesStore.getEnergyFee());
+    }
+    Assert.assertEquals(100, dynamicPropertiesStore.getEnergyFee());
+  }
+
+  @Test
+  public void testMerge() {
+    dynamicPropertiesStore.saveEnergyFee(100);
+    try (ISession outer = revokingDatabase.buildSession()) {
+      try (ISession inner = revokingDatabase.buildSession()) {
+        dynamicPropertiesStore.saveEnergyFee(300);
+        inner.merge();
+      }
+      Assert.assertEquals(300, dynamicPropertiesStore.getEnergyFee());
+      try (ISession inner = revokingDatabase.buildSession()) {
+        dynamicPropertiesStore.saveEnergyFee(400);
+      }
+      Assert.assertEquals(300, dynamicPropertiesStore.getEnergyFee());
+    }
+    Assert.assertEquals(100, dynamicPropertiesStore.getEnergyFee());
+  }
+
+  @Test
+  public void testKeyByContent() throws ItemNotFoundException {
+    dynamicPropertiesStore.saveEnergyFee(100);
+    Assert.assertEquals(100, dynamicPropertiesStore.getEnergyFee());
+    dynamicPropertiesStore.put("ENERGY_FEE".getBytes(),
+        new BytesCapsule(ByteArray.fromLong(500)));
+    Assert.assertEquals(500, dynamicPropertiesStore.getEnergyFee());
+    Assert.assertEquals(500,
+        ByteArray.toLong(dynamicPropertiesStore.get("ENERGY_FEE".getBytes()).getData()));
+
+    byte[] key = "NOT_A_PROPERTY".getBytes();
+    Assert.assertNull(dynamicPropertiesStore.getUnchecked(key).getData());
+    dynamicPropertiesStore.put(key, new BytesCapsule(ByteArray.fromLong(1)));
+    Assert.assertEquals(1, ByteArray.toLong(dynamicPropertiesStore.getUnchecked(key).getData()));
+    dynamicPropertiesStore.delete(key);
+    Assert.assertNull(dynamicPropertiesStore.getUnchecked(key).getData());
+  }
+
+  @Test
+  public void testSolidityCursor() {
+    dynamicPropertiesStore.saveEnergyFee(100);
+    try (ISession session = revokingDatabase.buildSession()) {
+      dynamicPropertiesStore.saveEnergyFee(600);
+      revokingDatabase.setCursor(Cursor.SOLIDITY);
+      try {
+        long solidity = ByteArray.toLong(
+            dynamicPropertiesStore.getRevokingDB().getUnchecked("ENERGY_FEE".getBytes()));
+        Assert.assertNotEquals(600, solidity);
+        Assert.assertEquals(solidity, dynamicPropertiesStore.getEnergyFee());
+      } finally {
+        revokingDatabase.setCursor(Cursor.HEAD);
+      }
+      Assert.assertEquals(600, dynamicPropertiesStore.getEnergyFee());
+    }
+  }
+}
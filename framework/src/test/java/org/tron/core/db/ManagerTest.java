@@ -36,7 +36,6 @@ import org.tron.common.application.TronApplicationContext;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.runtime.RuntimeImpl;
 import org.tron.common.utils.ByteArray;
-import org.tron.common.utils.JsonUtil;
 import org.tron.common.utils.LocalWitnesses;
 import org.tron.common.utils.PublicMethod;
 import org.tron.common.utils.ReflectUtils;
@@ -199,10 +198,10 @@ public class ManagerTest extends BlockGenerate {
     Assert.assertEquals(1, chainManager.getRecentTransactionStore().size());
     byte[] key = ByteArray.subArray(ByteArray.fromLong(1), 6, 8);
     byte[] value = chainManager.getRecentTransactionStore().get(key).getData();
-    RecentTransactionItem item = JsonUtil.json2Obj(new String(value), RecentTransactionItem.class);
+    RecentTransactionRecord item = RecentTransactionRecord.of(value);
     Assert.assertEquals(1, item.getNum());
     Assert.assertEquals(1, item.getTransactionIds().size());
-    Assert.assertEquals(trx.getTransactionId().toString(), item.getTransactionIds().get(0));
+    Assert.assertArrayEquals(trx.getTransactionId().getBytes(), item.getTransactionIds().get(0));
   }
 
   @Test
@@ -0,0 +1,79 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.contract.BalanceContract.TransferContract;
+
+public class PendingTransactionQueueTest {
+
+  @Test
+  public void testIndex() throws InterruptedException {
+    PendingTransactionQueue queue = new PendingTransactionQueue(
+        new LinkedBlockingQueue<>(), MetricLabels.Gauge.QUEUE_PENDING);
+    TransactionCapsule t1 = transfer("a", 1);
+    TransactionCapsule t2 = transfer("a", 2);
+    TransactionCapsule t3 = transfer("b", 3);
+    queue.add(t1);
+    queue.put(t2);
+    queue.offer(t3);
+
+    Assert.assertEquals(3, queue.size());
+    Assert.assertSame(t2, queue.get(t2.getTransactionId()));
+    Assert.assertEquals(3, queue.getIds().size());
+    Assert.assertEquals(2, queue.getByOwner("a".getBytes()).size());
+    Assert.assertTrue(queue.contains(t3));
+
+    Assert.assertSame(t1, queue.poll());
+    Assert.assertNull(queue.get(t1.getTransactionId()));
+    Assert.assertEquals(1, queue.getByOwner("a".getBytes()).size());
+
+    Iterator<TransactionCapsule> iterator = queue.iterator();
+    iterator.next();
+    iterator.remove();
+    Assert.assertNull(queue.get(t2.getTransactionId()));
+    Assert.assertTrue(queue.getByOwner("a".getBytes()).isEmpty());
+
+    List<TransactionCapsule> drained = new ArrayList<>();
+    queue.drainTo(drained);
+    Assert.assertEquals(1, drained.size());
+    Assert.assertTrue(queue.getIds().isEmpty());
+    Assert.assertTrue(queue.getByOwner("b".getBytes()).isEmpty());
+  }
+
+  @Test
+  public void testOrder() {
+    PendingTransactionQueue queue = new PendingTransactionQueue(
+        new PriorityBlockingQueue<>(16, (TransactionCapsule o1, TransactionCapsule o2) ->
+            Long.compare(o2.getOrder(), o1.getOrder())), MetricLabels.Gauge.QUEUE_REPUSH);
+    for (int i = 0; i < 10; i++) {
+      TransactionCapsule tx = transfer("c", i);
+      tx.setOrder(i);
+      queue.add(tx);
+    }
+    for (int i = 9; i >= 0; i--) {
+      TransactionCapsule tx = queue.poll();
+      Assert.assertEquals(i, tx.getOrder());
+      Assert.assertNull(queue.get(tx.getTransactionId()));
+    }
+    queue.add(transfer("d", 1));
+    queue.clear();
+    Assert.assertTrue(queue.getIds().isEmpty());
+  }
+
+  private static TransactionCapsule transfer(String owner, long amount) {
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner.getBytes()))
+        .setAmount(amount)
+        .build();
+    return new TransactionCapsule(contract, ContractType.TransferContract);
+  }
+}
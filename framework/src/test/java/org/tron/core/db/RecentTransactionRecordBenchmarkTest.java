@@ -0,0 +1,59 @@
+package org.tron.core.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.tron.common.utils.JsonUtil;
+import org.tron.common.utils.Sha256Hash;
+
+/**
+ * Compares the time to read a full recent transaction store at startup, 65536 blocks,
+ * in the JSON format and in the binary one, run it manually.
+ */
+@Slf4j
+@Ignore
+public class RecentTransactionRecordBenchmarkTest {
+
+  private static final int BLOCKS = 65536;
+  private static final int TRANSACTIONS = 200;
+  private static final int ROUNDS = 5;
+
+  @Test
+  public void benchmarkRead() {
+    Random random = new Random(0);
+    List<byte[]> json = new ArrayList<>(BLOCKS);
+    List<byte[]> binary = new ArrayList<>(BLOCKS);
+    for (int num = 0; num < BLOCKS; num++) {
+      List<byte[]> ids = new ArrayList<>(TRANSACTIONS);
+      List<String> hexIds = new ArrayList<>(TRANSACTIONS);
+      for (int i = 0; i < TRANSACTIONS; i++) {
+        byte[] id = new byte[Sha256Hash.LENGTH];
+        random.nextBytes(id);
+        ids.add(id);
+        hexIds.add(Hex.toHexString(id));
+      }
+      json.add(JsonUtil.obj2Json(new RecentTransactionItem(num, hexIds))
+          .getBytes(StandardCharsets.UTF_8));
+      binary.add(new RecentTransactionRecord(num, ids).toBytes());
+    }
+    for (int round = 0; round < ROUNDS; round++) {
+      logger.info("round {}, json {} ms, binary {} ms", round, read(json), read(binary));
+    }
+  }
+
+  private static long read(List<byte[]> values) {
+    long start = System.currentTimeMillis();
+    long count = 0;
+    for (byte[] value : values) {
+      count += RecentTransactionRecord.of(value).getTransactionIds().size();
+    }
+    Assert.assertEquals((long) BLOCKS * TRANSACTIONS, count);
+    return System.currentTimeMillis() - start;
+  }
+}
@@ -0,0 +1,55 @@
+package org.tron.core.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.utils.JsonUtil;
+import org.tron.common.utils.Sha256Hash;
+
+public class RecentTransactionRecordTest {
+
+  @Test
+  public void testBinary() {
+    List<byte[]> ids = Arrays.asList(Sha256Hash.of(true, "a".getBytes()).getBytes(),
+        Sha256Hash.of(true, "b".getBytes()).getBytes());
+    byte[] data = new RecentTransactionRecord(65536, ids).toBytes();
+    Assert.assertEquals(1 + Long.BYTES + 2 * Sha256Hash.LENGTH, data.length);
+
+    RecentTransactionRecord record = RecentTransactionRecord.of(data);
+    Assert.assertEquals(65536, record.getNum());
+    Assert.assertEquals(2, record.getTransactionIds().size());
+    for (int i = 0; i < ids.size(); i++) {
+      Assert.assertArrayEquals(ids.get(i), record.getTransactionIds().get(i));
+    }
+
+    RecentTransactionRecord empty = RecentTransactionRecord.of(
+        new RecentTransactionRecord(7, Collections.emptyList()).toBytes());
+    Assert.assertEquals(7, empty.getNum());
+    Assert.assertTrue(empty.getTransactionIds().isEmpty());
+    Assert.assertNull(RecentTransactionRecord.of(new byte[0]));
+  }
+
+  @Test
+  public void testJson() {
+    byte[] id = Sha256Hash.of(true, "a".getBytes()).getBytes();
+    List<String> ids = new ArrayList<>();
+    ids.add(Hex.toHexString(id));
+    byte[] data = JsonUtil.obj2Json(new RecentTransactionItem(12, ids))
+        .getBytes(StandardCharsets.UTF_8);
+
+    RecentTransactionRecord record = RecentTransactionRecord.of(data);
+    Assert.assertEquals(12, record.getNum());
+    Assert.assertEquals(1, record.getTransactionIds().size());
+    Assert.assertArrayEquals(id, record.getTransactionIds().get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownFormat() {
+    RecentTransactionRecord.of(new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 1, 5});
+  }
+}
@@ -0,0 +1,85 @@
+package org.tron.core.db2;
+
+import java.io.File;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.Snapshot;
+import org.tron.core.db2.core.SnapshotRoot;
+
+/**
+ * Reads through a full snapshot stack, run it manually to compare the cost of
+ * hits in the middle of the stack and of misses that fall through to the root.
+ */
+@Slf4j
+@Ignore
+public class ChainbaseBenchmarkTest {
+
+  private static final String OUTPUT_DIR = "output_chainbase_benchmark_test";
+  private static final int DEPTH = 256;
+  private static final int KEYS_PER_LAYER = 200;
+  private static final int ROUNDS = 20;
+
+  private RevokingDbWithCacheNewValueTest.TestRevokingTronStore tronDatabase;
+  private Chainbase chainbase;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"-d", OUTPUT_DIR}, Constant.TEST_CONF);
+    tronDatabase = new RevokingDbWithCacheNewValueTest.TestRevokingTronStore(
+        "chainbase-benchmark");
+    SnapshotRoot root = new SnapshotRoot(tronDatabase.getDb());
+    for (int i = 0; i < KEYS_PER_LAYER; i++) {
+      root.put(key(-1, i), key(-1, i));
+    }
+    Snapshot head = root;
+    for (int layer = 0; layer < DEPTH; layer++) {
+      head = head.advance();
+      for (int i = 0; i < KEYS_PER_LAYER; i++) {
+        head.put(key(layer, i), key(layer, i));
+      }
+    }
+    chainbase = new Chainbase(head);
+  }
+
+  @After
+  public void destroy() {
+    tronDatabase.close();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(OUTPUT_DIR));
+  }
+
+  @Test
+  public void benchmarkGet() {
+    for (int round = 0; round < ROUNDS; round++) {
+      long hit = 0;
+      long start = System.nanoTime();
+      for (int layer = -1; layer < DEPTH; layer++) {
+        for (int i = 0; i < KEYS_PER_LAYER; i++) {
+          hit += chainbase.getUnchecked(key(layer, i)) == null ? 0 : 1;
+        }
+      }
+      long hitCost = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      for (int i = 0; i < (DEPTH + 1) * KEYS_PER_LAYER; i++) {
+        Assert.assertNull(chainbase.getUnchecked(key(DEPTH, i)));
+      }
+      long missCost = System.nanoTime() - start;
+      Assert.assertEquals((DEPTH + 1) * KEYS_PER_LAYER, hit);
+      logger.info("round {}, hit: {} ns/op, miss: {} ns/op", round,
+          hitCost / hit, missCost / hit);
+    }
+  }
+
+  private static byte[] key(int layer, int i) {
+    return ("layer-" + layer + "-key-" + i).getBytes();
+  }
+}
@@ -1,8 +1,14 @@
 package org.tron.core.db2;
 
+import com.google.common.collect.Sets;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -80,6 +86,7 @@ public class ChainbaseTest {
     this.chainbase = new Chainbase(new SnapshotRoot(
         new LevelDB(dataSource)));
     testDb(chainbase);
+    testNext(chainbase);
     testRoot(dataSource);
     chainbase.reset();
     chainbase.close();
@@ -93,6 +100,7 @@ public class ChainbaseTest {
     this.chainbase = new Chainbase(new SnapshotRoot(
         new org.tron.core.db2.common.RocksDB(dataSource)));
     testDb(chainbase);
+    testNext(chainbase);
     testRoot(dataSource);
     chainbase.reset();
     chainbase.close();
@@ -114,6 +122,29 @@ public class ChainbaseTest {
     Assert.assertTrue(dbSource.prefixQuery(prefix3).isEmpty());
   }
 
+  private void testNext(Chainbase chainbase) {
+    Map<byte[], byte[]> next = chainbase.getNext(key2, 3);
+    Map<String,String> result = new HashMap<>();
+    next.forEach((k, v) -> result.put(ByteArray.toStr(k), ByteArray.toStr(v)));
+    Map<String,String> expect = new HashMap<>();
+    expect.put(ByteArray.toStr(key2),ByteArray.toStr(value2));
+    expect.put(ByteArray.toStr(key3),ByteArray.toStr(value3));
+    expect.put(ByteArray.toStr(key4),ByteArray.toStr(value4));
+    Assert.assertEquals(expect, result);
+
+    // deleted keys in the snapshots hide the root values and do not count to the limit
+    Set<String> values = chainbase.getValuesNext(key5, 3).stream()
+        .map(ByteArray::toStr).collect(Collectors.toSet());
+    Assert.assertEquals(Sets.newHashSet(ByteArray.toStr(value5), ByteArray.toStr(value6),
+        "v123"), values);
+
+    List<String> keys = new ArrayList<>();
+    chainbase.iterator().forEachRemaining(e -> keys.add(ByteArray.toStr(e.getKey())));
+    Assert.assertEquals(Arrays.asList("0000001", "0aa", ByteArray.toStr(key1),
+        ByteArray.toStr(key2), ByteArray.toStr(key3), ByteArray.toStr(key4),
+        ByteArray.toStr(key5), ByteArray.toStr(key6), "123"), keys);
+  }
+
   private void testDb(Chainbase chainbase) {
     byte[] keyNotQuery1 = "123".getBytes();
     byte[] keyNotQuery2 = "0000001".getBytes();
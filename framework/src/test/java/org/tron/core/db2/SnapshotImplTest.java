@@ -5,6 +5,8 @@ import static org.junit.Assert.assertNull;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLongArray;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -182,6 +184,87 @@ public class SnapshotImplTest {
     assertEquals(new String("value4".getBytes()), new String(s4));
   }
 
+  /**
+   * 300 layers, each layer writes its own key, deletes the key of the layer below
+   * and grows past the initial filter size, lookups must still resolve to the
+   * newest layer that holds the key.
+   */
+  @Test
+  public void testDeepStack() {
+    SnapshotRoot root = new SnapshotRoot(tronDatabase.getDb());
+    root.put("root".getBytes(), "root".getBytes());
+    Snapshot head = root;
+    SnapshotImpl bulk = null;
+    for (int i = 0; i < 300; i++) {
+      SnapshotImpl layer = getSnapshotImplIns(head);
+      layer.put(("key" + i).getBytes(), ("value" + i).getBytes());
+      if (i > 0 && i % 2 == 0) {
+        layer.remove(("key" + (i - 1)).getBytes());
+      }
+      if (i == 150) {
+        bulk = layer;
+        for (int j = 0; j < 1000; j++) {
+          layer.put(("bulk" + j).getBytes(), ("bulk" + j).getBytes());
+        }
+      }
+      head = layer;
+    }
+
+    assertEquals("root", new String(head.get("root".getBytes())));
+    assertEquals("value0", new String(head.get("key0".getBytes())));
+    assertNull(head.get("key1".getBytes()));
+    assertEquals("value2", new String(head.get("key2".getBytes())));
+    assertEquals("value299", new String(head.get("key299".getBytes())));
+    for (int j = 0; j < 1000; j++) {
+      assertEquals("bulk" + j, new String(head.get(("bulk" + j).getBytes())));
+    }
+    assertNull(head.get("missing".getBytes()));
+
+    // merge the bulk layer into its neighbour, the filter has to follow
+    SnapshotImpl previous = (SnapshotImpl) bulk.getPrevious();
+    previous.merge(bulk);
+    for (int j = 0; j < 1000; j++) {
+      assertEquals("bulk" + j, new String(previous.get(("bulk" + j).getBytes())));
+    }
+    assertEquals("value150", new String(previous.get("key150".getBytes())));
+  }
+
+  /**
+   * Writing the same keys again and again does not grow the key filter of a layer,
+   * which only counts distinct keys.
+   */
+  @Test
+  public void testOverwriteKeepsFilterSize() throws Exception {
+    SnapshotRoot root = new SnapshotRoot(tronDatabase.getDb());
+    SnapshotImpl layer = getSnapshotImplIns(root);
+    int initial = filterBits(layer);
+    for (int round = 0; round < 100; round++) {
+      for (int i = 0; i < 100; i++) {
+        layer.put(("key" + i).getBytes(), ("value" + round).getBytes());
+      }
+    }
+    assertEquals(initial, filterBits(layer));
+    assertEquals("value99", new String(layer.get("key0".getBytes())));
+
+    // distinct keys still grow it
+    for (int i = 0; i < 1000; i++) {
+      layer.put(("other" + i).getBytes(), "value".getBytes());
+    }
+    Assert.assertTrue(filterBits(layer) > initial);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("value", new String(layer.get(("other" + i).getBytes())));
+    }
+  }
+
+  private static int filterBits(SnapshotImpl layer) throws Exception {
+    Field filter = SnapshotImpl.class.getDeclaredField("filter");
+    filter.setAccessible(true);
+    Object keyFilter = filter.get(layer);
+    Field bits = keyFilter.getClass().getDeclaredField("bits");
+    bits.setAccessible(true);
+    return ((AtomicLongArray) bits.get(keyFilter)).length() << 6;
+  }
+
   /**
    * The constructor of SnapshotImpl is not public
    * so reflection is used to construct the object here.
@@ -2,9 +2,11 @@ package org.tron.core.db2;
 
 import com.google.common.collect.Maps;
 import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import java.io.File;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +27,7 @@ import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
 import org.tron.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTronStore;
 import org.tron.core.db2.SnapshotRootTest.ProtoCapsuleTest;
+import org.tron.core.db2.common.Value;
 import org.tron.core.db2.core.Chainbase;
 import org.tron.core.db2.core.SnapshotManager;
 import org.tron.core.exception.BadItemException;
@@ -91,6 +94,45 @@ public class SnapshotManagerTest {
         tronDatabase.get(protoCapsule.getData()));
   }
 
+  @Test
+  public synchronized void testCheckpoint() {
+    while (revokingDatabase.size() != 0) {
+      revokingDatabase.pop();
+    }
+
+    revokingDatabase.setMaxFlushCount(0);
+    revokingDatabase.setUnChecked(false);
+    revokingDatabase.setMaxSize(5);
+    ProtoCapsuleTest protoCapsule = new ProtoCapsuleTest("checkpoint".getBytes());
+    // the 7th session flushes the oldest layer through the checkpoint
+    for (int i = 1; i < 8; i++) {
+      ProtoCapsuleTest testProtoCapsule = new ProtoCapsuleTest(("checkpoint" + i).getBytes());
+      try (ISession tmpSession = revokingDatabase.buildSession()) {
+        tronDatabase.put(protoCapsule.getData(), testProtoCapsule);
+        tmpSession.commit();
+      }
+    }
+
+    String dbName = tronDatabase.getDbName();
+    byte[] prefix = Bytes.concat(Ints.toByteArray(dbName.length()), dbName.getBytes());
+    int entries = 0;
+    for (Map.Entry<byte[], byte[]> e : revokingDatabase.getCheckTmpStore().getDbSource()) {
+      String db = SnapshotManager.simpleDecode(e.getKey());
+      if (db.equals(dbName)) {
+        entries++;
+        Assert.assertArrayEquals(protoCapsule.getData(),
+            Arrays.copyOfRange(e.getKey(), prefix.length, e.getKey().length));
+        Assert.assertArrayEquals("checkpoint1".getBytes(),
+            Value.decode(e.getValue()).getBytes());
+      } else {
+        // no in-progress marker is left once the checkpoint is committed
+        Assert.assertTrue(db, revokingDatabase.getDbs().stream()
+            .anyMatch(chainbase -> chainbase.getDbName().equals(db)));
+      }
+    }
+    Assert.assertEquals(1, entries);
+  }
+
   @Test
   public synchronized void testClose() {
     while (revokingDatabase.size() != 0) {
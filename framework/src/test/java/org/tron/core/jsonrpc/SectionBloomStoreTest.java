@@ -1,6 +1,7 @@
 package org.tron.core.jsonrpc;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -16,7 +17,9 @@ import org.tron.core.Constant;
 import org.tron.core.capsule.TransactionRetCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.exception.EventBloomException;
+import org.tron.core.exception.JsonRpcTooManyResultException;
 import org.tron.core.services.jsonrpc.TronJsonRpc.FilterRequest;
+import org.tron.core.services.jsonrpc.TronJsonRpc.LogFilterElement;
 import org.tron.core.services.jsonrpc.filters.LogBlockQuery;
 import org.tron.core.services.jsonrpc.filters.LogFilterWrapper;
 import org.tron.core.store.SectionBloomStore;
@@ -236,4 +239,94 @@ public class SectionBloomStoreTest extends BaseTest {
       Assert.fail();
     }
   }
+
+  @Test
+  public void testPagedQuery() throws Exception {
+    byte[] address = bytesToAddress(new byte[] {0x66});
+    byte[] topic = ByteArray
+        .fromHexString("0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925");
+    for (long blockNum : new long[] {1, 2, 3, 5000}) {
+      TransactionRetCapsule capsule = new TransactionRetCapsule();
+      capsule.addTransactionInfo(createTransactionInfo(address, topic));
+      sectionBloomStore.initBlockSection(capsule);
+      sectionBloomStore.write(blockNum);
+    }
+
+    long currentMaxBlockNum = 6000;
+    ExecutorService sectionExecutor = Executors.newFixedThreadPool(2);
+    LogFilterWrapper logFilterWrapper = new LogFilterWrapper(
+        new FilterRequest("earliest", "latest", ByteArray.toJsonHex(address),
+            new String[] {ByteArray.toHexString(topic)}, null),
+        currentMaxBlockNum, null);
+    // section 0 is solidified, section 2 is not
+    LogBlockQuery logBlockQuery = new LogBlockQuery(logFilterWrapper, sectionBloomStore,
+        currentMaxBlockNum, 4500, sectionExecutor);
+
+    Assert.assertEquals(Arrays.asList(1L, 2L), logBlockQuery.getPossibleBlock(0, 2));
+    Assert.assertEquals(Arrays.asList(3L, 5000L), logBlockQuery.getPossibleBlock(3, 2));
+    Assert.assertTrue(logBlockQuery.getPossibleBlock(5001, 2).isEmpty());
+    Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 5000L), logBlockQuery.getPossibleBlock());
+
+    // a cached bitset is the stored one, and a write replaces it
+    int bitIndex = logBlockQuery.getConditions()[0][0][0];
+    Assert.assertEquals(sectionBloomStore.get(0, bitIndex),
+        sectionBloomStore.getSolid(0, bitIndex));
+    BitSet bitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
+    bitSet.set(7);
+    sectionBloomStore.put(0, bitIndex, bitSet);
+    Assert.assertEquals(bitSet, sectionBloomStore.getSolid(0, bitIndex));
+    sectionExecutor.shutdown();
+  }
+
+  @Test
+  public void testMatchPages() throws Exception {
+    byte[] address = bytesToAddress(new byte[] {0x67});
+    byte[] topic = ByteArray
+        .fromHexString("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef");
+    for (long blockNum : new long[] {2049, 2050, 2051, 7000}) {
+      TransactionRetCapsule capsule = new TransactionRetCapsule();
+      capsule.addTransactionInfo(createTransactionInfo(address, topic));
+      sectionBloomStore.initBlockSection(capsule);
+      sectionBloomStore.write(blockNum);
+    }
+
+    long currentMaxBlockNum = 8000;
+    ExecutorService sectionExecutor = Executors.newFixedThreadPool(2);
+    LogFilterWrapper logFilterWrapper = new LogFilterWrapper(
+        new FilterRequest("earliest", "latest", ByteArray.toJsonHex(address),
+            new String[] {ByteArray.toHexString(topic)}, null),
+        currentMaxBlockNum, null);
+    LogBlockQuery logBlockQuery = new LogBlockQuery(logFilterWrapper, sectionBloomStore,
+        currentMaxBlockNum, sectionExecutor);
+
+    // the page after the last full one is read to find there are no more blocks
+    List<List<Long>> pages = new ArrayList<>();
+    logBlockQuery.matchPages(2, 3, possibleBlockList -> {
+      pages.add(possibleBlockList);
+      return new LogFilterElement[0];
+    });
+    Assert.assertEquals(Arrays.asList(Arrays.asList(2049L, 2050L), Arrays.asList(2051L, 7000L),
+        new ArrayList<Long>()), pages);
+
+    pages.clear();
+    logBlockQuery.matchPages(3, 2, possibleBlockList -> {
+      pages.add(possibleBlockList);
+      return new LogFilterElement[0];
+    });
+    Assert.assertEquals(Arrays.asList(Arrays.asList(2049L, 2050L, 2051L),
+        Arrays.asList(7000L)), pages);
+
+    // a query needing more pages than allowed is refused
+    pages.clear();
+    try {
+      logBlockQuery.matchPages(2, 2, possibleBlockList -> {
+        pages.add(possibleBlockList);
+        return new LogFilterElement[0];
+      });
+      Assert.fail();
+    } catch (JsonRpcTooManyResultException e) {
+      Assert.assertEquals(2, pages.size());
+    }
+    sectionExecutor.shutdown();
+  }
 }
@@ -63,6 +63,7 @@ public class PrometheusApiServiceTest extends BaseTest {
 
   protected static void initParameter(CommonParameter parameter) {
     parameter.setMetricsPrometheusEnable(true);
+    parameter.setMetricsChainbaseEnable(true);
   }
 
   protected void check() throws Exception {
@@ -83,6 +84,17 @@ public class PrometheusApiServiceTest extends BaseTest {
     Double errorLogs = CollectorRegistry.defaultRegistry.getSampleValue(
         "tron:error_info_total", new String[] {"net"}, new String[] {MetricLabels.UNDEFINED});
     Assert.assertNull(errorLogs);
+
+    Double propertiesWritten = CollectorRegistry.defaultRegistry.getSampleValue(
+        "tron:db_block_bytes_count", new String[] {"db", "type"},
+        new String[] {"properties", MetricLabels.Histogram.DB_BYTES_WRITTEN});
+    Assert.assertNotNull(propertiesWritten);
+    Assert.assertEquals(blocks + 1, propertiesWritten.intValue());
+    Double accountReads = CollectorRegistry.defaultRegistry.getSampleValue(
+        "tron:db_op_latency_seconds_count", new String[] {"db", "op"},
+        new String[] {"account", MetricLabels.Histogram.DB_OP_GET});
+    Assert.assertNotNull(accountReads);
+    Assert.assertTrue(accountReads > 0);
   }
 
   @Before
@@ -0,0 +1,63 @@
+package org.tron.core.net.messagehandler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.tron.core.net.message.adv.TransactionMessage;
+import org.tron.core.net.messagehandler.TransactionsMsgHandler.TrxEvent;
+import org.tron.core.net.peer.PeerConnection;
+import org.tron.protos.Protocol.Transaction;
+
+public class TrxAdmissionQueueTest {
+
+  private final PeerConnection peer1 = Mockito.mock(PeerConnection.class);
+  private final PeerConnection peer2 = Mockito.mock(PeerConnection.class);
+
+  @Test
+  public void testOrder() {
+    TrxAdmissionQueue queue = new TrxAdmissionQueue(10);
+    TrxEvent low = event(peer1, 1);
+    TrxEvent high = event(peer1, 100);
+    TrxEvent other = event(peer2, 10);
+    Assert.assertNull(queue.offer(low));
+    Assert.assertNull(queue.offer(high));
+    Assert.assertNull(queue.offer(other));
+    Assert.assertEquals(3, queue.size());
+
+    // the first transaction of each peer comes first, then by fee limit
+    Assert.assertSame(other, queue.poll());
+    Assert.assertSame(low, queue.poll());
+    Assert.assertSame(high, queue.poll());
+    Assert.assertNull(queue.poll());
+  }
+
+  @Test
+  public void testEvict() {
+    TrxAdmissionQueue queue = new TrxAdmissionQueue(2);
+    TrxEvent first = event(peer1, 10);
+    TrxEvent second = event(peer1, 10);
+    Assert.assertNull(queue.offer(first));
+    Assert.assertNull(queue.offer(second));
+
+    // a flooding peer does not push out others
+    TrxEvent third = event(peer1, 10);
+    Assert.assertSame(third, queue.offer(third));
+    TrxEvent other = event(peer2, 1);
+    Assert.assertSame(second, queue.offer(other));
+    Assert.assertEquals(2, queue.size());
+
+    Assert.assertSame(first, queue.poll());
+    Assert.assertSame(other, queue.poll());
+
+    // the slot released by the evicted event is reused
+    TrxEvent fourth = event(peer1, 10);
+    Assert.assertNull(queue.offer(fourth));
+    Assert.assertEquals(0, fourth.getRound());
+  }
+
+  private static TrxEvent event(PeerConnection peer, long feeLimit) {
+    Transaction trx = Transaction.newBuilder().setRawData(Transaction.raw.newBuilder()
+        .setFeeLimit(feeLimit).setTimestamp(System.nanoTime())).build();
+    return new TrxEvent(peer, new TransactionMessage(trx));
+  }
+}
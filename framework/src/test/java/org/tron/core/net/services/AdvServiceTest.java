@@ -95,6 +95,17 @@ public class AdvServiceTest {
     peer.setNeedSyncFromUs(false);
     peer.setNeedSyncFromPeer(false);
 
+    InetSocketAddress inetSocketAddress2 =
+            new InetSocketAddress("127.0.0.3", 10001);
+    Channel c2 = mock(Channel.class);
+    Mockito.when(c2.getInetSocketAddress()).thenReturn(inetSocketAddress2);
+    Mockito.when(c2.getInetAddress()).thenReturn(inetSocketAddress2.getAddress());
+
+    PeerConnection peer2 = PeerManager.add(ctx, c2);
+    peer2.setChannel(c2);
+    peer2.setNeedSyncFromUs(false);
+    peer2.setNeedSyncFromPeer(false);
+
     BlockCapsule blockCapsule = new BlockCapsule(1, Sha256Hash.ZERO_HASH,
             System.currentTimeMillis(), Sha256Hash.ZERO_HASH.getByteString());
     BlockMessage msg = new BlockMessage(blockCapsule);
@@ -102,6 +113,7 @@ public class AdvServiceTest {
     Item item = new Item(blockCapsule.getBlockId(), InventoryType.BLOCK);
     Assert.assertNotNull(service.getMessage(item));
     Assert.assertNotNull(peer.getAdvInvSpread().getIfPresent(item));
+    Assert.assertNotNull(peer2.getAdvInvSpread().getIfPresent(item));
   }
 
   private void testTrxBroadcast() {
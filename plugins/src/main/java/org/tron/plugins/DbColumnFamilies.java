@@ -0,0 +1,267 @@
+package org.tron.plugins;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import me.tongfei.progressbar.ProgressBar;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.tron.plugins.utils.DBUtils;
+import org.tron.plugins.utils.FileUtils;
+import picocli.CommandLine;
+
+
+@Slf4j(topic = "cf")
+@CommandLine.Command(name = "cf", aliases = "column-families",
+    description = "Move rocksdb data into the column families of one instance,"
+        + " for storage.db.columnFamilies = true.",
+    exitCodeListHeading = "Exit Codes:%n",
+    exitCodeList = {
+        "0:Successful",
+        "n:Internal error: exception occurred,please check toolkit.log"})
+public class DbColumnFamilies implements Callable<Integer> {
+
+  static {
+    RocksDB.loadLibrary();
+  }
+
+  private static final int BATCH = 256;
+
+  @CommandLine.Spec
+  CommandLine.Model.CommandSpec spec;
+  @CommandLine.Parameters(index = "0", defaultValue = "output-directory/database",
+      description = "Input path for rocksdb. Default: ${DEFAULT-VALUE}")
+  private File src;
+  @CommandLine.Parameters(index = "1", defaultValue = "output-directory-cf/database",
+      description = "Output path. Default: ${DEFAULT-VALUE}")
+  private File dest;
+
+  @CommandLine.Option(names = {"-h", "--help"})
+  private boolean help;
+
+
+  @Override
+  public Integer call() throws Exception {
+    if (help) {
+      spec.commandLine().usage(System.out);
+      return 0;
+    }
+    if (dest.exists()) {
+      logger.info(" {} exist, please delete it first.", dest);
+      spec.commandLine().getErr().println(spec.commandLine().getColorScheme()
+          .errorText(String.format("%s exist, please delete it first.", dest)));
+      return 402;
+    }
+    if (!src.exists()) {
+      logger.info(" {} does not exist.", src);
+      spec.commandLine().getErr().println(spec.commandLine().getColorScheme()
+          .errorText(String.format("%s does not exist.", src)));
+      return 404;
+    }
+    if (!src.isDirectory()) {
+      logger.info(" {} is not a directory.", src);
+      spec.commandLine().getErr().println(spec.commandLine().getColorScheme()
+          .errorText(String.format("%s is not a directory.", src)));
+      return 403;
+    }
+
+    // the node runs without checkpoints on column families, one left here is older than
+    // what the node flushes later and must not be replayed over it
+    List<File> files = Arrays.stream(Objects.requireNonNull(src.listFiles()))
+        .filter(File::isDirectory)
+        .filter(f -> !DBUtils.isCheckpoint(f.getName()))
+        .collect(Collectors.toList());
+    if (files.isEmpty()) {
+      logger.info("{} does not contain any database.", src);
+      spec.commandLine().getOut().format("%s does not contain any database.", src).println();
+      return 0;
+    }
+    List<String> levelDbs = files.stream()
+        .filter(f -> FileUtils.isLevelDBEngine(f.toPath()))
+        .map(File::getName)
+        .collect(Collectors.toList());
+    if (!levelDbs.isEmpty()) {
+      logger.info("{} are leveldb, please convert them first.", levelDbs);
+      spec.commandLine().getErr().println(spec.commandLine().getColorScheme()
+          .errorText(String.format("%s are leveldb, please convert them first.", levelDbs)));
+      return 405;
+    }
+
+    final long time = System.currentTimeMillis();
+    Path chainbase = Paths.get(dest.getPath(), DBUtils.COLUMN_FAMILIES_DB);
+    FileUtils.createDirIfNotExists(chainbase.toString());
+    List<Mover> services = new ArrayList<>();
+    List<String> fails;
+    try (RocksDB rocks = DBUtils.newRocksDbForBulkLoad(chainbase)) {
+      files.forEach(f -> services.add(DBUtils.isColumnFamily(f.getName())
+          ? new ColumnFamilyMover(rocks, src.getPath(), f.getName())
+          : new DirMover(src.getPath(), dest.getPath(), f.getName())));
+      fails = ProgressBar.wrap(services.stream(), "column family task").parallel().map(
+          mover -> {
+            try {
+              return mover.doMove() ? null : mover.name();
+            } catch (Exception e) {
+              logger.error("{}", e);
+              spec.commandLine().getErr().println(spec.commandLine().getColorScheme()
+                  .errorText(e.getMessage()));
+              return mover.name();
+            }
+          }).filter(Objects::nonNull).collect(Collectors.toList());
+    } finally {
+      // the options hold the comparators, released once the db is closed
+      services.forEach(Mover::close);
+    }
+    String enginePath = chainbase + File.separator + DBUtils.FILE_ENGINE;
+    if (!FileUtils.createFileIfNotExists(enginePath)
+        || !FileUtils.writeProperty(enginePath, DBUtils.KEY_ENGINE, DBUtils.ROCKSDB)) {
+      fails.add(DBUtils.COLUMN_FAMILIES_DB);
+    }
+    // copy info.properties if lite need
+    Arrays.stream(Objects.requireNonNull(src.listFiles()))
+        .filter(File::isFile).forEach(f -> FileUtils.copy(Paths.get(src.toString(), f.getName()),
+            Paths.get(dest.toString(), f.getName())));
+    long during = (System.currentTimeMillis() - time) / 1000;
+    spec.commandLine().getOut().format("column families done, fails: %s, take %d s.",
+        fails, during).println();
+    logger.info("database column families use {} seconds total, fails: {}.", during, fails);
+    return fails.size();
+  }
+
+  interface Mover {
+
+    boolean doMove() throws Exception;
+
+    String name();
+
+    default void close() {
+    }
+  }
+
+  /**
+   * Copies a store keeping an instance of its own, as {@link DbCopy} does.
+   */
+  static class DirMover implements Mover {
+    private final String srcDir;
+    private final String dstDir;
+    private final String dbName;
+
+    public DirMover(String srcDir, String dstDir, String name) {
+      this.srcDir = srcDir;
+      this.dstDir = dstDir;
+      this.dbName = name;
+    }
+
+    @Override
+    public boolean doMove() {
+      FileUtils.createDirIfNotExists(dstDir);
+      logger.info("Copy database {} start", this.dbName);
+      FileUtils.copyDir(Paths.get(srcDir), Paths.get(dstDir), dbName);
+      logger.info("Copy database {} end", this.dbName);
+      return true;
+    }
+
+    @Override
+    public String name() {
+      return dbName;
+    }
+  }
+
+  /**
+   * Writes a store into its column family of the shared instance, then counts the keys of
+   * both to check.
+   */
+  static class ColumnFamilyMover implements Mover {
+    private final RocksDB rocks;
+    private final String dbName;
+    private final Path srcDbPath;
+    private final ColumnFamilyOptions options;
+
+    private long srcDbKeyCount = 0L;
+    private long dstDbKeyCount = 0L;
+
+    public ColumnFamilyMover(RocksDB rocks, String srcDir, String name) {
+      this.rocks = rocks;
+      this.dbName = name;
+      this.srcDbPath = Paths.get(srcDir, name);
+      this.options = DBUtils.newColumnFamilyOptions(name);
+    }
+
+    @Override
+    public boolean doMove() throws RocksDBException {
+      long startTime = System.currentTimeMillis();
+      logger.info("Move database {} start", this.dbName);
+      try (ColumnFamilyHandle handle = rocks.createColumnFamily(new ColumnFamilyDescriptor(
+          dbName.getBytes(StandardCharsets.UTF_8), options))) {
+        move(handle);
+        check(handle);
+      }
+      boolean result = dstDbKeyCount == srcDbKeyCount;
+      logger.info("Move database {} {} with {} key-value {} minutes", this.dbName,
+          result ? "successful end" : "failure", this.srcDbKeyCount,
+          (System.currentTimeMillis() - startTime) / 1000.0 / 60);
+      return result;
+    }
+
+    @Override
+    public String name() {
+      return dbName;
+    }
+
+    @Override
+    public void close() {
+      options.close();
+    }
+
+    private void move(ColumnFamilyHandle handle) throws RocksDBException {
+      try (
+          RocksDB source = DBUtils.newRocksDbReadOnly(srcDbPath);
+          ReadOptions r = new ReadOptions().setFillCache(false);
+          RocksIterator iterator = source.newIterator(r);
+          WriteOptions w = new WriteOptions()) {
+        WriteBatch batch = new WriteBatch();
+        try {
+          for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+            batch.put(handle, iterator.key(), iterator.value());
+            srcDbKeyCount++;
+            if (batch.count() >= BATCH) {
+              rocks.write(w, batch);
+              batch.close();
+              batch = new WriteBatch();
+            }
+          }
+          if (batch.count() > 0) {
+            rocks.write(w, batch);
+          }
+        } finally {
+          batch.close();
+        }
+      }
+    }
+
+    private void check(ColumnFamilyHandle handle) {
+      try (ReadOptions r = new ReadOptions().setFillCache(false);
+           RocksIterator iterator = rocks.newIterator(handle, r)) {
+        for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+          dstDbKeyCount++;
+        }
+      }
+      logger.info("Check database {} end, dstDbKeyCount {}, srcDbKeyCount {}",
+          dbName, dstDbKeyCount, srcDbKeyCount);
+    }
+  }
+}
@@ -12,6 +12,7 @@ import org.iq80.leveldb.CompressionType;
 import org.iq80.leveldb.DB;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.ComparatorOptions;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
@@ -56,6 +57,8 @@ public class DBUtils {
   public static final String MARKET_PAIR_PRICE_TO_ORDER = "market_pair_price_to_order";
   public static final String CHECKPOINT_DB_V2 = "checkpoint";
   public static final String TMP = "tmp";
+  public static final String TRANS_CACHE = "trans-cache";
+  public static final String COLUMN_FAMILIES_DB = "chainbase";
 
   public static final int NODE_TYPE_LIGHT_NODE = 1;
 
@@ -86,6 +89,43 @@ public class DBUtils {
     return dbOptions;
   }
 
+  /**
+   * @return whether the node keeps the store as a column family, when all the stores but
+   *     these share one rocksdb instance
+   */
+  public static boolean isColumnFamily(String dbName) {
+    return !TRANS_CACHE.equals(dbName) && !TMP.equals(dbName)
+        && !dbName.startsWith(CHECKPOINT_DB_V2);
+  }
+
+  /**
+   * @return whether the store is the checkpoint of v1, tmp, or the dir of those of v2
+   */
+  public static boolean isCheckpoint(String dbName) {
+    return TMP.equals(dbName) || CHECKPOINT_DB_V2.equals(dbName);
+  }
+
+  public static ColumnFamilyOptions newColumnFamilyOptions(String dbName) {
+    ColumnFamilyOptions options = new ColumnFamilyOptions();
+    options.setNumLevels(7);
+    options.setTargetFileSizeBase(64 * 1024 * 1024);
+    options.setTargetFileSizeMultiplier(1);
+    options.setMaxBytesForLevelBase(512 * 1024 * 1024);
+    options.setLevel0FileNumCompactionTrigger(4);
+    options.setLevelCompactionDynamicLevelBytes(true);
+    final BlockBasedTableConfig tableCfg;
+    options.setTableFormatConfig(tableCfg = new BlockBasedTableConfig());
+    tableCfg.setBlockSize(64 * 1024);
+    tableCfg.setBlockCacheSize(32 * 1024 * 1024);
+    tableCfg.setCacheIndexAndFilterBlocks(true);
+    tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
+    tableCfg.setFilter(new BloomFilter(10, false));
+    if (MARKET_PAIR_PRICE_TO_ORDER.equalsIgnoreCase(dbName)) {
+      options.setComparator(new MarketOrderPriceComparatorForRockDB(new ComparatorOptions()));
+    }
+    return options;
+  }
+
   private static Options newDefaultRocksDbOptions(boolean forBulkLoad) {
     Options options = new Options();
     options.setCreateIfMissing(true);
@@ -0,0 +1,134 @@
+package org.tron.plugins;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.ISession;
+import org.tron.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTronStore;
+import org.tron.core.db2.SnapshotRootTest.ProtoCapsuleTest;
+import org.tron.core.db2.core.SnapshotManager;
+import org.tron.core.store.CheckTmpStore;
+import org.tron.plugins.utils.DBUtils;
+import picocli.CommandLine;
+
+public class DbColumnFamiliesTest extends DbTest {
+
+  private static final byte[] KEY = "key".getBytes();
+
+  private SnapshotManager manager;
+  private TestRevokingTronStore store;
+
+  @Test
+  public void testRun() throws IOException, RocksDBException {
+    String rocks = temporaryFolder.newFolder().toString();
+    Assert.assertEquals(0, cli.execute(new String[] {"db", "convert", INPUT_DIRECTORY, rocks,
+        "--safe"}));
+    String dest = genarateTmpDir();
+    Assert.assertEquals(0, cli.execute(new String[] {"db", "cf", rocks, dest}));
+
+    List<String> columnFamilies;
+    try (Options options = new Options()) {
+      columnFamilies = RocksDB.listColumnFamilies(options,
+          Paths.get(dest, DBUtils.COLUMN_FAMILIES_DB).toString()).stream()
+          .map(name -> new String(name, StandardCharsets.UTF_8))
+          .collect(Collectors.toList());
+    }
+    Assert.assertTrue(columnFamilies.contains("account"));
+    Assert.assertTrue(columnFamilies.contains(DBUtils.MARKET_PAIR_PRICE_TO_ORDER));
+    Assert.assertFalse(columnFamilies.contains(DBUtils.CHECKPOINT_DB_V2));
+    Assert.assertFalse(Paths.get(dest, DBUtils.CHECKPOINT_DB_V2).toFile().exists());
+  }
+
+  @Test
+  public void testRestart() throws IOException {
+    String src = temporaryFolder.newFolder().toString();
+    open(src, false);
+    write("old");
+    close();
+
+    // the checkpoint of the old layout holds old1, it must not be replayed over new1
+    String dest = temporaryFolder.newFolder().toString();
+    Assert.assertEquals(0, cli.execute(new String[] {"db", "cf",
+        Paths.get(src, "database").toString(), Paths.get(dest, "database").toString()}));
+    Assert.assertFalse(Paths.get(dest, "database", DBUtils.TMP).toFile().exists());
+    open(dest, true);
+    Assert.assertEquals(new ProtoCapsuleTest("old1".getBytes()), store.get(KEY));
+    write("new");
+    close();
+
+    open(dest, true);
+    Assert.assertEquals(new ProtoCapsuleTest("new1".getBytes()), store.get(KEY));
+    close();
+  }
+
+  private void open(String outputDirectory, boolean columnFamilies) {
+    Args.setParam(new String[] {"-d", outputDirectory, "--storage-db-engine", "ROCKSDB"},
+        Constant.TEST_CONF);
+    Args.getInstance().getStorage().setDbColumnFamilies(columnFamilies);
+    manager = new SnapshotManager("");
+    manager.setCheckTmpStore(new CheckTmpStore(null));
+    manager.init();
+    manager.enable();
+    store = new TestRevokingTronStore("testColumnFamilies-test") {
+    };
+    manager.add(store.getRevokingDB());
+    manager.check();
+    manager.setMaxFlushCount(0);
+    manager.setMaxSize(5);
+  }
+
+  private void write(String value) {
+    // the 7th session flushes the first one
+    for (int i = 1; i < 8; i++) {
+      try (ISession session = manager.buildSession()) {
+        store.put(KEY, new ProtoCapsuleTest((value + i).getBytes()));
+        session.commit();
+      }
+    }
+    Assert.assertEquals(new ProtoCapsuleTest((value + 7).getBytes()), store.get(KEY));
+  }
+
+  private void close() {
+    store.close();
+    manager.getCheckTmpStore().close();
+    manager.shutdown();
+    Args.clearParam();
+  }
+
+  @Test
+  public void testLevelDb() {
+    String[] args = new String[] {"db", "cf", INPUT_DIRECTORY, genarateTmpDir()};
+    Assert.assertEquals(405, cli.execute(args));
+  }
+
+  @Test
+  public void testHelp() {
+    String[] args = new String[] {"db", "cf", "-h"};
+    CommandLine cli = new CommandLine(new Toolkit());
+    Assert.assertEquals(0, cli.execute(args));
+  }
+
+  @Test
+  public void testNotExist() {
+    String[] args = new String[] {"db", "cf", UUID.randomUUID().toString(),
+        UUID.randomUUID().toString()};
+    Assert.assertEquals(404, cli.execute(args));
+  }
+
+  @Test
+  public void testDestIsExist() throws IOException {
+    String[] args = new String[] {"db", "cf", INPUT_DIRECTORY,
+        temporaryFolder.newFolder().toString()};
+    Assert.assertEquals(402, cli.execute(args));
+  }
+}